@@ -0,0 +1,61 @@
+package com6441.team7.risc.benchmark;
+
+import com6441.team7.risc.controller.GameReplay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures complete automated games, from loading the map to the result,
+ * as a tournament plays them without console. The seed is fixed so that every run plays the same game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AutomatedGameBenchmark {
+
+    /**
+     * seed of every game
+     */
+    private static final long GAME_SEED = 2019L;
+
+    /**
+     * the map file
+     */
+    @Param({"luca.map", "risk.map"})
+    public String mapName;
+
+    /**
+     * strategies of the players, in playing order
+     */
+    @Param({"aggressive,benevolent", "aggressive,cheater", "random,random", "aggressive,benevolent,random,cheater"})
+    public String strategies;
+
+    /**
+     * maximum number of turns before a draw
+     */
+    @Param({"50"})
+    public int numTurns;
+
+    /**
+     * play a game to the end
+     * @return the result of the game
+     */
+    @Benchmark
+    public String playGame() {
+        return new GameReplay(mapName, Arrays.asList(strategies.split(",")), GAME_SEED, numTurns).runToEnd();
+    }
+}
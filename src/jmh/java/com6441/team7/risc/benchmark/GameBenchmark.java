@@ -0,0 +1,152 @@
+package com6441.team7.risc.benchmark;
+
+import com6441.team7.risc.api.model.Country;
+import com6441.team7.risc.api.model.MapService;
+import com6441.team7.risc.api.model.Player;
+import com6441.team7.risc.api.model.PlayerService;
+import com6441.team7.risc.api.wrapperview.PlayerAttackWrapper;
+import com6441.team7.risc.controller.GameReplay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the operations played on every turn of a game started on a map:
+ * the connectivity check of the map, an all-out attack and the evaluation of the world domination.
+ * The game is set up as a tournament sets up its games, with two aggressive players and a fixed seed.
+ * The game is set up once per trial; only the attack benchmark resets its countries before every invocation,
+ * through its own state, as the other operations are too short to be timed around a per-invocation setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    /**
+     * soldiers of the attacking country before every attack
+     */
+    private static final int NUM_ATTACKING_SOLDIERS = 100;
+
+    /**
+     * soldiers of the defending country before every attack, too many to be conquered
+     * so that every attack goes on until the attacker has one soldier left
+     */
+    private static final int NUM_DEFENDING_SOLDIERS = 10000;
+
+    /**
+     * the map file
+     */
+    @Param({"luca.map", "risk.map", "uk.map"})
+    public String mapName;
+
+    /**
+     * the game, after the armies are placed
+     */
+    private GameReplay gameReplay;
+
+    /**
+     * the attacking player
+     */
+    private Player attacker;
+
+    /**
+     * a country of the attacking player
+     */
+    private Country fromCountry;
+
+    /**
+     * a country of another player next to fromCountry
+     */
+    private Country toCountry;
+
+    /**
+     * load the map, place the armies, and find two neighbouring countries of different players
+     */
+    @Setup(Level.Trial)
+    public void setUpGame() {
+        gameReplay = new GameReplay(mapName, Arrays.asList("aggressive", "aggressive"), 2019L, 100);
+        gameReplay.start();
+
+        MapService mapService = gameReplay.getMapService();
+        PlayerService playerService = gameReplay.getPlayerService();
+        playerService.addObserver((observable, arg) -> { });
+
+        attacker = playerService.getCurrentPlayer();
+        for (Country country : attacker.getCountryPlayerList()) {
+            for (Integer neighborId : mapService.getAdjacencyCountries(country.getId())) {
+                Country neighbor = mapService.getCountryById(neighborId).orElse(null);
+                if (neighbor != null && neighbor.getPlayer() != attacker) {
+                    fromCountry = country;
+                    toCountry = neighbor;
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("no country to attack on " + mapName);
+    }
+
+    /**
+     * state of the attack benchmark, which gives both countries their soldiers back before every attack
+     */
+    @State(Scope.Benchmark)
+    public static class AttackState {
+
+        /**
+         * give both countries their soldiers back before every attack
+         * @param game the game set up for the trial
+         */
+        @Setup(Level.Invocation)
+        public void setUpAttack(GameBenchmark game) {
+            game.fromCountry.setSoldiers(NUM_ATTACKING_SOLDIERS);
+            game.toCountry.setSoldiers(NUM_DEFENDING_SOLDIERS);
+        }
+    }
+
+    /**
+     * check that every country can be reached from every other country
+     * @return true if the map is strongly connected
+     */
+    @Benchmark
+    public boolean isStronglyConnected() {
+        return gameReplay.getMapService().isStronglyConnected();
+    }
+
+    /**
+     * attack until the attacker has one soldier left
+     * @param attackState resets the countries before the attack
+     * @return soldiers left in the defending country
+     */
+    @Benchmark
+    public int attackAllOut(AttackState attackState) {
+        PlayerAttackWrapper playerAttackWrapper = new PlayerAttackWrapper(fromCountry, toCountry);
+        playerAttackWrapper.setBooleanAllOut();
+        attacker.attack(gameReplay.getPlayerService(), playerAttackWrapper);
+        return toCountry.getSoldiers();
+    }
+
+    /**
+     * change the soldiers of a country, then evaluate and send the world domination of the players
+     * @return soldiers of the changed country
+     */
+    @Benchmark
+    public int evaluateWorldDomination() {
+        fromCountry.addSoldiers(1);
+        gameReplay.getPlayerService().evaluateWorldDomination();
+        return fromCountry.getSoldiers();
+    }
+}
@@ -0,0 +1,89 @@
+package com6441.team7.risc.benchmark;
+
+import com6441.team7.risc.api.model.GameSnapshot;
+import com6441.team7.risc.controller.GameReplay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This benchmark measures the snapshots searches and simulations fork a game into:
+ * taking a snapshot of a game, copying it, and applying it back to the game.
+ * The game is set up as a tournament sets up its games, with two aggressive players and a fixed seed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSnapshotBenchmark {
+
+    /**
+     * the map file
+     */
+    @Param({"luca.map", "risk.map", "uk.map"})
+    public String mapName;
+
+    /**
+     * the game, after the armies are placed
+     */
+    private GameReplay gameReplay;
+
+    /**
+     * a snapshot of the game
+     */
+    private GameSnapshot snapshot;
+
+    /**
+     * load the map, place the armies and take a snapshot of the game
+     */
+    @Setup(Level.Trial)
+    public void setUpGame() {
+        gameReplay = new GameReplay(mapName, Arrays.asList("aggressive", "aggressive"), 2019L, 100);
+        gameReplay.start();
+        gameReplay.getPlayerService().addObserver((observable, arg) -> { });
+
+        snapshot = GameSnapshot.of(gameReplay.getMapService(), gameReplay.getPlayerService());
+    }
+
+    /**
+     * take a snapshot of the game
+     * @return the snapshot
+     */
+    @Benchmark
+    public GameSnapshot of() {
+        return GameSnapshot.of(gameReplay.getMapService(), gameReplay.getPlayerService());
+    }
+
+    /**
+     * copy the snapshot
+     * @return the copy
+     */
+    @Benchmark
+    public GameSnapshot copy() {
+        return snapshot.copy();
+    }
+
+    /**
+     * apply the snapshot to the game it was taken from, nothing changes in the game
+     * @return the snapshot
+     */
+    @Benchmark
+    public GameSnapshot applyTo() {
+        snapshot.applyTo(gameReplay.getMapService(), gameReplay.getPlayerService());
+        return snapshot;
+    }
+}
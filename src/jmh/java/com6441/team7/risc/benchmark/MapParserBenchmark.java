@@ -0,0 +1,89 @@
+package com6441.team7.risc.benchmark;
+
+import com6441.team7.risc.api.model.MapService;
+import com6441.team7.risc.utils.parser.ConquestParser;
+import com6441.team7.risc.utils.parser.DominateParser;
+import com6441.team7.risc.view.GameView;
+import com6441.team7.risc.view.HeadlessView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This benchmark measures the time to parse each bundled map file into a new MapService,
+ * with the parser of its format and without the template cache or the compiled index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapParserBenchmark {
+
+    /**
+     * a domination map file, each benchmark only uses the map files of its format
+     */
+    @State(Scope.Benchmark)
+    public static class DominationMap {
+
+        /**
+         * name of the map file
+         */
+        @Param({"ameroki.map", "eurasien.map", "geoscape.map", "jenny.map", "lotr.map", "luca.map",
+                "risk.map", "RiskEurope.map", "roman_empire.map", "sersom.map", "tube.map", "uk.map"})
+        public String fileName;
+    }
+
+    /**
+     * a conquest map file
+     */
+    @State(Scope.Benchmark)
+    public static class ConquestMap {
+
+        /**
+         * name of the map file
+         */
+        @Param({"001_I72_Ghtroc720.map", "Aden.map", "Africa.map", "Asia1800-R.map"})
+        public String fileName;
+    }
+
+    /**
+     * view of the parsers, displays nothing
+     */
+    private final GameView view = new HeadlessView();
+
+    /**
+     * parse a domination map file
+     * @param dominationMap the map file
+     * @return the parsed map
+     */
+    @Benchmark
+    public MapService parseDominationMap(DominationMap dominationMap) {
+        MapService mapService = new MapService();
+        new DominateParser(new AtomicInteger(), new AtomicInteger()).readDominateMapFile(dominationMap.fileName, view, mapService);
+        return mapService;
+    }
+
+    /**
+     * parse a conquest map file
+     * @param conquestMap the map file
+     * @return the parsed map
+     */
+    @Benchmark
+    public MapService parseConquestMap(ConquestMap conquestMap) {
+        MapService mapService = new MapService();
+        new ConquestParser(new AtomicInteger(), new AtomicInteger()).readConquestMapFile(conquestMap.fileName, view, mapService);
+        return mapService;
+    }
+}
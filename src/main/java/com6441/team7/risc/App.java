@@ -1,14 +1,29 @@
 package com6441.team7.risc;
 
+import com6441.team7.risc.api.model.GameRandom;
 import com6441.team7.risc.api.model.MapService;
 import com6441.team7.risc.api.model.PlayerService;
+import com6441.team7.risc.api.model.StallDetector;
 import com6441.team7.risc.controller.*;
+import com6441.team7.risc.utils.AutoSaver;
+import com6441.team7.risc.utils.SaveGameUtils;
+import com6441.team7.risc.utils.journal.GameJournal;
+import com6441.team7.risc.utils.metrics.GameMetrics;
+import com6441.team7.risc.view.AsyncObserver;
+import com6441.team7.risc.view.DispatchPolicy;
 import com6441.team7.risc.view.DominationView;
 import com6441.team7.risc.view.GameView;
 import com6441.team7.risc.view.PhaseView;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+
+import static java.util.Objects.isNull;
 
 /**
  * This class contains main methods which run Risc game
@@ -18,12 +33,85 @@ public class App {
 	
     /**
      * The main method of Risc game
-     * @param args default argument of main method
+     * @param args default argument of main method, "-seed number" replays the game with the given seed,
+     *             "-mapindex" writes a compiled index next to the map files loaded,
+     *             "-savefile name" saves the game to the given file, in binary for .rsav and .rsav.gz files,
+     *             "-autosave turns" saves the game to autosave.rsav.gz in the background every given number of turns,
+     *             "-journal folder" records the events of the game in a journal in the given folder,
+     *             "-replay map seed turns strategy,strategy" plays a tournament game again without console and prints its result,
+     *             "-dispatch block|drop|coalesce size" displays the model events on view threads with queues of the given size,
+     *             "-metrics seconds" measures the engine, exports the metrics over JMX and prints them every given number of seconds,
+     *             "-stall repetitions turns" ends automated games as a draw when a position comes back the given number of times
+     *             or the countries do not change hands in a new way for the given number of turns, also when replaying
      */
     public static void main( String[] args ) {
     	
+        StallDetector stallDetector = null;
+        for (int i = 0; i + 2 < args.length; i++) {
+            if (args[i].equalsIgnoreCase("-stall")) {
+                stallDetector = createStallDetector(args[i + 1], args[i + 2]);
+            }
+        }
+
+        for (int i = 0; i + 4 < args.length; i++) {
+            if (args[i].equalsIgnoreCase("-replay")) {
+                GameReplay gameReplay;
+                try {
+                    gameReplay = new GameReplay(args[i + 1],
+                            Arrays.asList(args[i + 4].toLowerCase(Locale.CANADA).split(",")),
+                            Long.parseLong(args[i + 2]), Integer.parseInt(args[i + 3]));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Invalid replay: " + e.getMessage());
+                    return;
+                }
+                gameReplay.setStallDetector(stallDetector);
+                System.out.println(gameReplay.runToEnd());
+                return;
+            }
+        }
+
         MapService mapService = new MapService();
         PlayerService playerService = new PlayerService(mapService);
+        playerService.setStallDetector(stallDetector);
+        DispatchPolicy dispatchPolicy = null;
+        int dispatchQueueSize = 0;
+
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equalsIgnoreCase("-mapindex")) {
+                MapLoaderController.setBoolWriteMapIndex(true);
+            }
+            if (args[i].equalsIgnoreCase("-savefile") && i + 1 < args.length) {
+                SaveGameUtils.setSaveGameFileName(args[i + 1]);
+            }
+            if (args[i].equalsIgnoreCase("-autosave") && i + 1 < args.length) {
+                AutoSaver autoSaver = createAutoSaver(args[i + 1]);
+                if (!isNull(autoSaver)) {
+                    playerService.setAutoSaver(autoSaver);
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> autoSaver.close(5000)));
+                }
+            }
+            if (args[i].equalsIgnoreCase("-journal") && i + 1 < args.length) {
+                GameJournal gameJournal = openJournal(args[i + 1]);
+                mapService.setGameJournal(gameJournal);
+            }
+            if (args[i].equalsIgnoreCase("-seed") && i + 1 < args.length) {
+                try {
+                    playerService.setGameRandom(new GameRandom(Long.parseLong(args[i + 1])));
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid Seed. Using a random seed.");
+                }
+            }
+            if (args[i].equalsIgnoreCase("-metrics") && i + 1 < args.length) {
+                startMetrics(args[i + 1]);
+            }
+            if (args[i].equalsIgnoreCase("-dispatch") && i + 2 < args.length) {
+                dispatchPolicy = parseDispatchPolicy(args[i + 1]);
+                dispatchQueueSize = parseDispatchQueueSize(args[i + 2]);
+                if (dispatchQueueSize <= 0) {
+                    dispatchPolicy = null;
+                }
+            }
+        }
 
         PhaseView phaseView = new PhaseView();
         GameView dominationView = new DominationView();
@@ -54,14 +142,152 @@ public class App {
         attackController.setView(phaseView);
         loadGameController.setView(phaseView);
 
-        mapService.addObserver(phaseView);
-        mapService.addObserver(dominationView);
-        playerService.addObserver(phaseView);
-        playerService.addObserver(dominationView);
+        if (isNull(dispatchPolicy)) {
+            mapService.addObserver(phaseView);
+            mapService.addObserver(dominationView);
+            playerService.addObserver(phaseView);
+            playerService.addObserver(dominationView);
+        } else {
+            observeAsync(mapService, playerService, phaseView, dispatchQueueSize, dispatchPolicy);
+            observeAsync(mapService, playerService, dominationView, dispatchQueueSize, dispatchPolicy);
+        }
         
         phaseView.receiveCommand();
         
         return;
         
     }
+
+    /**
+     * read the policy of the view threads
+     * @param strPolicy name of the policy
+     * @return the policy, null if the name is not valid and the views display the events on the game thread
+     */
+    private static DispatchPolicy parseDispatchPolicy(String strPolicy) {
+        try {
+            return DispatchPolicy.valueOf(strPolicy.toUpperCase(Locale.CANADA));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid Dispatch policy, use one of "
+                    + Arrays.toString(DispatchPolicy.values()).toLowerCase(Locale.CANADA)
+                    + ". Events are displayed on the game thread.");
+            return null;
+        }
+    }
+
+    /**
+     * read the queue size of the view threads
+     * @param strQueueSize maximum number of events waiting for a view
+     * @return the queue size, 0 if it is not valid and the views display the events on the game thread
+     */
+    private static int parseDispatchQueueSize(String strQueueSize) {
+        try {
+            int queueSize = Integer.parseInt(strQueueSize);
+            if (queueSize <= 0) {
+                System.out.println("Dispatch queue size should be >0. Events are displayed on the game thread.");
+                return 0;
+            }
+            return queueSize;
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid Dispatch queue size. Events are displayed on the game thread.");
+            return 0;
+        }
+    }
+
+    /**
+     * let a view observe the models on its own thread, and let it display the queued events when the game exits
+     * @param mapService the map model
+     * @param playerService the player model
+     * @param view the view
+     * @param queueSize maximum number of events waiting for the view
+     * @param dispatchPolicy what to do when the view falls behind
+     */
+    private static void observeAsync(MapService mapService, PlayerService playerService, GameView view,
+                                     int queueSize, DispatchPolicy dispatchPolicy) {
+        AsyncObserver asyncObserver = new AsyncObserver(view, queueSize, dispatchPolicy);
+        mapService.addObserver(asyncObserver);
+        playerService.addObserver(asyncObserver);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> asyncObserver.close(1000)));
+    }
+
+    /**
+     * create the detector ending stalled games, validating the limits as the tournament validates its stall limits
+     * @param strRepetitions number of times a position comes back before the game has stalled
+     * @param strTurnsWithoutProgress number of turns without a new sharing out of the countries before the game has stalled
+     * @return the detector, null if the limits are not valid and games are played to the turn limit
+     */
+    private static StallDetector createStallDetector(String strRepetitions, String strTurnsWithoutProgress) {
+        try {
+            int numRepetitions = Integer.parseInt(strRepetitions);
+            int numTurnsWithoutProgress = Integer.parseInt(strTurnsWithoutProgress);
+            if (numRepetitions < 0 || numTurnsWithoutProgress < 0) {
+                System.out.println("Stall limits should be >=0. Playing games to the turn limit.");
+                return null;
+            }
+            return new StallDetector(numRepetitions, numTurnsWithoutProgress);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid Stall limits. Playing games to the turn limit.");
+            return null;
+        }
+    }
+
+    /**
+     * measure the engine, export the metrics over JMX and print them periodically,
+     * validating the period as the other numbers of the command line
+     * @param strPeriodSeconds number of seconds between two prints of the metrics
+     */
+    private static void startMetrics(String strPeriodSeconds) {
+        try {
+            long periodSeconds = Long.parseLong(strPeriodSeconds);
+            if (periodSeconds <= 0) {
+                System.out.println("Metrics period should be >0. The engine is not measured.");
+                return;
+            }
+            GameMetrics.setBoolEnabled(true);
+            GameMetrics.registerMBeans();
+            GameMetrics.startDump(System.out, periodSeconds);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid Metrics period. The engine is not measured.");
+        }
+    }
+
+    /**
+     * create the auto saver of the game, validating the number of turns as the tournament validates its numbers
+     * @param strNumTurns number of turns between two saves
+     * @return the auto saver writing to autosave.rsav.gz, null if the number of turns is not valid
+     */
+    private static AutoSaver createAutoSaver(String strNumTurns) {
+        try {
+            int numTurns = Integer.parseInt(strNumTurns);
+            if (numTurns <= 0) {
+                System.out.println("Autosave Turns should be >0. The game is not saved automatically.");
+                return null;
+            }
+            return new AutoSaver(Paths.get("autosave.rsav.gz"), numTurns);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid Autosave Turns. The game is not saved automatically.");
+            return null;
+        }
+    }
+
+    /**
+     * open a game journal in a folder, with segments of 8 MB written to disk every second,
+     * and close it when the game exits
+     * @param directory the journal folder
+     * @return the journal
+     */
+    private static GameJournal openJournal(String directory) {
+        try {
+            GameJournal gameJournal = new GameJournal(Paths.get(directory), 8 << 20, 1000);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    gameJournal.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }));
+            return gameJournal;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
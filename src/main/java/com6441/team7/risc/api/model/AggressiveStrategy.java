@@ -44,7 +44,7 @@ public class AggressiveStrategy implements StrategyPlayer {
 	public AggressiveStrategy(PlayerService playerService) {
 		this.playerService = playerService;
 		this.player = playerService.getCurrentPlayer();
-		this.playerService.notifyPlayerServiceObservers("Aggressive Strategy");
+		this.playerService.notifyPlayerServiceObservers(() -> "Aggressive Strategy");
 	}
 
 	/**
@@ -65,7 +65,7 @@ public class AggressiveStrategy implements StrategyPlayer {
 		// get country with maximum number of armies
 		Country maxCountry = findMaxCountry();
 		
-		playerService.notifyPlayerServiceObservers(maxCountry.getCountryName()+" has "+maxCountry.getSoldiers()+ " soldier(s)"
+		playerService.notifyPlayerServiceObservers(() -> maxCountry.getCountryName()+" has "+maxCountry.getSoldiers()+ " soldier(s)"
 				+ " and will receive "+numReinforcementArmies+" reinforcement(s)");
 
 		//player.reinforceArmy(randomCountry.getCountryName(), numArmies, playerService.getMapService());
@@ -108,13 +108,15 @@ public class AggressiveStrategy implements StrategyPlayer {
 		});
 		
 		//Print to check if it's sorted.
-		playerService.notifyPlayerServiceObservers("Sorted Country List Descending numSoldiers:");
-		for(Country c : attackerCountries) {
-			playerService.notifyPlayerServiceObservers(c.getCountryName()+" "+c.getSoldiers()+" soldiers.");
+		if(playerService.isMessageObserved()) {
+			playerService.notifyPlayerServiceObservers("Sorted Country List Descending numSoldiers:");
+			for(Country c : attackerCountries) {
+				playerService.notifyPlayerServiceObservers(c.getCountryName()+" "+c.getSoldiers()+" soldiers.");
+			}
 		}
 		
 		if(attackerCountries.size()<=0) {
-			playerService.notifyPlayerServiceObservers("No attack possible");
+			playerService.notifyPlayerServiceObservers(() -> "No attack possible");
 			player.endAttackPhase(playerService);
 			return;
 		}
@@ -152,11 +154,11 @@ public class AggressiveStrategy implements StrategyPlayer {
 			if(boolTargetFound) {
 				break;
 			}
-			playerService.notifyPlayerServiceObservers(c.getCountryName()+" does not have any targets.");
+			playerService.notifyPlayerServiceObservers(() -> c.getCountryName()+" does not have any targets.");
 		}
 		
 		if((!boolTargetFound) || attackerCountry==null) {
-			playerService.notifyPlayerServiceObservers("No attack possible as no targets found.");
+			playerService.notifyPlayerServiceObservers(() -> "No attack possible as no targets found.");
 			player.endAttackPhase(playerService);
 			return;
 		}
@@ -177,13 +179,16 @@ public class AggressiveStrategy implements StrategyPlayer {
 				// Attack wrapper
 				PlayerAttackWrapper playerAttackWrapper = new PlayerAttackWrapper(attackerCountry, defenderCountry);
 				
-				// Set allout to true
-				playerAttackWrapper.setBooleanAllOut();					
+				// Set allout to true, resolved in one step as nobody watches the dice
+				playerAttackWrapper.setBooleanAllOut();
+				playerAttackWrapper.setBooleanSampledAllOut();
 				
-				playerService.notifyPlayerServiceObservers("Attacker Country: "+attackerCountry.getCountryName()+
-						" "+attackerCountry.getSoldiers()+" soldiers.");
-				playerService.notifyPlayerServiceObservers("Defender Country: "+defenderCountry.getCountryName()+
-						" "+defenderCountry.getSoldiers()+" soldiers.");
+				if(playerService.isMessageObserved()) {
+					playerService.notifyPlayerServiceObservers("Attacker Country: "+attackerCountry.getCountryName()+
+							" "+attackerCountry.getSoldiers()+" soldiers.");
+					playerService.notifyPlayerServiceObservers("Defender Country: "+defenderCountry.getCountryName()+
+							" "+defenderCountry.getSoldiers()+" soldiers.");
+				}
 				
 				// Call the attack function
 				player.attack(playerService, playerAttackWrapper);
@@ -249,9 +254,11 @@ public class AggressiveStrategy implements StrategyPlayer {
 
 					neighborMaxCountry = playerService.getMapService().getCountryById(i).get();
 					
-					playerService.notifyPlayerServiceObservers(
-							"From neighbor country: " + neighborMaxCountry.getCountryName());
-					playerService.notifyPlayerServiceObservers("To Country: " + maxCountry.getCountryName());
+					if(playerService.isMessageObserved()) {
+						playerService.notifyPlayerServiceObservers(
+								"From neighbor country: " + neighborMaxCountry.getCountryName());
+						playerService.notifyPlayerServiceObservers("To Country: " + maxCountry.getCountryName());
+					}
 					
 					neighborCountryFound = true;
 					break;
@@ -259,7 +266,7 @@ public class AggressiveStrategy implements StrategyPlayer {
 			}
 
 			if (!neighborCountryFound) {
-				playerService.notifyPlayerServiceObservers("No adjacent countries found for fortification");
+				playerService.notifyPlayerServiceObservers(() -> "No adjacent countries found for fortification");
 				playerFortificationWrapper = new PlayerFortificationWrapper();
 				player.fortify(playerService, playerFortificationWrapper);
 				return;
@@ -278,7 +285,7 @@ public class AggressiveStrategy implements StrategyPlayer {
 			
 			//Fortification conditions not met...therefore we don't fortify
 			else {
-				playerService.notifyPlayerServiceObservers("From Country does not have enough soldiers to move.");
+				playerService.notifyPlayerServiceObservers(() -> "From Country does not have enough soldiers to move.");
 				playerFortificationWrapper = new PlayerFortificationWrapper();
 				player.fortify(playerService, playerFortificationWrapper);
 			}			
@@ -0,0 +1,362 @@
+package com6441.team7.risc.api.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com6441.team7.risc.api.RiscConstants.MAX_ATTACKER_DICE_NUM;
+import static com6441.team7.risc.api.RiscConstants.MAX_DEFENDER_DICE_NUM;
+import static com6441.team7.risc.api.RiscConstants.MIN_ATTACKING_SOLDIERS;
+
+/**
+ * This class gives the distribution of the final result of an allout attack,
+ * computed from the Markov chain of the dice rounds played by {@link Player#decideBattleResult(int[], int[])}.
+ * Each round the attacker rolls up to 3 dice, keeping one soldier home, and the defender rolls up to 2 dice.
+ * The battle ends when the defender has no soldier left or the attacker has a single soldier left.
+ * Tables are cached per pair of attacking and defending soldiers.
+ * Battles too large for a table are sampled round by round from the same round probabilities.
+ */
+public final class BattleOutcomeTable {
+
+    /**
+     * maximum number of battle states (attacking soldiers times defending soldiers) for which a table is computed
+     */
+    private static final long MAX_TABLE_STATES = 250_000L;
+
+    /**
+     * maximum number of cached tables, the cache is cleared when it is full
+     */
+    private static final int MAX_CACHED_TABLES = 1024;
+
+    /**
+     * index of the probability that the attacker loses every compared dice in a round
+     */
+    private static final int ATTACKER_LOSES = 0;
+
+    /**
+     * index of the probability that both sides lose one soldier in a round
+     */
+    private static final int BOTH_LOSE = 1;
+
+    /**
+     * index of the probability that the defender loses every compared dice in a round
+     */
+    private static final int DEFENDER_LOSES = 2;
+
+    /**
+     * probabilities of the results of one round, by number of attacker dice and number of defender dice
+     */
+    private static final double[][][] ROUND_PROBABILITIES = computeRoundProbabilities();
+
+    /**
+     * cached tables, by pair of attacking and defending soldiers
+     */
+    private static final Map<Long, BattleOutcomeTable> TABLES = new ConcurrentHashMap<>();
+
+    /**
+     * soldiers left to the attacker for each final result
+     */
+    private final int[] attackerRemaining;
+
+    /**
+     * soldiers left to the defender for each final result
+     */
+    private final int[] defenderRemaining;
+
+    /**
+     * cumulative probability of the final results
+     */
+    private final double[] cumulativeProbabilities;
+
+    /**
+     * constructor
+     * @param attackerRemaining soldiers left to the attacker for each final result
+     * @param defenderRemaining soldiers left to the defender for each final result
+     * @param cumulativeProbabilities cumulative probability of the final results
+     */
+    private BattleOutcomeTable(int[] attackerRemaining, int[] defenderRemaining, double[] cumulativeProbabilities) {
+        this.attackerRemaining = attackerRemaining;
+        this.defenderRemaining = defenderRemaining;
+        this.cumulativeProbabilities = cumulativeProbabilities;
+    }
+
+    /**
+     * sample the final result of an allout attack
+     * @param attackingSoldiers soldiers in the attacking country, at least 2
+     * @param defendingSoldiers soldiers in the defending country, at least 1
+     * @param random source of randomness
+     * @return soldiers left to the attacker and to the defender
+     */
+    public static int[] sampleOutcome(int attackingSoldiers, int defendingSoldiers, GameRandom random) {
+        if (attackingSoldiers < MIN_ATTACKING_SOLDIERS || defendingSoldiers < 1) {
+            return new int[]{attackingSoldiers, defendingSoldiers};
+        }
+
+        if ((long) attackingSoldiers * defendingSoldiers > MAX_TABLE_STATES) {
+            return sampleRoundByRound(attackingSoldiers, defendingSoldiers, random);
+        }
+
+        return of(attackingSoldiers, defendingSoldiers).sample(random);
+    }
+
+    /**
+     * get the table of an allout attack, computing it if it is not cached
+     * @param attackingSoldiers soldiers in the attacking country, at least 2
+     * @param defendingSoldiers soldiers in the defending country, at least 1
+     * @return the table of final results
+     */
+    public static BattleOutcomeTable of(int attackingSoldiers, int defendingSoldiers) {
+        long key = ((long) attackingSoldiers << 32) | defendingSoldiers;
+
+        BattleOutcomeTable table = TABLES.get(key);
+        if (table != null) {
+            return table;
+        }
+
+        table = compute(attackingSoldiers, defendingSoldiers);
+
+        if (TABLES.size() >= MAX_CACHED_TABLES) {
+            TABLES.clear();
+        }
+        TABLES.put(key, table);
+
+        return table;
+    }
+
+    /**
+     * get the probability of a final result
+     * @param attackerLeft soldiers left to the attacker
+     * @param defenderLeft soldiers left to the defender
+     * @return probability of ending the attack with these soldiers
+     */
+    public double getProbability(int attackerLeft, int defenderLeft) {
+        for (int i = 0; i < attackerRemaining.length; i++) {
+            if (attackerRemaining[i] == attackerLeft && defenderRemaining[i] == defenderLeft) {
+                return cumulativeProbabilities[i] - (i == 0 ? 0 : cumulativeProbabilities[i - 1]);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * sample a final result from this table
+     * @param random source of randomness
+     * @return soldiers left to the attacker and to the defender
+     */
+    private int[] sample(GameRandom random) {
+        double value = random.nextDouble() * cumulativeProbabilities[cumulativeProbabilities.length - 1];
+
+        int index = Arrays.binarySearch(cumulativeProbabilities, value);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        index = Math.min(index, cumulativeProbabilities.length - 1);
+
+        return new int[]{attackerRemaining[index], defenderRemaining[index]};
+    }
+
+    /**
+     * compute the final results of an allout attack by pushing the probability of every battle state forward.
+     * States are visited from the most attacking soldiers to the least, so every state is complete before it is pushed.
+     * Only three rows of attacking soldiers are kept in memory.
+     * @param attackingSoldiers soldiers in the attacking country
+     * @param defendingSoldiers soldiers in the defending country
+     * @return the table of final results
+     */
+    private static BattleOutcomeTable compute(int attackingSoldiers, int defendingSoldiers) {
+
+        double[] attackerWins = new double[attackingSoldiers + 1];
+        double[] defenderHolds = new double[defendingSoldiers + 1];
+
+        double[] current = new double[defendingSoldiers + 1];
+        double[] oneLess = new double[defendingSoldiers + 1];
+        double[] twoLess = new double[defendingSoldiers + 1];
+
+        current[defendingSoldiers] = 1.0;
+
+        for (int attackers = attackingSoldiers; attackers >= MIN_ATTACKING_SOLDIERS; attackers--) {
+
+            int numDiceAttacker = Math.min(MAX_ATTACKER_DICE_NUM, attackers - 1);
+
+            for (int defenders = defendingSoldiers; defenders >= 1; defenders--) {
+
+                double probability = current[defenders];
+                if (probability == 0) {
+                    continue;
+                }
+
+                int numDiceDefender = Math.min(MAX_DEFENDER_DICE_NUM, defenders);
+                double[] round = ROUND_PROBABILITIES[numDiceAttacker][numDiceDefender];
+
+                if (Math.min(numDiceAttacker, numDiceDefender) == 2) {
+                    push(attackers - 2, defenders, probability * round[ATTACKER_LOSES], twoLess, attackerWins, defenderHolds);
+                    push(attackers - 1, defenders - 1, probability * round[BOTH_LOSE], oneLess, attackerWins, defenderHolds);
+                    push(attackers, defenders - 2, probability * round[DEFENDER_LOSES], current, attackerWins, defenderHolds);
+                } else {
+                    push(attackers - 1, defenders, probability * round[ATTACKER_LOSES], oneLess, attackerWins, defenderHolds);
+                    push(attackers, defenders - 1, probability * round[DEFENDER_LOSES], current, attackerWins, defenderHolds);
+                }
+            }
+
+            double[] done = current;
+            current = oneLess;
+            oneLess = twoLess;
+            twoLess = done;
+            Arrays.fill(twoLess, 0);
+        }
+
+        return fromFinalResults(attackerWins, defenderHolds);
+    }
+
+    /**
+     * add probability to a battle state, or to a final result if the battle ends in that state
+     * @param attackers soldiers of the attacker in the state
+     * @param defenders soldiers of the defender in the state
+     * @param probability probability to add
+     * @param row row of the state, holding the probabilities by number of defenders
+     * @param attackerWins probability of each number of attackers left when the defender is pushed out
+     * @param defenderHolds probability of each number of defenders left when the attacker has one soldier left
+     */
+    private static void push(int attackers, int defenders, double probability, double[] row,
+                             double[] attackerWins, double[] defenderHolds) {
+        if (defenders == 0) {
+            attackerWins[attackers] += probability;
+        } else if (attackers < MIN_ATTACKING_SOLDIERS) {
+            defenderHolds[defenders] += probability;
+        } else {
+            row[defenders] += probability;
+        }
+    }
+
+    /**
+     * build a table from the probabilities of the final results, keeping only possible results
+     * @param attackerWins probability of each number of attackers left when the defender is pushed out
+     * @param defenderHolds probability of each number of defenders left when the attacker has one soldier left
+     * @return the table of final results
+     */
+    private static BattleOutcomeTable fromFinalResults(double[] attackerWins, double[] defenderHolds) {
+        int size = 0;
+        for (double probability : attackerWins) {
+            if (probability > 0) size++;
+        }
+        for (double probability : defenderHolds) {
+            if (probability > 0) size++;
+        }
+
+        int[] attackerRemaining = new int[size];
+        int[] defenderRemaining = new int[size];
+        double[] cumulativeProbabilities = new double[size];
+
+        int index = 0;
+        double total = 0;
+
+        for (int attackers = 0; attackers < attackerWins.length; attackers++) {
+            if (attackerWins[attackers] > 0) {
+                total += attackerWins[attackers];
+                attackerRemaining[index] = attackers;
+                defenderRemaining[index] = 0;
+                cumulativeProbabilities[index++] = total;
+            }
+        }
+
+        for (int defenders = 0; defenders < defenderHolds.length; defenders++) {
+            if (defenderHolds[defenders] > 0) {
+                total += defenderHolds[defenders];
+                attackerRemaining[index] = MIN_ATTACKING_SOLDIERS - 1;
+                defenderRemaining[index] = defenders;
+                cumulativeProbabilities[index++] = total;
+            }
+        }
+
+        return new BattleOutcomeTable(attackerRemaining, defenderRemaining, cumulativeProbabilities);
+    }
+
+    /**
+     * sample the final result of a battle too large for a table, one round at a time
+     * @param attackingSoldiers soldiers in the attacking country
+     * @param defendingSoldiers soldiers in the defending country
+     * @param random source of randomness
+     * @return soldiers left to the attacker and to the defender
+     */
+    private static int[] sampleRoundByRound(int attackingSoldiers, int defendingSoldiers, GameRandom random) {
+        int attackers = attackingSoldiers;
+        int defenders = defendingSoldiers;
+
+        while (attackers >= MIN_ATTACKING_SOLDIERS && defenders > 0) {
+            int numDiceAttacker = Math.min(MAX_ATTACKER_DICE_NUM, attackers - 1);
+            int numDiceDefender = Math.min(MAX_DEFENDER_DICE_NUM, defenders);
+            double[] round = ROUND_PROBABILITIES[numDiceAttacker][numDiceDefender];
+            double value = random.nextDouble();
+
+            if (Math.min(numDiceAttacker, numDiceDefender) == 2) {
+                if (value < round[ATTACKER_LOSES]) {
+                    attackers -= 2;
+                } else if (value < round[ATTACKER_LOSES] + round[BOTH_LOSE]) {
+                    attackers--;
+                    defenders--;
+                } else {
+                    defenders -= 2;
+                }
+            } else if (value < round[ATTACKER_LOSES]) {
+                attackers--;
+            } else {
+                defenders--;
+            }
+        }
+
+        return new int[]{attackers, defenders};
+    }
+
+    /**
+     * compute the probabilities of the results of one round by going through every roll of the dice.
+     * The highest dice are compared, then the second highest if both sides roll at least two dice,
+     * and the defender wins ties.
+     * @return probabilities by number of attacker dice and number of defender dice
+     */
+    private static double[][][] computeRoundProbabilities() {
+        double[][][] probabilities = new double[MAX_ATTACKER_DICE_NUM + 1][MAX_DEFENDER_DICE_NUM + 1][3];
+
+        for (int numDiceAttacker = 1; numDiceAttacker <= MAX_ATTACKER_DICE_NUM; numDiceAttacker++) {
+            for (int numDiceDefender = 1; numDiceDefender <= MAX_DEFENDER_DICE_NUM; numDiceDefender++) {
+
+                int numDice = numDiceAttacker + numDiceDefender;
+                int numRolls = (int) Math.pow(6, numDice);
+                int[] counts = new int[3];
+
+                for (int roll = 0; roll < numRolls; roll++) {
+                    int[] attackerDice = new int[numDiceAttacker];
+                    int[] defenderDice = new int[numDiceDefender];
+
+                    int value = roll;
+                    for (int i = 0; i < numDiceAttacker; i++, value /= 6) attackerDice[i] = value % 6 + 1;
+                    for (int i = 0; i < numDiceDefender; i++, value /= 6) defenderDice[i] = value % 6 + 1;
+
+                    Arrays.sort(attackerDice);
+                    Arrays.sort(defenderDice);
+
+                    int attackerLosses = 0;
+                    int numCompared = Math.min(numDiceAttacker, numDiceDefender);
+                    for (int i = 1; i <= numCompared; i++) {
+                        if (attackerDice[numDiceAttacker - i] <= defenderDice[numDiceDefender - i]) {
+                            attackerLosses++;
+                        }
+                    }
+
+                    if (attackerLosses == numCompared) {
+                        counts[ATTACKER_LOSES]++;
+                    } else if (attackerLosses == 0) {
+                        counts[DEFENDER_LOSES]++;
+                    } else {
+                        counts[BOTH_LOSE]++;
+                    }
+                }
+
+                for (int result = 0; result < 3; result++) {
+                    probabilities[numDiceAttacker][numDiceDefender][result] = (double) counts[result] / numRolls;
+                }
+            }
+        }
+
+        return probabilities;
+    }
+}
@@ -41,7 +41,7 @@ public class BenevolentStrategy implements StrategyPlayer {
 	public BenevolentStrategy(PlayerService playerService) {
 		this.playerService = playerService;
 		this.player = playerService.getCurrentPlayer();
-		this.playerService.notifyPlayerServiceObservers("Benevolent Strategy");
+		this.playerService.notifyPlayerServiceObservers(() -> "Benevolent Strategy");
 	}
 
 	/**
@@ -74,7 +74,7 @@ public class BenevolentStrategy implements StrategyPlayer {
 		
 		Country weakestCountry = weakCountries.get(0);
 		
-		playerService.notifyPlayerServiceObservers(weakestCountry.getCountryName()+" has "+weakestCountry.getSoldiers()+ " soldier(s)"
+		playerService.notifyPlayerServiceObservers(() -> weakestCountry.getCountryName()+" has "+weakestCountry.getSoldiers()+ " soldier(s)"
 				+ " and will receive "+numReinforcementArmies+" reinforcement(s)");
 
 		//Reinforce country with smallest num soldiers
@@ -90,7 +90,7 @@ public class BenevolentStrategy implements StrategyPlayer {
 	 */
 	@Override
 	public void attack() {
-		playerService.notifyPlayerServiceObservers("Benevolent ends attack phase");
+		playerService.notifyPlayerServiceObservers(() -> "Benevolent ends attack phase");
 
 		player.endAttackPhase(playerService);
 	}
@@ -126,9 +126,11 @@ public class BenevolentStrategy implements StrategyPlayer {
 
 		// Get smallest number of armies owned by the player
 		// Print to check if it's sorted.
-		playerService.notifyPlayerServiceObservers("Countries with numSoldiers sorted in ascending order:");
-		for (Country c : weakCountries) {
-			playerService.notifyPlayerServiceObservers(c.getCountryName() + " " + c.getSoldiers()+" soldiers");
+		if (playerService.isMessageObserved()) {
+			playerService.notifyPlayerServiceObservers("Countries with numSoldiers sorted in ascending order:");
+			for (Country c : weakCountries) {
+				playerService.notifyPlayerServiceObservers(c.getCountryName() + " " + c.getSoldiers()+" soldiers");
+			}
 		}
 
 		// Iterate through the attacker countries and check for adjacency towards enemy
@@ -147,20 +149,21 @@ public class BenevolentStrategy implements StrategyPlayer {
 
 						weakestCountry = c;
 
-						playerService
-								.notifyPlayerServiceObservers("weakest country is " + weakestCountry.getCountryName()
-										+ " with num of armies is " + weakestCountry.getSoldiers());
-
 						benefactorCountry = playerService.getMapService().getCountryById(i).get();
 
-						playerService.notifyPlayerServiceObservers(
-								"benefactor country is " + benefactorCountry.getCountryName());
+						if (playerService.isMessageObserved()) {
+							playerService
+									.notifyPlayerServiceObservers("weakest country is " + weakestCountry.getCountryName()
+											+ " with num of armies is " + weakestCountry.getSoldiers());
+							playerService.notifyPlayerServiceObservers(
+									"benefactor country is " + benefactorCountry.getCountryName());
+						}
 						break;
 					}
 				}
 				if (benefactorCountry == null) {
 
-					playerService.notifyPlayerServiceObservers("No benefactor country found for "+c.getCountryName());
+					playerService.notifyPlayerServiceObservers(() -> "No benefactor country found for "+c.getCountryName());
 
 					break;
 				}
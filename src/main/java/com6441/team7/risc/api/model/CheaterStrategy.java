@@ -38,7 +38,7 @@ public class CheaterStrategy implements StrategyPlayer{
 	public CheaterStrategy(PlayerService playerService) {
 		this.playerService = playerService;
 		this.player = playerService.getCurrentPlayer();
-		this.playerService.notifyPlayerServiceObservers("Cheater Strategy");
+		this.playerService.notifyPlayerServiceObservers(() -> "Cheater Strategy");
 	}
 	
 	/**
@@ -51,7 +51,7 @@ public class CheaterStrategy implements StrategyPlayer{
 			c.setSoldiers(2*c.getSoldiers());			
 		}
 		
-		playerService.notifyPlayerServiceObservers("Cheater's Countries Reinforced by doubling.");
+		playerService.notifyPlayerServiceObservers(() -> "Cheater's Countries Reinforced by doubling.");
 		playerService.evaluateWorldDomination();
 		
 	}
@@ -107,7 +107,7 @@ public class CheaterStrategy implements StrategyPlayer{
 		//Check if cheater is winner
 		if(player.getCountryPlayerList().size()==playerService.getMapService().getCountries().size()) {
 			
-			 playerService.notifyPlayerServiceObservers(player.getName()+" WINS.");
+			 playerService.notifyPlayerServiceObservers(() -> player.getName()+" WINS.");
 			
         	if(playerService.getBoolTournamentMode()) {
         		playerService.setBoolPlayerWinner(true);
@@ -119,7 +119,7 @@ public class CheaterStrategy implements StrategyPlayer{
 			CommonUtils.endGame(playerService);
 		}
 		
-		playerService.notifyPlayerServiceObservers("Attack Phase Over");
+		playerService.notifyPlayerServiceObservers(() -> "Attack Phase Over");
 		
 		//Set GameState to Fortify after Attack
 		this.playerService.getMapService().setState(GameState.FORTIFY);
@@ -143,7 +143,7 @@ public class CheaterStrategy implements StrategyPlayer{
 					
 					c.setSoldiers(2*c.getSoldiers());
 					
-					playerService.notifyPlayerServiceObservers(c.getCountryName()+" has opponent neighbours,"
+					playerService.notifyPlayerServiceObservers(() -> c.getCountryName()+" has opponent neighbours,"
 							+ " doubled to: "+c.getSoldiers());
 					
 					break; //Already doubled country with foreign neighbours, move to other countries now
@@ -152,7 +152,7 @@ public class CheaterStrategy implements StrategyPlayer{
 		}
 		
 		playerService.evaluateWorldDomination();
-		playerService.notifyPlayerServiceObservers("End of cheater fortification");
+		playerService.notifyPlayerServiceObservers(() -> "End of cheater fortification");
 		
 		//Switch to next player, set gamestate to reinforce, automate game again
 		playerService.switchNextPlayer();
@@ -181,7 +181,7 @@ public class CheaterStrategy implements StrategyPlayer{
 
         toCountryAttack.setPlayer(player);
 
-        playerService.notifyPlayerServiceObservers("Country transferred: "+toCountryAttack.getCountryName()+
+        playerService.notifyPlayerServiceObservers(() -> "Country transferred: "+toCountryAttack.getCountryName()+
         		" (PreviousOwner: "+previousOwnerName+")");
         
     }
@@ -0,0 +1,169 @@
+package com6441.team7.risc.api.model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class keeps the number of countries each player owns in every continent of a {@link MapService}.
+ * The counters are updated through {@link DominationStatistics} when a country changes owner,
+ * so the owner of a continent is known without scanning its countries.
+ * Any change to the countries or continents of the map makes the counters stale,
+ * and they are rebuilt from the map the next time they are read.
+ */
+class ContinentOwnership {
+
+    /**
+     * the map whose continents are tracked
+     */
+    private final MapService mapService;
+
+    /**
+     * true if the map has changed since the counters were built
+     */
+    private boolean boolStale = true;
+
+    /**
+     * continent id of each tracked country id
+     */
+    private Map<Integer, Integer> continentIdByCountryId = new HashMap<>();
+
+    /**
+     * for each continent id, the number of its countries owned by each player name
+     */
+    private Map<Integer, Map<String, Integer>> ownerCountsByContinentId = new HashMap<>();
+
+    /**
+     * the player name owning all countries of a continent, by continent id
+     */
+    private Map<Integer, String> ownerNameByContinentId = new HashMap<>();
+
+    /**
+     * constructor
+     * @param mapService the map whose continents are tracked
+     */
+    ContinentOwnership(MapService mapService) {
+        this.mapService = mapService;
+    }
+
+    /**
+     * mark the counters as stale after the countries or continents of the map changed
+     */
+    void invalidate() {
+        boolStale = true;
+    }
+
+    /**
+     * update the counters after a country changed owner
+     * @param country the country
+     * @param previousOwner the previous owner, may be null
+     * @param newOwner the new owner, may be null
+     */
+    void countryOwnerChanged(Country country, Player previousOwner, Player newOwner) {
+        if (boolStale || isNull(country.getId())) {
+            return;
+        }
+
+        Integer continentId = continentIdByCountryId.get(country.getId());
+        if (isNull(continentId)) {
+            return;
+        }
+
+        if (!isNull(previousOwner)) {
+            removeCountry(continentId, previousOwner.getName());
+        }
+
+        if (!isNull(newOwner)) {
+            addCountry(continentId, newOwner.getName());
+        }
+    }
+
+    /**
+     * find the continent of a country, without rebuilding stale counters
+     * @param countryId country id
+     * @return the continent id, empty if the country is not tracked
+     */
+    Optional<Integer> findContinentId(Integer countryId) {
+        if (boolStale || isNull(countryId)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(continentIdByCountryId.get(countryId));
+    }
+
+    /**
+     * get the name of the player owning all countries of a continent
+     * @param continentId continent id
+     * @return the owner name, empty if the continent has no single owner or no countries
+     */
+    Optional<String> getOwnerName(int continentId) {
+        refresh();
+        return Optional.ofNullable(ownerNameByContinentId.get(continentId));
+    }
+
+    /**
+     * rebuild the counters from the map if they are stale
+     */
+    private void refresh() {
+        if (!boolStale) {
+            return;
+        }
+
+        continentIdByCountryId = new HashMap<>();
+        ownerCountsByContinentId = new HashMap<>();
+        ownerNameByContinentId = new HashMap<>();
+
+        for (Map.Entry<Integer, Set<Integer>> entry : mapService.getContinentCountriesMap().entrySet()) {
+            ownerCountsByContinentId.put(entry.getKey(), new HashMap<>());
+
+            for (Integer countryId : entry.getValue()) {
+                continentIdByCountryId.put(countryId, entry.getKey());
+            }
+        }
+
+        boolStale = false;
+
+        for (Map.Entry<Integer, Integer> entry : continentIdByCountryId.entrySet()) {
+            mapService.getCountryById(entry.getKey())
+                    .map(Country::getPlayer)
+                    .ifPresent(player -> addCountry(entry.getValue(), player.getName()));
+        }
+    }
+
+    /**
+     * count one more country of a continent for a player
+     * @param continentId continent id
+     * @param playerName player name
+     */
+    private void addCountry(int continentId, String playerName) {
+        Map<String, Integer> ownerCounts = ownerCountsByContinentId.get(continentId);
+        int count = ownerCounts.merge(playerName, 1, Integer::sum);
+
+        if (count == mapService.getContinentCountriesMap().get(continentId).size()) {
+            ownerNameByContinentId.put(continentId, playerName);
+        }
+    }
+
+    /**
+     * count one less country of a continent for a player
+     * @param continentId continent id
+     * @param playerName player name
+     */
+    private void removeCountry(int continentId, String playerName) {
+        Map<String, Integer> ownerCounts = ownerCountsByContinentId.get(continentId);
+        Integer count = ownerCounts.get(playerName);
+        if (isNull(count)) {
+            return;
+        }
+
+        if (count == 1) {
+            ownerCounts.remove(playerName);
+        } else {
+            ownerCounts.put(playerName, count - 1);
+        }
+
+        ownerNameByContinentId.remove(continentId, playerName);
+    }
+}
@@ -1,5 +1,7 @@
 package com6441.team7.risc.api.model;
 
+import com6441.team7.risc.utils.journal.GameJournal;
+
 import java.util.Locale;
 import java.util.Objects;
 
@@ -51,6 +53,21 @@ public class Country{
      */
     private int soldiers = 0;
 
+    /**
+     * domination numbers of the map holding this country, updated when the owner or the soldiers change
+     */
+    private DominationStatistics dominationStatistics;
+
+    /**
+     * hash of the map holding this country, updated when the owner or the soldiers change
+     */
+    private StateHash stateHash;
+
+    /**
+     * journal of the game holding this country, null if the game has no journal
+     */
+    private GameJournal gameJournal;
+
     /**
      * The constructor to initialize country with parameter id and countryName
      * @param id The id of country which is being initialized
@@ -191,7 +208,62 @@ public class Country{
      * @param player transfering ownership to the player
      */
     public void setPlayer(Player player) {
+        Player previousPlayer = this.player;
         this.player = player;
+
+        if (dominationStatistics != null && previousPlayer != player) {
+            dominationStatistics.countryOwnerChanged(this, previousPlayer, player);
+        }
+
+        if (stateHash != null && previousPlayer != player) {
+            stateHash.countryOwnerChanged(id, previousPlayer, player);
+        }
+
+        if (gameJournal != null && previousPlayer != player) {
+            gameJournal.ownerChanged(id, player == null ? null : player.getName());
+        }
+    }
+
+    /**
+     * To keep the domination numbers of a map up to date when the owner or the soldiers of this country change
+     * @param dominationStatistics numbers of the map holding this country
+     */
+    void trackStatistics(DominationStatistics dominationStatistics) {
+        this.dominationStatistics = dominationStatistics;
+    }
+
+    /**
+     * To keep the hash of a map up to date when the owner or the soldiers of this country change
+     * @param stateHash hash of the map holding this country
+     */
+    void trackStateHash(StateHash stateHash) {
+        this.stateHash = stateHash;
+    }
+
+    /**
+     * To record the changes of owner and soldiers of this country in the journal of the game
+     * @param gameJournal journal of the game holding this country, null to stop recording
+     */
+    void trackJournal(GameJournal gameJournal) {
+        this.gameJournal = gameJournal;
+    }
+
+    /**
+     * To report a change in the number of soldiers to the domination numbers, the hash and the journal of the map
+     * @param previousSoldiers number of soldiers before the change
+     */
+    private void soldiersChanged(int previousSoldiers) {
+        if (dominationStatistics != null) {
+            dominationStatistics.countrySoldiersChanged(this, soldiers - previousSoldiers);
+        }
+
+        if (stateHash != null) {
+            stateHash.countrySoldiersChanged(id, previousSoldiers, soldiers);
+        }
+
+        if (gameJournal != null && soldiers != previousSoldiers) {
+            gameJournal.soldiersChanged(id, soldiers - previousSoldiers);
+        }
     }
 
     /**
@@ -208,13 +280,17 @@ public class Country{
      */
     public void setSoldiers(Integer soldiers) {
     	
+    	int previousSoldiers = this.soldiers;
+    	
     	//soldiers are reset to 100 when int limit exceeded (especially for cheater)
     	if(this.soldiers > 1000000) {
     		this.soldiers = 100;
+    		soldiersChanged(previousSoldiers);
     		return;
     	} 
     	
         this.soldiers = soldiers; 
+        soldiersChanged(previousSoldiers);
         
         //For showing Observer Pattern during demo, commented code below not removed.
         
@@ -228,11 +304,13 @@ public class Country{
      * @param number the numbers to add to existing armies
      */
     public void addSoldiers(int number){
+        int previousSoldiers = this.soldiers;
         this.soldiers += number;
         
         if(this.soldiers>100000) {
         	this.soldiers=500;
         }
+        soldiersChanged(previousSoldiers);
         
         
         //Commented out code left for demo purposes
@@ -246,7 +324,9 @@ public class Country{
      * @param number the number to reduce from present armies.
      */
     public void removeSoldiers(int number){
+        int previousSoldiers = this.soldiers;
         this.soldiers -= number;
+        soldiersChanged(previousSoldiers);
         
         //Commented out code left for demo purposes
         
@@ -290,12 +370,16 @@ public class Country{
      */
     public void setSoldiers(int soldiers) {
     	
+    	int previousSoldiers = this.soldiers;
+    	
     	//Added to prevent int buffer from overflowing especially during cheater game phases
     	if(soldiers>1000000) {
     		this.soldiers=500;
+    		soldiersChanged(previousSoldiers);
     		return;
     	}
         this.soldiers = soldiers;
+        soldiersChanged(previousSoldiers);
     }
 
     /**
@@ -0,0 +1,405 @@
+package com6441.team7.risc.api.model;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable neighbor table of countries in compressed sparse row form.
+ * The neighbors of the country stored in row r are neighbors[offsets[r]] to neighbors[offsets[r + 1] - 1],
+ * sorted in ascending order. The row of a country is found through rowById, indexed by country id.
+ * It is built from the adjacency map of {@link MapService} once the map has been loaded or edited,
+ * or directly from the rows stored in a map index file.
+ */
+public final class CountryAdjacency {
+
+    /**
+     * row value of a country id without neighbor information
+     */
+    private static final int NO_ROW = -1;
+
+    /**
+     * row of each country id, NO_ROW if the country has no neighbor information
+     */
+    private final int[] rowById;
+
+    /**
+     * start of each row in neighbors, with one extra entry for the end of the last row
+     */
+    private final int[] offsets;
+
+    /**
+     * neighbor country ids of all rows
+     */
+    private final int[] neighbors;
+
+    /**
+     * constructor
+     * @param rowById row of each country id
+     * @param offsets start of each row in neighbors
+     * @param neighbors neighbor country ids of all rows
+     */
+    private CountryAdjacency(int[] rowById, int[] offsets, int[] neighbors) {
+        this.rowById = rowById;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * build the neighbor table from a map of country id to neighbor country ids.
+     * Negative ids are ignored.
+     * @param adjacencyCountriesMap each country id and its neighbor country ids
+     * @return the neighbor table
+     */
+    public static CountryAdjacency of(Map<Integer, Set<Integer>> adjacencyCountriesMap) {
+
+        int maxId = -1;
+        int numRows = 0;
+        int numNeighbors = 0;
+
+        for (Map.Entry<Integer, Set<Integer>> entry : adjacencyCountriesMap.entrySet()) {
+            if (entry.getKey() == null || entry.getKey() < 0) {
+                continue;
+            }
+
+            maxId = Math.max(maxId, entry.getKey());
+            numRows++;
+
+            if (entry.getValue() != null) {
+                numNeighbors += entry.getValue().size();
+            }
+        }
+
+        int[] rowById = new int[maxId + 1];
+        Arrays.fill(rowById, NO_ROW);
+
+        int[] offsets = new int[numRows + 1];
+        int[] neighbors = new int[numNeighbors];
+
+        int row = 0;
+        int next = 0;
+
+        for (Map.Entry<Integer, Set<Integer>> entry : adjacencyCountriesMap.entrySet()) {
+            if (entry.getKey() == null || entry.getKey() < 0) {
+                continue;
+            }
+
+            rowById[entry.getKey()] = row;
+            offsets[row] = next;
+
+            if (entry.getValue() != null) {
+                for (Integer neighborId : entry.getValue()) {
+                    if (neighborId != null && neighborId >= 0) {
+                        neighbors[next++] = neighborId;
+                    }
+                }
+            }
+
+            Arrays.sort(neighbors, offsets[row], next);
+            row++;
+        }
+
+        offsets[numRows] = next;
+
+        return new CountryAdjacency(rowById, offsets, next == numNeighbors ? neighbors : Arrays.copyOf(neighbors, next));
+    }
+
+    /**
+     * build the neighbor table from rows already in compressed sparse row form, as stored in a map index file.
+     * The arrays are used as they are and must not be changed afterwards.
+     * @param rowIds country id of each row, not negative and without duplicates
+     * @param offsets start of each row in neighbors, with one extra entry for the end of the last row
+     * @param neighbors neighbor country ids of all rows, sorted in ascending order within each row
+     * @return the neighbor table
+     * @throws IllegalArgumentException if the rows are not consistent
+     */
+    public static CountryAdjacency of(int[] rowIds, int[] offsets, int[] neighbors) {
+
+        if (offsets.length != rowIds.length + 1 || offsets[0] != 0 || offsets[rowIds.length] != neighbors.length) {
+            throw new IllegalArgumentException("offsets do not match " + rowIds.length + " rows");
+        }
+
+        int maxId = -1;
+        for (int rowId : rowIds) {
+            if (rowId < 0) {
+                throw new IllegalArgumentException("invalid country id " + rowId);
+            }
+            maxId = Math.max(maxId, rowId);
+        }
+
+        int[] rowById = new int[maxId + 1];
+        Arrays.fill(rowById, NO_ROW);
+
+        for (int row = 0; row < rowIds.length; row++) {
+            if (rowById[rowIds[row]] != NO_ROW) {
+                throw new IllegalArgumentException("duplicate country id " + rowIds[row]);
+            }
+            if (offsets[row + 1] < offsets[row]) {
+                throw new IllegalArgumentException("invalid offset " + offsets[row + 1]);
+            }
+
+            rowById[rowIds[row]] = row;
+
+            for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                if (neighbors[i] < 0 || (i > offsets[row] && neighbors[i] <= neighbors[i - 1])) {
+                    throw new IllegalArgumentException("neighbors of country " + rowIds[row] + " are not sorted");
+                }
+            }
+        }
+
+        return new CountryAdjacency(rowById, offsets, neighbors);
+    }
+
+    /**
+     * get the row of a country
+     * @param countryId country id
+     * @return the row, NO_ROW if the country has no neighbor information
+     */
+    private int rowOf(int countryId) {
+        if (countryId < 0 || countryId >= rowById.length) {
+            return NO_ROW;
+        }
+        return rowById[countryId];
+    }
+
+    /**
+     * get the number of neighbors of a country
+     * @param countryId country id
+     * @return number of neighbors, 0 if the country has no neighbor information
+     */
+    public int getNeighborCount(int countryId) {
+        int row = rowOf(countryId);
+        if (row == NO_ROW) {
+            return 0;
+        }
+        return offsets[row + 1] - offsets[row];
+    }
+
+    /**
+     * get a neighbor of a country
+     * @param countryId country id
+     * @param index index of the neighbor, from 0 to getNeighborCount(countryId) - 1
+     * @return id of the neighbor country
+     */
+    public int getNeighbor(int countryId, int index) {
+        int row = rowOf(countryId);
+        if (row == NO_ROW || index < 0 || index >= offsets[row + 1] - offsets[row]) {
+            throw new IndexOutOfBoundsException("country " + countryId + " has no neighbor " + index);
+        }
+        return neighbors[offsets[row] + index];
+    }
+
+    /**
+     * check if a country lists another country as its neighbor
+     * @param countryId country id
+     * @param neighborId id of the other country
+     * @return true if neighborId is a neighbor of countryId
+     */
+    public boolean isAdjacent(int countryId, int neighborId) {
+        int row = rowOf(countryId);
+        if (row == NO_ROW) {
+            return false;
+        }
+        return Arrays.binarySearch(neighbors, offsets[row], offsets[row + 1], neighborId) >= 0;
+    }
+
+    /**
+     * get the neighbors of a country as a read only set backed by this table
+     * @param countryId country id
+     * @return neighbor country ids in ascending order
+     */
+    public Set<Integer> getNeighbors(int countryId) {
+        int row = rowOf(countryId);
+        if (row == NO_ROW) {
+            return Collections.emptySet();
+        }
+        return new NeighborSet(countryId, offsets[row], offsets[row + 1]);
+    }
+
+    /**
+     * get the countries that have neighbor information
+     * @return country ids in ascending order
+     */
+    public int[] getCountryIds() {
+        int[] countryIds = new int[offsets.length - 1];
+        int next = 0;
+        for (int countryId = 0; countryId < rowById.length; countryId++) {
+            if (rowById[countryId] != NO_ROW) {
+                countryIds[next++] = countryId;
+            }
+        }
+        return countryIds;
+    }
+
+    /**
+     * check if the countries form one connected map when every border is crossed in both directions.
+     * Every country listed as a country or as a neighbor is counted, and there must be exactly totalCountries of them.
+     * @param totalCountries number of countries in the map
+     * @return true if all countries are connected
+     */
+    public boolean isConnected(int totalCountries) {
+
+        int maxId = rowById.length - 1;
+        for (int neighborId : neighbors) {
+            maxId = Math.max(maxId, neighborId);
+        }
+
+        boolean[] present = new boolean[maxId + 1];
+        int[] parent = new int[maxId + 1];
+        for (int id = 0; id <= maxId; id++) {
+            parent[id] = id;
+        }
+
+        int numCountries = 0;
+
+        for (int countryId = 0; countryId < rowById.length; countryId++) {
+            int row = rowById[countryId];
+            if (row == NO_ROW) {
+                continue;
+            }
+
+            if (!present[countryId]) {
+                present[countryId] = true;
+                numCountries++;
+            }
+
+            for (int i = offsets[row]; i < offsets[row + 1]; i++) {
+                int neighborId = neighbors[i];
+
+                if (!present[neighborId]) {
+                    present[neighborId] = true;
+                    numCountries++;
+                }
+
+                union(parent, countryId, neighborId);
+            }
+        }
+
+        if (numCountries == 0 || numCountries != totalCountries) {
+            return false;
+        }
+
+        int root = NO_ROW;
+        for (int id = 0; id <= maxId; id++) {
+            if (!present[id]) {
+                continue;
+            }
+            if (root == NO_ROW) {
+                root = find(parent, id);
+            } else if (find(parent, id) != root) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * find the representative of a country in a union-find forest, halving paths on the way
+     * @param parent union-find forest
+     * @param id country id
+     * @return representative country id
+     */
+    private static int find(int[] parent, int id) {
+        while (parent[id] != id) {
+            parent[id] = parent[parent[id]];
+            id = parent[id];
+        }
+        return id;
+    }
+
+    /**
+     * join the groups of two countries in a union-find forest
+     * @param parent union-find forest
+     * @param first country id
+     * @param second country id
+     */
+    private static void union(int[] parent, int first, int second) {
+        int firstRoot = find(parent, first);
+        int secondRoot = find(parent, second);
+        if (firstRoot != secondRoot) {
+            parent[firstRoot] = secondRoot;
+        }
+    }
+
+    /**
+     * read only set view of one row of the table
+     */
+    private final class NeighborSet extends AbstractSet<Integer> {
+
+        /**
+         * country id of the row
+         */
+        private final int countryId;
+
+        /**
+         * start of the row in neighbors
+         */
+        private final int start;
+
+        /**
+         * end of the row in neighbors, exclusive
+         */
+        private final int end;
+
+        /**
+         * constructor
+         * @param countryId country id of the row
+         * @param start start of the row in neighbors
+         * @param end end of the row in neighbors, exclusive
+         */
+        private NeighborSet(int countryId, int start, int end) {
+            this.countryId = countryId;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * iterate over neighbor ids in ascending order
+         * @return iterator
+         */
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<Integer>() {
+
+                private int next = start;
+
+                @Override
+                public boolean hasNext() {
+                    return next < end;
+                }
+
+                @Override
+                public Integer next() {
+                    if (next >= end) {
+                        throw new NoSuchElementException();
+                    }
+                    return neighbors[next++];
+                }
+            };
+        }
+
+        /**
+         * number of neighbors
+         * @return size of the row
+         */
+        @Override
+        public int size() {
+            return end - start;
+        }
+
+        /**
+         * check if an id is in the row
+         * @param o country id
+         * @return true if it is a neighbor
+         */
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Integer && isAdjacent(countryId, (Integer) o);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com6441.team7.risc.api.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class keeps the world domination numbers of every player of a {@link MapService}:
+ * the number of countries owned, the total number of armies and the continents owned.
+ * The numbers are updated by {@link Country} when a country changes owner or its number of soldiers changes,
+ * and the players whose numbers changed since the last publication are remembered,
+ * so the domination view only needs to be sent those players.
+ * Any change to the countries or continents of the map makes the numbers stale,
+ * and they are rebuilt from the map the next time they are read.
+ */
+public class DominationStatistics {
+
+    /**
+     * the map whose players are tracked
+     */
+    private final MapService mapService;
+
+    /**
+     * owners of the continents of the map
+     */
+    private final ContinentOwnership continentOwnership;
+
+    /**
+     * true if the map has changed since the numbers were built
+     */
+    private boolean boolStale = true;
+
+    /**
+     * true if every player must be published, because the numbers were rebuilt
+     */
+    private boolean boolPublishAll = true;
+
+    /**
+     * numbers of each player, by player name
+     */
+    private Map<String, PlayerStatistics> statisticsByPlayerName = new HashMap<>();
+
+    /**
+     * names of the players whose numbers changed since the last publication
+     */
+    private Set<String> changedPlayerNames = new HashSet<>();
+
+    /**
+     * names of the players already published
+     */
+    private Set<String> publishedPlayerNames = new HashSet<>();
+
+    /**
+     * constructor
+     * @param mapService the map whose players are tracked
+     */
+    DominationStatistics(MapService mapService) {
+        this.mapService = mapService;
+        this.continentOwnership = new ContinentOwnership(mapService);
+    }
+
+    /**
+     * get the owners of the continents of the map
+     * @return continent ownership counters
+     */
+    ContinentOwnership getContinentOwnership() {
+        return continentOwnership;
+    }
+
+    /**
+     * mark the numbers as stale after the countries or continents of the map changed
+     */
+    void invalidate() {
+        boolStale = true;
+        continentOwnership.invalidate();
+    }
+
+    /**
+     * update the numbers after a country changed owner
+     * @param country the country
+     * @param previousOwner the previous owner, may be null
+     * @param newOwner the new owner, may be null
+     */
+    void countryOwnerChanged(Country country, Player previousOwner, Player newOwner) {
+        if (boolStale) {
+            continentOwnership.countryOwnerChanged(country, previousOwner, newOwner);
+            return;
+        }
+
+        Optional<Integer> continentId = continentOwnership.findContinentId(country.getId());
+        Optional<String> previousContinentOwner = continentId.flatMap(continentOwnership::getOwnerName);
+
+        continentOwnership.countryOwnerChanged(country, previousOwner, newOwner);
+
+        Optional<String> newContinentOwner = continentId.flatMap(continentOwnership::getOwnerName);
+
+        if (!isNull(previousOwner)) {
+            PlayerStatistics statistics = getOrCreate(previousOwner.getName());
+            statistics.numCountries--;
+            statistics.numArmies -= country.getSoldiers();
+            changedPlayerNames.add(previousOwner.getName());
+        }
+
+        if (!isNull(newOwner)) {
+            PlayerStatistics statistics = getOrCreate(newOwner.getName());
+            statistics.numCountries++;
+            statistics.numArmies += country.getSoldiers();
+            changedPlayerNames.add(newOwner.getName());
+        }
+
+        if (!Objects.equals(previousContinentOwner, newContinentOwner)) {
+            previousContinentOwner.ifPresent(name -> {
+                getOrCreate(name).continentIds.remove(continentId.get());
+                changedPlayerNames.add(name);
+            });
+            newContinentOwner.ifPresent(name -> {
+                getOrCreate(name).continentIds.add(continentId.get());
+                changedPlayerNames.add(name);
+            });
+        }
+    }
+
+    /**
+     * update the numbers after the number of soldiers of a country changed
+     * @param country the country
+     * @param difference new number of soldiers minus the previous number
+     */
+    void countrySoldiersChanged(Country country, int difference) {
+        if (boolStale || difference == 0 || isNull(country.getPlayer())) {
+            return;
+        }
+
+        getOrCreate(country.getPlayer().getName()).numArmies += difference;
+        changedPlayerNames.add(country.getPlayer().getName());
+    }
+
+    /**
+     * get the number of countries owned by a player
+     * @param playerName player name
+     * @return number of countries
+     */
+    public int getNumCountries(String playerName) {
+        refresh();
+        PlayerStatistics statistics = statisticsByPlayerName.get(playerName);
+        return isNull(statistics) ? 0 : statistics.numCountries;
+    }
+
+    /**
+     * get the total number of armies of a player
+     * @param playerName player name
+     * @return number of armies
+     */
+    public int getNumArmies(String playerName) {
+        refresh();
+        PlayerStatistics statistics = statisticsByPlayerName.get(playerName);
+        return isNull(statistics) ? 0 : statistics.numArmies;
+    }
+
+    /**
+     * get the continents owned by a player
+     * @param playerName player name
+     * @return read only set of continent ids, in ascending order
+     */
+    public Set<Integer> getContinentIds(String playerName) {
+        refresh();
+        PlayerStatistics statistics = statisticsByPlayerName.get(playerName);
+        return isNull(statistics) ? Collections.emptySet() : Collections.unmodifiableSet(statistics.continentIds);
+    }
+
+    /**
+     * check if the numbers of a player changed since they were last published
+     * @param playerName player name
+     * @return true if the player must be published
+     */
+    public boolean isChangedSinceLastPublication(String playerName) {
+        refresh();
+        return boolPublishAll || changedPlayerNames.contains(playerName) || !publishedPlayerNames.contains(playerName);
+    }
+
+    /**
+     * remember that the numbers of the given players have been published
+     * @param playerNames names of all players of the game
+     */
+    public void markPublished(Iterable<String> playerNames) {
+        refresh();
+        playerNames.forEach(publishedPlayerNames::add);
+        changedPlayerNames.clear();
+        boolPublishAll = false;
+    }
+
+    /**
+     * rebuild the numbers from the map if they are stale
+     */
+    private void refresh() {
+        if (!boolStale) {
+            return;
+        }
+
+        statisticsByPlayerName = new HashMap<>();
+
+        for (Country country : mapService.getCountries()) {
+            if (isNull(country.getPlayer())) {
+                continue;
+            }
+
+            PlayerStatistics statistics = getOrCreate(country.getPlayer().getName());
+            statistics.numCountries++;
+            statistics.numArmies += country.getSoldiers();
+        }
+
+        for (Integer continentId : mapService.getContinentCountriesMap().keySet()) {
+            continentOwnership.getOwnerName(continentId)
+                    .ifPresent(name -> getOrCreate(name).continentIds.add(continentId));
+        }
+
+        changedPlayerNames.clear();
+        boolPublishAll = true;
+        boolStale = false;
+    }
+
+    /**
+     * get the numbers of a player, creating them if needed
+     * @param playerName player name
+     * @return numbers of the player
+     */
+    private PlayerStatistics getOrCreate(String playerName) {
+        return statisticsByPlayerName.computeIfAbsent(playerName, name -> new PlayerStatistics());
+    }
+
+    /**
+     * world domination numbers of one player
+     */
+    private static class PlayerStatistics {
+
+        /**
+         * number of countries owned
+         */
+        private int numCountries;
+
+        /**
+         * total number of armies in the countries owned
+         */
+        private int numArmies;
+
+        /**
+         * ids of the continents owned
+         */
+        private final SortedSet<Integer> continentIds = new TreeSet<>();
+    }
+}
@@ -0,0 +1,105 @@
+package com6441.team7.risc.api.model;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class is the single source of randomness of one game: dice, card deck, country allocation
+ * and the choices of automated players.
+ * It uses a {@link SplittableRandom}, which is fast and needs no entropy after seeding,
+ * so a game played again with the same seed and the same commands gives the same result.
+ * One instance is used by one game at a time. Games played at the same time each get their own instance,
+ * with a seed taken from the tournament generator.
+ */
+public class GameRandom {
+
+    /**
+     * the seed of this generator
+     */
+    private final long seed;
+
+    /**
+     * the underlying generator
+     */
+    private final SplittableRandom random;
+
+    /**
+     * constructor with a random seed
+     */
+    public GameRandom() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * constructor with a given seed
+     * @param seed the seed, the same seed gives the same sequence of values
+     */
+    public GameRandom(long seed) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * get the seed of this generator
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * get a random number from 0 to bound - 1
+     * @param bound upper bound, exclusive, greater than 0
+     * @return random number
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    /**
+     * get a random number from origin to bound - 1
+     * @param origin lower bound, inclusive
+     * @param bound upper bound, exclusive, greater than origin
+     * @return random number
+     */
+    public int nextInt(int origin, int bound) {
+        return random.nextInt(origin, bound);
+    }
+
+    /**
+     * get a random number from 0 to 1, 1 excluded
+     * @return random number
+     */
+    public double nextDouble() {
+        return random.nextDouble();
+    }
+
+    /**
+     * get a random long, used to seed the generators of other games
+     * @return random number
+     */
+    public long nextLong() {
+        return random.nextLong();
+    }
+
+    /**
+     * roll one dice
+     * @return a value from 1 to 6
+     */
+    public int rollDice() {
+        return random.nextInt(6) + 1;
+    }
+
+    /**
+     * shuffle a list in place, every order being equally likely
+     * @param list the list to shuffle
+     * @param <T> type of the elements
+     */
+    public <T> void shuffle(List<T> list) {
+        for (int i = list.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            list.set(i, list.set(j, list.get(i)));
+        }
+    }
+}
@@ -0,0 +1,620 @@
+package com6441.team7.risc.api.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class is a compact copy of the state of a game, for strategies that search ahead,
+ * odds previews and simulations played side by side.
+ * Countries and players are numbered by their position, and the owner and soldiers of every country,
+ * the cards and trade-ins of every player, the current player and the phase are kept in arrays of int and fields,
+ * while the map itself (neighbours and continents) is shared by every copy, so a copy costs a few small arrays.
+ * Changing a copy never changes the game it was taken from, until the copy is applied to a game.
+ * The deck of cards is not part of the snapshot.
+ */
+public final class GameSnapshot {
+
+    /**
+     * owner of a country that belongs to no player
+     */
+    public static final int NO_PLAYER = -1;
+
+    /**
+     * the card types, a card is numbered by its ordinal
+     */
+    private static final Card[] CARD_TYPES = Card.values();
+
+    /**
+     * ids of the countries, ascending, by country index
+     */
+    private final int[] countryIds;
+
+    /**
+     * indexes of the neighbours of each country, by country index
+     */
+    private final int[][] neighbors;
+
+    /**
+     * continent index of each country, by country index
+     */
+    private final int[] countryContinents;
+
+    /**
+     * bonus armies given by each continent, by continent index
+     */
+    private final int[] continentValues;
+
+    /**
+     * number of countries of each continent, by continent index
+     */
+    private final int[] continentSizes;
+
+    /**
+     * names of the players, by player index
+     */
+    private final String[] playerNames;
+
+    /**
+     * player index of the owner of each country, by country index
+     */
+    private final int[] owners;
+
+    /**
+     * number of soldiers of each country, by country index
+     */
+    private final int[] soldiers;
+
+    /**
+     * number of cards of each type held by each player,
+     * at player index times the number of card types plus the card ordinal
+     */
+    private final int[] cards;
+
+    /**
+     * number of card trade-ins of each player, by player index
+     */
+    private final int[] tradeInTimes;
+
+    /**
+     * player index of the player whose turn it is, NO_PLAYER before the first turn
+     */
+    private int currentPlayer;
+
+    /**
+     * phase of the game
+     */
+    private GameState phase;
+
+    /**
+     * constructor
+     * @param countryIds ids of the countries, ascending
+     * @param neighbors indexes of the neighbours of each country
+     * @param countryContinents continent index of each country
+     * @param continentValues bonus armies given by each continent
+     * @param continentSizes number of countries of each continent
+     * @param playerNames names of the players
+     * @param owners player index of the owner of each country
+     * @param soldiers number of soldiers of each country
+     * @param cards number of cards of each type held by each player
+     * @param tradeInTimes number of card trade-ins of each player
+     * @param currentPlayer player index of the player whose turn it is
+     * @param phase phase of the game
+     */
+    private GameSnapshot(int[] countryIds, int[][] neighbors, int[] countryContinents, int[] continentValues,
+                         int[] continentSizes, String[] playerNames, int[] owners, int[] soldiers,
+                         int[] cards, int[] tradeInTimes, int currentPlayer, GameState phase) {
+        this.countryIds = countryIds;
+        this.neighbors = neighbors;
+        this.countryContinents = countryContinents;
+        this.continentValues = continentValues;
+        this.continentSizes = continentSizes;
+        this.playerNames = playerNames;
+        this.owners = owners;
+        this.soldiers = soldiers;
+        this.cards = cards;
+        this.tradeInTimes = tradeInTimes;
+        this.currentPlayer = currentPlayer;
+        this.phase = phase;
+    }
+
+    /**
+     * take a snapshot of a game
+     * @param mapService the map of the game
+     * @param playerService the players of the game
+     * @return the snapshot
+     */
+    public static GameSnapshot of(MapService mapService, PlayerService playerService) {
+        List<Country> countries = new ArrayList<>(mapService.getCountries());
+        countries.sort(Comparator.comparingInt(Country::getId));
+
+        List<Continent> continents = new ArrayList<>(mapService.getContinents());
+        continents.sort(Comparator.comparingInt(Continent::getId));
+
+        List<Player> players = playerService.getPlayerList();
+
+        int numCountries = countries.size();
+        int[] countryIds = new int[numCountries];
+        for (int i = 0; i < numCountries; i++) {
+            countryIds[i] = countries.get(i).getId();
+        }
+
+        int[] continentIds = new int[continents.size()];
+        int[] continentValues = new int[continents.size()];
+        for (int i = 0; i < continents.size(); i++) {
+            continentIds[i] = continents.get(i).getId();
+            continentValues[i] = continents.get(i).getContinentValue();
+        }
+
+        String[] playerNames = new String[players.size()];
+        int[] cards = new int[players.size() * CARD_TYPES.length];
+        int[] tradeInTimes = new int[players.size()];
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            playerNames[i] = player.getName();
+            tradeInTimes[i] = player.getTradeInTimes();
+            if (!isNull(player.getCardList())) {
+                for (Card card : player.getCardList()) {
+                    cards[i * CARD_TYPES.length + card.ordinal()]++;
+                }
+            }
+        }
+
+        CountryAdjacency adjacency = mapService.getCountryAdjacency();
+        int[][] neighbors = new int[numCountries][];
+        int[] countryContinents = new int[numCountries];
+        int[] continentSizes = new int[continents.size()];
+        int[] owners = new int[numCountries];
+        int[] soldiers = new int[numCountries];
+
+        for (int i = 0; i < numCountries; i++) {
+            Country country = countries.get(i);
+
+            int numNeighbors = 0;
+            int[] countryNeighbors = new int[adjacency.getNeighborCount(countryIds[i])];
+            for (int j = 0; j < countryNeighbors.length; j++) {
+                int neighbor = Arrays.binarySearch(countryIds, adjacency.getNeighbor(countryIds[i], j));
+                if (neighbor >= 0 && neighbor != i) {
+                    countryNeighbors[numNeighbors++] = neighbor;
+                }
+            }
+            neighbors[i] = numNeighbors == countryNeighbors.length
+                    ? countryNeighbors : Arrays.copyOf(countryNeighbors, numNeighbors);
+
+            countryContinents[i] = isNull(country.getContinentIdentifier())
+                    ? -1 : Arrays.binarySearch(continentIds, country.getContinentIdentifier());
+            if (countryContinents[i] >= 0) {
+                continentSizes[countryContinents[i]]++;
+            } else {
+                countryContinents[i] = -1;
+            }
+
+            owners[i] = isNull(country.getPlayer()) ? NO_PLAYER : indexOf(playerNames, country.getPlayer().getName());
+            soldiers[i] = isNull(country.getSoldiers()) ? 0 : country.getSoldiers();
+        }
+
+        Player current = playerService.getCurrentPlayer();
+        int currentPlayer = isNull(current) ? NO_PLAYER : indexOf(playerNames, current.getName());
+
+        return new GameSnapshot(countryIds, neighbors, countryContinents, continentValues, continentSizes,
+                playerNames, owners, soldiers, cards, tradeInTimes, currentPlayer, mapService.getGameState());
+    }
+
+    /**
+     * apply the snapshot to a game on the same map with the same players:
+     * countries change owner and soldiers, players get the cards and trade-ins of the snapshot,
+     * and the current player and the phase are set, each only if it differs from the game
+     * @param mapService the map of the game
+     * @param playerService the players of the game
+     * @throws IllegalArgumentException if a country or a player of the snapshot is not in the game
+     */
+    public void applyTo(MapService mapService, PlayerService playerService) {
+        Player[] players = new Player[playerNames.length];
+        for (int i = 0; i < playerNames.length; i++) {
+            players[i] = playerService.getPlayerByName(playerNames[i]);
+            if (isNull(players[i]) && (getNumCountries(i) > 0 || i == currentPlayer)) {
+                throw new IllegalArgumentException("player " + playerNames[i] + " is not in the game");
+            }
+        }
+
+        for (int i = 0; i < countryIds.length; i++) {
+            int countryId = countryIds[i];
+            Country country = mapService.getCountryById(countryId)
+                    .orElseThrow(() -> new IllegalArgumentException("country " + countryId + " is not in the map"));
+
+            Player owner = owners[i] == NO_PLAYER ? null : players[owners[i]];
+            Player previousOwner = country.getPlayer();
+            if (previousOwner != owner) {
+                if (!isNull(previousOwner)) {
+                    previousOwner.removeCountryFromPlayerList(country);
+                }
+                if (!isNull(owner)) {
+                    owner.addCountryToPlayerList(country);
+                }
+                country.setPlayer(owner);
+            }
+
+            if (isNull(country.getSoldiers()) || country.getSoldiers() != soldiers[i]) {
+                country.setSoldiers(soldiers[i]);
+            }
+        }
+
+        for (int i = 0; i < players.length; i++) {
+            if (isNull(players[i])) {
+                continue;
+            }
+            if (!hasCards(i, players[i].getCardList())) {
+                List<Card> cardList = new ArrayList<>();
+                for (Card card : CARD_TYPES) {
+                    for (int j = 0; j < getNumCards(i, card); j++) {
+                        cardList.add(card);
+                    }
+                }
+                players[i].setCardList(cardList);
+            }
+            players[i].setTradeInTimes(tradeInTimes[i]);
+        }
+
+        if (currentPlayer != NO_PLAYER && playerService.getCurrentPlayer() != players[currentPlayer]) {
+            playerService.setCurrentPlayerIndex(playerService.getPlayerList().indexOf(players[currentPlayer]));
+        }
+
+        if (!isNull(phase) && mapService.getGameState() != phase) {
+            mapService.setState(phase);
+        }
+    }
+
+    /**
+     * copy the snapshot, the copy shares the map but nothing that can be changed
+     * @return the copy
+     */
+    public GameSnapshot copy() {
+        return new GameSnapshot(countryIds, neighbors, countryContinents, continentValues, continentSizes,
+                playerNames, owners.clone(), soldiers.clone(), cards.clone(), tradeInTimes.clone(), currentPlayer, phase);
+    }
+
+    /**
+     * get the number of countries
+     * @return number of countries
+     */
+    public int getNumCountries() {
+        return countryIds.length;
+    }
+
+    /**
+     * get the number of players
+     * @return number of players
+     */
+    public int getNumPlayers() {
+        return playerNames.length;
+    }
+
+    /**
+     * get the id of a country
+     * @param country country index
+     * @return id of the country in the map
+     */
+    public int getCountryId(int country) {
+        return countryIds[country];
+    }
+
+    /**
+     * get the index of a country
+     * @param countryId id of the country in the map
+     * @return country index, negative if the country is not in the snapshot
+     */
+    public int indexOfCountry(int countryId) {
+        return Arrays.binarySearch(countryIds, countryId);
+    }
+
+    /**
+     * get the name of a player
+     * @param player player index
+     * @return name of the player
+     */
+    public String getPlayerName(int player) {
+        return playerNames[player];
+    }
+
+    /**
+     * get the index of a player
+     * @param playerName name of the player
+     * @return player index, NO_PLAYER if the player is not in the snapshot
+     */
+    public int indexOfPlayer(String playerName) {
+        return indexOf(playerNames, playerName);
+    }
+
+    /**
+     * get the neighbours of a country, the array is shared and must not be changed
+     * @param country country index
+     * @return indexes of the neighbouring countries
+     */
+    public int[] getNeighbors(int country) {
+        return neighbors[country];
+    }
+
+    /**
+     * get the owner of a country
+     * @param country country index
+     * @return player index, NO_PLAYER if nobody owns the country
+     */
+    public int getOwner(int country) {
+        return owners[country];
+    }
+
+    /**
+     * set the owner of a country
+     * @param country country index
+     * @param player player index, NO_PLAYER if nobody owns the country
+     */
+    public void setOwner(int country, int player) {
+        owners[country] = player;
+    }
+
+    /**
+     * get the number of soldiers of a country
+     * @param country country index
+     * @return number of soldiers
+     */
+    public int getSoldiers(int country) {
+        return soldiers[country];
+    }
+
+    /**
+     * set the number of soldiers of a country
+     * @param country country index
+     * @param numSoldiers number of soldiers
+     */
+    public void setSoldiers(int country, int numSoldiers) {
+        soldiers[country] = numSoldiers;
+    }
+
+    /**
+     * add soldiers to a country, or remove them with a negative number
+     * @param country country index
+     * @param numSoldiers number of soldiers to add
+     */
+    public void addSoldiers(int country, int numSoldiers) {
+        soldiers[country] += numSoldiers;
+    }
+
+    /**
+     * get the number of cards of a type held by a player
+     * @param player player index
+     * @param card the card type
+     * @return number of cards
+     */
+    public int getNumCards(int player, Card card) {
+        return cards[player * CARD_TYPES.length + card.ordinal()];
+    }
+
+    /**
+     * get the number of cards held by a player
+     * @param player player index
+     * @return number of cards of every type
+     */
+    public int getNumCards(int player) {
+        int numCards = 0;
+        for (int i = 0; i < CARD_TYPES.length; i++) {
+            numCards += cards[player * CARD_TYPES.length + i];
+        }
+        return numCards;
+    }
+
+    /**
+     * give cards of a type to a player, or take them back with a negative number
+     * @param player player index
+     * @param card the card type
+     * @param numCards number of cards to add
+     */
+    public void addCards(int player, Card card, int numCards) {
+        cards[player * CARD_TYPES.length + card.ordinal()] += numCards;
+    }
+
+    /**
+     * get the number of card trade-ins of a player
+     * @param player player index
+     * @return number of trade-ins
+     */
+    public int getTradeInTimes(int player) {
+        return tradeInTimes[player];
+    }
+
+    /**
+     * set the number of card trade-ins of a player
+     * @param player player index
+     * @param numTradeIns number of trade-ins
+     */
+    public void setTradeInTimes(int player, int numTradeIns) {
+        tradeInTimes[player] = numTradeIns;
+    }
+
+    /**
+     * get the player whose turn it is
+     * @return player index, NO_PLAYER before the first turn
+     */
+    public int getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /**
+     * set the player whose turn it is
+     * @param player player index
+     */
+    public void setCurrentPlayer(int player) {
+        currentPlayer = player;
+    }
+
+    /**
+     * give the turn to the next player who still owns a country
+     * @return player index of the new current player
+     */
+    public int switchNextPlayer() {
+        for (int i = 1; i <= playerNames.length; i++) {
+            int player = (Math.max(currentPlayer, 0) + i) % playerNames.length;
+            if (getNumCountries(player) > 0) {
+                currentPlayer = player;
+                break;
+            }
+        }
+        return currentPlayer;
+    }
+
+    /**
+     * get the phase of the game
+     * @return the phase
+     */
+    public GameState getPhase() {
+        return phase;
+    }
+
+    /**
+     * set the phase of the game
+     * @param phase the phase
+     */
+    public void setPhase(GameState phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * check if a country borders a country of another player
+     * @param country country index
+     * @return true if at least one neighbour has another owner
+     */
+    public boolean isFrontier(int country) {
+        for (int neighbor : neighbors[country]) {
+            if (owners[neighbor] != owners[country]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * get the number of countries of a player
+     * @param player player index
+     * @return number of countries
+     */
+    public int getNumCountries(int player) {
+        int numCountries = 0;
+        for (int owner : owners) {
+            if (owner == player) {
+                numCountries++;
+            }
+        }
+        return numCountries;
+    }
+
+    /**
+     * get the number of soldiers of a player
+     * @param player player index
+     * @return number of soldiers on all the countries of the player
+     */
+    public int getNumSoldiers(int player) {
+        int numSoldiers = 0;
+        for (int i = 0; i < owners.length; i++) {
+            if (owners[i] == player) {
+                numSoldiers += soldiers[i];
+            }
+        }
+        return numSoldiers;
+    }
+
+    /**
+     * get the number of soldiers of all players
+     * @return number of soldiers on the map
+     */
+    public int getNumSoldiers() {
+        int numSoldiers = 0;
+        for (int numCountrySoldiers : soldiers) {
+            numSoldiers += numCountrySoldiers;
+        }
+        return numSoldiers;
+    }
+
+    /**
+     * calculate the reinforcement of a player from its countries and continents, without cards,
+     * as the players calculate it: one army for three countries, the value of every continent owned,
+     * and at least three armies
+     * @param player player index
+     * @return number of reinforcement armies
+     */
+    public int calculateReinforcement(int player) {
+        int[] numContinentCountries = new int[continentValues.length];
+        int numCountries = 0;
+
+        for (int i = 0; i < owners.length; i++) {
+            if (owners[i] == player) {
+                numCountries++;
+                if (countryContinents[i] >= 0) {
+                    numContinentCountries[countryContinents[i]]++;
+                }
+            }
+        }
+
+        int reinforcement = numCountries / 3;
+        for (int i = 0; i < continentValues.length; i++) {
+            if (continentSizes[i] > 0 && numContinentCountries[i] == continentSizes[i]) {
+                reinforcement += continentValues[i];
+            }
+        }
+
+        return Math.max(3, reinforcement);
+    }
+
+    /**
+     * get the player owning every country
+     * @return player index, NO_PLAYER if no player owns the whole map
+     */
+    public int getWinner() {
+        if (owners.length == 0) {
+            return NO_PLAYER;
+        }
+        for (int owner : owners) {
+            if (owner != owners[0]) {
+                return NO_PLAYER;
+            }
+        }
+        return owners[0];
+    }
+
+    /**
+     * check if a list of cards holds the cards of a player in the snapshot
+     * @param player player index
+     * @param cardList the cards, can be null
+     * @return true if the list has as many cards of each type as the player
+     */
+    private boolean hasCards(int player, List<Card> cardList) {
+        int[] numCards = new int[CARD_TYPES.length];
+        if (!isNull(cardList)) {
+            for (Card card : cardList) {
+                numCards[card.ordinal()]++;
+            }
+        }
+        for (int i = 0; i < CARD_TYPES.length; i++) {
+            if (numCards[i] != cards[player * CARD_TYPES.length + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * find a name in an array of names
+     * @param names the names
+     * @param name the name to find
+     * @return position of the name, NO_PLAYER if it is not found
+     */
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return NO_PLAYER;
+    }
+}
@@ -1,13 +1,11 @@
 package com6441.team7.risc.api.model;
 
 import org.apache.commons.lang3.StringUtils;
-import org.jgrapht.Graph;
-import org.jgrapht.alg.connectivity.KosarajuStrongConnectivityInspector;
-import org.jgrapht.alg.interfaces.StrongConnectivityAlgorithm;
-import org.jgrapht.graph.*;
 
 import com6441.team7.risc.utils.builder.AbstractMapServiceBuilder;
 import com6441.team7.risc.utils.builder.ConcreteMapServiceBuilder;
+import com6441.team7.risc.utils.journal.GameJournal;
+import com6441.team7.risc.utils.metrics.GameMetrics;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -34,6 +32,26 @@ public class MapService extends Observable {
      */
     private Set<Continent> continents = new HashSet<>();
 
+    /**
+     * countries indexed by their id, for constant time lookup by id
+     */
+    private Country[] countriesById = new Country[0];
+
+    /**
+     * countries indexed by their name in key format, for constant time lookup by name
+     */
+    private Map<String, Country> countriesByName = new HashMap<>();
+
+    /**
+     * continents indexed by their id, for constant time lookup by id
+     */
+    private Continent[] continentsById = new Continent[0];
+
+    /**
+     * continents indexed by their name in key format, for constant time lookup by name
+     */
+    private Map<String, Continent> continentsByName = new HashMap<>();
+
     /**
      * store each country ID, and its neighbor countries ID
      */
@@ -45,9 +63,24 @@ public class MapService extends Observable {
     private Map<Integer, Set<Integer>> continentCountriesMap = new HashMap<>();
 
     /**
-     * store countries as a connected graph
+     * neighbor table built from adjacencyCountriesMap, null when the adjacency has changed since it was built
+     */
+    private CountryAdjacency countryAdjacency;
+
+    /**
+     * world domination numbers of each player, updated when countries change owner or soldiers
+     */
+    private final DominationStatistics dominationStatistics = new DominationStatistics(this);
+
+    /**
+     * Zobrist hash of the owners and soldiers of the countries, updated when countries change owner or soldiers
+     */
+    private final StateHash stateHash = new StateHash(this);
+
+    /**
+     * journal of the game events, null if the game has no journal
      */
-    private Graph<Integer, DefaultEdge> directedGraph = new DefaultDirectedGraph<>(DefaultEdge.class);
+    private GameJournal gameJournal;
 
     /**
      * the state of the game
@@ -78,6 +111,18 @@ public class MapService extends Observable {
         setState(gameState);
     }
 
+    /**
+     * Overrides super class Observable method to measure the time spent notifying the observers
+     *
+     * @param arg the event sent to the observers
+     */
+    @Override
+    public void notifyObservers(Object arg) {
+        long startNanos = GameMetrics.startTimer();
+        super.notifyObservers(arg);
+        GameMetrics.stopTimer(GameMetrics.OBSERVER_NOTIFICATION, startNanos);
+    }
+
     /**
      * Getter method for gamestate
      *
@@ -94,6 +139,9 @@ public class MapService extends Observable {
      * @param gameState the state of game
      */
     public void setState(GameState gameState) {
+        if (!isNull(gameJournal) && this.gameState != gameState) {
+            gameJournal.phaseChanged(gameState);
+        }
         this.gameState = gameState;
         setChanged();
         notifyObservers(gameState);
@@ -116,14 +164,11 @@ public class MapService extends Observable {
      */
     public void addCountry(Country country) {
         countries.add(country);
+        indexCountry(country);
 
-        String continentName = convertNameToKeyFormat(country.getContinentName());
         int countryId = country.getId();
 
-        continents.stream()
-                .filter(continent -> convertNameToKeyFormat(continent.getName()).equals(continentName))
-                .map(Continent::getId)
-                .findFirst()
+        findCorrespondingIdByContinentName(country.getContinentName())
                 .ifPresent(continentId -> continentCountriesMap.get(continentId).add(countryId));
     }
 
@@ -135,6 +180,7 @@ public class MapService extends Observable {
     public void addCountry(Collection<Country> countriesCollection) {
         countriesCollection.forEach(country -> {
             countries.add(country);
+            indexCountry(country);
             putCountryIntoContinentCountriesMap(country);
         });
     }
@@ -156,6 +202,7 @@ public class MapService extends Observable {
      */
     public void addContinent(Continent continent) {
         continents.add(continent);
+        indexContinent(continent);
 
         if (!continentCountriesMap.containsKey(continent.getId())) {
             continentCountriesMap.put(continent.getId(), new HashSet<>());
@@ -170,6 +217,7 @@ public class MapService extends Observable {
      */
     public void addContinent(Collection<Continent> continentsCollection) {
         continents.addAll(continentsCollection);
+        continentsCollection.forEach(this::indexContinent);
 
         Set<Integer> continentId = continentsCollection.stream()
                 .map(Continent::getId)
@@ -186,6 +234,7 @@ public class MapService extends Observable {
      */
     public void addNeighboringCountries(Map<Integer, Set<Integer>> map) {
         map.forEach((key, value) -> adjacencyCountriesMap.put(key, value));
+        countryAdjacency = null;
     }
 
     /**
@@ -218,6 +267,7 @@ public class MapService extends Observable {
             neighboringCountrySet.add(neghboringCountryId);
             adjacencyCountriesMap.put(countryId, neighboringCountrySet);
         }
+        countryAdjacency = null;
 
     }
 
@@ -236,7 +286,7 @@ public class MapService extends Observable {
 
         adjacencyCountriesMap.get(neghboringCountryId).remove(countryId);
 
-        directedGraph.removeEdge(countryId, neghboringCountryId);
+        countryAdjacency = null;
 
     }
 
@@ -245,18 +295,13 @@ public class MapService extends Observable {
      */
     public void emptyMap() {
 
-        if (directedGraph.vertexSet().size() != 0) {
-
-            Set<Integer> set = adjacencyCountriesMap.keySet();
-            directedGraph.removeAllVertices(set);
-
-        }
-
         countries.clear();
         continents.clear();
+        rebuildCountryIndex();
+        rebuildContinentIndex();
         continentCountriesMap.keySet().clear();
         adjacencyCountriesMap.keySet().clear();
-
+        countryAdjacency = null;
 
     }
 
@@ -287,7 +332,7 @@ public class MapService extends Observable {
     public boolean countryNameExist(String countryName) {
         return Optional.ofNullable(countryName)
                 .map(this::convertNameToKeyFormat)
-                .filter(name -> getCountryNameSet().contains(name))
+                .filter(countriesByName::containsKey)
                 .isPresent();
     }
 
@@ -310,7 +355,7 @@ public class MapService extends Observable {
     public boolean continentNameExist(String continentName) {
         return Optional.ofNullable(continentName)
                 .map(this::convertNameToKeyFormat)
-                .filter(name -> getContinentNameSet().contains(name))
+                .filter(continentsByName::containsKey)
                 .isPresent();
     }
 
@@ -332,7 +377,7 @@ public class MapService extends Observable {
      */
     public boolean continentIdExist(Integer continentId) {
         return Optional.ofNullable(continentId)
-                .filter(id -> getContinentIdSet().contains(id))
+                .flatMap(this::getContinentById)
                 .isPresent();
     }
 
@@ -354,7 +399,7 @@ public class MapService extends Observable {
      */
     public boolean countryIdExist(Integer countryId) {
         return Optional.ofNullable(countryId)
-                .filter(id -> getCountryIdSet().contains(id))
+                .flatMap(this::getCountryById)
                 .isPresent();
     }
 
@@ -394,9 +439,9 @@ public class MapService extends Observable {
 
         toBeRemoved.ifPresent(country -> {
             countries.remove(country);
+            unindexCountry(country);
             removeCountryFromContinentCountryMap(country);
             removeCountryFromAdjacentCountryMap(country);
-            directedGraph.removeVertex(country.getId());
         });
     }
 
@@ -425,6 +470,7 @@ public class MapService extends Observable {
         for (Map.Entry<Integer, Set<Integer>> entry : adjacencyCountriesMap.entrySet()) {
             entry.getValue().remove(countryId);
         }
+        countryAdjacency = null;
 
     }
 
@@ -435,10 +481,8 @@ public class MapService extends Observable {
      * @return if continent exist, will return its ID, if not, return empty
      */
     public Optional<Integer> findCorrespondingIdByContinentName(String name) {
-        return continents.stream()
-                .filter(continent -> convertNameToKeyFormat(continent.getName()).equals(convertNameToKeyFormat(name)))
-                .map(Continent::getId)
-                .findFirst();
+        return Optional.ofNullable(continentsByName.get(convertNameToKeyFormat(name)))
+                .map(Continent::getId);
     }
 
     /**
@@ -448,10 +492,8 @@ public class MapService extends Observable {
      * @return if country exist, will return its ID, if not, return empty
      */
     public Optional<Integer> findCorrespondingIdByCountryName(String name) {
-        return countries.stream()
-                .filter(country -> convertNameToKeyFormat(country.getCountryName()).equals(convertNameToKeyFormat(name)))
-                .map(Country::getId)
-                .findFirst();
+        return Optional.ofNullable(countriesByName.get(convertNameToKeyFormat(name)))
+                .map(Country::getId);
     }
 
     /**
@@ -461,10 +503,9 @@ public class MapService extends Observable {
      * @return if continent exist, will return its name, if not, return empty
      */
     public Optional<String> findCorrespondingNameByContidentId(Integer id) {
-        return continents.stream()
-                .filter(continent -> continent.getId() == id)
-                .map(Continent::getName)
-                .findFirst();
+        return Optional.ofNullable(id)
+                .flatMap(this::getContinentById)
+                .map(Continent::getName);
     }
 
     /**
@@ -474,12 +515,7 @@ public class MapService extends Observable {
      * @return if country exist, will return the country, if not, return empty
      */
     private Optional<Country> findCountryToBeRemoved(String countryName) {
-        String normalizedCountryName = convertNameToKeyFormat(countryName);
-        return countries.stream()
-                .filter(country -> convertNameToKeyFormat(country.getCountryName()).equals(normalizedCountryName))
-                .findFirst();
-
-
+        return Optional.ofNullable(countriesByName.get(convertNameToKeyFormat(countryName)));
     }
 
     /**
@@ -488,6 +524,7 @@ public class MapService extends Observable {
      * @param id id of country
      */
     public void removeCountryById(int id) {
+        getCountryById(id).ifPresent(country -> removeCountryByName(country.getCountryName()));
     }
 
     /**
@@ -499,15 +536,11 @@ public class MapService extends Observable {
         if (isNull(continentName)) {
             return;
         }
-        String normalizedContinentName = convertNameToKeyFormat(continentName);
-        Optional<Continent> toBeRemoved = continents.stream()
-                .filter(continent -> convertNameToKeyFormat(continent.getName()).equals(normalizedContinentName))
-                .findFirst();
+        Optional<Continent> toBeRemoved = Optional.ofNullable(continentsByName.get(convertNameToKeyFormat(continentName)));
 
         toBeRemoved.ifPresent(continent -> {
-            Set<Integer> countryId = continentCountriesMap.get(continent.getId());
-            directedGraph.removeAllVertices(countryId);
             continents.remove(continent);
+            unindexContinent(continent);
             continentCountriesMap.remove(continent.getId());
             removeNeighboringCountryByContinentId(continent.getId());
             removeCountryByContinentName(continent.getName());
@@ -526,6 +559,7 @@ public class MapService extends Observable {
     private void removeCountryByContinentName(String name) {
         List<Country> toBeRemoved = findCountryByContinentName(name);
         countries.removeAll(toBeRemoved);
+        toBeRemoved.forEach(this::unindexCountry);
     }
 
 
@@ -569,6 +603,7 @@ public class MapService extends Observable {
                     adjacencyCountriesMap.entrySet().stream().map(Map.Entry::getValue)
                             .forEach(countrySet -> countrySet.remove(countryId));
                 });
+        countryAdjacency = null;
     }
 
     /**
@@ -577,6 +612,7 @@ public class MapService extends Observable {
      * @param id id of continent
      */
     public void removeContinentById(int id) {
+        getContinentById(id).ifPresent(continent -> removeContinentByName(continent.getName()));
     }
 
     /**
@@ -611,61 +647,6 @@ public class MapService extends Observable {
     public void removeNeighboringCountriesById(int id) {
     }
 
-    /**
-     * To show the map
-     *
-     * @return Optional.empty() if empty
-     */
-    public Optional<Graph<Integer, DefaultEdge>> showMap() {
-        return Optional.empty();
-    }
-
-
-    /**
-     * build the graph based on the list of countries id
-     *
-     * @param src  source value
-     * @param dest set of destination value
-     */
-    public void addEdge(int src, Set<Integer> dest) {
-        if (!directedGraph.containsVertex(src)) {
-            directedGraph.addVertex(src);
-        }
-
-        for (Integer countryId : dest) {
-            if (!directedGraph.containsVertex(countryId)) {
-                directedGraph.addVertex(countryId);
-            }
-
-        }
-
-        for (Integer country : dest) {
-            directedGraph.addEdge(src, country);
-            directedGraph.addEdge(country, src);
-        }
-
-    }
-
-    /**
-     * To remove Vertex from map
-     *
-     * @param id index of vertex which is to be removed
-     */
-    private void removeVertex(int id) {
-        directedGraph.removeVertex(id);
-    }
-
-    /**
-     * To remove edge from map
-     *
-     * @param src  source node
-     * @param dest destination node
-     */
-    private void removeEdge(int src, int dest) {
-        directedGraph.removeEdge(src, dest);
-
-    }
-
     /**
      * To get country by the its name
      *
@@ -674,11 +655,12 @@ public class MapService extends Observable {
      */
     public Optional<Country> getCountryByName(String name) {
 
-        for (Country c : countries) {
-            if (c.getCountryName().equalsIgnoreCase(name)) return Optional.of(c);
+        if (isNull(name)) {
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        return Optional.ofNullable(countriesByName.get(convertNameToKeyFormat(name)))
+                .filter(c -> c.getCountryName().equalsIgnoreCase(name));
     }
 
     /**
@@ -689,11 +671,11 @@ public class MapService extends Observable {
      */
     public Optional<Country> getCountryById(int id) {
 
-        for (Country c : countries) {
-            if (c.getId() == id) return Optional.of(c);
+        if (id < 0 || id >= countriesById.length) {
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        return Optional.ofNullable(countriesById[id]);
     }
 
     /**
@@ -704,11 +686,12 @@ public class MapService extends Observable {
      */
     public Optional<Continent> getContinentByName(String name) {
 
-        for (Continent c : continents) {
-            if (c.getName().equalsIgnoreCase(name)) return Optional.of(c);
+        if (isNull(name)) {
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        return Optional.ofNullable(continentsByName.get(convertNameToKeyFormat(name)))
+                .filter(c -> c.getName().equalsIgnoreCase(name));
     }
 
     /**
@@ -719,15 +702,16 @@ public class MapService extends Observable {
      */
     public Optional<Continent> getContinentById(int id) {
 
-        for (Continent c : continents) {
-            if (c.getId() == id) return Optional.of(c);
+        if (id < 0 || id >= continentsById.length) {
+            return Optional.empty();
         }
 
-        return Optional.empty();
+        return Optional.ofNullable(continentsById[id]);
     }
 
     /**
      * TO get map of adjacent countries map
+     * the map must be changed through this class, so that the neighbor table is rebuilt
      *
      * @return map of adjacent countries map
      */
@@ -738,31 +722,52 @@ public class MapService extends Observable {
     /**
      * Get a country's adjacency set
      * @param countryId is the id of the country
-     * @return the adjacency set of the country
+     * @return the read only adjacency set of the country, empty if the country has no neighbors
      */
     public Set<Integer> getAdjacencyCountries(int countryId) {
-        return adjacencyCountriesMap.get(countryId);
+        return getCountryAdjacency().getNeighbors(countryId);
     }
 
     /**
-     * To get map of continent's countries
+     * get the neighbor table of the countries, built once after the adjacency has been loaded or edited
      *
-     * @return map of continent's countries
+     * @return the neighbor table
      */
-    public Map<Integer, Set<Integer>> getContinentCountriesMap() {
-        return continentCountriesMap;
+    public CountryAdjacency getCountryAdjacency() {
+        if (isNull(countryAdjacency)) {
+            countryAdjacency = CountryAdjacency.of(adjacencyCountriesMap);
+        }
+        return countryAdjacency;
     }
 
     /**
-     * To get directed graph
+     * use a neighbor table already built from the same neighbors, such as the one of a {@link MapTemplate}
      *
-     * @return directed graph
+     * @param countryAdjacency the neighbor table, must match the adjacency countries map
      */
-    public Graph<Integer, DefaultEdge> getDirectedGraph() {
+    void setCountryAdjacency(CountryAdjacency countryAdjacency) {
+        this.countryAdjacency = countryAdjacency;
+    }
 
-        return directedGraph;
+    /**
+     * check if two countries are neighbors
+     *
+     * @param countryId id of the country
+     * @param neighboringCountryId id of the other country
+     * @return true if the other country is listed as a neighbor of the country
+     */
+    public boolean isAdjacent(int countryId, int neighboringCountryId) {
+        return getCountryAdjacency().isAdjacent(countryId, neighboringCountryId);
     }
 
+    /**
+     * To get map of continent's countries
+     *
+     * @return map of continent's countries
+     */
+    public Map<Integer, Set<Integer>> getContinentCountriesMap() {
+        return continentCountriesMap;
+    }
 
     /**
      * check if the map is not valid
@@ -790,19 +795,7 @@ public class MapService extends Observable {
     	}
 
 
-        for (Map.Entry<Integer, Set<Integer>> entry : adjacencyCountriesMap.entrySet()) {
-            Set<Integer> set = new HashSet<>(entry.getValue());
-            addEdge(entry.getKey(), set);
-        }
-
-
-        int totalCountry = countries.size();
-        return new KosarajuStrongConnectivityInspector<>(directedGraph)
-                .getStronglyConnectedComponents()
-                .stream()
-                .map(Graph::vertexSet)
-                .map(Set::size)
-                .allMatch(num -> num == totalCountry);
+        return getCountryAdjacency().isConnected(countries.size());
     }
 
     /**
@@ -875,44 +868,108 @@ public class MapService extends Observable {
     }
 
     /**
-     * To get sets of country Name
+     * add a country to the id and name indexes
      *
-     * @return sets of country Name
+     * @param country country to be indexed
      */
-    private Set<String> getCountryNameSet() {
-        return countries.stream().map(Country::getCountryName)
-                .map(this::convertNameToKeyFormat).collect(Collectors.toSet());
+    private void indexCountry(Country country) {
+        if (isNull(country.getId()) || country.getId() < 0) {
+            return;
+        }
+
+        countriesById = ensureIndexCapacity(countriesById, country.getId());
+        countriesById[country.getId()] = country;
+        countriesByName.putIfAbsent(convertNameToKeyFormat(country.getCountryName()), country);
+
+        country.trackStatistics(dominationStatistics);
+        country.trackStateHash(stateHash);
+        country.trackJournal(gameJournal);
+        dominationStatistics.invalidate();
+        stateHash.invalidate();
     }
 
     /**
-     * To get sets of continent Name
+     * remove a country from the id and name indexes
      *
-     * @return sets of continent Name
+     * @param country country to be removed
+     */
+    private void unindexCountry(Country country) {
+        if (!isNull(country.getId()) && country.getId() >= 0 && country.getId() < countriesById.length
+                && countriesById[country.getId()] == country) {
+            countriesById[country.getId()] = null;
+        }
+
+        countriesByName.remove(convertNameToKeyFormat(country.getCountryName()), country);
+        dominationStatistics.invalidate();
+        stateHash.invalidate();
+    }
+
+    /**
+     * rebuild the country indexes from the set of countries
      */
-    private Set<String> getContinentNameSet() {
-        return continents.stream().map(Continent::getName)
-                .map(this::convertNameToKeyFormat).collect(Collectors.toSet());
+    private void rebuildCountryIndex() {
+        countriesById = new Country[0];
+        countriesByName = new HashMap<>();
+        countries.forEach(this::indexCountry);
+        dominationStatistics.invalidate();
+        stateHash.invalidate();
     }
 
     /**
-     * To get sets of country Id
+     * add a continent to the id and name indexes
      *
-     * @return sets of country Id
+     * @param continent continent to be indexed
      */
-    private Set<Integer> getCountryIdSet() {
-        return countries.stream().map(Country::getId).collect(Collectors.toSet());
+    private void indexContinent(Continent continent) {
+        if (continent.getId() < 0) {
+            return;
+        }
+
+        continentsById = ensureIndexCapacity(continentsById, continent.getId());
+        continentsById[continent.getId()] = continent;
+        continentsByName.putIfAbsent(convertNameToKeyFormat(continent.getName()), continent);
+        dominationStatistics.invalidate();
     }
 
     /**
-     * To get sets of continent Id
+     * remove a continent from the id and name indexes
      *
-     * @return sets of continent Id
+     * @param continent continent to be removed
      */
-    private Set<Integer> getContinentIdSet() {
-        return continents.stream().map(Continent::getId).collect(Collectors.toSet());
+    private void unindexContinent(Continent continent) {
+        if (continent.getId() >= 0 && continent.getId() < continentsById.length
+                && continentsById[continent.getId()] == continent) {
+            continentsById[continent.getId()] = null;
+        }
+
+        continentsByName.remove(convertNameToKeyFormat(continent.getName()), continent);
+        dominationStatistics.invalidate();
     }
 
+    /**
+     * rebuild the continent indexes from the set of continents
+     */
+    private void rebuildContinentIndex() {
+        continentsById = new Continent[0];
+        continentsByName = new HashMap<>();
+        continents.forEach(this::indexContinent);
+        dominationStatistics.invalidate();
+    }
 
+    /**
+     * grow an id index so that it can hold the given id
+     *
+     * @param index the id index
+     * @param id    the id to be stored
+     * @param <T>   country or continent
+     * @return the index itself if large enough, else a larger copy
+     */
+    private static <T> T[] ensureIndexCapacity(T[] index, int id) {
+        if (id < index.length) {
+            return index;
+        }
+        return Arrays.copyOf(index, Math.max(id + 1, index.length * 2));
+    }
 
     /**
      * count number of countries occupied by the player
@@ -935,12 +992,12 @@ public class MapService extends Observable {
      * @return num of reinforcements
      */
     public long getReinforceArmyByConqueredContinents(Player player){
-        List<Integer> countriesId = getCountryIdOccupiedByPlayer(player);
-
         long num = 0;
         for (Map.Entry<Integer, Set<Integer>> entry : continentCountriesMap.entrySet()) {
 
-            if(countriesId.containsAll(entry.getValue())) {
+            if(entry.getValue().isEmpty() || findContinentOwnerName(entry.getKey())
+                    .filter(name -> convertNameToKeyFormat(name).equals(convertNameToKeyFormat(player.getName())))
+                    .isPresent()) {
                 int continentId = entry.getKey();
                 int continentValue = findCorrespoindingContinentValueByContinentId(continentId).get();
                 num += continentValue;
@@ -951,16 +1008,56 @@ public class MapService extends Observable {
     }
 
 
+    /**
+     * find the player owning all countries of a continent
+     * @param continentId reference continent id
+     * @return the name of the owner, empty if the continent has no single owner or no countries
+     */
+    public Optional<String> findContinentOwnerName(int continentId) {
+        return dominationStatistics.getContinentOwnership().getOwnerName(continentId);
+    }
+
+    /**
+     * get the world domination numbers of the players
+     * @return domination numbers, kept up to date as countries change owner or soldiers
+     */
+    public DominationStatistics getDominationStatistics() {
+        return dominationStatistics;
+    }
+
+    /**
+     * get the Zobrist hash of the owners and soldiers of the countries
+     * @return the hash, kept up to date as countries change owner or soldiers
+     */
+    public StateHash getStateHash() {
+        return stateHash;
+    }
+
+    /**
+     * set the journal recording the events of the game, from now on
+     * @param gameJournal the journal, null to stop recording
+     */
+    public void setGameJournal(GameJournal gameJournal) {
+        this.gameJournal = gameJournal;
+        countries.forEach(country -> country.trackJournal(gameJournal));
+    }
+
+    /**
+     * get the journal recording the events of the game
+     * @return the journal, null if the game has no journal
+     */
+    public GameJournal getGameJournal() {
+        return gameJournal;
+    }
+
     /**
      * find corresponding continent power by continent id
      * @param id reference continent id
      * @return continent power
      */
     public Optional<Integer> findCorrespoindingContinentValueByContinentId(int id) {
-        return continents.stream()
-                .filter(continent -> continent.getId() == id)
-                .map(Continent::getContinentValue)
-                .findFirst();
+        return getContinentById(id)
+                .map(Continent::getContinentValue);
     }
 
 
@@ -979,19 +1076,6 @@ public class MapService extends Observable {
 
 
 
-    /**
-     * get countryId occupied by the player
-     * @param player whose countries' IDs needed.
-     * @return list of country id
-     */
-    private List<Integer> getCountryIdOccupiedByPlayer(Player player){
-        return countries.stream()
-                .filter(country -> convertNameToKeyFormat(country.getPlayer().getName()).equals(convertNameToKeyFormat(player.getName())))
-                .map(Country::getId)
-                .collect(Collectors.toList());
-    }
-
-
     /**
      * reinforce the number of soldiers to the country
      * @param name reference name
@@ -1000,9 +1084,7 @@ public class MapService extends Observable {
     public void reinforceArmyToCountry(String name, int armyNum){
         int id = findCorrespondingIdByCountryName(name).get();
 
-        countries.stream()
-                .filter(country -> country.getId() == id)
-                .findFirst()
+        getCountryById(id)
                 .ifPresent(country -> country.addSoldiers(armyNum));
     }
 
@@ -1012,10 +1094,9 @@ public class MapService extends Observable {
      * @return if the country exist, it returns the country name, else return empty
      */
     public Optional<String> findCorrespondingNameByCountryId(Integer id){
-        return countries.stream()
-                .filter(country -> country.getId() == id)
-                .map(Country::getCountryName)
-                .findFirst();
+        return Optional.ofNullable(id)
+                .flatMap(this::getCountryById)
+                .map(Country::getCountryName);
     }
 
 
@@ -1025,6 +1106,7 @@ public class MapService extends Observable {
      */
     public void setContinents(Set<Continent> continents) {
         this.continents = continents;
+        rebuildContinentIndex();
     }
 
     /**
@@ -1033,6 +1115,7 @@ public class MapService extends Observable {
      */
     public void setCountries(Set<Country> countries) {
         this.countries = countries;
+        rebuildCountryIndex();
     }
 
     /**
@@ -1041,6 +1124,7 @@ public class MapService extends Observable {
      */
     public void setAdjacencyCountriesMap(Map<Integer, Set<Integer>> adjacencyCountriesMap) {
         this.adjacencyCountriesMap = adjacencyCountriesMap;
+        this.countryAdjacency = null;
     }
 
     /**
@@ -1049,14 +1133,7 @@ public class MapService extends Observable {
      */
     public void setContinentCountriesMap(Map<Integer, Set<Integer>> continentCountriesMap) {
         this.continentCountriesMap = continentCountriesMap;
-    }
-
-    /**
-     * setter of directedGraph
-     * @param directedGraph the connected graph including country id
-     */
-    public void setDirectedGraph(Graph<Integer, DefaultEdge> directedGraph) {
-        this.directedGraph = directedGraph;
+        dominationStatistics.invalidate();
     }
 
     /**
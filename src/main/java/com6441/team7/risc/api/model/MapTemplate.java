@@ -0,0 +1,211 @@
+package com6441.team7.risc.api.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class is an immutable copy of a parsed and validated map: its continents, countries and neighbors,
+ * without any player or soldier.
+ * A game is given its own continents and countries by copying the template into its {@link MapService},
+ * which is much cheaper than reading and parsing the map file again.
+ * The neighbor table of the template is immutable and shared by every copy.
+ */
+public final class MapTemplate {
+
+    /**
+     * the category of the map file
+     */
+    private final MapCategory mapCategory;
+
+    /**
+     * continents of the map, never given out
+     */
+    private final List<Continent> continents;
+
+    /**
+     * countries of the map, never given out
+     */
+    private final List<Country> countries;
+
+    /**
+     * neighbor table shared by the maps copied from this template
+     */
+    private final CountryAdjacency countryAdjacency;
+
+    /**
+     * largest continent id of the map
+     */
+    private final int maxContinentId;
+
+    /**
+     * largest country id of the map
+     */
+    private final int maxCountryId;
+
+    /**
+     * constructor
+     * @param mapCategory the category of the map file
+     * @param continents copies of the continents
+     * @param countries copies of the countries
+     * @param countryAdjacency neighbor table
+     */
+    private MapTemplate(MapCategory mapCategory, List<Continent> continents, List<Country> countries,
+                        CountryAdjacency countryAdjacency) {
+        this.mapCategory = mapCategory;
+        this.continents = continents;
+        this.countries = countries;
+        this.countryAdjacency = countryAdjacency;
+        this.maxContinentId = continents.stream().mapToInt(Continent::getId).max().orElse(0);
+        this.maxCountryId = countries.stream().mapToInt(Country::getId).max().orElse(0);
+    }
+
+    /**
+     * create a template from a map that has just been loaded
+     * @param mapService the loaded map, players and soldiers are not copied
+     * @param mapCategory the category of the map file
+     * @return the template
+     */
+    public static MapTemplate of(MapService mapService, MapCategory mapCategory) {
+        return of(mapCategory, mapService.getContinents(), mapService.getCountries(),
+                mapService.getAdjacencyCountriesMap());
+    }
+
+    /**
+     * create a template from the continents, countries and neighbors of a map, which are copied
+     * @param mapCategory the category of the map file
+     * @param mapContinents continents of the map
+     * @param mapCountries countries of the map, players and soldiers are not copied
+     * @param mapAdjacencyCountriesMap neighbors of every country, by country id
+     * @return the template
+     */
+    public static MapTemplate of(MapCategory mapCategory, Collection<Continent> mapContinents,
+                                 Collection<Country> mapCountries, Map<Integer, Set<Integer>> mapAdjacencyCountriesMap) {
+        return of(mapCategory, mapContinents, mapCountries, CountryAdjacency.of(mapAdjacencyCountriesMap));
+    }
+
+    /**
+     * create a template from the continents and countries of a map, which are copied, and its neighbor table,
+     * which is shared as it is immutable
+     * @param mapCategory the category of the map file
+     * @param mapContinents continents of the map
+     * @param mapCountries countries of the map, players and soldiers are not copied
+     * @param countryAdjacency neighbor table of the map
+     * @return the template
+     */
+    public static MapTemplate of(MapCategory mapCategory, Collection<Continent> mapContinents,
+                                 Collection<Country> mapCountries, CountryAdjacency countryAdjacency) {
+        List<Continent> continents = new ArrayList<>(mapContinents.size());
+        mapContinents.forEach(continent -> continents.add(copyContinent(continent)));
+
+        List<Country> countries = new ArrayList<>(mapCountries.size());
+        mapCountries.forEach(country -> countries.add(copyCountry(country)));
+
+        return new MapTemplate(mapCategory, continents, countries, countryAdjacency);
+    }
+
+    /**
+     * fill an empty map with new continents, countries and neighbors copied from the template
+     * @param mapService the map to fill, emptied first
+     */
+    public void copyInto(MapService mapService) {
+        mapService.emptyMap();
+
+        mapService.addContinent(copyContinents());
+        mapService.addCountry(copyCountries());
+
+        Map<Integer, Set<Integer>> adjacencyCopy = new HashMap<>();
+        for (int countryId : countryAdjacency.getCountryIds()) {
+            adjacencyCopy.put(countryId, new HashSet<>(countryAdjacency.getNeighbors(countryId)));
+        }
+        mapService.addNeighboringCountries(adjacencyCopy);
+
+        mapService.setCountryAdjacency(countryAdjacency);
+    }
+
+    /**
+     * get the category of the map file
+     * @return map category
+     */
+    public MapCategory getMapCategory() {
+        return mapCategory;
+    }
+
+    /**
+     * get copies of the continents of the map
+     * @return new continents with the ids, names, values and colors of the template
+     */
+    public List<Continent> copyContinents() {
+        List<Continent> continentCopies = new ArrayList<>(continents.size());
+        continents.forEach(continent -> continentCopies.add(copyContinent(continent)));
+        return continentCopies;
+    }
+
+    /**
+     * get copies of the countries of the map
+     * @return new countries with the ids, names, continents and coordinates of the template
+     */
+    public List<Country> copyCountries() {
+        List<Country> countryCopies = new ArrayList<>(countries.size());
+        countries.forEach(country -> countryCopies.add(copyCountry(country)));
+        return countryCopies;
+    }
+
+    /**
+     * get the neighbor table of the map
+     * @return immutable neighbor table
+     */
+    public CountryAdjacency getCountryAdjacency() {
+        return countryAdjacency;
+    }
+
+    /**
+     * get the largest continent id, used to continue generating ids after a copy
+     * @return largest continent id, 0 if there is none
+     */
+    public int getMaxContinentId() {
+        return maxContinentId;
+    }
+
+    /**
+     * get the largest country id, used to continue generating ids after a copy
+     * @return largest country id, 0 if there is none
+     */
+    public int getMaxCountryId() {
+        return maxCountryId;
+    }
+
+    /**
+     * get the number of countries of the map
+     * @return number of countries
+     */
+    public int getNumCountries() {
+        return countries.size();
+    }
+
+    /**
+     * copy a continent
+     * @param continent the continent
+     * @return new continent with the same id, name, value and color
+     */
+    private static Continent copyContinent(Continent continent) {
+        return new Continent(continent.getId(), continent.getName(), continent.getContinentValue())
+                .setColor(continent.getColor());
+    }
+
+    /**
+     * copy a country without its player and soldiers
+     * @param country the country
+     * @return new country with the same id, name, continent and coordinates
+     */
+    private static Country copyCountry(Country country) {
+        return new Country(country.getId(), country.getCountryName(), country.getContinentIdentifier())
+                .setContinentName(country.getContinentName())
+                .setCoordinateX(country.getCoordinateX())
+                .setCoordinateY(country.getCoordinateY());
+    }
+}
@@ -0,0 +1,76 @@
+package com6441.team7.risc.api.model;
+
+/**
+ * This class stores how much search every {@link MctsStrategy} player of a game may do for each decision:
+ * the number of rollouts, the time cap and the number of turns played in each rollout.
+ * It is immutable and given to a game through its {@link PlayerService}, so that games played side by side,
+ * such as the games of a parallel tournament, never share or change each other's budget.
+ */
+public final class MctsBudget {
+
+    /**
+     * budget of the games that are not given one
+     */
+    public static final MctsBudget DEFAULT = new MctsBudget(200, 100, 2);
+
+    /**
+     * number of rollouts per decision
+     */
+    private final int numRolloutsPerDecision;
+
+    /**
+     * time cap per decision, in milliseconds
+     */
+    private final long maxDecisionMillis;
+
+    /**
+     * number of turns every player plays in a rollout after the turn of the decision
+     */
+    private final int numRolloutTurns;
+
+    /**
+     * constructor
+     * @param numRolloutsPerDecision number of rollouts per decision, at least 1
+     * @param maxDecisionMillis time cap per decision, in milliseconds, at least 1, which should leave time
+     *                          for all the rollouts so that games can be played again from their seed
+     * @param numRolloutTurns number of turns every player plays in a rollout after the turn of the decision, 0 or more
+     */
+    public MctsBudget(int numRolloutsPerDecision, long maxDecisionMillis, int numRolloutTurns) {
+        if (numRolloutsPerDecision < 1) {
+            throw new IllegalArgumentException("the number of rollouts must be positive");
+        }
+        if (maxDecisionMillis < 1) {
+            throw new IllegalArgumentException("the time cap must be positive");
+        }
+        if (numRolloutTurns < 0) {
+            throw new IllegalArgumentException("the number of rollout turns cannot be negative");
+        }
+        this.numRolloutsPerDecision = numRolloutsPerDecision;
+        this.maxDecisionMillis = maxDecisionMillis;
+        this.numRolloutTurns = numRolloutTurns;
+    }
+
+    /**
+     * get the number of rollouts per decision
+     * @return number of rollouts
+     */
+    public int getNumRolloutsPerDecision() {
+        return numRolloutsPerDecision;
+    }
+
+    /**
+     * get the time cap per decision
+     * @return time cap, in milliseconds
+     */
+    public long getMaxDecisionMillis() {
+        return maxDecisionMillis;
+    }
+
+    /**
+     * get the number of turns every player plays in a rollout
+     * @return number of turns
+     */
+    public int getNumRolloutTurns() {
+        return numRolloutTurns;
+    }
+}
@@ -0,0 +1,601 @@
+package com6441.team7.risc.api.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static com6441.team7.risc.api.RiscConstants.MIN_ATTACKING_SOLDIERS;
+
+/**
+ * This class chooses one move of a player by Monte Carlo tree search on a {@link GameSnapshot}.
+ * Each candidate move is a child of the root, chosen by UCB1, and is valued by rollouts:
+ * the move is played on a copy of the snapshot, then every player plays a few more turns
+ * with a fast greedy policy whose battles are sampled from the {@link BattleOutcomeTable}, and the position
+ * is scored by the share of countries and soldiers of the player.
+ * The rollouts are split between a fixed number of trees, each searched by a task of a shared fork-join pool
+ * from its own seed, and the trees are added together to pick the most visited move.
+ * The split does not depend on the number of processors, so a seed chooses the same move on every machine.
+ * Every task stops at the deadline, so a decision never takes much longer than its time cap.
+ * A search cut short by its deadline depends on the speed of the machine, which the caller can check with isCutShort.
+ */
+final class MctsSearch {
+
+    /**
+     * kind of the moves placing the reinforcement on a country
+     */
+    static final int REINFORCE = 0;
+
+    /**
+     * kind of the moves attacking a country, or ending the attack phase
+     */
+    static final int ATTACK = 1;
+
+    /**
+     * kind of the moves fortifying a country, or not fortifying
+     */
+    static final int FORTIFY = 2;
+
+    /**
+     * country of the moves ending the attack phase or skipping fortification
+     */
+    static final int NO_COUNTRY = -1;
+
+    /**
+     * exploration constant of UCB1, for values between 0 and 1
+     */
+    private static final double EXPLORATION = 0.7;
+
+    /**
+     * fewest rollouts given to a worker, below it splitting the search costs more than it saves
+     */
+    private static final int MIN_ROLLOUTS_PER_WORKER = 16;
+
+    /**
+     * most trees of a search, fixed rather than taken from the pool so that the search depends only on its seed
+     */
+    private static final int MAX_WORKERS = 8;
+
+    /**
+     * increment between the seeds of the workers
+     */
+    private static final long SEED_INCREMENT = 0x9E3779B97F4A7C15L;
+
+    /**
+     * pool running the rollouts of every search
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("risc-mcts-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+
+    /**
+     * the position searched, never changed
+     */
+    private final GameSnapshot root;
+
+    /**
+     * index of the player choosing the move
+     */
+    private final int player;
+
+    /**
+     * number of turns every player plays in a rollout after the turn of the move
+     */
+    private final int numRolloutTurns;
+
+    /**
+     * true if the deadline stopped the last search before all its rollouts were played
+     */
+    private boolean boolCutShort;
+
+    /**
+     * constructor
+     * @param root the position searched
+     * @param player index of the player choosing the move
+     * @param numRolloutTurns number of turns every player plays in a rollout after the turn of the move
+     */
+    MctsSearch(GameSnapshot root, int player, int numRolloutTurns) {
+        this.root = root;
+        this.player = player;
+        this.numRolloutTurns = numRolloutTurns;
+    }
+
+    /**
+     * get the position searched
+     * @return the snapshot, not to be changed
+     */
+    GameSnapshot getRoot() {
+        return root;
+    }
+
+    /**
+     * find the candidate moves placing the reinforcement, the frontier countries of the player,
+     * strongest first
+     * @param numArmies number of reinforcement armies
+     * @param maxMoves maximum number of moves
+     * @return the moves
+     */
+    List<Move> findReinforceMoves(int numArmies, int maxMoves) {
+        List<Move> moves = new ArrayList<>();
+        for (int country = 0; country < root.getNumCountries(); country++) {
+            if (root.getOwner(country) == player && root.isFrontier(country)) {
+                moves.add(new Move(REINFORCE, NO_COUNTRY, country, numArmies));
+            }
+        }
+        moves.sort((m1, m2) -> Integer.compare(root.getSoldiers(m2.to), root.getSoldiers(m1.to)));
+        return limit(moves, maxMoves);
+    }
+
+    /**
+     * find the candidate attacks, the largest advantage first, and the move ending the attack phase,
+     * first if no attack has the advantage
+     * @param maxMoves maximum number of moves
+     * @return the moves, empty if no attack is possible
+     */
+    List<Move> findAttackMoves(int maxMoves) {
+        List<Move> moves = new ArrayList<>();
+        for (int from = 0; from < root.getNumCountries(); from++) {
+            if (root.getOwner(from) != player || root.getSoldiers(from) < MIN_ATTACKING_SOLDIERS) {
+                continue;
+            }
+            for (int to : root.getNeighbors(from)) {
+                if (root.getOwner(to) != player && root.getSoldiers(to) > 0) {
+                    moves.add(new Move(ATTACK, from, to, 0));
+                }
+            }
+        }
+        if (moves.isEmpty()) {
+            return moves;
+        }
+
+        moves.sort((m1, m2) -> Integer.compare(getAdvantage(m2), getAdvantage(m1)));
+        moves = limit(moves, maxMoves - 1);
+
+        Move stop = new Move(ATTACK, NO_COUNTRY, NO_COUNTRY, 0);
+        if (getAdvantage(moves.get(0)) > 0) {
+            moves.add(stop);
+        } else {
+            moves.add(0, stop);
+        }
+        return moves;
+    }
+
+    /**
+     * find the candidate fortifications, moving all but one soldier towards the frontier,
+     * from the countries away from the frontier first, and the move skipping fortification first
+     * @param maxMoves maximum number of moves
+     * @return the moves
+     */
+    List<Move> findFortifyMoves(int maxMoves) {
+        List<Move> moves = new ArrayList<>();
+        for (int from = 0; from < root.getNumCountries(); from++) {
+            if (root.getOwner(from) != player || root.getSoldiers(from) < 2) {
+                continue;
+            }
+            for (int to : root.getNeighbors(from)) {
+                if (root.getOwner(to) == player && root.isFrontier(to)) {
+                    moves.add(new Move(FORTIFY, from, to, root.getSoldiers(from) - 1));
+                }
+            }
+        }
+
+        moves.sort((m1, m2) -> {
+            boolean boolInterior1 = !root.isFrontier(m1.from);
+            boolean boolInterior2 = !root.isFrontier(m2.from);
+            if (boolInterior1 != boolInterior2) {
+                return boolInterior1 ? -1 : 1;
+            }
+            return Integer.compare(m2.armies, m1.armies);
+        });
+        moves = limit(moves, maxMoves - 1);
+        moves.add(0, new Move(FORTIFY, NO_COUNTRY, NO_COUNTRY, 0));
+        return moves;
+    }
+
+    /**
+     * choose a move by running rollouts on the fork-join pool until they are all played or the deadline passes.
+     * The result depends only on the seed as long as the deadline does not cut the search short.
+     * @param moves the candidate moves, at least one
+     * @param numRollouts number of rollouts
+     * @param deadlineNanos value of System.nanoTime() at which the search stops
+     * @param seed seed of the rollouts
+     * @return index of the chosen move, 0 if no rollout could be played in time
+     */
+    int search(List<Move> moves, int numRollouts, long deadlineNanos, long seed) {
+        boolCutShort = false;
+        if (moves.size() == 1) {
+            return 0;
+        }
+
+        int numWorkers = Math.max(1, Math.min(MAX_WORKERS, numRollouts / MIN_ROLLOUTS_PER_WORKER));
+
+        List<ForkJoinTask<Tree>> tasks = new ArrayList<>(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            int numWorkerRollouts = numRollouts / numWorkers + (i < numRollouts % numWorkers ? 1 : 0);
+            long workerSeed = seed + i * SEED_INCREMENT;
+            tasks.add(POOL.submit(() -> grow(moves, numWorkerRollouts, deadlineNanos, workerSeed)));
+        }
+
+        Tree tree = new Tree(moves.size());
+        for (ForkJoinTask<Tree> task : tasks) {
+            tree.add(task.join());
+        }
+        boolCutShort = tree.numVisits < numRollouts;
+        return tree.getMostVisited();
+    }
+
+    /**
+     * check if the deadline stopped the last search before all its rollouts were played,
+     * in which case the move chosen depends on the speed of the machine and not only on the seed
+     * @return true if the last search was cut short
+     */
+    boolean isCutShort() {
+        return boolCutShort;
+    }
+
+    /**
+     * grow the tree of one worker
+     * @param moves the candidate moves
+     * @param numRollouts number of rollouts of the worker
+     * @param deadlineNanos value of System.nanoTime() at which the worker stops
+     * @param seed seed of the worker
+     * @return the visits and values of the moves
+     */
+    private Tree grow(List<Move> moves, int numRollouts, long deadlineNanos, long seed) {
+        GameRandom random = new GameRandom(seed);
+        Tree tree = new Tree(moves.size());
+
+        for (int i = 0; i < numRollouts && System.nanoTime() < deadlineNanos; i++) {
+            int move = tree.select();
+            tree.update(move, rollout(moves.get(move), random));
+        }
+        return tree;
+    }
+
+    /**
+     * play a move and the turns after it on a copy of the position
+     * @param move the move
+     * @param random source of randomness of the rollout
+     * @return value of the final position for the player, between 0 and 1
+     */
+    private double rollout(Move move, GameRandom random) {
+        GameSnapshot snapshot = root.copy();
+
+        switch (move.kind) {
+            case REINFORCE:
+                snapshot.addSoldiers(move.to, move.armies);
+                playAttacks(snapshot, player, random);
+                break;
+            case ATTACK:
+                if (move.from != NO_COUNTRY) {
+                    attack(snapshot, move.from, move.to, random);
+                    playAttacks(snapshot, player, random);
+                }
+                break;
+            case FORTIFY:
+                if (move.from != NO_COUNTRY) {
+                    snapshot.addSoldiers(move.from, -move.armies);
+                    snapshot.addSoldiers(move.to, move.armies);
+                }
+                break;
+            default:
+        }
+
+        int numPlayers = snapshot.getNumPlayers();
+        for (int turn = 0; turn < numRolloutTurns * numPlayers + numPlayers - 1; turn++) {
+            if (snapshot.getWinner() != GameSnapshot.NO_PLAYER) {
+                break;
+            }
+            int turnPlayer = (player + 1 + turn) % numPlayers;
+            if (snapshot.getNumCountries(turnPlayer) > 0) {
+                playTurn(snapshot, turnPlayer, random);
+            }
+        }
+
+        return evaluate(snapshot);
+    }
+
+    /**
+     * play the turn of a player with the rollout policy: reinforce a strong frontier country, then attack
+     * @param snapshot the position
+     * @param turnPlayer index of the player
+     * @param random source of randomness
+     */
+    private static void playTurn(GameSnapshot snapshot, int turnPlayer, GameRandom random) {
+        int strongest = NO_COUNTRY;
+        int numFrontier = 0;
+        int chosen = NO_COUNTRY;
+
+        for (int country = 0; country < snapshot.getNumCountries(); country++) {
+            if (snapshot.getOwner(country) != turnPlayer || !snapshot.isFrontier(country)) {
+                continue;
+            }
+            if (strongest == NO_COUNTRY || snapshot.getSoldiers(country) > snapshot.getSoldiers(strongest)) {
+                strongest = country;
+            }
+            numFrontier++;
+            if (random.nextInt(numFrontier) == 0) {
+                chosen = country;
+            }
+        }
+        if (strongest == NO_COUNTRY) {
+            return;
+        }
+
+        int target = random.nextDouble() < 0.75 ? strongest : chosen;
+        snapshot.addSoldiers(target, snapshot.calculateReinforcement(turnPlayer));
+
+        playAttacks(snapshot, turnPlayer, random);
+    }
+
+    /**
+     * attack with the rollout policy until no attack has the advantage:
+     * mostly the attack with the largest advantage, sometimes a random one
+     * @param snapshot the position
+     * @param turnPlayer index of the attacking player
+     * @param random source of randomness
+     */
+    private static void playAttacks(GameSnapshot snapshot, int turnPlayer, GameRandom random) {
+        for (int numAttacks = 0; numAttacks < snapshot.getNumCountries(); numAttacks++) {
+            int bestFrom = NO_COUNTRY;
+            int bestTo = NO_COUNTRY;
+            int bestAdvantage = 0;
+            int randomFrom = NO_COUNTRY;
+            int randomTo = NO_COUNTRY;
+            int numAttacksWithAdvantage = 0;
+
+            for (int from = 0; from < snapshot.getNumCountries(); from++) {
+                if (snapshot.getOwner(from) != turnPlayer || snapshot.getSoldiers(from) <= MIN_ATTACKING_SOLDIERS) {
+                    continue;
+                }
+                for (int to : snapshot.getNeighbors(from)) {
+                    if (snapshot.getOwner(to) == turnPlayer) {
+                        continue;
+                    }
+                    int advantage = snapshot.getSoldiers(from) - 1 - snapshot.getSoldiers(to);
+                    if (advantage <= 0) {
+                        continue;
+                    }
+                    if (advantage > bestAdvantage) {
+                        bestAdvantage = advantage;
+                        bestFrom = from;
+                        bestTo = to;
+                    }
+                    numAttacksWithAdvantage++;
+                    if (random.nextInt(numAttacksWithAdvantage) == 0) {
+                        randomFrom = from;
+                        randomTo = to;
+                    }
+                }
+            }
+
+            if (bestFrom == NO_COUNTRY) {
+                return;
+            }
+            if (random.nextDouble() < 0.8) {
+                attack(snapshot, bestFrom, bestTo, random);
+            } else {
+                attack(snapshot, randomFrom, randomTo, random);
+            }
+        }
+    }
+
+    /**
+     * attack until one side has no soldiers left, and occupy the country if it is conquered
+     * @param snapshot the position
+     * @param from index of the attacking country
+     * @param to index of the defending country
+     * @param random source of randomness
+     */
+    static void attack(GameSnapshot snapshot, int from, int to, GameRandom random) {
+        int[] outcome = BattleOutcomeTable.sampleOutcome(snapshot.getSoldiers(from), snapshot.getSoldiers(to), random);
+        snapshot.setSoldiers(from, outcome[0]);
+        snapshot.setSoldiers(to, outcome[1]);
+
+        if (outcome[1] == 0) {
+            snapshot.setOwner(to, snapshot.getOwner(from));
+            int numSoldiersToMove = getNumSoldiersToMove(snapshot, from);
+            snapshot.addSoldiers(from, -numSoldiersToMove);
+            snapshot.addSoldiers(to, numSoldiersToMove);
+        }
+    }
+
+    /**
+     * get the number of soldiers moved into a conquered country:
+     * all but one if the attacking country has no other enemy neighbour, half of them otherwise
+     * @param snapshot the position after the conquest
+     * @param from index of the attacking country
+     * @return number of soldiers, at least 1 and less than the soldiers of the attacking country
+     */
+    static int getNumSoldiersToMove(GameSnapshot snapshot, int from) {
+        int numSoldiersLeft = snapshot.getSoldiers(from) - 1;
+        if (numSoldiersLeft <= 1) {
+            return 1;
+        }
+        return snapshot.isFrontier(from) ? Math.max(1, numSoldiersLeft / 2) : numSoldiersLeft;
+    }
+
+    /**
+     * value a position for the player: 1 if it won, 0 if it is eliminated,
+     * otherwise its share of the countries and of the soldiers
+     * @param snapshot the position
+     * @return value between 0 and 1
+     */
+    private double evaluate(GameSnapshot snapshot) {
+        int winner = snapshot.getWinner();
+        if (winner != GameSnapshot.NO_PLAYER) {
+            return winner == player ? 1 : 0;
+        }
+
+        int numCountries = snapshot.getNumCountries(player);
+        if (numCountries == 0) {
+            return 0;
+        }
+
+        double countryShare = (double) numCountries / snapshot.getNumCountries();
+        double soldierShare = (double) snapshot.getNumSoldiers(player) / Math.max(1, snapshot.getNumSoldiers());
+        return 0.5 * countryShare + 0.5 * soldierShare;
+    }
+
+    /**
+     * get how many more soldiers the attacking country has than the defending country, after leaving one behind
+     * @param move an attack
+     * @return advantage of the attacker
+     */
+    private int getAdvantage(Move move) {
+        return root.getSoldiers(move.from) - 1 - root.getSoldiers(move.to);
+    }
+
+    /**
+     * keep the first moves of a list
+     * @param moves the moves
+     * @param maxMoves number of moves kept
+     * @return the moves kept
+     */
+    private static List<Move> limit(List<Move> moves, int maxMoves) {
+        return moves.size() <= maxMoves ? moves : new ArrayList<>(moves.subList(0, Math.max(1, maxMoves)));
+    }
+
+    /**
+     * This class is a candidate move: a reinforcement, an attack or a fortification
+     */
+    static final class Move {
+
+        /**
+         * REINFORCE, ATTACK or FORTIFY
+         */
+        final int kind;
+
+        /**
+         * index of the country the move starts from, NO_COUNTRY for reinforcements and for no move
+         */
+        final int from;
+
+        /**
+         * index of the country the move goes to, NO_COUNTRY for no move
+         */
+        final int to;
+
+        /**
+         * number of armies placed or moved
+         */
+        final int armies;
+
+        /**
+         * constructor
+         * @param kind REINFORCE, ATTACK or FORTIFY
+         * @param from index of the country the move starts from
+         * @param to index of the country the move goes to
+         * @param armies number of armies placed or moved
+         */
+        Move(int kind, int from, int to, int armies) {
+            this.kind = kind;
+            this.from = from;
+            this.to = to;
+            this.armies = armies;
+        }
+
+        /**
+         * check if the move ends the attack phase or skips fortification
+         * @return true if nothing is moved
+         */
+        boolean isNone() {
+            return kind != REINFORCE && from == NO_COUNTRY;
+        }
+    }
+
+    /**
+     * This class is the root of a search tree: the visits and the total value of each candidate move
+     */
+    private static final class Tree {
+
+        /**
+         * number of rollouts of each move
+         */
+        private final int[] visits;
+
+        /**
+         * sum of the values of the rollouts of each move
+         */
+        private final double[] values;
+
+        /**
+         * number of rollouts of all moves
+         */
+        private int numVisits;
+
+        /**
+         * constructor
+         * @param numMoves number of candidate moves
+         */
+        Tree(int numMoves) {
+            visits = new int[numMoves];
+            values = new double[numMoves];
+        }
+
+        /**
+         * select the move of the next rollout by UCB1, every move being tried once first
+         * @return index of the move
+         */
+        int select() {
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logVisits = Math.log(Math.max(1, numVisits));
+
+            for (int i = 0; i < visits.length; i++) {
+                if (visits[i] == 0) {
+                    return i;
+                }
+                double score = values[i] / visits[i] + EXPLORATION * Math.sqrt(logVisits / visits[i]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * record the value of a rollout
+         * @param move index of the move
+         * @param value value of the rollout
+         */
+        void update(int move, double value) {
+            visits[move]++;
+            values[move] += value;
+            numVisits++;
+        }
+
+        /**
+         * add the rollouts of another tree to this tree
+         * @param tree the other tree
+         */
+        void add(Tree tree) {
+            for (int i = 0; i < visits.length; i++) {
+                visits[i] += tree.visits[i];
+                values[i] += tree.values[i];
+            }
+            numVisits += tree.numVisits;
+        }
+
+        /**
+         * get the most visited move, the best valued one on a tie, the first one on a further tie
+         * @return index of the move
+         */
+        int getMostVisited() {
+            int best = 0;
+            for (int i = 1; i < visits.length; i++) {
+                if (visits[i] > visits[best] || (visits[i] == visits[best] && visits[i] > 0
+                        && values[i] / visits[i] > values[best] / visits[best])) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com6441.team7.risc.api.model;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com6441.team7.risc.api.model.MctsSearch.Move;
+import com6441.team7.risc.api.wrapperview.PlayerAttackWrapper;
+import com6441.team7.risc.api.wrapperview.PlayerFortificationWrapper;
+
+/**
+ * This is the strategy class for Monte Carlo tree search players. Inherits from
+ * {@link StrategyPlayer}
+ * Every decision (the country reinforced, each attack or the end of the attacks, and the fortification)
+ * is searched by {@link MctsSearch} on a {@link GameSnapshot} of the game, within a number of rollouts
+ * and a time cap per decision set by the {@link MctsBudget} of the game, so that tournaments finish on time.
+ * The rollouts are seeded from the random generator of the game and a decision normally stops once they are
+ * all played, so a game is played again the same way from its seed. The time cap only guards against slow or busy
+ * processors: a decision it cuts short is counted by the PlayerService and reported, as the game then depends
+ * on timing and can no longer be played again from its seed.
+ */
+public class MctsStrategy implements StrategyPlayer {
+
+	/**
+	 * most candidate moves searched per decision
+	 */
+	private static final int MAX_MOVES = 12;
+
+	/**
+	 * player service for specific player functions
+	 */
+	@JsonIgnore
+	private PlayerService playerService;
+
+	/**
+	 * Player object for player list and details.
+	 */
+	@JsonIgnore
+	private Player player;
+
+
+	/**
+	 * default constructor
+	 */
+	public MctsStrategy(){}
+
+
+	/**
+	 * {@link MctsStrategy} class constructor
+	 * @param playerService PlayerService to be passed for details.
+	 */
+	public MctsStrategy(PlayerService playerService) {
+		this.playerService = playerService;
+		this.player = playerService.getCurrentPlayer();
+		this.playerService.notifyPlayerServiceObservers(() -> "MCTS Strategy");
+	}
+
+	/**
+	 * In reinforcement phase, the search player exchanges cards, then searches which frontier country
+	 * receives all the reinforcement armies.
+	 * Afterwards, the game state is set to ATTACK phase.
+	 */
+	@Override
+	public void reinforce() {
+
+		//Check And Exchange Cards
+		player.checkAndExchangeCardsForStrategy(playerService);
+
+		//Then Calculate Total Num Armies
+		int numReinforcementArmies=player.calculateReinforcedArmiesBasedOnCardsContinentsCountries(playerService);
+
+		MctsSearch search=createSearch();
+		List<Move> moves=search.findReinforceMoves(numReinforcementArmies, MAX_MOVES);
+
+		if(!moves.isEmpty()) {
+			Country country=getCountry(search, moves.get(search(search, moves)).to);
+
+			playerService.notifyPlayerServiceObservers(() -> country.getCountryName()+" has "+country.getSoldiers()+ " soldier(s)"
+					+ " and will receive "+numReinforcementArmies+" reinforcement(s)");
+
+			playerService.reinforceArmy(player, country.getCountryName(), numReinforcementArmies);
+		}
+
+		//End Reinforcement Phase and Move to Attack Phase
+		playerService.getMapService().setState(GameState.ATTACK);
+	}
+
+	/**
+	 * In attack phase, the search player searches the next attack among its countries' hostile neighbours,
+	 * or the end of the attack phase, and plays it as an allout attack.
+	 * After a conquest, all but one soldier move to the conquered country if the attacking country has
+	 * no other hostile neighbour, half of them otherwise.
+	 * The search is repeated after every attack until it chooses to stop or no attack is possible.
+	 */
+	@Override
+	public void attack() {
+
+		int maxAttacks=2*playerService.getMapService().getCountries().size();
+
+		for(int numAttacks=0;numAttacks<maxAttacks;numAttacks++) {
+
+			MctsSearch search=createSearch();
+			List<Move> moves=search.findAttackMoves(MAX_MOVES);
+
+			if(moves.isEmpty()) {
+				playerService.notifyPlayerServiceObservers(() -> "No attack possible as no targets found.");
+				break;
+			}
+
+			Move move=moves.get(search(search, moves));
+			if(move.isNone()) {
+				break;
+			}
+
+			Country attackerCountry=getCountry(search, move.from);
+			Country defenderCountry=getCountry(search, move.to);
+
+			// Attack wrapper, allout resolved in one step as nobody watches the dice
+			PlayerAttackWrapper playerAttackWrapper = new PlayerAttackWrapper(attackerCountry, defenderCountry);
+			playerAttackWrapper.setBooleanAllOut();
+			playerAttackWrapper.setBooleanSampledAllOut();
+
+			player.attack(playerService, playerAttackWrapper);
+
+			//If country conquered...attackmove
+			if(player.getBoolAttackMoveRequired()) {
+				GameSnapshot snapshot=GameSnapshot.of(playerService.getMapService(), playerService);
+				player.attackMove(MctsSearch.getNumSoldiersToMove(snapshot, move.from));
+			}
+		}
+
+		player.endAttackPhase(playerService);
+	}
+
+	/**
+	 * In fortify phase, the search player searches which country moves all but one soldier
+	 * to a neighbouring frontier country, or skips fortification.
+	 */
+	@Override
+	public void fortify() {
+
+		MctsSearch search=createSearch();
+		List<Move> moves=search.findFortifyMoves(MAX_MOVES);
+		Move move=moves.get(search(search, moves));
+
+		if(move.isNone()) {
+			player.fortify(playerService, new PlayerFortificationWrapper());
+			return;
+		}
+
+		player.fortify(playerService, new PlayerFortificationWrapper(getCountry(search, move.from), getCountry(search, move.to), move.armies));
+	}
+
+	/**
+	 * create a search from a snapshot of the game
+	 * @return the search for the player
+	 */
+	private MctsSearch createSearch() {
+		GameSnapshot snapshot=GameSnapshot.of(playerService.getMapService(), playerService);
+		return new MctsSearch(snapshot, snapshot.indexOfPlayer(player.getName()),
+				playerService.getMctsBudget().getNumRolloutTurns());
+	}
+
+	/**
+	 * search a decision within the rollouts and the time cap per decision,
+	 * and report the decision if the time cap cut it short
+	 * @param search the search
+	 * @param moves the candidate moves
+	 * @return index of the chosen move
+	 */
+	private int search(MctsSearch search, List<Move> moves) {
+		MctsBudget budget=playerService.getMctsBudget();
+		long deadlineNanos=System.nanoTime()+TimeUnit.MILLISECONDS.toNanos(budget.getMaxDecisionMillis());
+		int move=search.search(moves, budget.getNumRolloutsPerDecision(), deadlineNanos,
+				playerService.getGameRandom().nextLong());
+
+		if(search.isCutShort()) {
+			playerService.addCutShortDecision();
+			playerService.notifyPlayerServiceObservers(() -> "MCTS decision cut short by the "+budget.getMaxDecisionMillis()
+					+" ms time cap, the game can no longer be played again from its seed");
+		}
+		return move;
+	}
+
+	/**
+	 * get the country of the game at an index of the snapshot searched
+	 * @param search the search
+	 * @param index country index in the snapshot
+	 * @return the country
+	 */
+	private Country getCountry(MctsSearch search, int index) {
+		return playerService.getMapService().getCountryById(search.getRoot().getCountryId(index)).get();
+	}
+
+	/**
+	 * get reference of playerService
+	 * @return playService
+	 */
+	@JsonIgnore
+	public PlayerService getPlayerService() {
+		return playerService;
+	}
+
+	/**
+	 * set value of playerService
+	 * @param playerService stores player information
+	 */
+	@JsonIgnore
+	public void setPlayerService(PlayerService playerService) {
+		this.playerService = playerService;
+	}
+
+	/**
+	 * get the object of player
+	 * @return player
+	 */
+	@JsonIgnore
+	public Player getPlayer() {
+		return player;
+	}
+
+	/**
+	 * set the player
+	 * @param player player
+	 */
+	@JsonIgnore
+	public void setPlayer(Player player) {
+		this.player = player;
+	}
+}
@@ -4,9 +4,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com6441.team7.risc.api.wrapperview.PlayerAttackWrapper;
 import com6441.team7.risc.api.wrapperview.PlayerFortificationWrapper;
 import com6441.team7.risc.utils.CommonUtils;
+import com6441.team7.risc.utils.journal.GameJournal;
+import com6441.team7.risc.utils.jfr.FlightRecord;
+import com6441.team7.risc.utils.jfr.GameFlightRecorder;
+import com6441.team7.risc.utils.metrics.GameMetrics;
 import org.apache.commons.collections4.CollectionUtils;
 
-import java.security.SecureRandom;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -140,6 +143,10 @@ public class Player{
     			this.setPlayerCategory(PlayerCategory.BENEVOLENT);
     			break;
     			
+    		case "mcts":
+    			this.setPlayerCategory(PlayerCategory.MCTS);
+    			break;
+    			
     		default:
     			this.setPlayerCategory(PlayerCategory.HUMAN);
     			
@@ -402,6 +409,8 @@ public class Player{
      * remove cards from players
      */
     public void removeCards(){
+        List<Card> cardsBefore = new ArrayList<>(cardList);
+
         if(hasSameCardCategory(Card.ARTILLERY)){
             List<Card> list = cardList.stream()
                     .filter(card -> card == Card.ARTILLERY)
@@ -434,6 +443,7 @@ public class Player{
         }
 
         tradeInTimes ++;
+        journalTradeIn(cardsBefore);
 
     }
 
@@ -483,6 +493,8 @@ public class Player{
     	
     	if(cardList.size()<3) return; //Cannot exchange  	
     	
+    	List<Card> cardsBefore = new ArrayList<>(cardList);
+    	
     	//Create Array containing numOfDifferent Card Types
     	//Count num of cards of each type and place it in array
     	
@@ -507,12 +519,9 @@ public class Player{
     	
     	//Display total cards info:
     	
-		String strCardInfo="";
-		strCardInfo+=Card.INFANTRY+": "+arrCardTypeCount[0]+"  ";
-		strCardInfo+=Card.CAVALRY+": "+arrCardTypeCount[1]+" ";
-		strCardInfo+=Card.ARTILLERY+": "+arrCardTypeCount[2]+"\n";
-		
-		playerService.notifyPlayerServiceObservers(strCardInfo);
+		playerService.notifyPlayerServiceObservers(() -> Card.INFANTRY+": "+arrCardTypeCount[0]+"  "
+				+Card.CAVALRY+": "+arrCardTypeCount[1]+" "
+				+Card.ARTILLERY+": "+arrCardTypeCount[2]+"\n");
     	
     	//Check similar types of cards first...if possible, exchange
     	
@@ -531,15 +540,19 @@ public class Player{
     		
     		numTradeSetsPossible=(arrCardTypeCount[i]-remainderCardsAfterExchange) / 3;
     		
+    		Card cardType=arrCardType[i];
+    		
     		if(numTradeSetsPossible<=0) {
     			playerService.notifyPlayerServiceObservers
-    			("No Similar Card Exchange Possible for "+arrCardType[i]);
+    			(() -> "No Similar Card Exchange Possible for "+cardType);
     			
     			continue; //Go directly to next card type
     		}
     		
-    		playerService.notifyPlayerServiceObservers(numTradeSetsPossible
-    				+" Similar Card Exchange Sets Possible for "+arrCardType[i]);
+    		int numTradeSets=numTradeSetsPossible;
+    		
+    		playerService.notifyPlayerServiceObservers(() -> numTradeSets
+    				+" Similar Card Exchange Sets Possible for "+cardType);
     		
     		this.tradeInTimes+=numTradeSetsPossible;
     		
@@ -569,7 +582,7 @@ public class Player{
     	//Keep on Exchanging 3 different cards at a time until no more possible
     	while(arrCardTypeCount[0]>0 && arrCardTypeCount[1]>0 && arrCardTypeCount[2]>0) {
     		
-    		playerService.notifyPlayerServiceObservers("Exchanged 3 different cards.");
+    		playerService.notifyPlayerServiceObservers(() -> "Exchanged 3 different cards.");
     		this.tradeInTimes++;
     		
     		for(int k=0;k<3;k++) {
@@ -583,7 +596,8 @@ public class Player{
     		}
     		
     	} //End of Card Exchanged for different types as well
-    	playerService.notifyPlayerServiceObservers("End Of Card Exchange");
+    	journalTradeIn(cardsBefore);
+    	playerService.notifyPlayerServiceObservers(() -> "End Of Card Exchange");
     	
     } //End of card exchanges
     
@@ -660,15 +674,25 @@ public class Player{
     private int[] defenderDice;
 
     /**
-     * a reference of SecureRandom to random dice number
+     * random generator for dice rolled outside of a game, when the player has no playerService yet
      */
-    private SecureRandom diceRandomizer;
+    private GameRandom diceRandomizer;
 
     /**
      * a boolean value whether attack is allOut
      */
     private boolean boolAllOut;
 
+    /**
+     * a boolean value whether an allout attack is resolved in one step from the battle outcome tables
+     */
+    private boolean boolSampledAllOut;
+
+    /**
+     * rolls of the dice during the current attack
+     */
+    private transient int numBattleRounds;
+
     /**
      * a boolean value whether attack is over
      */
@@ -742,6 +766,7 @@ public class Player{
         this.defender=toCountryAttack.getPlayer();
 
         this.boolAllOut=playerAttackWrapper.getBooleanAllOut();
+        this.boolSampledAllOut=playerAttackWrapper.getBooleanSampledAllOut();
         this.boolAttackOver=playerAttackWrapper.getBoolAttackOver();
 
         this.numDiceAttacker=playerAttackWrapper.getNumDiceAttacker();
@@ -755,19 +780,27 @@ public class Player{
         this.numDefendingSoldiers = this.toCountryAttack.getSoldiers();
 
         this.playerService=playerService;
+        this.numBattleRounds=0;
         
+        FlightRecord battleRecord=GameFlightRecorder.beginBattle(fromCountryAttack, toCountryAttack, boolAllOut,
+                boolAllOut && boolSampledAllOut);
+        GameMetrics.BATTLES.increment();
         
         //If boolAllOut is chosen
         //boolAllOut is set to true in playerAttackWrapper by GameController.We retrieve and
         //check this boolean here.
         
-        if(boolAllOut) {
+        if(boolAllOut && boolSampledAllOut) {
+            attackAllOutSampled(playerService);
+        }
+        else if(boolAllOut) {
             attackAllOut(playerService);
-            return;
+        }
+        else {
+            attackSingle(playerService);
         }
 
-        attackSingle(playerService);
-
+        GameFlightRecorder.endBattle(battleRecord, numBattleRounds, fromCountryAttack, toCountryAttack, attacker);
     }
 
 
@@ -788,7 +821,7 @@ public class Player{
         if (!validateAttackConditions(playerService)) {
 
             //notify playerService observer if it's not valid
-            strSendAttackInfoToObservers+="\nConditions Not Valid. Cannot proceed with attack.";
+            appendAttackInfo("\nConditions Not Valid. Cannot proceed with attack.");
             playerService.notifyPlayerServiceObservers(strSendAttackInfoToObservers);
             return;
         }
@@ -837,7 +870,7 @@ public class Player{
 
                 //notify playerService observer if it's not valid
                 //playerService.notifyObservers(this.playerAttackWrapper);
-                strSendAttackInfoToObservers+="\nConditions Not Valid. Cannot proceed with attack.";
+                appendAttackInfo("\nConditions Not Valid. Cannot proceed with attack.");
                 playerService.notifyPlayerServiceObservers(strSendAttackInfoToObservers);
                 return;
             }
@@ -855,6 +888,52 @@ public class Player{
     }
 
 
+    /**
+     * attack until soldiers from either attacker or defender is out, in one step.
+     * validate the attack as for the first round of attackAllOut(), then sample the final number of soldiers
+     * of both countries from the battle outcome tables, which follow the same dice rules round by round.
+     * Notifies playerservice observers of the losses, then checks the conquest as after a battle.
+     * @param playerService a reference of PlayerService
+     */
+    public void attackAllOutSampled(PlayerService playerService) {
+
+        this.numAttackingSoldiers=fromCountryAttack.getSoldiers();
+        this.numDefendingSoldiers=toCountryAttack.getSoldiers();
+
+        this.numDiceAttacker = Math.min(MAX_ATTACKER_DICE_NUM, this.numAttackingSoldiers-1);
+        this.numDiceDefender = Math.min(MAX_DEFENDER_DICE_NUM, this.numDefendingSoldiers);
+
+        if (!validateAttackConditions(playerService)) {
+
+            //notify playerService observer if it's not valid
+            appendAttackInfo("\nConditions Not Valid. Cannot proceed with attack.");
+            playerService.notifyPlayerServiceObservers(strSendAttackInfoToObservers);
+            return;
+        }
+
+        //No dice are rolled, the battle is counted as sampled instead of by rounds and dice
+        GameMetrics.SAMPLED_BATTLES.increment();
+
+        int[] outcome = BattleOutcomeTable.sampleOutcome(numAttackingSoldiers, numDefendingSoldiers,
+                getDiceRandom());
+
+        int attackerLosses = numAttackingSoldiers - outcome[0];
+        int defenderLosses = numDefendingSoldiers - outcome[1];
+
+        fromCountryAttack.removeSoldiers(attackerLosses);
+        toCountryAttack.removeSoldiers(defenderLosses);
+
+        playerService.notifyPlayerServiceObservers(() -> "Attacker loses " + attackerLosses + " soldiers.\n"
+                + "Defender loses " + defenderLosses + " soldiers.");
+
+        playerService.notifyPlayerServiceObservers(this::createAttackOverWrapper);
+
+        checkDefenderOwnership();
+
+        playerService.evaluateWorldDomination();
+    }
+
+
     /**
      * This method decides the result of every battle after both attacker and defender
      * throw their dices.
@@ -868,6 +947,9 @@ public class Player{
      */
     public void decideBattleResult(int[] attackerDice, int[] defenderDice) {
 
+        GameMetrics.BATTLE_ROUNDS.increment();
+        numBattleRounds++;
+
         Arrays.sort(attackerDice);
         Arrays.sort(defenderDice);
 
@@ -932,12 +1014,12 @@ public class Player{
             if (attackerSecondMaxValue > defenderSecondMaxValue) {
 
                 toCountryAttack.removeSoldiers(1);
-                strSendAttackInfoToObservers+="\nDefender loses 1 soldier.";
+                appendAttackInfo("\nDefender loses 1 soldier.");
 
             } else {
 
                 fromCountryAttack.removeSoldiers(1);
-                strSendAttackInfoToObservers+="\nAttacker loses 1 soldier.";
+                appendAttackInfo("\nAttacker loses 1 soldier.");
 
             }
         }
@@ -1019,15 +1101,20 @@ public class Player{
     public void transferCardsFromDefenderToAttacker() {
 
         if(defender.getCardList().size()==0) {
-            playerService.notifyPlayerServiceObservers("\nDefender has no cards to be transferred.");
+            playerService.notifyPlayerServiceObservers(() -> "\nDefender has no cards to be transferred.");
             return;
         }
 
         //Show card details of defender
         showCardsInfoPlayer(defender);
 
+        GameJournal gameJournal = getGameJournal();
         for(Card card:defender.getCardList()) {
             addCard(card); //add card to playerList
+            if (gameJournal != null) {
+                gameJournal.cardRemoved(defender.getName(), card);
+                gameJournal.cardGained(name, card);
+            }
         }
 
         //Not required as defender will be garbage collected
@@ -1035,7 +1122,7 @@ public class Player{
 
         showCardsInfoPlayer(this);
 
-        playerService.notifyPlayerServiceObservers("\nCards transferred.");
+        playerService.notifyPlayerServiceObservers(() -> "\nCards transferred.");
 
     }
 
@@ -1045,6 +1132,10 @@ public class Player{
      */
     private void  showCardsInfoPlayer(Player p){
 
+        if (!playerService.isMessageObserved()){
+            return;
+        }
+
         if (p.getCardList().isEmpty()){
             playerService.notifyPlayerServiceObservers("Player card list:empty");
             return;
@@ -1080,14 +1171,14 @@ public class Player{
 
             transferCountryOwnershipAfterAttack();
 
-            strSendAttackInfoToObservers+="\nNeed to check player wins, "
+            appendAttackInfo("\nNeed to check player wins, "
                     + "check if defender is eliminated from the game,"
                     + "need to transfer cards\n"
-                    + "need to draw card when ending attack phase";
+                    + "need to draw card when ending attack phase");
 
 
             //notify after attack info to observers
-            playerService.notifyPlayerServiceObservers(strSendAttackInfoToObservers);
+            playerService.notifyPlayerServiceObservers(() -> strSendAttackInfoToObservers);
 
             if (checkPlayerWin()) {
             	
@@ -1105,10 +1196,10 @@ public class Player{
         }
 		 
 
-        strSendAttackInfoToObservers+="\nCountry not conquered.";
+        appendAttackInfo("\nCountry not conquered.");
         
         //notify after attack info to observers
-        playerService.notifyPlayerServiceObservers(strSendAttackInfoToObservers);
+        playerService.notifyPlayerServiceObservers(() -> strSendAttackInfoToObservers);
 
         return false;
     }
@@ -1122,14 +1213,12 @@ public class Player{
         if(attacker.getCountryPlayerList().size()==playerService.getMapService()
                 .getCountries().size()) {
 
-            strSendAttackInfoToObservers="\n"+attacker.getName()+" Wins";
-
-            playerService.notifyPlayerServiceObservers(strSendAttackInfoToObservers);
+            playerService.notifyPlayerServiceObservers(() -> "\n"+attacker.getName()+" Wins");
 
             return true;
         }
 
-        strSendAttackInfoToObservers+="\nYou must now transfer some soldiers from attacking country to defending country.";
+        appendAttackInfo("\nYou must now transfer some soldiers from attacking country to defending country.");
         return false;
     }
 
@@ -1149,7 +1238,7 @@ public class Player{
 
         toCountryAttack.setPlayer(fromCountryAttack.getPlayer());
 
-        strSendAttackInfoToObservers+="Country ownership transferred.\n Attacker conquers country.";
+        appendAttackInfo("Country ownership transferred.\n Attacker conquers country.");
 
     }
 
@@ -1200,16 +1289,17 @@ public class Player{
 
         if(numSoldiersTransfer<fromCountryAttack.getSoldiers() && numSoldiersTransfer>0) {
         	
-        	playerService.notifyPlayerServiceObservers("Attack Move Being Done:");
+        	playerService.notifyPlayerServiceObservers(() -> "Attack Move Being Done:");
         	
             fromCountryAttack.removeSoldiers(numSoldiersTransfer);
             toCountryAttack.addSoldiers(numSoldiersTransfer);
 
             //Notify playerService Observers
-            PlayerAttackWrapper playerAttackWrapper=new PlayerAttackWrapper(fromCountryAttack,toCountryAttack);
-            playerAttackWrapper.setBoolAttackMoveOver(); //Set flag for display in views
-
-            playerService.notifyPlayerServiceObservers(playerAttackWrapper);
+            playerService.notifyPlayerServiceObservers(() -> {
+                PlayerAttackWrapper playerAttackWrapper=new PlayerAttackWrapper(fromCountryAttack,toCountryAttack);
+                playerAttackWrapper.setBoolAttackMoveOver(); //Set flag for display in views
+                return playerAttackWrapper;
+            });
 
             playerService.evaluateWorldDomination();
 
@@ -1267,6 +1357,47 @@ public class Player{
     }
 
 
+    /**
+     * get the random generator for dice, the one of the game if the player has joined one
+     * @return random generator
+     */
+    private GameRandom getDiceRandom() {
+        if (playerService != null) {
+            return playerService.getGameRandom();
+        }
+        if (diceRandomizer == null) {
+            diceRandomizer = new GameRandom();
+        }
+        return diceRandomizer;
+    }
+
+    /**
+     * get the journal of the game the player has joined
+     * @return the journal, null if the player has not joined a game or the game has no journal
+     */
+    private GameJournal getGameJournal() {
+        if (playerService == null || playerService.getMapService() == null) {
+            return null;
+        }
+        return playerService.getMapService().getGameJournal();
+    }
+
+    /**
+     * record the cards given away in a trade-in and the new number of trade-ins in the journal of the game
+     * @param cardsBefore cards of the player before the trade-in
+     */
+    private void journalTradeIn(List<Card> cardsBefore) {
+        GameJournal gameJournal = getGameJournal();
+        if (gameJournal == null || cardsBefore.size() == cardList.size()) {
+            return;
+        }
+
+        List<Card> cardsRemoved = new ArrayList<>(cardsBefore);
+        cardList.forEach(cardsRemoved::remove);
+        cardsRemoved.forEach(card -> gameJournal.cardRemoved(name, card));
+        gameJournal.cardsTradedIn(name, tradeInTimes);
+    }
+
     /**
      * Method for rolling attacker's dice
      * @param numDiceAttacker number of attacker's dice
@@ -1275,10 +1406,16 @@ public class Player{
     public int[] rollAttackerDice(int numDiceAttacker) {
         attackerDice = new int[numDiceAttacker];
 
-        diceRandomizer = new SecureRandom();
+        GameRandom diceRandomizer = getDiceRandom();
 
         for (int i = 0; i < attackerDice.length; i++) {
-            attackerDice[i] = diceRandomizer.nextInt(6)+1;
+            attackerDice[i] = diceRandomizer.rollDice();
+        }
+        GameMetrics.DICE_ROLLS.add(numDiceAttacker);
+
+        GameJournal gameJournal = getGameJournal();
+        if (gameJournal != null) {
+            gameJournal.diceRolled(name, attackerDice);
         }
         return attackerDice;
     }
@@ -1291,10 +1428,16 @@ public class Player{
     public int[] rollDefenderDice(int numDiceDefender) {
         defenderDice = new int[numDiceDefender];
 
-        diceRandomizer = new SecureRandom();
+        GameRandom diceRandomizer = getDiceRandom();
 
         for (int i = 0; i < defenderDice.length; i++) {
-            defenderDice[i] = diceRandomizer.nextInt(6)+1;
+            defenderDice[i] = diceRandomizer.rollDice();
+        }
+        GameMetrics.DICE_ROLLS.add(numDiceDefender);
+
+        GameJournal gameJournal = getGameJournal();
+        if (gameJournal != null) {
+            gameJournal.diceRolled(defender == null ? name : defender.getName(), defenderDice);
         }
 
         return defenderDice;
@@ -1307,30 +1450,26 @@ public class Player{
      */
     public void checkAttackingCountryAdjacency(MapService mapService) {
 
-        Map<Integer, Set<Integer>> adjacentCountriesList = mapService.getAdjacencyCountriesMap();
-
         Optional<Integer> toId = mapService.findCorrespondingIdByCountryName(toCountryAttack.getCountryName());
 
         Optional<Integer> fromId = mapService.findCorrespondingIdByCountryName(fromCountryAttack.getCountryName());
 
         if(!fromId.isPresent()) {
-            strSendAttackInfoToObservers+="\nOrigin country not present";
+            appendAttackInfo("\nOrigin country not present");
             this.boolAttackValidationMet=false;
         }
 
 
         if(!toId.isPresent()) {
-            strSendAttackInfoToObservers+="\nDestination country not present";
+            appendAttackInfo("\nDestination country not present");
             this.boolAttackValidationMet=false;
         }
 
         if(boolAttackValidationMet) {
-            neighbouringCountries =  adjacentCountriesList.get(fromId.get());
-
-            if(!neighbouringCountries.contains(toId.get())) {
+            if(!mapService.isAdjacent(fromId.get(), toId.get())) {
 
                 this.boolAttackValidationMet=false;
-                strSendAttackInfoToObservers+="\nCountries not adjacent to each other";
+                appendAttackInfo("\nCountries not adjacent to each other");
             }
         }
 
@@ -1362,7 +1501,7 @@ public class Player{
         if((!fromCountryAttack.getPlayer().getName().equals(playerName))) {
             //The message will be sent to the playerAttackWrapper when the notification method is created there
             //this.playerAttackWrapper.setAttackDisplayMessage
-            strSendAttackInfoToObservers+="\nOrigin country does not belong to current player";
+            appendAttackInfo("\nOrigin country does not belong to current player");
             this.boolAttackValidationMet=false;
         }
 
@@ -1378,7 +1517,7 @@ public class Player{
 
             //The message will be sent to the playerAttackWrapper when the notification method is created there
 
-            strSendAttackInfoToObservers+="\nCountries belong to same player";
+            appendAttackInfo("\nCountries belong to same player");
             this.boolAttackValidationMet=false;
         }
 
@@ -1393,7 +1532,7 @@ public class Player{
         if(isAttackerLastManStanding()) {
             //The message will be sent to the playerAttackWrapper when the notification method is created there
 
-            strSendAttackInfoToObservers+="\nNot enough soldiers in origin country";
+            appendAttackInfo("\nNot enough soldiers in origin country");
             this.boolAttackValidationMet=false;
         }
     }
@@ -1406,7 +1545,7 @@ public class Player{
         if(numDiceAttacker>MAX_ATTACKER_DICE_NUM) {
             //The message will be sent to the playerAttackWrapper when the notification method is created there
 
-            strSendAttackInfoToObservers+="\nAttacker should not throw more than 3 dices";
+            appendAttackInfo("\nAttacker should not throw more than 3 dices");
             this.boolAttackValidationMet=false;
         }
     }
@@ -1418,7 +1557,7 @@ public class Player{
         if(numDiceAttacker>=fromCountryAttack.getSoldiers()) {
             //The message will be sent to the playerAttackWrapper when the notification method is created there
 
-            strSendAttackInfoToObservers+="\nAttacker number of dices invalid.";
+            appendAttackInfo("\nAttacker number of dices invalid.");
             this.boolAttackValidationMet=false;
         }
     }
@@ -1430,7 +1569,7 @@ public class Player{
         if(numDiceAttacker<1) {
             //The message will be sent to the playerAttackWrapper when the notification method is created there
 
-            strSendAttackInfoToObservers+="\nAttacker should throw at least 1 dice";
+            appendAttackInfo("\nAttacker should throw at least 1 dice");
             this.boolAttackValidationMet=false;
         }
     }
@@ -1443,7 +1582,7 @@ public class Player{
         if(numDiceDefender>MAX_DEFENDER_DICE_NUM) {
             //The message will be sent to the playerAttackWrapper when the notification method is created there
 
-            strSendAttackInfoToObservers+="\nDefender should not throw more than 2 dices";
+            appendAttackInfo("\nDefender should not throw more than 2 dices");
             this.boolAttackValidationMet=false;
             this.boolDefendDiceRequired.set(true);
         }
@@ -1456,8 +1595,8 @@ public class Player{
         if(numDiceDefender>toCountryAttack.getSoldiers()) {
             //The message will be sent to the playerAttackWrapper when the notification method is created there
 
-            strSendAttackInfoToObservers+="\nDefender should throw number of dices"
-                    + " that is less or equal than the number of soldiers";
+            appendAttackInfo("\nDefender should throw number of dices"
+                    + " that is less or equal than the number of soldiers");
             this.boolAttackValidationMet=false;
             this.boolDefendDiceRequired.set(true);
         }
@@ -1470,12 +1609,23 @@ public class Player{
         if(numDiceDefender<1) {
             //The message will be sent to the playerAttackWrapper when the notification method is created there
 
-            strSendAttackInfoToObservers+="\nDefender should throw at least 1 dice";
+            appendAttackInfo("\nDefender should throw at least 1 dice");
             this.boolAttackValidationMet=false;
             this.boolDefendDiceRequired.set(true);
         }
     }
 
+    /**
+     * add a line to the attack information sent to playerservice observers,
+     * only when someone reads the game messages
+     * @param message line to add
+     */
+    private void appendAttackInfo(String message) {
+        if(playerService.isMessageObserved()) {
+            strSendAttackInfoToObservers+=message;
+        }
+    }
+
     /**
      * Displays information about attacker and defend dice rolls and attack outcome/
      * Triggers Notification of this information to playerservicer observers.
@@ -1484,6 +1634,10 @@ public class Player{
      */
     public void constructAndSendAttackBattleMessage(int[] attackerDice, int[] defenderDice) {
 
+        if(!playerService.isMessageObserved()) {
+            return;
+        }
+
         String diceMessage="";
 
         diceMessage+="Attacker dices: ";
@@ -1506,12 +1660,21 @@ public class Player{
 
         //Notify playerservice observers of num armies remaining for attacker and defender
 
-        PlayerAttackWrapper playerAttackWrapper=new PlayerAttackWrapper(fromCountryAttack,toCountryAttack);
-        playerAttackWrapper.setBoolAttackOver(); //Set flag for display in views
+        playerService.notifyPlayerServiceObservers(createAttackOverWrapper());
 
-        playerService.notifyPlayerServiceObservers(playerAttackWrapper);
 
+    }
+
+    /**
+     * Creates the wrapper displaying the num armies remaining for attacker and defender after a battle
+     * @return PlayerAttackWrapper with the attack over flag set
+     */
+    private PlayerAttackWrapper createAttackOverWrapper() {
+
+        PlayerAttackWrapper playerAttackWrapper=new PlayerAttackWrapper(fromCountryAttack,toCountryAttack);
+        playerAttackWrapper.setBoolAttackOver(); //Set flag for display in views
 
+        return playerAttackWrapper;
     }
 
     /**
@@ -1520,13 +1683,17 @@ public class Player{
      */
     public void constructAndSendInitialSingleAttackInformation() {
 
+        this.strSendAttackInfoToObservers="\n";
+
+        if(!playerService.isMessageObserved()) {
+            return;
+        }
+
         String fromCountryName=fromCountryAttack.getCountryName();
         String toCountryName=toCountryAttack.getCountryName();
         String attackerName=attacker.getName();
         String defenderName=defender.getName();
 
-        this.strSendAttackInfoToObservers="\n";
-
         strSendAttackInfoToObservers+=fromCountryName+" ("+attackerName+") wants to attack "+
                 toCountryName+" ("+defenderName+")";
 
@@ -1581,7 +1748,7 @@ public class Player{
      */
     public void endAttackPhase(PlayerService playerService) {
 
-    	playerService.notifyPlayerServiceObservers("Attack Phase Ended");
+    	playerService.notifyPlayerServiceObservers(() -> "Attack Phase Ended");
     	
         //Check if card needs to be drawn-set to true when country conquered
         if(boolDrawCard) {
@@ -1593,6 +1760,10 @@ public class Player{
             else {
             	addCard(c);
             	strMessage="Card drawn: "+c.getName();
+            	GameJournal gameJournal = playerService.getMapService().getGameJournal();
+            	if (gameJournal != null) {
+            		gameJournal.cardGained(name, c);
+            	}
             }
             this.boolDrawCard=false;
             playerService.notifyPlayerServiceObservers(strMessage);
@@ -1635,11 +1806,6 @@ public class Player{
      */
     private int numSoldiersToFortify;
 
-    /**
-     * Set that keeps track of neighbouring countries of origin country.
-     */
-    private	Set<Integer> neighbouringCountries;
-
     /**
      * a boolean value if fortification is valid
      */
@@ -1766,8 +1932,6 @@ public class Player{
      */
     public void checkCountryAdjacencyForFortification(MapService mapService) {
 
-        Map<Integer, Set<Integer>> adjacentCountriesList = mapService.getAdjacencyCountriesMap();
-
         Optional<Integer> toId = mapService.findCorrespondingIdByCountryName(toCountryFortify.getCountryName());
 
         Optional<Integer> fromId = mapService.findCorrespondingIdByCountryName(fromCountryFortify.getCountryName());
@@ -1786,9 +1950,7 @@ public class Player{
         }
 
         if(boolFortifyValidationMet) {
-            neighbouringCountries =  adjacentCountriesList.get(fromId.get());
-
-            if(!neighbouringCountries.contains(toId.get())) {
+            if(!mapService.isAdjacent(fromId.get(), toId.get())) {
                 this.boolFortifyValidationMet=false;
                 this.playerFortificationWrapper.setFortificationDisplayMessage
                         ("Countries not adjacent to each other");
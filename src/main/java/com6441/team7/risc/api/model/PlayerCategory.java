@@ -20,6 +20,10 @@ public enum PlayerCategory {
      * Benevolent
      */
     BENEVOLENT("benevolent"),
+    /**
+     * Monte Carlo tree search
+     */
+    MCTS("mcts"),
     /**
      * Human
      */
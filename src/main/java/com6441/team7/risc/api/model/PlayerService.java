@@ -2,10 +2,16 @@ package com6441.team7.risc.api.model;
 
 import com6441.team7.risc.api.wrapperview.*;
 import com6441.team7.risc.controller.TournamentController;
+import com6441.team7.risc.utils.AutoSaver;
+import com6441.team7.risc.utils.jfr.FlightRecord;
+import com6441.team7.risc.utils.jfr.GameFlightRecorder;
+import com6441.team7.risc.utils.metrics.GameMetrics;
 import com6441.team7.risc.utils.builder.AbstractPlayerServiceBuilder;
 import com6441.team7.risc.utils.builder.ConcretePlayerServiceBuilder;
 
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Contains state of players
@@ -47,6 +53,11 @@ public class PlayerService extends Observable {
 	 */
 	private Stack<Card> deckCards;
 
+	/**
+	 * random generator of the game
+	 */
+	private GameRandom gameRandom = new GameRandom();
+
 
 	/**
 	 * boolean value to check if the country conquered during the attacking phase
@@ -196,6 +207,44 @@ public class PlayerService extends Observable {
 	public void addObserver(Observer observer) {
 
 		super.addObserver(observer);
+		if(!Arrays.asList(arrObservers).contains(observer)) {
+			Observer[] arrNewObservers=Arrays.copyOf(arrObservers, arrObservers.length+1);
+			arrNewObservers[arrObservers.length]=observer;
+			arrObservers=arrNewObservers;
+		}
+	}
+	
+	/**
+	 * extends deleteObserver() from java
+	 * @param observer Observer
+	 */
+	@Override
+	public synchronized void deleteObserver(Observer observer) {
+
+		super.deleteObserver(observer);
+		arrObservers=Arrays.stream(arrObservers).filter(o -> o!=observer).toArray(Observer[]::new);
+	}
+	
+	/**
+	 * extends deleteObservers() from java
+	 */
+	@Override
+	public synchronized void deleteObservers() {
+
+		super.deleteObservers();
+		arrObservers=new Observer[0];
+	}
+	
+	/**
+	 * extends notifyObservers() from java to measure the time spent notifying the observers
+	 * @param arg the event sent to the observers
+	 */
+	@Override
+	public void notifyObservers(Object arg) {
+
+		long startNanos=GameMetrics.startTimer();
+		super.notifyObservers(arg);
+		GameMetrics.stopTimer(GameMetrics.OBSERVER_NOTIFICATION, startNanos);
 	}
 	
 	
@@ -221,7 +270,7 @@ public class PlayerService extends Observable {
 			}
 		}
 
-		//shuffle deck of cards thrice for randomisation
+		//shuffle deck of cards for randomisation
 		shuffleDeckCards();
 	}
 
@@ -229,9 +278,26 @@ public class PlayerService extends Observable {
 	 * Method to shuffle deck
 	 */
 	public void shuffleDeckCards() {
-		Collections.shuffle(deckCards);
-		Collections.shuffle(deckCards);
-		Collections.shuffle(deckCards);
+		gameRandom.shuffle(deckCards);
+	}
+
+	/**
+	 * Getter method for the random generator of the game
+	 * @return random generator used for dice, cards, country allocation and automated players
+	 */
+	public GameRandom getGameRandom() {
+		return gameRandom;
+	}
+
+	/**
+	 * Setter method for the random generator of the game.
+	 * The deck of cards is built again and shuffled with the new generator,
+	 * so it must be set before the game starts.
+	 * @param gameRandom random generator, seeded to replay a game
+	 */
+	public void setGameRandom(GameRandom gameRandom) {
+		this.gameRandom = gameRandom;
+		initialiseDeckCards();
 	}
 
 	/**
@@ -350,6 +416,10 @@ public class PlayerService extends Observable {
 
 				Player removedPlayer=listPlayers.remove(i);
 
+				if(mapService.getGameJournal()!=null) {
+					mapService.getGameJournal().playerRemoved(playerName);
+				}
+
 				if(currentPlayerIndex>i) {
 					
 					//setCurrentPlayerIndex((currentPlayerIndex-1));
@@ -385,10 +455,21 @@ public class PlayerService extends Observable {
 		if(currentPlayerIndex>=listPlayers.size()-1) {
 			this.setCurrentPlayerIndex(0);
 			turnNum++;
+			GameMetrics.TURNS.increment();
+
+			if(mapService.getGameJournal()!=null) {
+				mapService.getGameJournal().turnCompleted((int) turnNum - 1);
+			}
+			if(autoSaver!=null) {
+				autoSaver.turnCompleted((int) turnNum - 1, this);
+			}
 		}
 
 		else setCurrentPlayerIndex(this.currentPlayerIndex+1);
 
+		if(mapService.getGameJournal()!=null) {
+			mapService.getGameJournal().turnStarted(currentPlayer.getName(), getTurnNum());
+		}
 	}
 	
 	
@@ -404,6 +485,36 @@ public class PlayerService extends Observable {
 	 */
 	private boolean boolPlayerWinner;
 	
+	/**
+	 * boolean for headless mode, in which game messages are not built nor sent to observers
+	 */
+	private boolean boolHeadless;
+	
+	/**
+	 * the observers attached, kept to ask them which events they subscribe to
+	 */
+	private volatile Observer[] arrObservers=new Observer[0];
+	
+	/**
+	 * saves the game in the background every few turns, null if the game is not saved automatically
+	 */
+	private AutoSaver autoSaver;
+	
+	/**
+	 * ends automated games that stalled as a draw before the turn limit, null if games always play to the limit
+	 */
+	private StallDetector stallDetector;
+	
+	/**
+	 * search budget of the search players of this game
+	 */
+	private MctsBudget mctsBudget=MctsBudget.DEFAULT;
+	
+	/**
+	 * number of search player decisions cut short by their time cap, after which the game depends on timing
+	 */
+	private int numCutShortDecisions;
+	
 	/**
 	 * Player object 
 	 */
@@ -430,28 +541,89 @@ public class PlayerService extends Observable {
 	private double turnNum=1;
 	
 	/**
-	 * method to automate the game. 
+	 * result of the last tournament game played by this playerService
+	 */
+	private String tournamentResult;
+	
+	/**
+	 * true while automateGame() is driving the turn loop
+	 */
+	private boolean boolAutomationRunning;
+	
+	/**
+	 * set when the current automated turn has ended and the next player should play
+	 */
+	private boolean boolNextTurnRequested;
+	
+	/**
+	 * number of computer player turns automateGame() may still play before pausing, negative for no limit
+	 */
+	private int numAutomatedTurnsLeft=-1;
+	
+	/**
+	 * true when automateGame() stopped because no computer player turn was left
+	 */
+	private boolean boolAutomationPaused;
+	
+	/**
+	 * method to automate the game.
+	 * Drives the turn loop iteratively: reinforce, attack and fortify of the current player,
+	 * then the next player once fortification has switched players.
+	 * Fortification ends a turn by calling automateGame() again. While the loop is running that call
+	 * only requests the next turn and returns, so stack depth stays constant however long the game is.
 	 */
 	public void automateGame() {
-
-			// 3 Random: 1268/3 turns until stack overflow when stack is 256Kb
+		
+		if(boolAutomationRunning) {
+			boolNextTurnRequested=true;
+			return;
+		}
+		
+		boolAutomationRunning=true;
+		
+		try {
+			do {
+				boolNextTurnRequested=false;
+				playAutomatedTurn();
+			} while(boolNextTurnRequested);
+		}
+		finally {
+			boolAutomationRunning=false;
+		}
+	}
+	
+	/**
+	 * play one turn of the current player if it is a computer player.
+	 * Returns without playing when a winner has been found, when the turn limit is reached
+	 * or when the current player is human.
+	 */
+	private void playAutomatedTurn() {
 			
 			if(boolPlayerWinner) {
 				
 				//send winner
 				//turnNum - 1 for result because winner checked at the start of next turn
 				
-				tournamentController.setResult(winner.getPlayerCategory().getName()+
+				recordTournamentResult(winner.getPlayerCategory().getName()+
 						"("+winner.getName()+", numTurns: "+(turnNum-1)+")");
 				return;
 			}
 			
-			notifyPlayerServiceObservers("Turn: " + Math.ceil(turnNum));
+			if(numAutomatedTurnsLeft==0) {
+				boolAutomationPaused=true;
+				return;
+			}
+			boolAutomationPaused=false;
+			if(numAutomatedTurnsLeft>0) {
+				numAutomatedTurnsLeft--;
+			}
+			
+			notifyPlayerServiceObservers(() -> "Turn: " + Math.ceil(turnNum));
 				
 				if(turnNum>numTurnsCombined) {
 				 if(boolTournamentMode) {
 					 //draw
-					 tournamentController.setResult("DRAW");
+					 recordTournamentResult("DRAW");
 					 return;
 				 }				 
 	
@@ -459,38 +631,120 @@ public class PlayerService extends Observable {
 			 notifyPlayerServiceObservers("Exited automated game as turn limit reached.");
 			 System.exit(0);
 			 }		
-
+			
+			//the same position keeps coming back or the countries no longer change hands
+			if(stallDetector!=null && stallDetector.isStalled(mapService.getStateHash(), currentPlayerIndex, getTurnNum())) {
+				 if(boolTournamentMode) {
+					 notifyPlayerServiceObservers(() -> "Game stalled in turn "+getTurnNum()+", ended as a draw.");
+					 recordTournamentResult("DRAW");
+					 return;
+				 }
+				 
+			 notifyPlayerServiceObservers("Exited automated game as it stalled.");
+			 System.exit(0);
+			}
+			
 			// Does not affect tournament as no humans in tournament
 			if (currentPlayer.getPlayerCategory() == PlayerCategory.HUMAN) {
 				return;
 			}
-
-			else {
-
-				switch (currentPlayer.getPlayerCategory()) {
-
-				case RANDOM:
-					currentPlayer.setStrategy(new RandomStrategy(this));
-					break;
-				case AGGRESSIVE:
-					currentPlayer.setStrategy(new AggressiveStrategy(this));
-					break;
-				case BENEVOLENT:
-					currentPlayer.setStrategy(new BenevolentStrategy(this));
-					break;
-				case CHEATER:
-					currentPlayer.setStrategy(new CheaterStrategy(this));
-					break;
-				default:
-
-				}
-
-				currentPlayer.getStrategy().reinforce();
-				//this.mapService.setState(GameState.ATTACK);
-				currentPlayer.getStrategy().attack();
-				currentPlayer.getStrategy().fortify();
-
+			
+			switch (currentPlayer.getPlayerCategory()) {
+			
+			case RANDOM:
+				currentPlayer.setStrategy(new RandomStrategy(this));
+				break;
+			case AGGRESSIVE:
+				currentPlayer.setStrategy(new AggressiveStrategy(this));
+				break;
+			case BENEVOLENT:
+				currentPlayer.setStrategy(new BenevolentStrategy(this));
+				break;
+			case CHEATER:
+				currentPlayer.setStrategy(new CheaterStrategy(this));
+				break;
+			case MCTS:
+				currentPlayer.setStrategy(new MctsStrategy(this));
+				break;
+			default:
+				
 			}
+			
+			StrategyPlayer strategy=currentPlayer.getStrategy();
+			Class<?> strategyClass=strategy.getClass();
+			
+			FlightRecord turnRecord=GameFlightRecorder.beginTurn(currentPlayer, strategyClass, getTurnNum());
+			
+			long startNanos=GameMetrics.startTimer();
+			FlightRecord phaseRecord=GameFlightRecorder.beginPhase(strategyClass, "reinforce");
+			strategy.reinforce();
+			GameFlightRecorder.end(phaseRecord);
+			startNanos=GameMetrics.stopPhaseTimer(strategyClass, GameMetrics.PHASE_REINFORCE, startNanos);
+			
+			phaseRecord=GameFlightRecorder.beginPhase(strategyClass, "attack");
+			strategy.attack();
+			GameFlightRecorder.end(phaseRecord);
+			startNanos=GameMetrics.stopPhaseTimer(strategyClass, GameMetrics.PHASE_ATTACK, startNanos);
+			
+			//fortify ends the turn and requests the next one through automateGame()
+			phaseRecord=GameFlightRecorder.beginPhase(strategyClass, "fortify");
+			strategy.fortify();
+			GameFlightRecorder.end(phaseRecord);
+			GameMetrics.stopPhaseTimer(strategyClass, GameMetrics.PHASE_FORTIFY, startNanos);
+			
+			GameFlightRecorder.end(turnRecord);
+	}
+	
+	/**
+	 * keeps the result of a tournament game and passes it to the tournament controller if one is set
+	 * @param strResult game outcome
+	 */
+	private void recordTournamentResult(String strResult) {
+		
+		this.tournamentResult=strResult;
+		
+		if(tournamentController!=null) tournamentController.setResult(strResult);
+	}
+	
+	/**
+	 * getter for tournamentResult
+	 * @return result of the last tournament game, null if no game has ended yet
+	 */
+	public String getTournamentResult() {
+		return tournamentResult;
+	}
+	
+	/**
+	 * setter for numAutomatedTurnsLeft, used to play an automated game turn by turn.
+	 * automateGame() pauses before the next computer player turn once the turns are played.
+	 * @param turns number of computer player turns to play, negative for no limit
+	 */
+	public void setNumAutomatedTurnsLeft(int turns) {
+		this.numAutomatedTurnsLeft=turns;
+	}
+	
+	/**
+	 * getter for boolAutomationPaused
+	 * @return true if automateGame() is paused before the turn of the current player
+	 */
+	public boolean getBoolAutomationPaused() {
+		return boolAutomationPaused;
+	}
+	
+	/**
+	 * getter for turnNum
+	 * @return number of the turn being played, every player plays once per turn
+	 */
+	public int getTurnNum() {
+		return (int) turnNum;
+	}
+	
+	/**
+	 * setter for turnNum, to bring a recovered game back to the turn it was playing
+	 * @param turn number of the turn being played
+	 */
+	public void setTurnNum(int turn) {
+		this.turnNum=turn;
 	}
 	
 	/**
@@ -518,7 +772,7 @@ public class PlayerService extends Observable {
 	 * @param bool boolean value
 	 */
 	public void setBoolTournamentMode(boolean bool) {
-		this.boolTournamentMode=true;
+		this.boolTournamentMode=bool;
 	}
 	
 	/**
@@ -529,6 +783,119 @@ public class PlayerService extends Observable {
 		return boolTournamentMode;
 	}
 	
+	/**
+	 * setter for boolHeadless
+	 * @param bool true to play without building game messages
+	 */
+	public void setBoolHeadless(boolean bool) {
+		this.boolHeadless=bool;
+	}
+	
+	/**
+	 * getter for boolHeadless
+	 * @return returns boolean of boolHeadless
+	 */
+	public boolean getBoolHeadless() {
+		return boolHeadless;
+	}
+	
+	/**
+	 * setter for autoSaver
+	 * @param autoSaver saves the game every few turns, null to stop saving automatically
+	 */
+	public void setAutoSaver(AutoSaver autoSaver) {
+		this.autoSaver=autoSaver;
+	}
+	
+	/**
+	 * getter for autoSaver
+	 * @return the autoSaver, null if the game is not saved automatically
+	 */
+	public AutoSaver getAutoSaver() {
+		return autoSaver;
+	}
+	
+	/**
+	 * setter for stallDetector
+	 * @param stallDetector ends automated games that stalled as a draw, null to play every game to the turn limit
+	 */
+	public void setStallDetector(StallDetector stallDetector) {
+		this.stallDetector=stallDetector;
+	}
+	
+	/**
+	 * getter for stallDetector
+	 * @return the stallDetector, null if games always play to the turn limit
+	 */
+	public StallDetector getStallDetector() {
+		return stallDetector;
+	}
+	
+	/**
+	 * setter for mctsBudget
+	 * @param mctsBudget search budget of the search players of this game
+	 */
+	public void setMctsBudget(MctsBudget mctsBudget) {
+		this.mctsBudget=mctsBudget;
+	}
+	
+	/**
+	 * getter for mctsBudget
+	 * @return search budget of the search players of this game
+	 */
+	public MctsBudget getMctsBudget() {
+		return mctsBudget;
+	}
+	
+	/**
+	 * count a search player decision cut short by its time cap
+	 */
+	public void addCutShortDecision() {
+		numCutShortDecisions++;
+	}
+	
+	/**
+	 * getter for numCutShortDecisions
+	 * @return number of decisions cut short by their time cap, 0 if the game can be played again from its seed
+	 */
+	public int getNumCutShortDecisions() {
+		return numCutShortDecisions;
+	}
+	
+	/**
+	 * setter for numCutShortDecisions, reset before a new game
+	 * @param numDecisions number of decisions cut short
+	 */
+	public void setNumCutShortDecisions(int numDecisions) {
+		this.numCutShortDecisions=numDecisions;
+	}
+	
+	/**
+	 * Checks if game messages are read by anyone.
+	 * They are not when the game is headless or when no observer is attached, as in games played by tournament workers.
+	 * @return true if game messages must be built and sent to observers
+	 */
+	public boolean isMessageObserved() {
+		return !boolHeadless && countObservers()>0;
+	}
+	
+	/**
+	 * Checks if a class of events is read by anyone.
+	 * Observers that are not EventSubscribers read every event.
+	 * @param eventClass class of the events
+	 * @return true if events of this class must be built and sent to observers
+	 */
+	public boolean isEventObserved(Class<?> eventClass) {
+		if(!isMessageObserved()) return false;
+
+		for(Observer observer: arrObservers) {
+			if(!(observer instanceof EventSubscriber) || ((EventSubscriber) observer).isSubscribed(this, eventClass)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
 	/**
 	 * setter for tournamentController
 	 * @param tournamentController to be set
@@ -614,9 +981,7 @@ public class PlayerService extends Observable {
 	 */
 	public void reinforceArmy(Player player, String country, int armyNum){
 		player.reinforceArmy(country, armyNum, mapService);
-		ReinforcedArmyWrapper reinforcedArmyWrapper = new ReinforcedArmyWrapper(player, country, armyNum);
-		setChanged();
-		notifyObservers(reinforcedArmyWrapper);
+		notifyPlayerServiceObservers(ReinforcedArmyWrapper.class, () -> new ReinforcedArmyWrapper(player, country, armyNum));
 	}
 	
 	/**
@@ -640,9 +1005,7 @@ public class PlayerService extends Observable {
 	 */
 	public void showCardsInfo(Player player){
 
-		ReinforcedCardWrapper cardWrapper = new ReinforcedCardWrapper(player, player.getCardList());
-		setChanged();
-		notifyObservers(cardWrapper);
+		notifyPlayerServiceObservers(ReinforcedCardWrapper.class, () -> new ReinforcedCardWrapper(player, player.getCardList()));
 	}
 
 	/**
@@ -680,6 +1043,11 @@ public class PlayerService extends Observable {
 
 		player.removeCards(cardList);
 		returnToDeck(cardList);
+
+		if(mapService.getGameJournal()!=null) {
+			cardList.forEach(card -> mapService.getGameJournal().cardRemoved(player.getName(), card));
+			mapService.getGameJournal().cardsTradedIn(player.getName(), player.getTradeInTimes());
+		}
 		notifyObservers(player);
 	}
 	
@@ -700,80 +1068,48 @@ public class PlayerService extends Observable {
 		setChanged();
 		notifyObservers(object);
 	}
+	
+	/**
+	 * Function that notifies all playerService observers with a message built only if it is read.
+	 * Used by automated players and attacks, whose messages are not read in headless games,
+	 * so that no string or wrapper is built for them.
+	 * @param messageSupplier builds the message or the wrapper to be sent
+	 */
+	public void notifyPlayerServiceObservers(Supplier<?> messageSupplier) {
+
+		if(!isMessageObserved()) return;
+
+		notifyPlayerServiceObservers(messageSupplier.get());
+	}
+	
+	/**
+	 * Function that notifies all playerService observers with an event built only if an observer subscribes to its class,
+	 * so that adding views that ignore an event does not make the event built for nothing.
+	 * @param eventClass class of the event
+	 * @param eventSupplier builds the event to be sent
+	 * @param <T> type of the event
+	 */
+	public <T> void notifyPlayerServiceObservers(Class<T> eventClass, Supplier<? extends T> eventSupplier) {
+
+		if(!isEventObserved(eventClass)) return;
+
+		notifyPlayerServiceObservers(eventSupplier.get());
+	}
 
 	/**
 	 * This method checks if any player owns any continent.
-	 * It loops through all countries in each continent and check if they have the same owner.
+	 * The owner of each continent is read from the ownership counters of the map,
+	 * which are updated whenever a country changes owner.
 	 * Used for domination view and attack phase
 	 * @return map of (continent id, player name), if any player owns the respective continent
 	 */
 	public Map<Integer, String> checkContinentOwners() {
 
-		Map<Integer, Set<Integer>> continentCountriesMap = mapService.getContinentCountriesMap();
-
 		Map<Integer, String> continentOwnerMap=new HashMap<>();
 
-		//Loop through every continent's countries
-		//check if owner is same for all countries of the continent
-
-		for(Map.Entry<Integer, Set<Integer>> item :
-				mapService.getContinentCountriesMap().entrySet()) {
-
-			int key=(int) item.getKey();
-
-			Optional<Continent> optionalContinent=mapService.getContinentById(key);
-			Continent currentContinent= (Continent) optionalContinent.get();
-
-			Set<Integer> value=item.getValue();
-
-			//If continent empty, move to next continent
-			if(value.size()==0) continue;
-
-			//Only 1 country in continent: player of that country therefore owns continent
-			if(value.size()==1) {
-
-				int countryId=-1; //initialising variable
-
-				for(Integer i:value) countryId=i;
-
-				Optional<Country> optionalCountry=mapService.getCountryById(countryId);
-				Country currentCountry=optionalCountry.get();
-				String currentCountryOwnerName=currentCountry.getPlayer().getName();
-
-				continentOwnerMap.put(key, currentCountryOwnerName);
-				continue;
-			}
-
-			boolean boolSameOwner=true;
-
-			String ownerName="";
-
-			int counter=0;
-
-			for(Integer i:value) {
-				//For Each Country In Continent, Get owner
-				Optional<Country> optionalCountry=mapService.getCountryById(i);
-
-				Country currentCountry=optionalCountry.get();
-				String currentCountryOwnerName=currentCountry.getPlayer().getName();
-
-				//Set owner of first country as ownerName with which all other country owner names will be compared
-				if(counter==0) {
-					ownerName=currentCountryOwnerName;
-					counter++;
-					continue;
-				}
-
-				if(!currentCountryOwnerName.equals(ownerName)) {
-					boolSameOwner=false;
-					break;
-				}
-
-				counter++;
-			}    //End of looping through all countries of 1 continent
-
-			if(boolSameOwner) continentOwnerMap.put(key, ownerName);
-
+		for(Integer continentId : mapService.getContinentCountriesMap().keySet()) {
+			mapService.findContinentOwnerName(continentId)
+					.ifPresent(ownerName -> continentOwnerMap.put(continentId, ownerName));
 		}
 
 		return continentOwnerMap;
@@ -784,47 +1120,61 @@ public class PlayerService extends Observable {
 	/**
 	 *Determines percentage controlled by every player, ownership of continents by every player,
 	 *number of soldiers controller by every player and then notifies observers of playerservice.
+	 *The numbers are kept up to date by the domination statistics of the map,
+	 *and only the players whose numbers changed since the last notification are sent.
 	 *Notifies Domination view by sending list of players and their corresponding info using PlayerDominationWrapper
 	 */
 	public void evaluateWorldDomination() {
 
-		//Check if any player owns any continents
-		Map<Integer, String> continentOwnerMap=checkContinentOwners();
+		long startNanos=GameMetrics.startTimer();
+
+		//Changes are kept until the numbers are read again
+		if(isEventObserved(ArrayList.class)) evaluateChangedWorldDomination();
+
+		GameMetrics.stopTimer(GameMetrics.WORLD_DOMINATION, startNanos);
+	}
+
+	/**
+	 * Sends the domination of the players whose numbers changed since the last notification
+	 */
+	private void evaluateChangedWorldDomination() {
+
+		DominationStatistics dominationStatistics=mapService.getDominationStatistics();
 
 		int numCountries=mapService.getCountries().size();
 
 		ArrayList<PlayerDominationWrapper> listPlayerDomination=new ArrayList<>();
 		
-		//Loop through every player, calculate percentage and other info
+		//Loop through every changed player, calculate percentage and other info
 		for(Player p: listPlayers) {
 
 			String playerName=p.getName();
 
-			int numPlayerCountries=p.getCountryPlayerList().size();
+			if(!dominationStatistics.isChangedSinceLastPublication(playerName)) continue;
+
+			int numPlayerCountries=dominationStatistics.getNumCountries(playerName);
 
 			float percentageMap= (numPlayerCountries*100.0f) / numCountries;
 
-			int numPlayerArmies=calculateTotalPlayerArmies(p);
+			int numPlayerArmies=dominationStatistics.getNumArmies(playerName);
 
 			PlayerDominationWrapper playerDominationWrapper=new PlayerDominationWrapper(playerName,
 					percentageMap, numPlayerArmies);
 
-			//Check if player owns any continent and add to list
-
-			for(Map.Entry<Integer, String> item: continentOwnerMap.entrySet()) {
-
-				int key= (int) item.getKey();
-				String strValue= item.getValue().toString();
-
-				if(strValue.equals(playerName)) {
-					String continentName=mapService.getContinentById(key).get().getName();
-					playerDominationWrapper.addContinentNameToWrapperList(continentName);
-				}
+			//Add continents owned by the player to list
 
+			for(Integer continentId: dominationStatistics.getContinentIds(playerName)) {
+				mapService.getContinentById(continentId)
+						.ifPresent(continent -> playerDominationWrapper.addContinentNameToWrapperList(continent.getName()));
 			}
+
 			listPlayerDomination.add(playerDominationWrapper);
 		}
 
+		dominationStatistics.markPublished(listPlayers.stream().map(Player::getName).collect(Collectors.toList()));
+
+		if(listPlayerDomination.isEmpty()) return;
+
 		//NOTIFY TO OBSERVERS
 
 		setChanged();
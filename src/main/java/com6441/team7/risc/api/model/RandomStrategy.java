@@ -1,7 +1,5 @@
 package com6441.team7.risc.api.model;
 
-import java.util.Collections;
-import java.util.Random;
 import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -39,7 +37,7 @@ public class RandomStrategy implements StrategyPlayer{
 	public RandomStrategy(PlayerService playerService) {
 		this.playerService = playerService;
 		this.player = playerService.getCurrentPlayer();
-		this.playerService.notifyPlayerServiceObservers("Random Strategy");
+		this.playerService.notifyPlayerServiceObservers(() -> "Random Strategy");
 	}
 	
 	/**
@@ -56,7 +54,7 @@ public class RandomStrategy implements StrategyPlayer{
 		
 		//Then Reinforce Random Country
 		
-		Random rn=new Random();
+		GameRandom rn=playerService.getGameRandom();
 		
 		Country randomCountry = player.getCountryPlayerList().get(rn.nextInt(player.getCountryPlayerList().size()));
 		
@@ -83,7 +81,7 @@ public class RandomStrategy implements StrategyPlayer{
 		//Find adjacent country that does not belong to player
 		//Attack that adjacent country
 		
-		Collections.shuffle(player.getCountryPlayerList());
+		playerService.getGameRandom().shuffle(player.getCountryPlayerList());
 		
 
 		for(Country c:player.getCountryPlayerList()) {
@@ -107,7 +105,7 @@ public class RandomStrategy implements StrategyPlayer{
 			if(boolTargetFound) {
 				
 				//Decide Random num times attack (1-5)
-				int numTimesAttack=new Random().nextInt(5)+1;
+				int numTimesAttack=playerService.getGameRandom().nextInt(5)+1;
 				
 				
 				for(int i=0;i<numTimesAttack;i++) {
@@ -135,7 +133,7 @@ public class RandomStrategy implements StrategyPlayer{
 		}	
 		
 		//Attack Not Possible since no targets found
-		playerService.notifyPlayerServiceObservers("No Attack Targets Found.");
+		playerService.notifyPlayerServiceObservers(() -> "No Attack Targets Found.");
 		player.endAttackPhase(playerService);
 		
 	}
@@ -181,7 +179,7 @@ public class RandomStrategy implements StrategyPlayer{
 		}
 		else {			
 			//By default boolFortifyNone is set to true
-			playerService.notifyPlayerServiceObservers("Fortify NONE");
+			playerService.notifyPlayerServiceObservers(() -> "Fortify NONE");
 			playerFortificationWrapper=new PlayerFortificationWrapper();
 			
 		}
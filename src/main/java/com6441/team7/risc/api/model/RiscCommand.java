@@ -44,6 +44,7 @@ public enum RiscCommand {
     LOADGAME("loadgame"),
     SAVEGAME("savegame"),
     EXITLOADGAME("exitloadgame"),
+    RECOVERGAME("recovergame"),
     TEST_TOURNAMENT("testtournament");
 
 
@@ -0,0 +1,107 @@
+package com6441.team7.risc.api.model;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class tells when an automated game has stalled, so that it can end as a draw before its turn limit.
+ * It is asked at the start of every player turn with the {@link StateHash} of the map, and a game has stalled when
+ * the same position (owners, soldiers and player to play) comes back a number of times,
+ * or when the countries have not been shared out in a new way for a number of turns,
+ * as when players only move their armies around or take back what they just lost.
+ * Either rule is turned off by a limit of 0.
+ */
+public class StallDetector {
+
+    /**
+     * number of times a position is seen before the game has stalled, 0 to ignore repeated positions
+     */
+    private final int maxRepetitions;
+
+    /**
+     * number of turns without a new sharing out of the countries before the game has stalled, 0 to ignore it
+     */
+    private final int maxTurnsWithoutProgress;
+
+    /**
+     * number of times each position was seen, by position hash
+     */
+    private final Map<Long, Integer> positionCounts = new HashMap<>();
+
+    /**
+     * hashes of the owners of the countries already seen
+     */
+    private final Set<Long> ownerHashes = new HashSet<>();
+
+    /**
+     * turn in which the countries were last shared out in a new way
+     */
+    private int lastProgressTurn;
+
+    /**
+     * constructor
+     * @param maxRepetitions number of times a position is seen before the game has stalled, 0 to ignore repeated positions
+     * @param maxTurnsWithoutProgress number of turns without a new sharing out of the countries before the game has stalled,
+     *                                0 to ignore it
+     */
+    public StallDetector(int maxRepetitions, int maxTurnsWithoutProgress) {
+        if (maxRepetitions < 0 || maxTurnsWithoutProgress < 0) {
+            throw new IllegalArgumentException("the limits of a stalled game cannot be negative");
+        }
+        this.maxRepetitions = maxRepetitions;
+        this.maxTurnsWithoutProgress = maxTurnsWithoutProgress;
+    }
+
+    /**
+     * record the position at the start of a player turn and check if the game has stalled
+     * @param stateHash hash of the map of the game
+     * @param currentPlayerIndex index of the player whose turn starts
+     * @param turn number of the turn, every player plays once per turn
+     * @return true if the game has stalled
+     */
+    public boolean isStalled(StateHash stateHash, int currentPlayerIndex, int turn) {
+        boolean boolStalled = false;
+
+        if (maxRepetitions > 0) {
+            long positionHash = stateHash.getHash() ^ StateHash.getPlayerKey(currentPlayerIndex);
+            boolStalled = positionCounts.merge(positionHash, 1, Integer::sum) >= maxRepetitions;
+        }
+
+        if (maxTurnsWithoutProgress > 0) {
+            if (ownerHashes.add(stateHash.getOwnerHash())) {
+                lastProgressTurn = turn;
+            } else if (turn - lastProgressTurn >= maxTurnsWithoutProgress) {
+                boolStalled = true;
+            }
+        }
+
+        return boolStalled;
+    }
+
+    /**
+     * forget the positions seen, before a new game
+     */
+    public void reset() {
+        positionCounts.clear();
+        ownerHashes.clear();
+        lastProgressTurn = 0;
+    }
+
+    /**
+     * get the number of times a position is seen before the game has stalled
+     * @return number of repetitions, 0 if repeated positions are ignored
+     */
+    public int getMaxRepetitions() {
+        return maxRepetitions;
+    }
+
+    /**
+     * get the number of turns without a new sharing out of the countries before the game has stalled
+     * @return number of turns, 0 if it is ignored
+     */
+    public int getMaxTurnsWithoutProgress() {
+        return maxTurnsWithoutProgress;
+    }
+}
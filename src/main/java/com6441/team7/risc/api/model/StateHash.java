@@ -0,0 +1,174 @@
+package com6441.team7.risc.api.model;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class keeps a Zobrist hash of the countries of a {@link MapService}:
+ * every owner and every number of soldiers of every country has its own random key,
+ * and the hash is the exclusive or of the keys of the current owners and soldiers.
+ * {@link Country} updates it when a country changes owner or soldiers, by taking the old key out and putting
+ * the new key in, so the hash of the game is known at any time without reading the whole map.
+ * A second hash only covers the owners, to tell when the countries have been shared out the same way before.
+ * The keys are drawn from a fixed seed by a mixing function instead of tables,
+ * since the numbers of soldiers have no bound, so the same state always gets the same hash.
+ * Any change to the countries of the map makes the hashes stale, and they are rebuilt the next time they are read.
+ */
+public class StateHash {
+
+    /**
+     * seed of the owner keys
+     */
+    private static final long OWNER_SEED = 0x5DEECE66DL;
+
+    /**
+     * seed of the soldier keys
+     */
+    private static final long SOLDIERS_SEED = 0xC2B2AE3D27D4EB4FL;
+
+    /**
+     * increment of the Weyl sequence feeding the mixing function
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * the map whose countries are hashed
+     */
+    private final MapService mapService;
+
+    /**
+     * true if the map has changed since the hashes were built
+     */
+    private boolean boolStale = true;
+
+    /**
+     * hash of the owners of the countries
+     */
+    private long ownerHash;
+
+    /**
+     * hash of the soldiers of the countries
+     */
+    private long soldiersHash;
+
+    /**
+     * constructor
+     * @param mapService the map whose countries are hashed
+     */
+    StateHash(MapService mapService) {
+        this.mapService = mapService;
+    }
+
+    /**
+     * mark the hashes as stale after the countries of the map changed
+     */
+    void invalidate() {
+        boolStale = true;
+    }
+
+    /**
+     * update the hashes after a country changed owner
+     * @param countryId id of the country
+     * @param previousOwner the previous owner, may be null
+     * @param newOwner the new owner, may be null
+     */
+    void countryOwnerChanged(int countryId, Player previousOwner, Player newOwner) {
+        if (boolStale) {
+            return;
+        }
+        ownerHash ^= getOwnerKey(countryId, previousOwner) ^ getOwnerKey(countryId, newOwner);
+    }
+
+    /**
+     * update the hashes after the number of soldiers of a country changed
+     * @param countryId id of the country
+     * @param previousSoldiers number of soldiers before the change
+     * @param newSoldiers number of soldiers after the change
+     */
+    void countrySoldiersChanged(int countryId, int previousSoldiers, int newSoldiers) {
+        if (boolStale || previousSoldiers == newSoldiers) {
+            return;
+        }
+        soldiersHash ^= getSoldiersKey(countryId, previousSoldiers) ^ getSoldiersKey(countryId, newSoldiers);
+    }
+
+    /**
+     * get the hash of the owners and the soldiers of every country
+     * @return the hash
+     */
+    public long getHash() {
+        rebuildIfStale();
+        return ownerHash ^ soldiersHash;
+    }
+
+    /**
+     * get the hash of the owners of every country, whatever their soldiers
+     * @return the hash
+     */
+    public long getOwnerHash() {
+        rebuildIfStale();
+        return ownerHash;
+    }
+
+    /**
+     * get the key of a player whose turn it is, to tell the same countries apart when another player plays
+     * @param playerIndex index of the player in the player list
+     * @return the key
+     */
+    public static long getPlayerKey(int playerIndex) {
+        return mix(OWNER_SEED ^ SOLDIERS_SEED ^ (playerIndex + 1L) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * build both hashes from the countries of the map
+     */
+    private void rebuildIfStale() {
+        if (!boolStale) {
+            return;
+        }
+
+        ownerHash = 0;
+        soldiersHash = 0;
+        for (Country country : mapService.getCountries()) {
+            if (isNull(country.getId())) {
+                continue;
+            }
+            ownerHash ^= getOwnerKey(country.getId(), country.getPlayer());
+            soldiersHash ^= getSoldiersKey(country.getId(), isNull(country.getSoldiers()) ? 0 : country.getSoldiers());
+        }
+        boolStale = false;
+    }
+
+    /**
+     * get the key of a country owned by a player
+     * @param countryId id of the country
+     * @param owner the owner, null if the country has no owner
+     * @return the key, 0 for a country without owner
+     */
+    private static long getOwnerKey(int countryId, Player owner) {
+        if (isNull(owner) || isNull(owner.getName())) {
+            return 0;
+        }
+        return mix(OWNER_SEED + countryId * GOLDEN_GAMMA + mix(owner.getName().hashCode()));
+    }
+
+    /**
+     * get the key of a country holding a number of soldiers
+     * @param countryId id of the country
+     * @param soldiers number of soldiers
+     * @return the key
+     */
+    private static long getSoldiersKey(int countryId, int soldiers) {
+        return mix(SOLDIERS_SEED + countryId * GOLDEN_GAMMA + mix(soldiers));
+    }
+
+    /**
+     * mix the bits of a number, as the finalizer of SplitMix64
+     * @param z the number
+     * @return the mixed number
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,7 +1,7 @@
 package com6441.team7.risc.api.model;
 
 /**
- * Strategy interface. Used in strategy pattern, for aggressive, benevolent, cheater, random
+ * Strategy interface. Used in strategy pattern, for aggressive, benevolent, cheater, random, mcts
  * @author Keshav
  *
  */
@@ -0,0 +1,110 @@
+package com6441.team7.risc.api.wrapperview;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class holds the handlers a view registers for each class of events.
+ * An event is passed to the handler of its class, or else of its closest superclass or interface,
+ * found once per class and then kept, so that dispatching an event is a single map lookup.
+ */
+public class EventHandlers {
+
+    /**
+     * kept for the classes of events without a handler
+     */
+    private static final Consumer<Object> NO_HANDLER = event -> { };
+
+    /**
+     * the handlers registered, by class of events
+     */
+    private final Map<Class<?>, Consumer<Object>> mapRegisteredHandlers = new ConcurrentHashMap<>();
+
+    /**
+     * the handler found for every class of events dispatched so far
+     */
+    private final Map<Class<?>, Consumer<Object>> mapHandlers = new ConcurrentHashMap<>();
+
+    /**
+     * register the handler of a class of events, replacing the previous one
+     * @param eventClass class of the events
+     * @param handler handles the events
+     * @param <T> type of the events
+     * @return this, to register several handlers in a row
+     */
+    public <T> EventHandlers on(Class<T> eventClass, Consumer<? super T> handler) {
+        mapRegisteredHandlers.put(eventClass, event -> handler.accept(eventClass.cast(event)));
+        mapHandlers.clear();
+        return this;
+    }
+
+    /**
+     * pass an event to its handler
+     * @param event the event
+     * @return true if the event has a handler
+     */
+    public boolean dispatch(Object event) {
+        if (isNull(event)) {
+            return false;
+        }
+
+        Consumer<Object> handler = getHandler(event.getClass());
+        if (handler == NO_HANDLER) {
+            return false;
+        }
+
+        handler.accept(event);
+        return true;
+    }
+
+    /**
+     * check if a class of events has a handler
+     * @param eventClass class of the events
+     * @return true if the events of this class have a handler
+     */
+    public boolean isSubscribed(Class<?> eventClass) {
+        return getHandler(eventClass) != NO_HANDLER;
+    }
+
+    /**
+     * get the handler of a class of events
+     * @param eventClass class of the events
+     * @return the handler, NO_HANDLER if there is none
+     */
+    private Consumer<Object> getHandler(Class<?> eventClass) {
+        Consumer<Object> handler = mapHandlers.get(eventClass);
+        if (isNull(handler)) {
+            handler = findHandler(eventClass);
+            mapHandlers.put(eventClass, handler);
+        }
+        return handler;
+    }
+
+    /**
+     * find the handler of the class of events, of its closest superclass, or else of one of its interfaces
+     * @param eventClass class of the events
+     * @return the handler, NO_HANDLER if there is none
+     */
+    private Consumer<Object> findHandler(Class<?> eventClass) {
+        for (Class<?> superClass = eventClass; !isNull(superClass); superClass = superClass.getSuperclass()) {
+            Consumer<Object> handler = mapRegisteredHandlers.get(superClass);
+            if (!isNull(handler)) {
+                return handler;
+            }
+        }
+
+        for (Class<?> superClass = eventClass; !isNull(superClass); superClass = superClass.getSuperclass()) {
+            for (Class<?> eventInterface : superClass.getInterfaces()) {
+                Consumer<Object> handler = mapRegisteredHandlers.get(eventInterface);
+                if (!isNull(handler)) {
+                    return handler;
+                }
+            }
+        }
+
+        return NO_HANDLER;
+    }
+}
@@ -0,0 +1,20 @@
+package com6441.team7.risc.api.wrapperview;
+
+import java.util.Observable;
+import java.util.Observer;
+
+/**
+ * This interface is implemented by the observers that only handle some classes of events.
+ * The models ask it before building an event, so that events no observer subscribes to are never built.
+ * Observers not implementing it receive every event.
+ */
+public interface EventSubscriber extends Observer {
+
+    /**
+     * check if the observer handles a class of events sent by a model
+     * @param observable the model sending the event
+     * @param eventClass class of the event
+     * @return true if the observer handles the events of this class
+     */
+    boolean isSubscribed(Observable observable, Class<?> eventClass);
+}
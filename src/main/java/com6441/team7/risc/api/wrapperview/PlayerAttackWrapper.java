@@ -35,6 +35,12 @@ public class PlayerAttackWrapper {
 	 */
 	boolean boolAllOut;
 
+	/**
+	 * boolean value to validate if an allout attack is resolved in one step
+	 * from the precomputed battle results instead of round by round
+	 */
+	boolean boolSampledAllOut;
+
 	/**
 	 * boolean value to validate if attack is over
 	 * Used for display purposes
@@ -107,6 +113,22 @@ public class PlayerAttackWrapper {
 		return boolAllOut;
 	}
 
+	/**
+	 * set boolean value sampled allout to true
+	 * the allout attack then skips the dice of every round and only reports the final result
+	 */
+	public void setBooleanSampledAllOut() {
+		this.boolSampledAllOut=true;
+	}
+
+	/**
+	 * get booleanSampledAllOut value
+	 * @return boolean
+	 */
+	public boolean getBooleanSampledAllOut() {
+		return boolSampledAllOut;
+	}
+
 	/**
 	 * get fromCountry
 	 * @return country
@@ -0,0 +1,248 @@
+package com6441.team7.risc.controller;
+
+import com6441.team7.risc.api.model.GameRandom;
+import com6441.team7.risc.api.model.MapService;
+import com6441.team7.risc.api.model.MctsBudget;
+import com6441.team7.risc.api.model.PlayerCategory;
+import com6441.team7.risc.api.model.PlayerService;
+import com6441.team7.risc.api.model.StallDetector;
+import com6441.team7.risc.view.GameView;
+import com6441.team7.risc.view.HeadlessView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class plays a tournament game again from what the tournament printed about it:
+ * the map, the player strategies, the turn limit and the seed of the game.
+ * Tournament games depend only on these, so the game is played exactly as in the tournament,
+ * on its own MapService and PlayerService and without any console.
+ * The game can be played to the end, fast forwarded to a turn, or played one player turn at a time
+ * to inspect the map and the players between turns.
+ */
+public class GameReplay {
+
+    /**
+     * the map of the game
+     */
+    private final MapService mapService;
+
+    /**
+     * the players of the game
+     */
+    private final PlayerService playerService;
+
+    /**
+     * loads the map and places the players
+     */
+    private final StartupGameController startupGameController;
+
+    /**
+     * the map file
+     */
+    private final String mapName;
+
+    /**
+     * strategies of the players, in playing order
+     */
+    private final List<String> listPlayerStrategy;
+
+    /**
+     * true once the map is loaded and the armies placed
+     */
+    private boolean boolStarted;
+
+    /**
+     * constructor, the game is set up but not started
+     * @param mapName the map file
+     * @param listPlayerStrategy strategies of the players, in playing order
+     * @param gameSeed seed of the random generator of the game
+     * @param numTurns maximum number of turns before a draw
+     * @throws IllegalArgumentException if a strategy is not a computer strategy, as the game could not go on
+     * without a console
+     */
+    public GameReplay(String mapName, List<String> listPlayerStrategy, long gameSeed, int numTurns) {
+        this.mapName = mapName;
+        this.listPlayerStrategy = new ArrayList<>(listPlayerStrategy);
+
+        mapService = new MapService();
+        playerService = new PlayerService(mapService);
+
+        MapLoaderController mapLoaderController = new MapLoaderController(mapService);
+        startupGameController = new StartupGameController(mapLoaderController, playerService);
+
+        GameView headlessView = new HeadlessView();
+        mapLoaderController.setView(headlessView);
+        startupGameController.setView(headlessView);
+
+        playerService.setGameRandom(new GameRandom(gameSeed));
+        playerService.setBoolTournamentMode(true);
+        playerService.setNumTurns(numTurns);
+
+        for (int i = 0; i < listPlayerStrategy.size(); i++) {
+            playerService.addPlayer(getPlayerName(listPlayerStrategy.get(i), i), listPlayerStrategy.get(i));
+
+            if (playerService.getPlayerList().get(i).getPlayerCategory() == PlayerCategory.HUMAN) {
+                throw new IllegalArgumentException("not a computer strategy: " + listPlayerStrategy.get(i));
+            }
+        }
+    }
+
+    /**
+     * end the game as a draw when it stalls, as the tournament did, before the game starts
+     * @param stallDetector the detector, null to play to the turn limit
+     */
+    public void setStallDetector(StallDetector stallDetector) {
+        playerService.setStallDetector(stallDetector);
+    }
+
+    /**
+     * set the search budget of the search players, as the tournament did, before the game starts
+     * @param mctsBudget the search budget
+     */
+    public void setMctsBudget(MctsBudget mctsBudget) {
+        playerService.setMctsBudget(mctsBudget);
+    }
+
+    /**
+     * get the name a tournament gives to a player
+     * @param strategy strategy of the player
+     * @param index position of the player in playing order
+     * @return player name
+     */
+    public static String getPlayerName(String strategy, int index) {
+        return "Player " + strategy + " " + (index + 1);
+    }
+
+    /**
+     * load the map and place the armies of the players, then pause before the first turn
+     */
+    public void start() {
+        if (boolStarted) {
+            return;
+        }
+        boolStarted = true;
+
+        playerService.setNumAutomatedTurnsLeft(0);
+
+        startupGameController.loadMap("loadmap " + mapName);
+        startupGameController.populateCountries();
+        startupGameController.placeAll();
+    }
+
+    /**
+     * play the turn of the current player
+     * @return true if the game is not over after the turn
+     */
+    public boolean step() {
+        return play(1);
+    }
+
+    /**
+     * play until a turn starts, every player playing once per turn
+     * @param turn the turn to stop at
+     * @return true if the game is not over when the turn starts
+     */
+    public boolean fastForward(int turn) {
+        start();
+        while (!isFinished() && playerService.getTurnNum() < turn) {
+            step();
+        }
+        return !isFinished();
+    }
+
+    /**
+     * play the game to the end
+     * @return the result of the game, as a tournament prints it
+     */
+    public String runToEnd() {
+        play(-1);
+        return getResult();
+    }
+
+    /**
+     * play the game to the end and compare its result with the result recorded by a tournament
+     * @param recordedResult the result recorded by the tournament
+     * @return true if the replayed game ends with the same result
+     */
+    public boolean verify(String recordedResult) {
+        return recordedResult.equals(runToEnd());
+    }
+
+    /**
+     * play a number of player turns
+     * @param numPlayerTurns number of player turns, negative to play to the end
+     * @return true if the game is not over after the turns
+     */
+    private boolean play(int numPlayerTurns) {
+        start();
+        if (isFinished()) {
+            return false;
+        }
+
+        playerService.setNumAutomatedTurnsLeft(numPlayerTurns);
+        playerService.automateGame();
+        playerService.setNumAutomatedTurnsLeft(0);
+
+        return !isFinished();
+    }
+
+    /**
+     * check if the game can be played again from its seed,
+     * which is not the case once the time cap of a search player cut a decision short
+     * @return true if no decision was cut short
+     */
+    public boolean isReproducible() {
+        return playerService.getNumCutShortDecisions() == 0;
+    }
+
+    /**
+     * check if the game is over
+     * @return true if a player has won or the turn limit is reached
+     */
+    public boolean isFinished() {
+        return !isNull(playerService.getTournamentResult());
+    }
+
+    /**
+     * get the result of the game
+     * @return the result, as a tournament prints it, null while the game is not over
+     */
+    public String getResult() {
+        return playerService.getTournamentResult();
+    }
+
+    /**
+     * get the turn being played
+     * @return turn number, every player plays once per turn
+     */
+    public int getTurn() {
+        return playerService.getTurnNum();
+    }
+
+    /**
+     * get the name of the player whose turn is next
+     * @return player name
+     */
+    public String getCurrentPlayerName() {
+        return playerService.getCurrentPlayerName();
+    }
+
+    /**
+     * get the map of the game, to inspect it between turns
+     * @return the map
+     */
+    public MapService getMapService() {
+        return mapService;
+    }
+
+    /**
+     * get the players of the game, to inspect them between turns
+     * @return the players
+     */
+    public PlayerService getPlayerService() {
+        return playerService;
+    }
+}
@@ -1,18 +1,19 @@
 package com6441.team7.risc.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com6441.team7.risc.api.model.*;
 import com6441.team7.risc.api.model.StartupStateEntity;
+import com6441.team7.risc.utils.SaveGameUtils;
+import com6441.team7.risc.utils.journal.GameJournal;
+import com6441.team7.risc.utils.journal.GameJournalReplayer;
 import com6441.team7.risc.view.GameView;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static com6441.team7.risc.api.RiscConstants.WHITESPACE;
@@ -100,6 +101,7 @@ public class LoadGameController implements Controller{
      * receive commands from phase view
      * check the command type,
      * if it is loadgame, call loadgame()
+     * if it is recovergame, call recoverGame() with the snapshot file and the journal folder
      * if it is exit, call exitloadgame()
      * else the command is not valid, will throw an exception
      * @param command reference command
@@ -115,6 +117,13 @@ public class LoadGameController implements Controller{
                 File file = new File(fileName);
                 loadGame(file);
                 break;
+            case RECOVERGAME:
+                String[] commands = StringUtils.split(command, WHITESPACE);
+                if (commands.length != 3) {
+                    throw new IllegalArgumentException("recovergame needs a snapshot file and a journal folder");
+                }
+                recoverGame(new File(commands[1]), Paths.get(commands[2]));
+                break;
                 
             case EXITLOADGAME:
                 exitLoadGame();
@@ -125,23 +134,55 @@ public class LoadGameController implements Controller{
     }
 
     /**
-     * load the game state
+     * load the game state, the entities are read one after the other from the file
      * @param saveGameFile file that saves games state
      * @throws IOException if there is JSON parsing exception
      */
     public void loadGame(File saveGameFile) throws IOException {
-        ObjectMapper objectMapper =new ObjectMapper();
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        objectMapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
-        JsonNode entity = objectMapper.readValue(saveGameFile, JsonNode.class);
+        loadEntities(SaveGameUtils.readGame(saveGameFile));
+        displayLoadMessage();
+    }
+
+    /**
+     * recover a game after a crash: load its last snapshot, then replay the journal written after the snapshot.
+     * The events replayed are not recorded again in the journal of the game, if it has one,
+     * which goes on recording the events played after the recovery.
+     * @param snapshotFile file of the last snapshot of the game
+     * @param journalDirectory folder of the journal of the game
+     * @throws IOException if the snapshot or the journal cannot be read
+     */
+    public void recoverGame(File snapshotFile, Path journalDirectory) throws IOException {
+        Map<String, Object> entity = SaveGameUtils.readGame(snapshotFile);
+        GameJournal gameJournal = mapService.getGameJournal();
+        mapService.setGameJournal(null);
+
+        try {
+            loadEntities(entity);
+
+            Object journalSegment = entity.get(SaveGameUtils.JOURNAL_SEGMENT);
+            if (journalSegment instanceof Long) {
+                GameJournalReplayer gameJournalReplayer = new GameJournalReplayer(mapService, playerService);
+                GameJournal.replay(journalDirectory, (Long) journalSegment, gameJournalReplayer);
+                phaseView.displayMessage(gameJournalReplayer.getNumEventsApplied() + " journal events replayed");
+            } else {
+                phaseView.displayMessage("the saved game was not taken with a journal, no journal event replayed");
+            }
+        } finally {
+            mapService.setGameJournal(gameJournal);
+        }
 
+        displayLoadMessage();
+    }
+
+    /**
+     * store the entities read from a saved game in the services and controllers
+     * @param entity entities read from the saved game
+     */
+    private void loadEntities(Map<String, Object> entity) {
         loadMapStatusEntity(entity);
         loadPlayerStatusEntity(entity);
         loadStartUpState(entity);
         loadReinforceState(entity);
-        displayLoadMessage();
-
-
     }
 
 
@@ -156,12 +197,10 @@ public class LoadGameController implements Controller{
 
     /**
      * load the mapStatusEntity and store in the mapService
-     * @param entity json node to store game data
-     * @throws JsonProcessingException if there is JSON parsing exception
+     * @param entity entities read from the saved game
      */
-    private void loadMapStatusEntity(JsonNode entity) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        MapStatusEntity mapStatusEntity = objectMapper.treeToValue(entity.get(MapStatusEntity.class.getSimpleName()), MapStatusEntity.class);
+    private void loadMapStatusEntity(Map<String, Object> entity) {
+        MapStatusEntity mapStatusEntity = SaveGameUtils.getFromMap(entity, MapStatusEntity.class);
         mapService.setState(mapStatusEntity.getGameState());
         mapService.setContinents(mapStatusEntity.getContinents());
         mapService.setCountries(mapStatusEntity.getCountries());
@@ -173,12 +212,10 @@ public class LoadGameController implements Controller{
 
     /**
      * load the playerStatusEntity and store in playerService
-     * @param entity json node to store game data
-     * @throws JsonProcessingException if there is JSON parsing exception
+     * @param entity entities read from the saved game
      */
-    private void loadPlayerStatusEntity(JsonNode entity) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        PlayerStatusEntity playerStatusEntity = objectMapper.treeToValue(entity.get(PlayerStatusEntity.class.getSimpleName()), PlayerStatusEntity.class);
+    private void loadPlayerStatusEntity(Map<String, Object> entity) {
+        PlayerStatusEntity playerStatusEntity = SaveGameUtils.getFromMap(entity, PlayerStatusEntity.class);
         playerService.setCurrentPlayer(playerStatusEntity.getCurrentPlayer());
         playerService.setListPlayers(playerStatusEntity.getListPlayers());
         playerService.setCurrentPlayerIndex(playerStatusEntity.getCurrentPlayerIndex());
@@ -208,12 +245,10 @@ public class LoadGameController implements Controller{
 
     /**
      * store startUpSate in startUpGameController
-     * @param entity json node to store game data
-     * @throws JsonProcessingException if there is JSON parsing exception
+     * @param entity entities read from the saved game
      */
-    private void loadStartUpState(JsonNode entity) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        StartupStateEntity startupStateEntity = objectMapper.treeToValue(entity.get(StartupStateEntity.class.getSimpleName()), StartupStateEntity.class);
+    private void loadStartUpState(Map<String, Object> entity) {
+        StartupStateEntity startupStateEntity = SaveGameUtils.getFromMap(entity, StartupStateEntity.class);
         Optional.ofNullable(startupStateEntity).ifPresent(status -> startupGameController.setStatus(status));
    
 
@@ -233,12 +268,10 @@ public class LoadGameController implements Controller{
 
     /**
      * load the reinforceState to reinforceController
-     * @param entity json node to store game data
-     * @throws JsonProcessingException if there is JSON parsing exception
+     * @param entity entities read from the saved game
      */
-    private void loadReinforceState(JsonNode entity) throws JsonProcessingException {
-        ObjectMapper objectMapper = new ObjectMapper();
-        ReinforceStateEntity reinforceStateEntity = objectMapper.treeToValue(entity.get(ReinforceStateEntity.class.getSimpleName()), ReinforceStateEntity.class);
+    private void loadReinforceState(Map<String, Object> entity) {
+        ReinforceStateEntity reinforceStateEntity = SaveGameUtils.getFromMap(entity, ReinforceStateEntity.class);
         Optional.ofNullable(reinforceStateEntity).ifPresent(reinforceGameController::setStatus);
     }
 
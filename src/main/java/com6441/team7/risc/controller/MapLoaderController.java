@@ -50,6 +50,16 @@ public class MapLoaderController implements Controller {
      */
     private MapParserAdapter mapParserAdapter;
 
+    /**
+     * templates of the map files already loaded, shared by all games
+     */
+    private static final MapTemplateCache MAP_TEMPLATE_CACHE = new MapTemplateCache();
+
+    /**
+     * true if a compiled index is written next to the map files parsed from text
+     */
+    private static volatile boolean boolWriteMapIndex = false;
+
 
     /**
      * constructor
@@ -593,6 +603,31 @@ public class MapLoaderController implements Controller {
         continentIdGenerator.set(i);
     }
 
+    /**
+     * get the templates of the map files already loaded, shared by all games
+     * @return the template cache
+     */
+    public static MapTemplateCache getMapTemplateCache() {
+        return MAP_TEMPLATE_CACHE;
+    }
+
+    /**
+     * choose if a compiled index is written next to the map files parsed from text,
+     * so that later runs read the index instead of parsing the file
+     * @param boolWriteMapIndex true to write the index
+     */
+    public static void setBoolWriteMapIndex(boolean boolWriteMapIndex) {
+        MapLoaderController.boolWriteMapIndex = boolWriteMapIndex;
+    }
+
+    /**
+     * check if a compiled index is written next to the map files parsed from text
+     * @return true if the index is written
+     */
+    public static boolean getBoolWriteMapIndex() {
+        return boolWriteMapIndex;
+    }
+
     /**
      * set countryIdGenerator
      * @param i int
@@ -602,10 +637,58 @@ public class MapLoaderController implements Controller {
     }
 
     /**
-     * read file
+     * read file.
+     * A map file already loaded with the same content is copied from its template instead of being parsed again.
+     * Otherwise the compiled index next to the file is used if it was compiled from the same content,
+     * and the text file is parsed if there is none or it is stale.
      * @param path the map name
      */
     public void readFile(String path) {
+        OptionalLong fingerprint = MapTemplateCache.fingerprint(path);
+
+        Optional<MapTemplate> template = fingerprint.isPresent()
+                ? MAP_TEMPLATE_CACHE.find(path, fingerprint.getAsLong())
+                : Optional.empty();
+
+        if (template.isPresent()) {
+            loadTemplate(template.get());
+            return;
+        }
+
+        if (fingerprint.isPresent()) {
+            template = mapParserAdapter.readMapIndex(path, fingerprint.getAsLong());
+        }
+
+        if (template.isPresent()) {
+            MAP_TEMPLATE_CACHE.put(path, fingerprint.getAsLong(), template.get());
+            loadTemplate(template.get());
+            return;
+        }
+
         editMap("editmap " + path);
+
+        if (fingerprint.isPresent() && mapService.isMapValid()) {
+            MapTemplate parsedTemplate = MapTemplate.of(mapService, mapCategory);
+            MAP_TEMPLATE_CACHE.put(path, fingerprint.getAsLong(), parsedTemplate);
+
+            if (boolWriteMapIndex) {
+                mapParserAdapter.writeMapIndex(path, fingerprint.getAsLong(), parsedTemplate);
+            }
+        }
+    }
+
+    /**
+     * fill the map with a copy of a template and continue generating ids after those of the template
+     * @param template template of a valid map file
+     */
+    private void loadTemplate(MapTemplate template) {
+        template.copyInto(mapService);
+        countryIdGenerator.set(template.getMaxCountryId());
+        continentIdGenerator.set(template.getMaxContinentId());
+        mapCategory = template.getMapCategory();
+
+        if (validateMap()) {
+            view.displayMessage(mapCategory.getName() + " map format: map is valid");
+        }
     }
 }
\ No newline at end of file
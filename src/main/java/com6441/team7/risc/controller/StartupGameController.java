@@ -1,6 +1,5 @@
 package com6441.team7.risc.controller;
 import java.util.*;
-import java.util.concurrent.ThreadLocalRandom;
 
 import static com6441.team7.risc.api.RiscConstants.WHITESPACE;
 import static com6441.team7.risc.api.RiscConstants.MAX_NUM_PLAYERS;
@@ -533,9 +532,7 @@ public class StartupGameController implements Controller{
 				}
 				
 				//shuffle countries in stack to make them random
-				Collections.shuffle(stackCountry);
-				Collections.shuffle(stackCountry);
-				Collections.shuffle(stackCountry);
+				playerService.getGameRandom().shuffle(stackCountry);
 				
 				int currentPlayerIndex=0;
 				
@@ -561,11 +558,11 @@ public class StartupGameController implements Controller{
 					
 					
 					//Trigger to NOTIFY playerService Observers after assigning country to player
-					PlayerInitialCountryAssignmentWrapper playerInitialCountryAssignment
-					=new PlayerInitialCountryAssignmentWrapper(currentPlayer,currentCountry);
+					Player assignedPlayer=currentPlayer;
+					Country assignedCountry=currentCountry;
 					
-					
-					playerService.notifyPlayerServiceObservers(playerInitialCountryAssignment);
+					playerService.notifyPlayerServiceObservers(PlayerInitialCountryAssignmentWrapper.class,
+							() -> new PlayerInitialCountryAssignmentWrapper(assignedPlayer,assignedCountry));
 					
 					
 					currentPlayerIndex++;
@@ -766,17 +763,16 @@ public class StartupGameController implements Controller{
     			
     			//random placement + decrement random range size TO AVOID COLLISIONS
     			
-    			int randomIndex=ThreadLocalRandom.current().nextInt(0,p.getCountryPlayerList().size());
+    			int randomIndex=playerService.getGameRandom().nextInt(0,p.getCountryPlayerList().size());
     			
-    			p.getCountryPlayerList().get(randomIndex).addSoldiers(1);
-    			p.reduceArmy(1);
+    			Country country=p.getCountryPlayerList().get(randomIndex);
     			
-    			//Notify Observers - Same as placeArmy
+    			country.addSoldiers(1);
+    			p.reduceArmy(1);
     			
-    			PlayerPlaceArmyWrapper playerPlaceArmyWrapper
-    			=new PlayerPlaceArmyWrapper(p,p.getCountryPlayerList().get(randomIndex));
+    			//Notify Observers - Same as placeArmy, wrapper only built if it is displayed
     			
-    			playerService.notifyPlayerServiceObservers(playerPlaceArmyWrapper);
+    			playerService.notifyPlayerServiceObservers(PlayerPlaceArmyWrapper.class, () -> new PlayerPlaceArmyWrapper(p,country));
     			
     			//playerService.evaluateWorldDomination();  //Commented out else too much updates
     		}
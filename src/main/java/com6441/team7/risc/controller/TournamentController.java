@@ -1,17 +1,27 @@
 package com6441.team7.risc.controller;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.lang3.StringUtils;
 
 import com6441.team7.risc.api.model.AggressiveStrategy;
 import com6441.team7.risc.api.model.BenevolentStrategy;
 import com6441.team7.risc.api.model.CheaterStrategy;
+import com6441.team7.risc.api.model.GameRandom;
 import com6441.team7.risc.api.model.GameState;
 import com6441.team7.risc.api.model.MapService;
+import com6441.team7.risc.api.model.MctsBudget;
 import com6441.team7.risc.api.model.PlayerCategory;
 import com6441.team7.risc.api.model.PlayerService;
 import com6441.team7.risc.api.model.RandomStrategy;
+import com6441.team7.risc.api.model.StallDetector;
 import com6441.team7.risc.api.wrapperview.TournamentWrapper;
 import com6441.team7.risc.utils.CommonUtils;
 import com6441.team7.risc.view.GameView;
@@ -64,6 +74,11 @@ public class TournamentController {
 	 */
 	private String[][] arrResults;
 	
+	/**
+	 * Games in which the time cap of a search player cut a decision short, by map and game
+	 */
+	private boolean[][] arrCutShortGames;
+	
 	/**
 	 * List of valid player strategies
 	 */
@@ -82,6 +97,51 @@ public class TournamentController {
 	 * Helps Analyse and Evaluate Results
 	 */
 	private boolean boolTournamentTestOn;
+	
+	/**
+	 * number of games played at the same time - set by user with -w, 1 by default
+	 */
+	private int numWorkers;
+	
+	/**
+	 * pattern of the optional worker count parameter
+	 */
+	private static final Pattern WORKERS_PATTERN=Pattern.compile("\\s-w\\s+(\\S+)");
+	
+	/**
+	 * pattern of the optional seed parameter
+	 */
+	private static final Pattern SEED_PATTERN=Pattern.compile("\\s-s\\s+(\\S+)");
+	
+	/**
+	 * random generator giving the seed of every game of the tournament
+	 */
+	private GameRandom tournamentRandom;
+	
+	/**
+	 * pattern of the optional quiet flag
+	 */
+	private static final Pattern QUIET_PATTERN=Pattern.compile("\\s-q(?=\\s|$)");
+	
+	/**
+	 * boolean for quiet tournaments, whose games are played headless and only show the results
+	 */
+	private boolean boolQuiet;
+	
+	/**
+	 * pattern of the optional stalled game parameters
+	 */
+	private static final Pattern STALL_PATTERN=Pattern.compile("\\s-stall\\s+(\\S+)\\s+(\\S+)");
+	
+	/**
+	 * number of times a position comes back before a game ends as a draw, 0 to ignore repeated positions
+	 */
+	private int numStallRepetitions;
+	
+	/**
+	 * number of turns without the countries changing hands in a new way before a game ends as a draw, 0 to ignore it
+	 */
+	private int numStallTurns;
 	 
 	
 	/**
@@ -106,6 +166,12 @@ public class TournamentController {
 			return;
 		}
 		
+		//Read and strip optional worker count, seed, quiet flag and stall limits
+		command=extractNumWorkers(command);
+		command=extractSeed(command);
+		command=extractQuiet(command);
+		command=extractStall(command);
+		
 		//Validate Command
 		if(!validateTournamentConditions(command)) {
 			phaseView.displayMessage("Invalid Tournament Command!!");
@@ -125,15 +191,28 @@ public class TournamentController {
 	public void launchTournament() {
 		
 		arrResults=new String[mapList.size()][numGames];
+		arrCutShortGames=new boolean[mapList.size()][numGames];
+		
+		long[][] arrGameSeeds=generateGameSeeds();
+		
+		notifyMctsBudget();
+		
+		if(numWorkers>1) {
+			launchTournamentParallel(arrGameSeeds);
+			return;
+		}
+		
+		//Game messages are not built at all in quiet tournaments
+		playerService.setBoolHeadless(boolQuiet);
 		
 		for(mapIndex=0;mapIndex<mapList.size();mapIndex++) {
 			
 			for(gameIndex=0;gameIndex<numGames;gameIndex++) {				
 				
 				playerService.notifyPlayerServiceObservers("\n\n"+mapList.get(mapIndex)
-				+" Match "+(gameIndex+1));
+				+" Match "+(gameIndex+1)+" (seed "+arrGameSeeds[mapIndex][gameIndex]+")");
 				
-				checkAndResetGameStates();
+				checkAndResetGameStates(arrGameSeeds[mapIndex][gameIndex]);
 				
 				//Reset and Load Map Again
 				startupGameController.loadMap("loadmap "+mapList.get(mapIndex));
@@ -142,12 +221,17 @@ public class TournamentController {
 				
 				startupGameController.placeAll();
 				
+				arrCutShortGames[mapIndex][gameIndex]=playerService.getNumCutShortDecisions()>0;
+				
 				checkAndRemoveExistingPlayers();
 				
 			}
 			
 		}
 		
+		playerService.setBoolHeadless(false);
+		
+		notifyCutShortGames();
 		
 		playerService.notifyPlayerServiceObservers(new TournamentWrapper(arrResults,mapList));
 
@@ -161,10 +245,332 @@ public class TournamentController {
 	
 	
 	
+	/**
+	 * Draws the seed of every game from the tournament generator, in (map, game) order,
+	 * so that a tournament played again with the same seed plays the same games.
+	 * @return seed of every game, by map and game
+	 */
+	private long[][] generateGameSeeds() {
+		
+		playerService.notifyPlayerServiceObservers("Tournament seed: "+tournamentRandom.getSeed());
+		
+		long[][] arrGameSeeds=new long[mapList.size()][numGames];
+		
+		for(int m=0;m<mapList.size();m++) {
+			for(int g=0;g<numGames;g++) {
+				arrGameSeeds[m][g]=tournamentRandom.nextLong();
+			}
+		}
+		
+		return arrGameSeeds;
+	}
+	
+	/**
+	 * Tells how search players decide in a tournament: they play all their rollouts within a time cap
+	 * per decision, and a game can only be played again from its seed if the time cap never cut a decision short,
+	 * which is more likely when the workers share the processors.
+	 */
+	private void notifyMctsBudget() {
+		
+		boolean boolMctsPlayer=false;
+		for(String strategy:listPlayerStrategy) {
+			if(strategy.equalsIgnoreCase("mcts")) boolMctsPlayer=true;
+		}
+		
+		if(!boolMctsPlayer) return;
+		
+		MctsBudget mctsBudget=playerService.getMctsBudget();
+		
+		String strBudget="MCTS players play "+mctsBudget.getNumRolloutsPerDecision()
+				+" rollouts per decision within a "+mctsBudget.getMaxDecisionMillis()+" ms time cap."
+				+" Games in which the time cap cuts a decision short cannot be played again from their seed.";
+		
+		if(numWorkers>1) {
+			strBudget+=" The "+numWorkers+" workers share the processors, so decisions are slower"
+					+" and more likely to reach the time cap.";
+		}
+		
+		playerService.notifyPlayerServiceObservers(strBudget);
+	}
+	
+	/**
+	 * Lists the games in which the time cap of a search player cut a decision short,
+	 * as their results cannot be played again from their seed.
+	 */
+	private void notifyCutShortGames() {
+		
+		for(int m=0;m<mapList.size();m++) {
+			for(int g=0;g<numGames;g++) {
+				if(arrCutShortGames[m][g]) {
+					playerService.notifyPlayerServiceObservers(mapList.get(m)+" Match "+(g+1)
+							+": an MCTS decision reached the time cap, the game cannot be played again from its seed");
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Launches tournament games on a pool of numWorkers threads.
+	 * Every game is played on its own MapService, PlayerService and controllers,
+	 * and its result is stored at its own (map, game) position so results do not depend on completion order.
+	 * @param arrGameSeeds seed of every game, by map and game
+	 */
+	public void launchTournamentParallel(long[][] arrGameSeeds) {
+		
+		playerService.notifyPlayerServiceObservers("Playing "+(mapList.size()*numGames)+" games on "
+				+numWorkers+" workers");
+		
+		ExecutorService executor=Executors.newFixedThreadPool(Math.min(numWorkers, mapList.size()*numGames));
+		
+		List<List<Future<String>>> listFutures=new ArrayList<>();
+		
+		try {
+			
+			for(int m=0;m<mapList.size();m++) {
+				
+				String mapName=mapList.get(m);
+				
+				List<Future<String>> mapFutures=new ArrayList<>();
+				
+				for(int i=0;i<numGames;i++) {
+					long gameSeed=arrGameSeeds[m][i];
+					int mapNum=m;
+					int gameNum=i;
+					mapFutures.add(executor.submit(() -> playIsolatedGame(mapName, gameSeed, mapNum, gameNum)));
+				}
+				
+				listFutures.add(mapFutures);
+			}
+			
+			for(mapIndex=0;mapIndex<mapList.size();mapIndex++) {
+				
+				for(gameIndex=0;gameIndex<numGames;gameIndex++) {
+					arrResults[mapIndex][gameIndex]=getGameResult(listFutures.get(mapIndex).get(gameIndex));
+				}
+			}
+		}
+		
+		finally {
+			executor.shutdownNow();
+		}
+		
+		notifyCutShortGames();
+		
+		playerService.notifyPlayerServiceObservers(new TournamentWrapper(arrResults,mapList));
+
+		if(!boolTournamentTestOn)
+		System.exit(0);
+		
+		else playerService.notifyPlayerServiceObservers("Tournament Ends.");
+	}
+	
+	/**
+	 * Plays one tournament game on a new, isolated set of game objects.
+	 * The game is played by a {@link GameReplay}, so that it can be played again from its seed.
+	 * @param mapName map to play on
+	 * @param gameSeed seed of the random generator of the game
+	 * @param mapNum index of the map in the results
+	 * @param gameNum index of the game in the results
+	 * @return game outcome
+	 */
+	private String playIsolatedGame(String mapName, long gameSeed, int mapNum, int gameNum) {
+		
+		GameReplay gameReplay=new GameReplay(mapName, listPlayerStrategy, gameSeed, numTurns);
+		gameReplay.setStallDetector(createStallDetector());
+		gameReplay.setMctsBudget(playerService.getMctsBudget());
+		
+		String strResult=gameReplay.runToEnd();
+		arrCutShortGames[mapNum][gameNum]=!gameReplay.isReproducible();
+		
+		return strResult;
+	}
+	
+	/**
+	 * Waits for a game played by a worker and returns its result
+	 * @param future game being played
+	 * @return game outcome, or ERROR if the game failed
+	 */
+	private String getGameResult(Future<String> future) {
+		
+		try {
+			return future.get();
+		}
+		
+		catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return "ERROR";
+		}
+		
+		catch(ExecutionException e) {
+			playerService.notifyPlayerServiceObservers("Game failed: "+e.getCause());
+			return "ERROR";
+		}
+	}
+	
+	/**
+	 * Reads the optional worker count (-w) and removes it from the command
+	 * so that the other parameters are validated as before.
+	 * @param command user command
+	 * @return command without the worker count
+	 */
+	public String extractNumWorkers(String command) {
+		
+		Matcher matcher=WORKERS_PATTERN.matcher(command);
+		
+		if(!matcher.find()) return command;
+		
+		try {
+			
+			int numRequested=Integer.parseInt(matcher.group(1));
+			
+			if(numRequested<=0) {
+				phaseView.displayMessage("Num Workers should be >0. Playing games one after another.");
+			}
+			
+			else this.numWorkers=numRequested;
+		}
+		
+		catch(NumberFormatException e) {
+			phaseView.displayMessage("Invalid Num Workers. Playing games one after another.");
+		}
+		
+		return matcher.replaceFirst("");
+	}
+	
+	/**
+	 * Reads the optional tournament seed (-s) and removes it from the command
+	 * so that the other parameters are validated as before.
+	 * Without a seed, the tournament uses a random one, which is displayed so it can be played again.
+	 * @param command user command
+	 * @return command without the seed
+	 */
+	public String extractSeed(String command) {
+		
+		Matcher matcher=SEED_PATTERN.matcher(command);
+		
+		if(!matcher.find()) return command;
+		
+		try {
+			this.tournamentRandom=new GameRandom(Long.parseLong(matcher.group(1)));
+		}
+		
+		catch(NumberFormatException e) {
+			phaseView.displayMessage("Invalid Seed. Using a random seed.");
+		}
+		
+		return matcher.replaceFirst("");
+	}
+	
+	/**
+	 * Reads the optional quiet flag (-q) and removes it from the command
+	 * so that the other parameters are validated as before.
+	 * @param command user command
+	 * @return command without the quiet flag
+	 */
+	public String extractQuiet(String command) {
+		
+		Matcher matcher=QUIET_PATTERN.matcher(command);
+		
+		if(!matcher.find()) return command;
+		
+		this.boolQuiet=true;
+		
+		return matcher.replaceFirst("");
+	}
+	
+	/**
+	 * Reads the optional stalled game parameters (-stall repetitions turns) and removes them from the command
+	 * so that the other parameters are validated as before.
+	 * A game then ends as a draw when a position comes back the given number of times, or when the countries
+	 * have not changed hands in a new way for the given number of turns, 0 turning either rule off.
+	 * @param command user command
+	 * @return command without the stalled game parameters
+	 */
+	public String extractStall(String command) {
+		
+		Matcher matcher=STALL_PATTERN.matcher(command);
+		
+		if(!matcher.find()) return command;
+		
+		try {
+			
+			int numRepetitions=Integer.parseInt(matcher.group(1));
+			int numTurnsWithoutProgress=Integer.parseInt(matcher.group(2));
+			
+			if(numRepetitions<0||numTurnsWithoutProgress<0) {
+				phaseView.displayMessage("Stall limits should be >=0. Playing games to the turn limit.");
+			}
+			
+			else {
+				this.numStallRepetitions=numRepetitions;
+				this.numStallTurns=numTurnsWithoutProgress;
+			}
+		}
+		
+		catch(NumberFormatException e) {
+			phaseView.displayMessage("Invalid Stall limits. Playing games to the turn limit.");
+		}
+		
+		return matcher.replaceFirst("");
+	}
+	
+	/**
+	 * Creates the detector ending a stalled game as a draw, every game having its own
+	 * @return the detector, null if games are played to the turn limit
+	 */
+	private StallDetector createStallDetector() {
+		
+		if(numStallRepetitions==0&&numStallTurns==0) return null;
+		
+		return new StallDetector(numStallRepetitions, numStallTurns);
+	}
+	
+	/**
+	 * Getter method for numStallRepetitions
+	 * @return number of times a position comes back before a game ends as a draw, 0 if it is ignored
+	 */
+	public int getNumStallRepetitions() {
+		return numStallRepetitions;
+	}
+	
+	/**
+	 * Getter method for numStallTurns
+	 * @return number of turns without the countries changing hands in a new way before a game ends as a draw,
+	 * 0 if it is ignored
+	 */
+	public int getNumStallTurns() {
+		return numStallTurns;
+	}
+	
+	/**
+	 * Getter method for boolQuiet
+	 * @return true if the games of the tournament are played headless
+	 */
+	public boolean getBoolQuiet() {
+		return boolQuiet;
+	}
+	
+	/**
+	 * Getter method for the tournament generator
+	 * @return random generator giving the seed of every game
+	 */
+	public GameRandom getTournamentRandom() {
+		return tournamentRandom;
+	}
+	
+	/**
+	 * Getter method for numWorkers
+	 * @return number of games played at the same time
+	 */
+	public int getNumWorkers() {
+		return numWorkers;
+	}
+	
 	/**
 	 * Resets game states after every game played
+	 * @param gameSeed seed of the random generator of the next game
 	 */
-	private void checkAndResetGameStates() {
+	private void checkAndResetGameStates(long gameSeed) {
 		
 		playerService.notifyPlayerServiceObservers("Resetting Game States");
 		
@@ -187,11 +593,17 @@ public class TournamentController {
 		
 		playerService.setNumTurns(numTurns);
 		
+		//Positions of the previous game are forgotten
+		playerService.setStallDetector(createStallDetector());
+		
+		playerService.setNumCutShortDecisions(0);
+		
 		startupGameController.setBoolMapLoaded(false);
 		
 		startupGameController.setBoolCountriesPopulated(false);
 		
-		playerService.initialiseDeckCards();		
+		//New generator also builds and shuffles a new deck
+		playerService.setGameRandom(new GameRandom(gameSeed));
 		
 	}
 	
@@ -229,6 +641,15 @@ public class TournamentController {
 		
 		this.boolTournamentTestOn=false;
 		
+		this.numWorkers=1;
+		
+		this.tournamentRandom=new GameRandom();
+		
+		this.boolQuiet=false;
+		
+		this.numStallRepetitions=0;
+		this.numStallTurns=0;
+		
 	}
 
 	/**
@@ -329,7 +750,8 @@ public class TournamentController {
 			String s=arrStrStrategy[i];
 			
 			if(s.equalsIgnoreCase("random")||s.equalsIgnoreCase("aggressive")||
-				s.equalsIgnoreCase("cheater")||s.equalsIgnoreCase("benevolent")){
+				s.equalsIgnoreCase("cheater")||s.equalsIgnoreCase("benevolent")||
+				s.equalsIgnoreCase("mcts")){
 					
 					listPlayerStrategy.add(arrStrStrategy[i]);
 					validPlayerFound=true;
@@ -522,6 +944,9 @@ public class TournamentController {
 		
 		playerService.setNumTurns(numTurns);
 		
+		//Positions of the previous game are forgotten
+		playerService.setStallDetector(createStallDetector());
+		
 		startupGameController.setBoolMapLoaded(false);
 		
 		startupGameController.setBoolCountriesPopulated(false);
@@ -578,6 +1003,12 @@ public class TournamentController {
 			return;
 		}
 		
+		//Read and strip optional worker count, seed, quiet flag and stall limits
+		command=extractNumWorkers(command);
+		command=extractSeed(command);
+		command=extractQuiet(command);
+		command=extractStall(command);
+		
 		//Validate Command
 		if(!validateTournamentConditions(command)) {
 			phaseView.displayMessage("Invalid Tournament Command!!");
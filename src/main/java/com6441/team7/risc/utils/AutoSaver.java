@@ -0,0 +1,167 @@
+package com6441.team7.risc.utils;
+
+import com6441.team7.risc.api.model.PlayerService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class saves a running game every few turns without stopping it.
+ * The game thread only takes a snapshot of the game in the binary save layout, in memory,
+ * and a background thread compresses and writes it to a temporary file that then replaces the save file,
+ * so the save file always holds a complete game that can be loaded again.
+ * If the game goes faster than the disk, only the latest snapshot waiting to be written is kept.
+ */
+public class AutoSaver {
+
+    /**
+     * the file the game is saved to
+     */
+    private final Path saveGameFile;
+
+    /**
+     * number of turns between two saves
+     */
+    private final int numTurnsBetweenSaves;
+
+    /**
+     * true if the file is compressed with gzip
+     */
+    private final boolean boolCompressed;
+
+    /**
+     * the thread writing the snapshots
+     */
+    private final ExecutorService writer;
+
+    /**
+     * latest snapshot not written yet, null if there is none
+     */
+    private final AtomicReference<byte[]> pendingSnapshot = new AtomicReference<>();
+
+    /**
+     * number of snapshots written
+     */
+    private volatile int numSaves;
+
+    /**
+     * constructor
+     * @param saveGameFile the file the game is saved to, compressed if its name ends with .gz
+     * @param numTurnsBetweenSaves number of turns between two saves
+     */
+    public AutoSaver(Path saveGameFile, int numTurnsBetweenSaves) {
+        if (numTurnsBetweenSaves <= 0) {
+            throw new IllegalArgumentException("the number of turns between saves must be positive");
+        }
+
+        this.saveGameFile = saveGameFile.toAbsolutePath();
+        this.numTurnsBetweenSaves = numTurnsBetweenSaves;
+        this.boolCompressed = saveGameFile.getFileName().toString().toLowerCase(Locale.CANADA).endsWith(".gz");
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "risc-autosave");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * called when every player has played a turn, saves the game if enough turns have passed
+     * @param turn number of the turn just played
+     * @param playerService the game
+     */
+    public void turnCompleted(int turn, PlayerService playerService) {
+        if (turn % numTurnsBetweenSaves != 0) {
+            return;
+        }
+
+        try {
+            save(SaveGameUtils.snapshotGame(playerService.getMapService(), playerService));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * hand a snapshot to the writer thread
+     * @param snapshot the game in the binary save layout
+     */
+    public void save(byte[] snapshot) {
+        if (isNull(pendingSnapshot.getAndSet(snapshot))) {
+            writer.execute(this::writePendingSnapshot);
+        }
+    }
+
+    /**
+     * wait until the snapshots already taken are written, then stop the writer thread
+     * @param timeoutMillis maximum time to wait, in milliseconds
+     * @return true if every snapshot is written
+     */
+    public boolean close(long timeoutMillis) {
+        writer.shutdown();
+        try {
+            return writer.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * get the number of snapshots written
+     * @return number of saves
+     */
+    public int getNumSaves() {
+        return numSaves;
+    }
+
+    /**
+     * get the file the game is saved to
+     * @return save file
+     */
+    public Path getSaveGameFile() {
+        return saveGameFile;
+    }
+
+    /**
+     * write the latest snapshot to a temporary file, then replace the save file with it
+     */
+    private void writePendingSnapshot() {
+        byte[] snapshot = pendingSnapshot.getAndSet(null);
+        if (isNull(snapshot)) {
+            return;
+        }
+
+        Path temporaryFile = null;
+        try {
+            temporaryFile = Files.createTempFile(saveGameFile.getParent(), saveGameFile.getFileName().toString(), ".tmp");
+
+            try (OutputStream output = boolCompressed
+                    ? new GZIPOutputStream(Files.newOutputStream(temporaryFile), 1 << 16)
+                    : Files.newOutputStream(temporaryFile)) {
+                output.write(snapshot);
+            }
+
+            try {
+                Files.move(temporaryFile, saveGameFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, saveGameFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            numSaves++;
+        } catch (IOException e) {
+            e.printStackTrace();
+            CommonUtils.deleteQuietly(temporaryFile);
+        }
+    }
+}
@@ -9,8 +9,12 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
+import static java.util.Objects.isNull;
+
 /**
  * a util to end the game
  */
@@ -62,4 +66,20 @@ public class CommonUtils {
 		}
 	}
 	
+	/**
+	 * delete a temporary file left by a failed write
+	 * if it cannot be deleted, it is left behind, as the file it was meant to replace is untouched
+	 * @param path the file, can be null
+	 */
+	public static void deleteQuietly(Path path) {
+		if (isNull(path)) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			// the temporary file is left behind
+		}
+	}
+	
 }
@@ -0,0 +1,580 @@
+package com6441.team7.risc.utils;
+
+import com6441.team7.risc.api.model.*;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class writes and reads saved games in a compact binary layout.
+ * Every player is written once in a player table and referred to by its index,
+ * the owners and soldiers of the countries are written as packed arrays after the countries.
+ * The file starts with a magic number and a version, so that it is told apart from a json save.
+ */
+public class SaveGameBinaryFormat {
+
+    /**
+     * file extension of binary saves
+     */
+    public static final String EXTENSION = ".rsav";
+
+    /**
+     * file extension of gzip compressed binary saves
+     */
+    public static final String COMPRESSED_EXTENSION = ".rsav.gz";
+
+    /**
+     * first bytes of every binary save, "RSAV"
+     */
+    public static final int MAGIC = 0x52534156;
+
+    /**
+     * version of the layout, 2 adds the pending card draw of every player
+     */
+    private static final short VERSION = 2;
+
+    /**
+     * oldest version of the layout that can still be read
+     */
+    private static final short MIN_VERSION = 1;
+
+    /**
+     * written instead of a missing list or player
+     */
+    private static final int NONE = -1;
+
+    /**
+     * written instead of a missing integer, such as a coordinate
+     */
+    private static final int NO_INTEGER = Integer.MIN_VALUE;
+
+    /**
+     * tag of the map status entity
+     */
+    private static final byte MAP_STATUS = 1;
+
+    /**
+     * tag of the player status entity
+     */
+    private static final byte PLAYER_STATUS = 2;
+
+    /**
+     * tag of the startup state entity
+     */
+    private static final byte STARTUP_STATE = 3;
+
+    /**
+     * tag of the reinforce state entity
+     */
+    private static final byte REINFORCE_STATE = 4;
+
+    /**
+     * tag of the first journal segment to replay after this save
+     */
+    private static final byte JOURNAL_SEGMENT = 5;
+
+    /**
+     * no instance, only static methods
+     */
+    private SaveGameBinaryFormat() {
+    }
+
+    /**
+     * write the entities of a game
+     * @param output the stream to write to
+     * @param entities the objects that to be stored, by entity name
+     * @throws IOException if the stream cannot be written
+     */
+    public static void write(DataOutputStream output, Map<String, Object> entities) throws IOException {
+        MapStatusEntity mapStatusEntity = SaveGameUtils.getFromMap(entities, MapStatusEntity.class);
+        PlayerStatusEntity playerStatusEntity = SaveGameUtils.getFromMap(entities, PlayerStatusEntity.class);
+        StartupStateEntity startupStateEntity = SaveGameUtils.getFromMap(entities, StartupStateEntity.class);
+        ReinforceStateEntity reinforceStateEntity = SaveGameUtils.getFromMap(entities, ReinforceStateEntity.class);
+
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+
+        Map<Player, Integer> playerIndexes = collectPlayers(mapStatusEntity, playerStatusEntity);
+        writePlayers(output, playerIndexes);
+
+        if (!isNull(mapStatusEntity)) {
+            output.writeByte(MAP_STATUS);
+            writeMapStatus(output, mapStatusEntity, playerIndexes);
+        }
+
+        if (!isNull(playerStatusEntity)) {
+            output.writeByte(PLAYER_STATUS);
+            writePlayerStatus(output, playerStatusEntity, playerIndexes);
+        }
+
+        if (!isNull(startupStateEntity)) {
+            output.writeByte(STARTUP_STATE);
+            writeStartupState(output, startupStateEntity);
+        }
+
+        if (!isNull(reinforceStateEntity)) {
+            output.writeByte(REINFORCE_STATE);
+            output.writeBoolean(reinforceStateEntity.isExchangeCardOver());
+            output.writeInt(reinforceStateEntity.getReinforcedArmies());
+        }
+
+        Object journalSegment = entities.get(SaveGameUtils.JOURNAL_SEGMENT);
+        if (journalSegment instanceof Long) {
+            output.writeByte(JOURNAL_SEGMENT);
+            output.writeLong((Long) journalSegment);
+        }
+
+        output.writeByte(0);
+    }
+
+    /**
+     * read the entities of a game, the magic number is read already
+     * @param input the stream to read from, after the magic number
+     * @return the objects stored, by entity name
+     * @throws IOException if the stream cannot be read or is not a binary save of a supported version
+     */
+    public static Map<String, Object> read(DataInputStream input) throws IOException {
+        short version = input.readShort();
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new StreamCorruptedException("unsupported save game version " + version);
+        }
+
+        List<Player> players = readPlayers(input, version);
+        Map<String, Object> entities = new HashMap<>();
+
+        for (byte tag = input.readByte(); tag != 0; tag = input.readByte()) {
+            switch (tag) {
+                case MAP_STATUS:
+                    SaveGameUtils.putIntoMap(entities, MapStatusEntity.class, readMapStatus(input, players));
+                    break;
+                case PLAYER_STATUS:
+                    SaveGameUtils.putIntoMap(entities, PlayerStatusEntity.class, readPlayerStatus(input, players));
+                    break;
+                case STARTUP_STATE:
+                    SaveGameUtils.putIntoMap(entities, StartupStateEntity.class, readStartupState(input));
+                    break;
+                case REINFORCE_STATE:
+                    ReinforceStateEntity reinforceStateEntity = new ReinforceStateEntity();
+                    reinforceStateEntity.setExchangeCardOver(input.readBoolean());
+                    reinforceStateEntity.setReinforcedArmies(input.readInt());
+                    SaveGameUtils.putIntoMap(entities, ReinforceStateEntity.class, reinforceStateEntity);
+                    break;
+                case JOURNAL_SEGMENT:
+                    entities.put(SaveGameUtils.JOURNAL_SEGMENT, input.readLong());
+                    break;
+                default:
+                    throw new StreamCorruptedException("unknown save game entity " + tag);
+            }
+        }
+
+        return entities;
+    }
+
+    /**
+     * give an index to every player of the game and to every owner of a country
+     * @param mapStatusEntity map status, can be null
+     * @param playerStatusEntity player status, can be null
+     * @return index of every player
+     */
+    private static Map<Player, Integer> collectPlayers(MapStatusEntity mapStatusEntity, PlayerStatusEntity playerStatusEntity) {
+        Map<Player, Integer> playerIndexes = new IdentityHashMap<>();
+
+        if (!isNull(playerStatusEntity) && !isNull(playerStatusEntity.getListPlayers())) {
+            playerStatusEntity.getListPlayers().forEach(player -> playerIndexes.putIfAbsent(player, playerIndexes.size()));
+        }
+        if (!isNull(playerStatusEntity) && !isNull(playerStatusEntity.getCurrentPlayer())) {
+            playerIndexes.putIfAbsent(playerStatusEntity.getCurrentPlayer(), playerIndexes.size());
+        }
+        if (!isNull(mapStatusEntity) && !isNull(mapStatusEntity.getCountries())) {
+            mapStatusEntity.getCountries().stream()
+                    .filter(country -> !isNull(country.getPlayer()))
+                    .forEach(country -> playerIndexes.putIfAbsent(country.getPlayer(), playerIndexes.size()));
+        }
+
+        return playerIndexes;
+    }
+
+    /**
+     * write the player table
+     * @param output the stream to write to
+     * @param playerIndexes index of every player
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writePlayers(DataOutputStream output, Map<Player, Integer> playerIndexes) throws IOException {
+        Player[] players = new Player[playerIndexes.size()];
+        playerIndexes.forEach((player, index) -> players[index] = player);
+
+        output.writeInt(players.length);
+        for (Player player : players) {
+            writeString(output, player.getName());
+            output.writeInt(player.getArmies());
+            output.writeInt(player.getTradeInTimes());
+            writeString(output, isNull(player.getPlayerCategory()) ? null : player.getPlayerCategory().name());
+            output.writeBoolean(player.getBoolAttackMoveRequired());
+            output.writeBoolean(player.getBoolCountryConquered());
+            output.writeBoolean(player.isBoolDrawCard());
+
+            List<Card> cardList = player.getCardList();
+            output.writeInt(isNull(cardList) ? NONE : cardList.size());
+            if (!isNull(cardList)) {
+                for (Card card : cardList) {
+                    output.writeByte(card.ordinal());
+                }
+            }
+        }
+    }
+
+    /**
+     * read the player table
+     * @param input the stream to read from
+     * @param version version of the layout, the pending card draw is only stored from version 2
+     * @return the players, by index
+     * @throws IOException if the stream cannot be read
+     */
+    private static List<Player> readPlayers(DataInputStream input, short version) throws IOException {
+        int numPlayers = readCount(input);
+        List<Player> players = new ArrayList<>(numPlayers);
+        Card[] cards = Card.values();
+
+        for (int i = 0; i < numPlayers; i++) {
+            Player player = new Player();
+            player.setName(readString(input));
+            player.setArmies(input.readInt());
+            player.setTradeInTimes(input.readInt());
+
+            String playerCategory = readString(input);
+            if (!isNull(playerCategory)) {
+                player.setPlayerCategory(PlayerCategory.valueOf(playerCategory));
+            }
+            player.setBoolAttackMoveRequired(input.readBoolean());
+            player.setBoolCountryConquered(input.readBoolean());
+            if (version >= 2) {
+                player.setBoolDrawCard(input.readBoolean());
+            }
+
+            int numCards = input.readInt();
+            if (numCards == NONE) {
+                player.setCardList(null);
+            } else {
+                List<Card> cardList = new ArrayList<>(numCards);
+                for (int card = 0; card < numCards; card++) {
+                    cardList.add(cards[input.readByte()]);
+                }
+                player.setCardList(cardList);
+            }
+            players.add(player);
+        }
+
+        return players;
+    }
+
+    /**
+     * write the map status: continents, countries, then their owners and soldiers as packed arrays
+     * @param output the stream to write to
+     * @param mapStatusEntity map status
+     * @param playerIndexes index of every player
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writeMapStatus(DataOutputStream output, MapStatusEntity mapStatusEntity,
+                                       Map<Player, Integer> playerIndexes) throws IOException {
+        writeString(output, isNull(mapStatusEntity.getGameState()) ? null : mapStatusEntity.getGameState().name());
+
+        Set<Continent> continents = mapStatusEntity.getContinents();
+        output.writeInt(isNull(continents) ? 0 : continents.size());
+        if (!isNull(continents)) {
+            for (Continent continent : continents) {
+                output.writeInt(continent.getId());
+                writeString(output, continent.getName());
+                output.writeInt(continent.getContinentValue());
+                writeString(output, continent.getColor());
+            }
+        }
+
+        List<Country> countries = isNull(mapStatusEntity.getCountries())
+                ? new ArrayList<>() : new ArrayList<>(mapStatusEntity.getCountries());
+        output.writeInt(countries.size());
+        for (Country country : countries) {
+            output.writeInt(country.getId());
+            writeString(output, country.getCountryName());
+            writeInteger(output, country.getContinentIdentifier());
+            writeString(output, country.getContinentName());
+            writeInteger(output, country.getCoordinateX());
+            writeInteger(output, country.getCoordinateY());
+        }
+        for (Country country : countries) {
+            output.writeInt(isNull(country.getPlayer()) ? NONE : playerIndexes.get(country.getPlayer()));
+        }
+        for (Country country : countries) {
+            output.writeInt(country.getSoldiers());
+        }
+
+        writeIdSets(output, mapStatusEntity.getAdjacencyCountriesMap());
+        writeIdSets(output, mapStatusEntity.getContinentCountriesMap());
+    }
+
+    /**
+     * read the map status
+     * @param input the stream to read from
+     * @param players the player table
+     * @return map status
+     * @throws IOException if the stream cannot be read
+     */
+    private static MapStatusEntity readMapStatus(DataInputStream input, List<Player> players) throws IOException {
+        MapStatusEntity mapStatusEntity = new MapStatusEntity();
+
+        String gameState = readString(input);
+        mapStatusEntity.setGameState(isNull(gameState) ? null : GameState.valueOf(gameState));
+
+        int numContinents = readCount(input);
+        Set<Continent> continents = new LinkedHashSet<>();
+        for (int i = 0; i < numContinents; i++) {
+            int id = input.readInt();
+            String name = readString(input);
+            int continentValue = input.readInt();
+            continents.add(new Continent(id, name, continentValue).setColor(readString(input)));
+        }
+        mapStatusEntity.setContinents(continents);
+
+        int numCountries = readCount(input);
+        Country[] countries = new Country[numCountries];
+        for (int i = 0; i < numCountries; i++) {
+            Country country = new Country(input.readInt(), readString(input));
+            country.setContinentIdentifier(readInteger(input))
+                    .setContinentName(readString(input))
+                    .setCoordinateX(readInteger(input))
+                    .setCoordinateY(readInteger(input));
+            countries[i] = country;
+        }
+        for (Country country : countries) {
+            int playerIndex = input.readInt();
+            if (playerIndex != NONE) {
+                country.setPlayer(players.get(playerIndex));
+            }
+        }
+        for (Country country : countries) {
+            country.setSoldiers(input.readInt());
+        }
+
+        Set<Country> countrySet = new LinkedHashSet<>();
+        for (Country country : countries) {
+            countrySet.add(country);
+        }
+        mapStatusEntity.setCountries(countrySet);
+
+        mapStatusEntity.setAdjacencyCountriesMap(readIdSets(input));
+        mapStatusEntity.setContinentCountriesMap(readIdSets(input));
+
+        return mapStatusEntity;
+    }
+
+    /**
+     * write the player status with the indexes of its players
+     * @param output the stream to write to
+     * @param playerStatusEntity player status
+     * @param playerIndexes index of every player
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writePlayerStatus(DataOutputStream output, PlayerStatusEntity playerStatusEntity,
+                                          Map<Player, Integer> playerIndexes) throws IOException {
+        List<Player> listPlayers = playerStatusEntity.getListPlayers();
+        output.writeInt(isNull(listPlayers) ? NONE : listPlayers.size());
+        if (!isNull(listPlayers)) {
+            for (Player player : listPlayers) {
+                output.writeInt(playerIndexes.get(player));
+            }
+        }
+
+        Player currentPlayer = playerStatusEntity.getCurrentPlayer();
+        output.writeInt(isNull(currentPlayer) ? NONE : playerIndexes.get(currentPlayer));
+        output.writeInt(playerStatusEntity.getCurrentPlayerIndex());
+        writeString(output, playerStatusEntity.getCommand());
+    }
+
+    /**
+     * read the player status
+     * @param input the stream to read from
+     * @param players the player table
+     * @return player status
+     * @throws IOException if the stream cannot be read
+     */
+    private static PlayerStatusEntity readPlayerStatus(DataInputStream input, List<Player> players) throws IOException {
+        PlayerStatusEntity playerStatusEntity = new PlayerStatusEntity();
+
+        int numPlayers = input.readInt();
+        if (numPlayers != NONE) {
+            ArrayList<Player> listPlayers = new ArrayList<>(numPlayers);
+            for (int i = 0; i < numPlayers; i++) {
+                listPlayers.add(players.get(input.readInt()));
+            }
+            playerStatusEntity.setListPlayers(listPlayers);
+        }
+
+        int currentPlayer = input.readInt();
+        playerStatusEntity.setCurrentPlayer(currentPlayer == NONE ? null : players.get(currentPlayer));
+        playerStatusEntity.setCurrentPlayerIndex(input.readInt());
+        playerStatusEntity.setCommand(readString(input));
+
+        return playerStatusEntity;
+    }
+
+    /**
+     * write the startup state
+     * @param output the stream to write to
+     * @param startupStateEntity startup state
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writeStartupState(DataOutputStream output, StartupStateEntity startupStateEntity) throws IOException {
+        output.writeBoolean(startupStateEntity.isBoolCountriesPopulated());
+        output.writeBoolean(startupStateEntity.isBoolMapLoaded());
+        output.writeBoolean(startupStateEntity.isBoolAllGamePlayersAdded());
+        output.writeBoolean(startupStateEntity.isBoolGamePlayerAdded());
+        output.writeBoolean(startupStateEntity.isBoolAllCountriesPlaced());
+
+        boolean[] boolArrayCountriesPlaced = startupStateEntity.boolArrayCountriesPlaced();
+        output.writeInt(isNull(boolArrayCountriesPlaced) ? NONE : boolArrayCountriesPlaced.length);
+        if (!isNull(boolArrayCountriesPlaced)) {
+            for (boolean boolCountryPlaced : boolArrayCountriesPlaced) {
+                output.writeBoolean(boolCountryPlaced);
+            }
+        }
+    }
+
+    /**
+     * read the startup state
+     * @param input the stream to read from
+     * @return startup state
+     * @throws IOException if the stream cannot be read
+     */
+    private static StartupStateEntity readStartupState(DataInputStream input) throws IOException {
+        StartupStateEntity startupStateEntity = new StartupStateEntity();
+        startupStateEntity.setBoolCountriesPopulated(input.readBoolean());
+        startupStateEntity.setBoolMapLoaded(input.readBoolean());
+        startupStateEntity.setBoolAllGamePlayersAdded(input.readBoolean());
+        startupStateEntity.setBoolGamePlayerAdded(input.readBoolean());
+        startupStateEntity.setBoolAllCountriesPlaced(input.readBoolean());
+
+        int numPlayers = input.readInt();
+        if (numPlayers != NONE) {
+            boolean[] boolArrayCountriesPlaced = new boolean[numPlayers];
+            for (int i = 0; i < numPlayers; i++) {
+                boolArrayCountriesPlaced[i] = input.readBoolean();
+            }
+            startupStateEntity.setBoolArrayCountriesPlaced(boolArrayCountriesPlaced);
+        }
+
+        return startupStateEntity;
+    }
+
+    /**
+     * write sets of ids by id, such as the neighbors of every country
+     * @param output the stream to write to
+     * @param idSets sets of ids by id, can be null
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writeIdSets(DataOutputStream output, Map<Integer, Set<Integer>> idSets) throws IOException {
+        output.writeInt(isNull(idSets) ? 0 : idSets.size());
+        if (isNull(idSets)) {
+            return;
+        }
+
+        for (Map.Entry<Integer, Set<Integer>> idSet : idSets.entrySet()) {
+            output.writeInt(idSet.getKey());
+            output.writeInt(idSet.getValue().size());
+            for (Integer id : idSet.getValue()) {
+                output.writeInt(id);
+            }
+        }
+    }
+
+    /**
+     * read sets of ids by id
+     * @param input the stream to read from
+     * @return sets of ids by id
+     * @throws IOException if the stream cannot be read
+     */
+    private static Map<Integer, Set<Integer>> readIdSets(DataInputStream input) throws IOException {
+        int numSets = readCount(input);
+        Map<Integer, Set<Integer>> idSets = new HashMap<>();
+
+        for (int i = 0; i < numSets; i++) {
+            int key = input.readInt();
+            int numIds = readCount(input);
+            Set<Integer> ids = new LinkedHashSet<>();
+            for (int id = 0; id < numIds; id++) {
+                ids.add(input.readInt());
+            }
+            idSets.put(key, ids);
+        }
+
+        return idSets;
+    }
+
+    /**
+     * read a number of elements
+     * @param input the stream to read from
+     * @return the number of elements
+     * @throws IOException if the stream cannot be read or the number is negative
+     */
+    private static int readCount(DataInputStream input) throws IOException {
+        int count = input.readInt();
+        if (count < 0) {
+            throw new StreamCorruptedException("invalid count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * write an integer that can be missing
+     * @param output the stream to write to
+     * @param value the integer, can be null
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writeInteger(DataOutputStream output, Integer value) throws IOException {
+        output.writeInt(isNull(value) ? NO_INTEGER : value);
+    }
+
+    /**
+     * read an integer written by writeInteger
+     * @param input the stream to read from
+     * @return the integer, null if none was written
+     * @throws IOException if the stream cannot be read
+     */
+    private static Integer readInteger(DataInputStream input) throws IOException {
+        int value = input.readInt();
+        return value == NO_INTEGER ? null : value;
+    }
+
+    /**
+     * write a string that can be missing
+     * @param output the stream to write to
+     * @param value the string, can be null
+     * @throws IOException if the stream cannot be written
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(!isNull(value));
+        if (!isNull(value)) {
+            output.writeUTF(value);
+        }
+    }
+
+    /**
+     * read a string written by writeString
+     * @param input the stream to read from
+     * @return the string, null if none was written
+     * @throws IOException if the stream cannot be read
+     */
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+}
@@ -1,33 +1,271 @@
 package com6441.team7.risc.utils;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com6441.team7.risc.api.model.*;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.util.Objects.isNull;
 
 /**
- * this class is used to store the game status in the json file
+ * this class is used to store the game status in the json file and to read it back.
+ * The file is written and read entity by entity with one shared object mapper,
+ * without building a json tree of the whole game.
+ * A game can also be saved in the binary layout of {@link SaveGameBinaryFormat}, compressed or not,
+ * chosen from the file extension when saving and from the first bytes of the file when loading.
  */
 public class SaveGameUtils {
 
     /**
-     * save the game to a json file.
+     * object mapper shared by every save and load, it keeps the serializers it has already built
+     */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .configure(SerializationFeature.FLUSH_AFTER_WRITE_VALUE, false);
+
+    /**
+     * classes of the entities a saved game can contain, by entity name
+     */
+    private static final Map<String, Class<?>> ENTITY_CLASSES = new HashMap<>();
+
+    /**
+     * name of the entity holding the first journal segment to replay after a snapshot
+     */
+    public static final String JOURNAL_SEGMENT = "JournalSegment";
+
+    /**
+     * first two bytes of a gzip stream
+     */
+    private static final int GZIP_MAGIC = 0x1f8b;
+
+    /**
+     * name of the file the games are saved to
+     */
+    private static volatile String saveGameFileName = "game.json";
+
+    static {
+        ENTITY_CLASSES.put(MapStatusEntity.class.getSimpleName(), MapStatusEntity.class);
+        ENTITY_CLASSES.put(PlayerStatusEntity.class.getSimpleName(), PlayerStatusEntity.class);
+        ENTITY_CLASSES.put(StartupStateEntity.class.getSimpleName(), StartupStateEntity.class);
+        ENTITY_CLASSES.put(ReinforceStateEntity.class.getSimpleName(), ReinforceStateEntity.class);
+    }
+
+    /**
+     * set the name of the file the games are saved to,
+     * a name ending with .rsav or .rsav.gz saves the game in the binary layout
+     * @param fileName the file name
+     */
+    public static void setSaveGameFileName(String fileName) {
+        saveGameFileName = fileName;
+    }
+
+    /**
+     * get the name of the file the games are saved to
+     * @return the file name
+     */
+    public static String getSaveGameFileName() {
+        return saveGameFileName;
+    }
+
+    /**
+     * save the game to a json file, or to a binary file if the save game file name asks for it.
      * @param entities the objects that to be stored
      */
     public static void saveGame(Map<String, Object> entities){
         try {
-
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.writeValue(new File("game.json"), entities);
+            writeGame(new File(saveGameFileName), entities);
             System.exit(0);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    /**
+     * write the entities of a game to a file, in the format given by the file extension:
+     * binary for .rsav, compressed binary for .rsav.gz and json otherwise
+     * @param saveGameFile the file to write
+     * @param entities the objects that to be stored, by entity name
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeGame(File saveGameFile, Map<String, Object> entities) throws IOException {
+        String fileName = saveGameFile.getName().toLowerCase(Locale.CANADA);
+
+        if (fileName.endsWith(SaveGameBinaryFormat.COMPRESSED_EXTENSION)) {
+            writeBinaryGame(saveGameFile, entities, true);
+        } else if (fileName.endsWith(SaveGameBinaryFormat.EXTENSION)) {
+            writeBinaryGame(saveGameFile, entities, false);
+        } else {
+            writeJsonGame(saveGameFile, entities);
+        }
+    }
+
+    /**
+     * take a snapshot of a running game in the binary layout, in memory.
+     * If the game has a journal, a new segment is started and its number is stored with the snapshot,
+     * so that the game can be recovered from the snapshot and the segments written after it.
+     * @param mapService the map of the game
+     * @param playerService the players of the game
+     * @return the game in the binary layout, not compressed
+     * @throws IOException if the game cannot be written
+     */
+    public static byte[] snapshotGame(MapService mapService, PlayerService playerService) throws IOException {
+        Map<String, Object> entities = new HashMap<>();
+        putIntoMap(entities, MapStatusEntity.class, mapService.getMapStatusEntity());
+        putIntoMap(entities, PlayerStatusEntity.class, playerService.getPlayerStatusEntity());
+        if (!isNull(mapService.getGameJournal())) {
+            entities.put(JOURNAL_SEGMENT, mapService.getGameJournal().rotate());
+            if (!isNull(playerService.getCurrentPlayer())) {
+                mapService.getGameJournal().turnStarted(playerService.getCurrentPlayerName(), playerService.getTurnNum());
+            }
+        }
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream(1 << 12);
+        try (DataOutputStream dataOutput = new DataOutputStream(output)) {
+            SaveGameBinaryFormat.write(dataOutput, entities);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * write the entities of a game in the binary layout
+     * @param saveGameFile the file to write
+     * @param entities the objects that to be stored, by entity name
+     * @param boolCompressed true to compress the file with gzip as it is written
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeBinaryGame(File saveGameFile, Map<String, Object> entities, boolean boolCompressed) throws IOException {
+        OutputStream fileOutput = Files.newOutputStream(saveGameFile.toPath());
+        OutputStream output = boolCompressed ? new GZIPOutputStream(fileOutput, 1 << 16) : new BufferedOutputStream(fileOutput, 1 << 16);
+
+        try (DataOutputStream dataOutput = new DataOutputStream(output)) {
+            SaveGameBinaryFormat.write(dataOutput, entities);
+        }
+    }
+
+    /**
+     * write the entities of a game to a json file, one after the other
+     * @param saveGameFile the file to write
+     * @param entities the objects that to be stored, by entity name
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeJsonGame(File saveGameFile, Map<String, Object> entities) throws IOException {
+        try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(saveGameFile, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            for (Map.Entry<String, Object> entity : entities.entrySet()) {
+                generator.writeFieldName(entity.getKey());
+                OBJECT_MAPPER.writeValue(generator, entity.getValue());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * read the entities of a game from a file, in the format found at the start of the file:
+     * compressed binary, binary or json
+     * @param saveGameFile the file to read
+     * @return the objects stored, by entity name
+     * @throws IOException if the file cannot be read or is not a saved game
+     */
+    public static Map<String, Object> readGame(File saveGameFile) throws IOException {
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(saveGameFile.toPath()), 1 << 16)) {
+            return readGame(input);
+        }
+    }
+
+    /**
+     * read the entities of a game from a stream, in the format found at the start of the stream
+     * @param input the stream to read, which supports mark
+     * @return the objects stored, by entity name
+     * @throws IOException if the stream cannot be read or is not a saved game
+     */
+    private static Map<String, Object> readGame(InputStream input) throws IOException {
+        input.mark(4);
+        int header = readHeader(input);
+
+        if (header >>> 16 == GZIP_MAGIC) {
+            input.reset();
+            return readGame(new BufferedInputStream(new GZIPInputStream(input, 1 << 16), 1 << 16));
+        }
+
+        if (header == SaveGameBinaryFormat.MAGIC) {
+            return SaveGameBinaryFormat.read(new DataInputStream(input));
+        }
+
+        input.reset();
+        return readJsonGame(input);
+    }
+
+    /**
+     * read the first four bytes of a stream
+     * @param input the stream to read
+     * @return the four bytes, big endian, 0 if the stream is shorter
+     * @throws IOException if the stream cannot be read
+     */
+    private static int readHeader(InputStream input) throws IOException {
+        int header = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = input.read();
+            if (b < 0) {
+                return 0;
+            }
+            header = (header << 8) | b;
+        }
+        return header;
+    }
+
+    /**
+     * read the entities of a game from a json stream, one after the other.
+     * Entities that are not known are skipped.
+     * @param input the stream to read
+     * @return the objects stored, by entity name
+     * @throws IOException if the stream cannot be read or is not a saved game
+     */
+    private static Map<String, Object> readJsonGame(InputStream input) throws IOException {
+        Map<String, Object> entities = new HashMap<>();
+
+        try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "a saved game must be a json object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                Class<?> clazz = ENTITY_CLASSES.get(name);
+                parser.nextToken();
+
+                if (isNull(clazz)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                entities.put(name, OBJECT_MAPPER.readValue(parser, clazz));
+            }
+        }
+
+        return entities;
+    }
+
     /**
      * store different game status in the entities
      * @param entities Map entity where details are put in.
@@ -37,4 +275,15 @@ public class SaveGameUtils {
     public static void putIntoMap(Map<String, Object> entities, Class clazz, Object entity) {
         entities.put(clazz.getSimpleName(), entity);
     }
+
+    /**
+     * get a game status from the entities
+     * @param entities Map entity where details are read from.
+     * @param clazz class of the entity
+     * @param <T> type of the entity
+     * @return the entity, null if it was not stored
+     */
+    public static <T> T getFromMap(Map<String, Object> entities, Class<T> clazz) {
+        return clazz.cast(entities.get(clazz.getSimpleName()));
+    }
 }
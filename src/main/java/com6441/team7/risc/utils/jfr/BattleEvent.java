@@ -0,0 +1,78 @@
+package com6441.team7.risc.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This event records an attack, a single roll of the dice or an all-out attack,
+ * with the troops of both countries before and after it
+ */
+@Name("com6441.team7.risc.Battle")
+@Label("Battle")
+@Category({"Risc", "Game"})
+@Description("Attack of a country, single or all-out")
+final class BattleEvent extends jdk.jfr.Event implements FlightRecord {
+
+    /**
+     * the attacking country
+     */
+    @Label("Attacker Country")
+    String attackerCountry;
+
+    /**
+     * the defending country
+     */
+    @Label("Defender Country")
+    String defenderCountry;
+
+    /**
+     * troops of the attacking country before the attack
+     */
+    @Label("Attacker Troops")
+    int attackerTroops;
+
+    /**
+     * troops of the defending country before the attack
+     */
+    @Label("Defender Troops")
+    int defenderTroops;
+
+    /**
+     * troops of the attacking country after the attack
+     */
+    @Label("Attacker Troops Left")
+    int attackerTroopsLeft;
+
+    /**
+     * troops of the defending country after the attack
+     */
+    @Label("Defender Troops Left")
+    int defenderTroopsLeft;
+
+    /**
+     * rolls of the dice, not set when the outcome of an all-out attack is sampled
+     */
+    @Label("Rounds")
+    int rounds;
+
+    /**
+     * true if the outcome of the all-out attack is sampled from the battle outcome tables, without rolling dice
+     */
+    @Label("Sampled")
+    @Description("Outcome drawn from the battle outcome tables, rounds are not known")
+    boolean sampled;
+
+    /**
+     * true for an all-out attack
+     */
+    @Label("All Out")
+    boolean allOut;
+
+    /**
+     * true if the defending country is conquered
+     */
+    @Label("Conquered")
+    boolean conquered;
+}
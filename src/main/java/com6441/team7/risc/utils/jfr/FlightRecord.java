@@ -0,0 +1,9 @@
+package com6441.team7.risc.utils.jfr;
+
+/**
+ * This interface is the handle of a flight recorder event begun by GameFlightRecorder,
+ * passed back to GameFlightRecorder to end it.
+ * It hides the jdk.jfr classes from the game, which also runs on Java runtimes without them.
+ */
+public interface FlightRecord {
+}
@@ -0,0 +1,152 @@
+package com6441.team7.risc.utils.jfr;
+
+import com6441.team7.risc.api.model.Country;
+import com6441.team7.risc.api.model.MapService;
+import com6441.team7.risc.api.model.Player;
+
+import java.util.Set;
+
+/**
+ * This class emits Java Flight Recorder events for the turns, the phases of the strategies,
+ * the battles and the map loads, so that a recording of a game or a tournament shows them
+ * next to the profiling data of the JVM.
+ * The events are named com6441.team7.risc.Turn, Phase, Battle and MapLoad.
+ * Nothing is created while no recording is running or when the runtime has no flight recorder:
+ * every method then returns null or does nothing, without building the fields of the events.
+ */
+public final class GameFlightRecorder {
+
+    /**
+     * true if the runtime has a flight recorder
+     */
+    private static final boolean boolAvailable = initialize();
+
+    /**
+     * constructor, the methods are static
+     */
+    private GameFlightRecorder() {
+    }
+
+    /**
+     * check if the runtime has a flight recorder and listen to its recordings
+     * @return true if the runtime has a flight recorder
+     */
+    private static boolean initialize() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder");
+            JfrFlightRecorder.initialize();
+            return true;
+        } catch (ClassNotFoundException | LinkageError | SecurityException | IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * check if events are recorded
+     * @return true while a flight recording is running
+     */
+    public static boolean isRecording() {
+        return boolAvailable && JfrFlightRecorder.isRecording();
+    }
+
+    /**
+     * begin the turn of a computer player
+     * @param player the player
+     * @param strategyClass class of the strategy of the player
+     * @param turn number of the turn
+     * @return the event, null if it is not recorded
+     */
+    public static FlightRecord beginTurn(Player player, Class<?> strategyClass, int turn) {
+        if (!isRecording()) {
+            return null;
+        }
+        return JfrFlightRecorder.beginTurn(player.getName(), strategyClass.getSimpleName(), turn);
+    }
+
+    /**
+     * begin a phase played by a strategy
+     * @param strategyClass class of the strategy
+     * @param phase reinforce, attack or fortify
+     * @return the event, null if it is not recorded
+     */
+    public static FlightRecord beginPhase(Class<?> strategyClass, String phase) {
+        if (!isRecording()) {
+            return null;
+        }
+        return JfrFlightRecorder.beginPhase(strategyClass.getSimpleName(), phase);
+    }
+
+    /**
+     * end a turn or a phase
+     * @param flightRecord the event, null if it is not recorded
+     */
+    public static void end(FlightRecord flightRecord) {
+        if (flightRecord != null) {
+            JfrFlightRecorder.end(flightRecord);
+        }
+    }
+
+    /**
+     * begin an attack
+     * @param attackerCountry the attacking country
+     * @param defenderCountry the defending country
+     * @param boolAllOut true for an all-out attack
+     * @param boolSampled true if the outcome of the all-out attack is sampled, without rolling dice
+     * @return the event, null if it is not recorded
+     */
+    public static FlightRecord beginBattle(Country attackerCountry, Country defenderCountry, boolean boolAllOut,
+                                           boolean boolSampled) {
+        if (!isRecording()) {
+            return null;
+        }
+        return JfrFlightRecorder.beginBattle(attackerCountry.getCountryName(), defenderCountry.getCountryName(),
+                attackerCountry.getSoldiers(), defenderCountry.getSoldiers(), boolAllOut, boolSampled);
+    }
+
+    /**
+     * end an attack
+     * @param flightRecord the event, null if it is not recorded
+     * @param rounds rolls of the dice, not set for a sampled attack
+     * @param attackerCountry the attacking country
+     * @param defenderCountry the defending country
+     * @param attacker the attacking player
+     */
+    public static void endBattle(FlightRecord flightRecord, int rounds, Country attackerCountry,
+                                 Country defenderCountry, Player attacker) {
+        if (flightRecord != null) {
+            JfrFlightRecorder.endBattle(flightRecord, rounds, attackerCountry.getSoldiers(),
+                    defenderCountry.getSoldiers(), defenderCountry.getPlayer() == attacker);
+        }
+    }
+
+    /**
+     * begin loading a map file
+     * @param parser Domination or Conquest
+     * @param fileName name of the map file
+     * @return the event, null if it is not recorded
+     */
+    public static FlightRecord beginMapLoad(String parser, String fileName) {
+        if (!isRecording()) {
+            return null;
+        }
+        return JfrFlightRecorder.beginMapLoad(parser, fileName);
+    }
+
+    /**
+     * end loading a map file
+     * @param flightRecord the event, null if it is not recorded
+     * @param boolLoaded true if the map is loaded
+     * @param mapService the map loaded
+     */
+    public static void endMapLoad(FlightRecord flightRecord, boolean boolLoaded, MapService mapService) {
+        if (flightRecord == null) {
+            return;
+        }
+
+        int numBorders = 0;
+        for (Set<Integer> neighbors : mapService.getAdjacencyCountriesMap().values()) {
+            numBorders += neighbors.size();
+        }
+        JfrFlightRecorder.endMapLoad(flightRecord, boolLoaded, mapService.getCountries().size(), numBorders);
+    }
+}
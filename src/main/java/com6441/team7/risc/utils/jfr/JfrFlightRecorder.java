@@ -0,0 +1,189 @@
+package com6441.team7.risc.utils.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * This class creates the flight recorder events of GameFlightRecorder.
+ * It is the only class using jdk.jfr directly, and is only loaded when the runtime has it.
+ * No event is created while no recording is running, nor when its type is disabled in the recording settings.
+ */
+final class JfrFlightRecorder {
+
+    /**
+     * true while a recording is running, kept up to date by a listener of the flight recorder
+     */
+    private static volatile boolean boolRecording;
+
+    /**
+     * constructor, the methods are static
+     */
+    private JfrFlightRecorder() {
+    }
+
+    /**
+     * listen to the recordings started and stopped
+     */
+    static void initialize() {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording recording) {
+                updateRecording();
+            }
+        });
+        updateRecording();
+    }
+
+    /**
+     * check if a recording is running
+     */
+    private static void updateRecording() {
+        boolRecording = FlightRecorder.isInitialized() && FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .anyMatch(recording -> recording.getState() == RecordingState.RUNNING);
+    }
+
+    /**
+     * check if a recording is running
+     * @return true while a recording is running
+     */
+    static boolean isRecording() {
+        return boolRecording;
+    }
+
+    /**
+     * begin a turn event
+     * @param playerName name of the player
+     * @param strategyName strategy of the player
+     * @param turn number of the turn
+     * @return the event, null if it is not recorded
+     */
+    static FlightRecord beginTurn(String playerName, String strategyName, int turn) {
+        if (!boolRecording) {
+            return null;
+        }
+        TurnEvent event = new TurnEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.player = playerName;
+        event.strategy = strategyName;
+        event.turn = turn;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * begin a phase event
+     * @param strategyName strategy playing the phase
+     * @param phase reinforce, attack or fortify
+     * @return the event, null if it is not recorded
+     */
+    static FlightRecord beginPhase(String strategyName, String phase) {
+        if (!boolRecording) {
+            return null;
+        }
+        PhaseEvent event = new PhaseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.strategy = strategyName;
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * begin a battle event
+     * @param attackerCountry the attacking country
+     * @param defenderCountry the defending country
+     * @param attackerTroops troops of the attacking country
+     * @param defenderTroops troops of the defending country
+     * @param boolAllOut true for an all-out attack
+     * @param boolSampled true if the outcome of the all-out attack is sampled, without rolling dice
+     * @return the event, null if it is not recorded
+     */
+    static FlightRecord beginBattle(String attackerCountry, String defenderCountry,
+                                    int attackerTroops, int defenderTroops, boolean boolAllOut, boolean boolSampled) {
+        if (!boolRecording) {
+            return null;
+        }
+        BattleEvent event = new BattleEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.attackerCountry = attackerCountry;
+        event.defenderCountry = defenderCountry;
+        event.attackerTroops = attackerTroops;
+        event.defenderTroops = defenderTroops;
+        event.allOut = boolAllOut;
+        event.sampled = boolSampled;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * end a battle event
+     * @param flightRecord the event
+     * @param rounds rolls of the dice, not set for a sampled attack
+     * @param attackerTroopsLeft troops of the attacking country after the attack
+     * @param defenderTroopsLeft troops of the defending country after the attack
+     * @param boolConquered true if the defending country is conquered
+     */
+    static void endBattle(FlightRecord flightRecord, int rounds, int attackerTroopsLeft, int defenderTroopsLeft,
+                          boolean boolConquered) {
+        BattleEvent event = (BattleEvent) flightRecord;
+        if (!event.sampled) {
+            event.rounds = rounds;
+        }
+        event.attackerTroopsLeft = attackerTroopsLeft;
+        event.defenderTroopsLeft = defenderTroopsLeft;
+        event.conquered = boolConquered;
+        event.commit();
+    }
+
+    /**
+     * begin a map load event
+     * @param parser Domination or Conquest
+     * @param fileName name of the map file
+     * @return the event, null if it is not recorded
+     */
+    static FlightRecord beginMapLoad(String parser, String fileName) {
+        if (!boolRecording) {
+            return null;
+        }
+        MapLoadEvent event = new MapLoadEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.parser = parser;
+        event.file = fileName;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * end a map load event
+     * @param flightRecord the event
+     * @param boolLoaded true if the map is loaded
+     * @param numCountries number of countries of the map
+     * @param numBorders number of borders of the map
+     */
+    static void endMapLoad(FlightRecord flightRecord, boolean boolLoaded, int numCountries, int numBorders) {
+        MapLoadEvent event = (MapLoadEvent) flightRecord;
+        event.loaded = boolLoaded;
+        event.countries = numCountries;
+        event.borders = numBorders;
+        event.commit();
+    }
+
+    /**
+     * end a turn or phase event
+     * @param flightRecord the event
+     */
+    static void end(FlightRecord flightRecord) {
+        ((Event) flightRecord).commit();
+    }
+}
@@ -0,0 +1,46 @@
+package com6441.team7.risc.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This event records the loading of a map file, with the parser used and the size of the map
+ */
+@Name("com6441.team7.risc.MapLoad")
+@Label("Map Load")
+@Category({"Risc", "Map"})
+@Description("Map file read by the domination or the conquest parser")
+final class MapLoadEvent extends jdk.jfr.Event implements FlightRecord {
+
+    /**
+     * the parser: Domination or Conquest
+     */
+    @Label("Parser")
+    String parser;
+
+    /**
+     * name of the map file
+     */
+    @Label("File")
+    String file;
+
+    /**
+     * true if the map is loaded
+     */
+    @Label("Loaded")
+    boolean loaded;
+
+    /**
+     * number of countries of the map
+     */
+    @Label("Countries")
+    int countries;
+
+    /**
+     * number of borders of the map, counted once per direction
+     */
+    @Label("Borders")
+    int borders;
+}
@@ -0,0 +1,28 @@
+package com6441.team7.risc.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This event records a phase played by a strategy: reinforce, attack or fortify
+ */
+@Name("com6441.team7.risc.Phase")
+@Label("Phase")
+@Category({"Risc", "Game"})
+@Description("Reinforcement, attack or fortification played by a strategy")
+final class PhaseEvent extends jdk.jfr.Event implements FlightRecord {
+
+    /**
+     * strategy playing the phase
+     */
+    @Label("Strategy")
+    String strategy;
+
+    /**
+     * the phase: reinforce, attack or fortify
+     */
+    @Label("Phase")
+    String phase;
+}
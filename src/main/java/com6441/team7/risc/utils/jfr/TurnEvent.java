@@ -0,0 +1,34 @@
+package com6441.team7.risc.utils.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This event records the turn of a computer player, from its reinforcement to the end of its fortification
+ */
+@Name("com6441.team7.risc.Turn")
+@Label("Turn")
+@Category({"Risc", "Game"})
+@Description("Turn of a computer player")
+final class TurnEvent extends jdk.jfr.Event implements FlightRecord {
+
+    /**
+     * name of the player
+     */
+    @Label("Player")
+    String player;
+
+    /**
+     * strategy of the player
+     */
+    @Label("Strategy")
+    String strategy;
+
+    /**
+     * number of the turn, every player playing once per turn
+     */
+    @Label("Turn")
+    int turn;
+}
@@ -0,0 +1,88 @@
+package com6441.team7.risc.utils.journal;
+
+import com6441.team7.risc.api.model.Card;
+import com6441.team7.risc.api.model.GameState;
+
+/**
+ * This interface receives the events of a game journal when it is replayed.
+ * Every method does nothing by default, so that a listener only implements the events it needs.
+ */
+public interface GameEventListener {
+
+    /**
+     * a country changed owner
+     * @param countryId id of the country
+     * @param playerName name of the new owner, null if the country has no owner any more
+     */
+    default void ownerChanged(int countryId, String playerName) {
+    }
+
+    /**
+     * the number of soldiers of a country changed
+     * @param countryId id of the country
+     * @param difference new number of soldiers minus the previous number
+     */
+    default void soldiersChanged(int countryId, int difference) {
+    }
+
+    /**
+     * a player gained a card
+     * @param playerName name of the player
+     * @param card the card
+     */
+    default void cardGained(String playerName, Card card) {
+    }
+
+    /**
+     * a player gave a card away
+     * @param playerName name of the player
+     * @param card the card
+     */
+    default void cardRemoved(String playerName, Card card) {
+    }
+
+    /**
+     * a player traded cards in
+     * @param playerName name of the player
+     * @param tradeInTimes number of trade-ins of the player after this one
+     */
+    default void cardsTradedIn(String playerName, int tradeInTimes) {
+    }
+
+    /**
+     * a player was eliminated
+     * @param playerName name of the player
+     */
+    default void playerRemoved(String playerName) {
+    }
+
+    /**
+     * a player started its turn
+     * @param playerName name of the player
+     * @param turn number of the turn being played
+     */
+    default void turnStarted(String playerName, int turn) {
+    }
+
+    /**
+     * a player rolled dice
+     * @param playerName name of the player
+     * @param dice values of the dice
+     */
+    default void diceRolled(String playerName, int[] dice) {
+    }
+
+    /**
+     * the game moved to another phase
+     * @param gameState the new phase
+     */
+    default void phaseChanged(GameState gameState) {
+    }
+
+    /**
+     * every player played a turn
+     * @param turn number of the turn just played
+     */
+    default void turnCompleted(int turn) {
+    }
+}
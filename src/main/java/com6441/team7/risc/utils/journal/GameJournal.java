@@ -0,0 +1,651 @@
+package com6441.team7.risc.utils.journal;
+
+import com6441.team7.risc.api.model.Card;
+import com6441.team7.risc.api.model.GameState;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class appends the events of a game to a binary journal: owner and soldier changes of the countries,
+ * cards gained and given away, trade-ins, dice rolled, phase changes, eliminated players, turns started and completed.
+ * The journal is a folder of segments, "journal-00000001.log", "journal-00000002.log" and so on.
+ * Records are buffered, the segment is forced to disk at most every sync interval, and a new segment is started
+ * when the current one is full or when a snapshot of the game is taken.
+ * A game is recovered by loading its last snapshot and replaying the segments written after it.
+ * If the journal cannot be written, the error is printed once and the game goes on without journal.
+ */
+public class GameJournal implements Closeable {
+
+    /**
+     * first bytes of every segment, "RJNL"
+     */
+    private static final int MAGIC = 0x524A4E4C;
+
+    /**
+     * version of the record layout, version 1 segments have no card removed, trade-in, player removed
+     * nor turn started records and are still read
+     */
+    private static final short VERSION = 2;
+
+    /**
+     * name of the segment files, with the segment number
+     */
+    private static final Pattern SEGMENT_PATTERN = Pattern.compile("journal-(\\d{8})\\.log");
+
+    /**
+     * a player name is given an index in the segment
+     */
+    private static final byte PLAYER = 1;
+
+    /**
+     * a country changed owner
+     */
+    private static final byte OWNER_CHANGED = 2;
+
+    /**
+     * the soldiers of a country changed
+     */
+    private static final byte SOLDIERS_CHANGED = 3;
+
+    /**
+     * a player gained a card
+     */
+    private static final byte CARD_GAINED = 4;
+
+    /**
+     * a player rolled dice
+     */
+    private static final byte DICE_ROLLED = 5;
+
+    /**
+     * the game moved to another phase
+     */
+    private static final byte PHASE_CHANGED = 6;
+
+    /**
+     * every player played a turn
+     */
+    private static final byte TURN_COMPLETED = 7;
+
+    /**
+     * a player gave a card away
+     */
+    private static final byte CARD_REMOVED = 8;
+
+    /**
+     * a player traded cards in
+     */
+    private static final byte CARDS_TRADED_IN = 9;
+
+    /**
+     * a player was eliminated
+     */
+    private static final byte PLAYER_REMOVED = 10;
+
+    /**
+     * a player started its turn
+     */
+    private static final byte TURN_STARTED = 11;
+
+    /**
+     * written instead of a missing player
+     */
+    private static final int NO_PLAYER = -1;
+
+    /**
+     * folder of the segments
+     */
+    private final Path directory;
+
+    /**
+     * size after which a new segment is started, in bytes
+     */
+    private final long maxSegmentBytes;
+
+    /**
+     * maximum time between two writes to disk, in milliseconds
+     */
+    private final long syncIntervalMillis;
+
+    /**
+     * index of every player name in the current segment
+     */
+    private final Map<String, Integer> playerIndexes = new HashMap<>();
+
+    /**
+     * number of the current segment
+     */
+    private long segment;
+
+    /**
+     * the current segment file
+     */
+    private FileOutputStream fileOutput;
+
+    /**
+     * buffered stream of the current segment
+     */
+    private DataOutputStream output;
+
+    /**
+     * time of the last write to disk
+     */
+    private long lastSyncMillis;
+
+    /**
+     * true once the journal could not be written, no more record is written then
+     */
+    private boolean boolFailed;
+
+    /**
+     * constructor, starts a new segment after the segments already in the folder
+     * @param directory folder of the segments, created if needed
+     * @param maxSegmentBytes size after which a new segment is started, in bytes
+     * @param syncIntervalMillis maximum time between two writes to disk, in milliseconds
+     * @throws IOException if the folder or the first segment cannot be created
+     */
+    public GameJournal(Path directory, long maxSegmentBytes, long syncIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.syncIntervalMillis = syncIntervalMillis;
+
+        Files.createDirectories(directory);
+        List<Long> segments = listSegments(directory);
+        openSegment(segments.isEmpty() ? 1 : segments.get(segments.size() - 1) + 1);
+    }
+
+    /**
+     * record that a country changed owner
+     * @param countryId id of the country
+     * @param playerName name of the new owner, null if none
+     */
+    public synchronized void ownerChanged(int countryId, String playerName) {
+        if (boolFailed) {
+            return;
+        }
+        try {
+            int playerIndex = indexOf(playerName);
+            output.writeByte(OWNER_CHANGED);
+            output.writeInt(countryId);
+            output.writeInt(playerIndex);
+            recordWritten();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * record that the number of soldiers of a country changed
+     * @param countryId id of the country
+     * @param difference new number of soldiers minus the previous number
+     */
+    public synchronized void soldiersChanged(int countryId, int difference) {
+        if (boolFailed) {
+            return;
+        }
+        try {
+            output.writeByte(SOLDIERS_CHANGED);
+            output.writeInt(countryId);
+            output.writeInt(difference);
+            recordWritten();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * record that a player gained a card
+     * @param playerName name of the player
+     * @param card the card
+     */
+    public synchronized void cardGained(String playerName, Card card) {
+        if (boolFailed) {
+            return;
+        }
+        try {
+            int playerIndex = indexOf(playerName);
+            output.writeByte(CARD_GAINED);
+            output.writeInt(playerIndex);
+            output.writeByte(card.ordinal());
+            recordWritten();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * record that a player gave a card away, traded in or handed to the player who eliminated it
+     * @param playerName name of the player
+     * @param card the card
+     */
+    public synchronized void cardRemoved(String playerName, Card card) {
+        if (boolFailed) {
+            return;
+        }
+        try {
+            int playerIndex = indexOf(playerName);
+            output.writeByte(CARD_REMOVED);
+            output.writeInt(playerIndex);
+            output.writeByte(card.ordinal());
+            recordWritten();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * record that a player traded cards in
+     * @param playerName name of the player
+     * @param tradeInTimes number of trade-ins of the player after this one
+     */
+    public synchronized void cardsTradedIn(String playerName, int tradeInTimes) {
+        if (boolFailed) {
+            return;
+        }
+        try {
+            int playerIndex = indexOf(playerName);
+            output.writeByte(CARDS_TRADED_IN);
+            output.writeInt(playerIndex);
+            output.writeInt(tradeInTimes);
+            recordWritten();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * record that a player was eliminated
+     * @param playerName name of the player
+     */
+    public synchronized void playerRemoved(String playerName) {
+        if (boolFailed) {
+            return;
+        }
+        try {
+            int playerIndex = indexOf(playerName);
+            output.writeByte(PLAYER_REMOVED);
+            output.writeInt(playerIndex);
+            recordWritten();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * record that a player started its turn
+     * @param playerName name of the player
+     * @param turn number of the turn being played
+     */
+    public synchronized void turnStarted(String playerName, int turn) {
+        if (boolFailed) {
+            return;
+        }
+        try {
+            int playerIndex = indexOf(playerName);
+            output.writeByte(TURN_STARTED);
+            output.writeInt(playerIndex);
+            output.writeInt(turn);
+            recordWritten();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * record that a player rolled dice
+     * @param playerName name of the player
+     * @param dice values of the dice
+     */
+    public synchronized void diceRolled(String playerName, int[] dice) {
+        if (boolFailed) {
+            return;
+        }
+        try {
+            int playerIndex = indexOf(playerName);
+            output.writeByte(DICE_ROLLED);
+            output.writeInt(playerIndex);
+            output.writeByte(dice.length);
+            for (int value : dice) {
+                output.writeByte(value);
+            }
+            recordWritten();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * record that the game moved to another phase
+     * @param gameState the new phase
+     */
+    public synchronized void phaseChanged(GameState gameState) {
+        if (boolFailed || isNull(gameState)) {
+            return;
+        }
+        try {
+            output.writeByte(PHASE_CHANGED);
+            output.writeByte(gameState.ordinal());
+            recordWritten();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * record that every player played a turn
+     * @param turn number of the turn just played
+     */
+    public synchronized void turnCompleted(int turn) {
+        if (boolFailed) {
+            return;
+        }
+        try {
+            output.writeByte(TURN_COMPLETED);
+            output.writeInt(turn);
+            recordWritten();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * close the current segment and start a new one, as done when a snapshot of the game is taken
+     * @return number of the new segment, the first one to replay after the snapshot
+     */
+    public synchronized long rotate() {
+        if (!boolFailed) {
+            try {
+                closeSegment();
+                openSegment(segment + 1);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * write the buffered records and force them to disk
+     */
+    public synchronized void sync() {
+        if (boolFailed) {
+            return;
+        }
+        try {
+            output.flush();
+            fileOutput.getChannel().force(false);
+            lastSyncMillis = System.currentTimeMillis();
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * get the number of the current segment
+     * @return segment number
+     */
+    public synchronized long getSegment() {
+        return segment;
+    }
+
+    /**
+     * get the folder of the segments
+     * @return journal folder
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * write the buffered records, force them to disk and close the current segment
+     * @throws IOException if the segment cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!boolFailed) {
+            closeSegment();
+        }
+        boolFailed = true;
+    }
+
+    /**
+     * replay the segments of a journal, from a segment to the last one.
+     * A record cut by a crash at the end of the last segment is ignored.
+     * @param directory folder of the segments
+     * @param fromSegment number of the first segment to replay
+     * @param listener receives the events
+     * @throws IOException if a segment cannot be read or is not a journal segment
+     */
+    public static void replay(Path directory, long fromSegment, GameEventListener listener) throws IOException {
+        for (long segment : listSegments(directory)) {
+            if (segment >= fromSegment) {
+                replaySegment(segmentPath(directory, segment), listener);
+            }
+        }
+    }
+
+    /**
+     * replay one segment
+     * @param segmentPath the segment file
+     * @param listener receives the events
+     * @throws IOException if the segment cannot be read or is not a journal segment
+     */
+    private static void replaySegment(Path segmentPath, GameEventListener listener) throws IOException {
+        List<String> playerNames = new ArrayList<>();
+        Card[] cards = Card.values();
+        GameState[] gameStates = GameState.values();
+
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentPath), 1 << 16))) {
+            if (input.readInt() != MAGIC) {
+                throw new StreamCorruptedException(segmentPath + " is not a game journal segment");
+            }
+            short version = input.readShort();
+            if (version < 1 || version > VERSION) {
+                throw new StreamCorruptedException(segmentPath + " has the unknown journal version " + version);
+            }
+            input.readLong();
+
+            while (true) {
+                int type = input.read();
+                if (type < 0) {
+                    return;
+                }
+
+                switch (type) {
+                    case PLAYER:
+                        int index = input.readInt();
+                        String name = input.readUTF();
+                        while (playerNames.size() <= index) {
+                            playerNames.add(null);
+                        }
+                        playerNames.set(index, name);
+                        break;
+                    case OWNER_CHANGED:
+                        int countryId = input.readInt();
+                        listener.ownerChanged(countryId, nameOf(playerNames, input.readInt()));
+                        break;
+                    case SOLDIERS_CHANGED:
+                        int soldiersCountryId = input.readInt();
+                        listener.soldiersChanged(soldiersCountryId, input.readInt());
+                        break;
+                    case CARD_GAINED:
+                        String cardPlayer = nameOf(playerNames, input.readInt());
+                        listener.cardGained(cardPlayer, cards[input.readByte()]);
+                        break;
+                    case DICE_ROLLED:
+                        String dicePlayer = nameOf(playerNames, input.readInt());
+                        int[] dice = new int[input.readByte()];
+                        for (int i = 0; i < dice.length; i++) {
+                            dice[i] = input.readByte();
+                        }
+                        listener.diceRolled(dicePlayer, dice);
+                        break;
+                    case PHASE_CHANGED:
+                        listener.phaseChanged(gameStates[input.readByte()]);
+                        break;
+                    case TURN_COMPLETED:
+                        listener.turnCompleted(input.readInt());
+                        break;
+                    case CARD_REMOVED:
+                        String removedCardPlayer = nameOf(playerNames, input.readInt());
+                        listener.cardRemoved(removedCardPlayer, cards[input.readByte()]);
+                        break;
+                    case CARDS_TRADED_IN:
+                        String tradeInPlayer = nameOf(playerNames, input.readInt());
+                        listener.cardsTradedIn(tradeInPlayer, input.readInt());
+                        break;
+                    case PLAYER_REMOVED:
+                        listener.playerRemoved(nameOf(playerNames, input.readInt()));
+                        break;
+                    case TURN_STARTED:
+                        String turnPlayer = nameOf(playerNames, input.readInt());
+                        listener.turnStarted(turnPlayer, input.readInt());
+                        break;
+                    default:
+                        throw new StreamCorruptedException("unknown journal record " + type + " in " + segmentPath);
+                }
+            }
+        } catch (EOFException e) {
+            // the last record was cut when the game stopped
+        }
+    }
+
+    /**
+     * list the numbers of the segments of a journal
+     * @param directory folder of the segments
+     * @return segment numbers, in order
+     * @throws IOException if the folder cannot be read
+     */
+    static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory)) {
+            for (Path path : paths) {
+                Matcher matcher = SEGMENT_PATTERN.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+
+        segments.sort(Long::compare);
+        return segments;
+    }
+
+    /**
+     * get the file of a segment
+     * @param directory folder of the segments
+     * @param segment segment number
+     * @return the segment file
+     */
+    private static Path segmentPath(Path directory, long segment) {
+        return directory.resolve(String.format("journal-%08d.log", segment));
+    }
+
+    /**
+     * get a player name from its index in the segment
+     * @param playerNames player names by index
+     * @param index the index
+     * @return the name, null for no player
+     */
+    private static String nameOf(List<String> playerNames, int index) {
+        return index == NO_PLAYER ? null : playerNames.get(index);
+    }
+
+    /**
+     * get the index of a player name in the current segment, writing it first if it is new
+     * @param playerName the player name, can be null
+     * @return the index
+     * @throws IOException if the record cannot be written
+     */
+    private int indexOf(String playerName) throws IOException {
+        if (isNull(playerName)) {
+            return NO_PLAYER;
+        }
+
+        Integer index = playerIndexes.get(playerName);
+        if (isNull(index)) {
+            index = playerIndexes.size();
+            playerIndexes.put(playerName, index);
+            output.writeByte(PLAYER);
+            output.writeInt(index);
+            output.writeUTF(playerName);
+        }
+        return index;
+    }
+
+    /**
+     * start a new segment file
+     * @param newSegment number of the segment
+     * @throws IOException if the file cannot be created
+     */
+    private void openSegment(long newSegment) throws IOException {
+        segment = newSegment;
+        playerIndexes.clear();
+        fileOutput = new FileOutputStream(segmentPath(directory, newSegment).toFile());
+        output = new DataOutputStream(new BufferedOutputStream(fileOutput, 1 << 16));
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+        output.writeLong(newSegment);
+        lastSyncMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * write and close the current segment file
+     * @throws IOException if the file cannot be written
+     */
+    private void closeSegment() throws IOException {
+        output.flush();
+        fileOutput.getChannel().force(false);
+        output.close();
+    }
+
+    /**
+     * start a new segment if the current one is full, and write to disk if the sync interval has passed
+     * @throws IOException if the segment cannot be written
+     */
+    private void recordWritten() throws IOException {
+        if (output.size() >= maxSegmentBytes) {
+            closeSegment();
+            openSegment(segment + 1);
+            return;
+        }
+
+        if (System.currentTimeMillis() - lastSyncMillis >= syncIntervalMillis) {
+            output.flush();
+            fileOutput.getChannel().force(false);
+            lastSyncMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * stop writing the journal after an error
+     * @param e the error
+     */
+    private void fail(IOException e) {
+        boolFailed = true;
+        e.printStackTrace();
+    }
+}
@@ -0,0 +1,180 @@
+package com6441.team7.risc.utils.journal;
+
+import com6441.team7.risc.api.model.Card;
+import com6441.team7.risc.api.model.Country;
+import com6441.team7.risc.api.model.GameState;
+import com6441.team7.risc.api.model.MapService;
+import com6441.team7.risc.api.model.Player;
+import com6441.team7.risc.api.model.PlayerService;
+
+import java.util.Optional;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class applies the events of a game journal to a game loaded from a snapshot,
+ * bringing it to the state it had when the journal was last written:
+ * owners and soldiers of the countries, cards and trade-ins of the players, eliminated players,
+ * phase, turn and current player. Dice are informative only and are not applied.
+ */
+public class GameJournalReplayer implements GameEventListener {
+
+    /**
+     * the map of the game
+     */
+    private final MapService mapService;
+
+    /**
+     * the players of the game
+     */
+    private final PlayerService playerService;
+
+    /**
+     * number of events applied
+     */
+    private int numEventsApplied;
+
+    /**
+     * constructor
+     * @param mapService the map of the game
+     * @param playerService the players of the game
+     */
+    public GameJournalReplayer(MapService mapService, PlayerService playerService) {
+        this.mapService = mapService;
+        this.playerService = playerService;
+    }
+
+    /**
+     * give the country to its new owner
+     * @param countryId id of the country
+     * @param playerName name of the new owner, null if the country has no owner any more
+     */
+    @Override
+    public void ownerChanged(int countryId, String playerName) {
+        Optional<Country> country = mapService.getCountryById(countryId);
+        if (!country.isPresent()) {
+            return;
+        }
+
+        Player previousOwner = country.get().getPlayer();
+        Player newOwner = isNull(playerName) ? null : playerService.getPlayerByName(playerName);
+
+        if (!isNull(previousOwner)) {
+            previousOwner.removeCountryFromPlayerList(country.get());
+        }
+        if (!isNull(newOwner)) {
+            newOwner.addCountryToPlayerList(country.get());
+        }
+        country.get().setPlayer(newOwner);
+        numEventsApplied++;
+    }
+
+    /**
+     * change the number of soldiers of the country
+     * @param countryId id of the country
+     * @param difference new number of soldiers minus the previous number
+     */
+    @Override
+    public void soldiersChanged(int countryId, int difference) {
+        mapService.getCountryById(countryId).ifPresent(country -> {
+            country.setSoldiers(country.getSoldiers() + difference);
+            numEventsApplied++;
+        });
+    }
+
+    /**
+     * give the card to the player
+     * @param playerName name of the player
+     * @param card the card
+     */
+    @Override
+    public void cardGained(String playerName, Card card) {
+        Player player = playerService.getPlayerByName(playerName);
+        if (!isNull(player)) {
+            player.addCard(card);
+            numEventsApplied++;
+        }
+    }
+
+    /**
+     * take the card from the player
+     * @param playerName name of the player
+     * @param card the card
+     */
+    @Override
+    public void cardRemoved(String playerName, Card card) {
+        Player player = playerService.getPlayerByName(playerName);
+        if (!isNull(player) && player.getCardList().remove(card)) {
+            numEventsApplied++;
+        }
+    }
+
+    /**
+     * set the number of trade-ins of the player
+     * @param playerName name of the player
+     * @param tradeInTimes number of trade-ins of the player
+     */
+    @Override
+    public void cardsTradedIn(String playerName, int tradeInTimes) {
+        Player player = playerService.getPlayerByName(playerName);
+        if (!isNull(player)) {
+            player.setTradeInTimes(tradeInTimes);
+            numEventsApplied++;
+        }
+    }
+
+    /**
+     * take the player out of the game
+     * @param playerName name of the player
+     */
+    @Override
+    public void playerRemoved(String playerName) {
+        if (playerService.removePlayer(playerName)) {
+            numEventsApplied++;
+        }
+    }
+
+    /**
+     * make the player the current player, in the given turn
+     * @param playerName name of the player
+     * @param turn number of the turn being played
+     */
+    @Override
+    public void turnStarted(String playerName, int turn) {
+        int playerIndex = playerService.getPlayerList().indexOf(playerService.getPlayerByName(playerName));
+        if (playerIndex < 0) {
+            return;
+        }
+        playerService.setCurrentPlayerIndex(playerIndex);
+        playerService.setTurnNum(turn);
+        numEventsApplied++;
+    }
+
+    /**
+     * start the turn after the completed one
+     * @param turn number of the turn just played
+     */
+    @Override
+    public void turnCompleted(int turn) {
+        playerService.setTurnNum(turn + 1);
+        numEventsApplied++;
+    }
+
+    /**
+     * move the game to the phase
+     * @param gameState the new phase
+     */
+    @Override
+    public void phaseChanged(GameState gameState) {
+        mapService.setState(gameState);
+        numEventsApplied++;
+    }
+
+    /**
+     * get the number of events applied
+     * @return number of events
+     */
+    public int getNumEventsApplied() {
+        return numEventsApplied;
+    }
+}
@@ -0,0 +1,65 @@
+package com6441.team7.risc.utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class counts events, such as turns, battles or dice rolls.
+ * It can be incremented by several tournament games at once without contention.
+ */
+public class Counter extends Metric implements CounterMXBean {
+
+    /**
+     * number of events
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * constructor
+     * @param name name of the counter
+     */
+    public Counter(String name) {
+        super(name);
+    }
+
+    /**
+     * count one event
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    /**
+     * count several events
+     * @param numEvents number of events
+     */
+    public void add(long numEvents) {
+        count.add(numEvents);
+    }
+
+    /**
+     * get the number of events counted
+     * @return number of events
+     */
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * forget the events counted
+     */
+    @Override
+    public void reset() {
+        count.reset();
+        super.reset();
+    }
+
+    /**
+     * describe the counter in one line of the text dump
+     * @return description
+     */
+    @Override
+    public String describe() {
+        return String.format("%s count=%d rate=%.1f/s", getName(), getCount(), getRatePerSecond());
+    }
+}
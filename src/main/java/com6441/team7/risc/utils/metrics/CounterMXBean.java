@@ -0,0 +1,19 @@
+package com6441.team7.risc.utils.metrics;
+
+/**
+ * This interface exports a Counter over JMX
+ */
+public interface CounterMXBean {
+
+    /**
+     * get the number of events counted
+     * @return number of events
+     */
+    long getCount();
+
+    /**
+     * get the number of events per second
+     * @return events per second
+     */
+    double getRatePerSecond();
+}
@@ -0,0 +1,326 @@
+package com6441.team7.risc.utils.metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This class keeps the metrics of the game engine: turns, battles, rounds of battle and dice rolls,
+ * the time spent in each phase of each strategy, the time to load maps,
+ * the evaluations of the world domination and the time spent notifying the observers.
+ * The metrics are shared by every game of the process, including the games played by tournament workers.
+ * Durations are only measured while the metrics are enabled, otherwise measuring costs a boolean check.
+ * The metrics can be exported as JMX MBeans and dumped as text at a fixed period.
+ */
+public final class GameMetrics {
+
+    /**
+     * domain of the JMX names of the metrics
+     */
+    public static final String JMX_DOMAIN = "com6441.team7.risc";
+
+    /**
+     * index of the reinforcement phase in the phase histograms
+     */
+    public static final int PHASE_REINFORCE = 0;
+
+    /**
+     * index of the attack phase in the phase histograms
+     */
+    public static final int PHASE_ATTACK = 1;
+
+    /**
+     * index of the fortification phase in the phase histograms
+     */
+    public static final int PHASE_FORTIFY = 2;
+
+    /**
+     * names of the phases, by index
+     */
+    private static final String[] PHASE_NAMES = {"reinforce", "attack", "fortify"};
+
+    /**
+     * every metric, by name
+     */
+    private static final Map<String, Metric> mapMetrics = new ConcurrentSkipListMap<>();
+
+    /**
+     * the phase histograms of each strategy class
+     */
+    private static final Map<Class<?>, LatencyHistogram[]> mapPhaseHistograms = new ConcurrentHashMap<>();
+
+    /**
+     * turns played, every player playing once per turn
+     */
+    public static final Counter TURNS = counter("turns");
+
+    /**
+     * battles fought, one per attack of a country, single or all-out
+     */
+    public static final Counter BATTLES = counter("battles");
+
+    /**
+     * all-out battles whose outcome is sampled from the battle outcome tables.
+     * They count as battles, but not in the rounds and dice rolls, since no dice are rolled for them.
+     */
+    public static final Counter SAMPLED_BATTLES = counter("sampledBattles");
+
+    /**
+     * rounds of battle, one per roll of the attacker and defender dice
+     */
+    public static final Counter BATTLE_ROUNDS = counter("battleRounds");
+
+    /**
+     * dice rolled by attackers and defenders
+     */
+    public static final Counter DICE_ROLLS = counter("diceRolls");
+
+    /**
+     * evaluations of the world domination
+     */
+    public static final LatencyHistogram WORLD_DOMINATION = histogram("evaluateWorldDomination");
+
+    /**
+     * notifications of the observers of the models
+     */
+    public static final LatencyHistogram OBSERVER_NOTIFICATION = histogram("observerNotification");
+
+    /**
+     * domination map files parsed
+     */
+    public static final LatencyHistogram MAP_LOAD_DOMINATION = histogram("mapLoad.domination");
+
+    /**
+     * conquest map files parsed
+     */
+    public static final LatencyHistogram MAP_LOAD_CONQUEST = histogram("mapLoad.conquest");
+
+    /**
+     * maps read from their compiled index
+     */
+    public static final LatencyHistogram MAP_LOAD_INDEX = histogram("mapLoad.index");
+
+    /**
+     * true while durations are measured
+     */
+    private static volatile boolean boolEnabled;
+
+    /**
+     * true once the metrics are registered as MBeans, metrics created later are registered too
+     */
+    private static volatile boolean boolMBeansRegistered;
+
+    /**
+     * constructor, the metrics are static
+     */
+    private GameMetrics() {
+    }
+
+    /**
+     * setter for boolEnabled
+     * @param bool true to measure durations
+     */
+    public static void setBoolEnabled(boolean bool) {
+        boolEnabled = bool;
+    }
+
+    /**
+     * getter for boolEnabled
+     * @return true while durations are measured
+     */
+    public static boolean getBoolEnabled() {
+        return boolEnabled;
+    }
+
+    /**
+     * start measuring a duration
+     * @return the current time in nanoseconds, 0 if the metrics are disabled
+     */
+    public static long startTimer() {
+        return boolEnabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * record the duration since a timer was started
+     * @param histogram the histogram of the operation
+     * @param startNanos value returned by startTimer()
+     * @return the current time in nanoseconds, to time the next operation, 0 if the metrics are disabled
+     */
+    public static long stopTimer(LatencyHistogram histogram, long startNanos) {
+        if (startNanos == 0) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        histogram.record(now - startNanos);
+        return now;
+    }
+
+    /**
+     * record the duration of a phase played by a strategy since a timer was started
+     * @param strategyClass class of the strategy
+     * @param phase PHASE_REINFORCE, PHASE_ATTACK or PHASE_FORTIFY
+     * @param startNanos value returned by startTimer()
+     * @return the current time in nanoseconds, to time the next phase, 0 if the metrics are disabled
+     */
+    public static long stopPhaseTimer(Class<?> strategyClass, int phase, long startNanos) {
+        if (startNanos == 0) {
+            return 0;
+        }
+        return stopTimer(getPhaseHistogram(strategyClass, phase), startNanos);
+    }
+
+    /**
+     * get the histogram of a phase played by a strategy
+     * @param strategyClass class of the strategy
+     * @param phase PHASE_REINFORCE, PHASE_ATTACK or PHASE_FORTIFY
+     * @return the histogram
+     */
+    public static LatencyHistogram getPhaseHistogram(Class<?> strategyClass, int phase) {
+        return mapPhaseHistograms.computeIfAbsent(strategyClass, GameMetrics::createPhaseHistograms)[phase];
+    }
+
+    /**
+     * create the phase histograms of a strategy class
+     * @param strategyClass class of the strategy
+     * @return one histogram per phase
+     */
+    private static LatencyHistogram[] createPhaseHistograms(Class<?> strategyClass) {
+        LatencyHistogram[] histograms = new LatencyHistogram[PHASE_NAMES.length];
+        for (int i = 0; i < PHASE_NAMES.length; i++) {
+            histograms[i] = histogram("phase." + PHASE_NAMES[i] + "." + strategyClass.getSimpleName());
+        }
+        return histograms;
+    }
+
+    /**
+     * create and keep a counter
+     * @param name name of the counter
+     * @return the counter
+     */
+    private static Counter counter(String name) {
+        Counter counter = new Counter(name);
+        addMetric(counter);
+        return counter;
+    }
+
+    /**
+     * create and keep a histogram
+     * @param name name of the histogram
+     * @return the histogram
+     */
+    private static LatencyHistogram histogram(String name) {
+        LatencyHistogram histogram = new LatencyHistogram(name);
+        addMetric(histogram);
+        return histogram;
+    }
+
+    /**
+     * keep a metric, and register it as an MBean if the metrics are exported
+     * @param metric the metric
+     */
+    private static void addMetric(Metric metric) {
+        mapMetrics.put(metric.getName(), metric);
+        if (boolMBeansRegistered) {
+            registerMBean(ManagementFactory.getPlatformMBeanServer(), metric);
+        }
+    }
+
+    /**
+     * get every metric
+     * @return the metrics, by name
+     */
+    public static Map<String, Metric> getMetrics() {
+        return mapMetrics;
+    }
+
+    /**
+     * forget the events counted by every metric
+     */
+    public static void reset() {
+        mapMetrics.values().forEach(Metric::reset);
+    }
+
+    /**
+     * export every metric, and the metrics created later, as MBeans of the platform MBean server,
+     * named com6441.team7.risc:type=Metrics,name=metric
+     */
+    public static synchronized void registerMBeans() {
+        if (boolMBeansRegistered) {
+            return;
+        }
+        boolMBeansRegistered = true;
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        mapMetrics.values().forEach(metric -> registerMBean(mBeanServer, metric));
+    }
+
+    /**
+     * export a metric as an MBean
+     * @param mBeanServer the MBean server
+     * @param metric the metric
+     */
+    private static void registerMBean(MBeanServer mBeanServer, Metric metric) {
+        try {
+            mBeanServer.registerMBean(metric, getObjectName(metric));
+        } catch (InstanceAlreadyExistsException e) {
+            // registered by an earlier call
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * get the JMX name of a metric
+     * @param metric the metric
+     * @return the name
+     * @throws JMException if the name of the metric is not a valid JMX name
+     */
+    public static ObjectName getObjectName(Metric metric) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=Metrics,name=" + metric.getName());
+    }
+
+    /**
+     * describe every metric as text, one line per metric, followed by the battles, sampled battles,
+     * rounds and dice rolls per turn
+     * @return the text dump
+     */
+    public static String dump() {
+        StringBuilder sb = new StringBuilder();
+        for (Metric metric : mapMetrics.values()) {
+            sb.append(metric.describe()).append('\n');
+        }
+
+        long numTurns = TURNS.getCount();
+        sb.append(String.format("battlesPerTurn=%.2f sampledBattlesPerTurn=%.2f roundsPerTurn=%.2f diceRollsPerTurn=%.2f%n",
+                numTurns == 0 ? 0.0 : (double) BATTLES.getCount() / numTurns,
+                numTurns == 0 ? 0.0 : (double) SAMPLED_BATTLES.getCount() / numTurns,
+                numTurns == 0 ? 0.0 : (double) BATTLE_ROUNDS.getCount() / numTurns,
+                numTurns == 0 ? 0.0 : (double) DICE_ROLLS.getCount() / numTurns));
+        return sb.toString();
+    }
+
+    /**
+     * print the text dump of the metrics at a fixed period, on a daemon thread
+     * @param out where the dump is printed
+     * @param periodSeconds number of seconds between two dumps
+     * @return the scheduler printing the dumps, to stop it
+     */
+    public static ScheduledExecutorService startDump(PrintStream out, long periodSeconds) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "risc-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> out.print(dump()), periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        return scheduler;
+    }
+}
@@ -0,0 +1,166 @@
+package com6441.team7.risc.utils.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class keeps the distribution of the durations of an operation, such as a strategy phase or a map load.
+ * Durations are counted in buckets of powers of two nanoseconds, so recording one is a few additions
+ * and never allocates, and percentiles are given within a factor of two.
+ */
+public class LatencyHistogram extends Metric implements LatencyHistogramMXBean {
+
+    /**
+     * number of buckets, bucket i counts the durations from 2^i to 2^(i+1) nanoseconds
+     */
+    private static final int NUM_BUCKETS = 64;
+
+    /**
+     * number of durations in each bucket
+     */
+    private final LongAdder[] buckets = new LongAdder[NUM_BUCKETS];
+
+    /**
+     * sum of the durations, in nanoseconds
+     */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /**
+     * highest duration, in nanoseconds
+     */
+    private final LongAccumulator maxNanos = new LongAccumulator(Long::max, 0);
+
+    /**
+     * constructor
+     * @param name name of the histogram
+     */
+    public LatencyHistogram(String name) {
+        super(name);
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * record a duration
+     * @param nanos the duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        buckets[63 - Long.numberOfLeadingZeros(nanos | 1)].increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * get the number of durations recorded
+     * @return number of durations
+     */
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * get the mean latency
+     * @return mean latency in microseconds
+     */
+    @Override
+    public double getMeanMicros() {
+        long count = getCount();
+        return count == 0 ? 0 : totalNanos.sum() / 1e3 / count;
+    }
+
+    /**
+     * get the median latency
+     * @return median latency in microseconds
+     */
+    @Override
+    public double getP50Micros() {
+        return getPercentileMicros(0.5);
+    }
+
+    /**
+     * get the 99th percentile of the latencies
+     * @return 99th percentile in microseconds
+     */
+    @Override
+    public double getP99Micros() {
+        return getPercentileMicros(0.99);
+    }
+
+    /**
+     * get the highest latency
+     * @return highest latency in microseconds
+     */
+    @Override
+    public double getMaxMicros() {
+        return maxNanos.get() / 1e3;
+    }
+
+    /**
+     * get the total time measured
+     * @return total time in milliseconds
+     */
+    @Override
+    public double getTotalMillis() {
+        return totalNanos.sum() / 1e6;
+    }
+
+    /**
+     * get a percentile of the latencies, as the upper bound of the bucket it falls in
+     * @param fraction fraction of the durations below the percentile, between 0 and 1
+     * @return the percentile in microseconds, never above the highest latency
+     */
+    public double getPercentileMicros(double fraction) {
+        long[] counts = new long[NUM_BUCKETS];
+        long count = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(Math.scalb(1.0, i + 1), maxNanos.get()) / 1e3;
+            }
+        }
+        return getMaxMicros();
+    }
+
+    /**
+     * forget the durations recorded
+     */
+    @Override
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        totalNanos.reset();
+        maxNanos.reset();
+        super.reset();
+    }
+
+    /**
+     * describe the histogram in one line of the text dump
+     * @return description
+     */
+    @Override
+    public String describe() {
+        return String.format("%s count=%d rate=%.1f/s mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus total=%.1fms",
+                getName(), getCount(), getRatePerSecond(), getMeanMicros(), getP50Micros(), getP99Micros(),
+                getMaxMicros(), getTotalMillis());
+    }
+}
@@ -0,0 +1,37 @@
+package com6441.team7.risc.utils.metrics;
+
+/**
+ * This interface exports a LatencyHistogram over JMX
+ */
+public interface LatencyHistogramMXBean extends CounterMXBean {
+
+    /**
+     * get the mean latency
+     * @return mean latency in microseconds
+     */
+    double getMeanMicros();
+
+    /**
+     * get the median latency
+     * @return median latency in microseconds
+     */
+    double getP50Micros();
+
+    /**
+     * get the 99th percentile of the latencies
+     * @return 99th percentile in microseconds
+     */
+    double getP99Micros();
+
+    /**
+     * get the highest latency
+     * @return highest latency in microseconds
+     */
+    double getMaxMicros();
+
+    /**
+     * get the total time measured
+     * @return total time in milliseconds
+     */
+    double getTotalMillis();
+}
@@ -0,0 +1,62 @@
+package com6441.team7.risc.utils.metrics;
+
+/**
+ * This class is the base of the metrics kept by GameMetrics.
+ * Every metric counts events since it was created or reset, to give their rate per second.
+ */
+public abstract class Metric {
+
+    /**
+     * name of the metric, also its name in JMX
+     */
+    private final String name;
+
+    /**
+     * time the metric was created or last reset, in nanoseconds
+     */
+    private volatile long startNanos = System.nanoTime();
+
+    /**
+     * constructor
+     * @param name name of the metric
+     */
+    protected Metric(String name) {
+        this.name = name;
+    }
+
+    /**
+     * get the name of the metric
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * get the number of events counted
+     * @return number of events
+     */
+    public abstract long getCount();
+
+    /**
+     * get the number of events per second since the metric was created or reset
+     * @return events per second
+     */
+    public double getRatePerSecond() {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        return elapsedNanos <= 0 ? 0 : getCount() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * forget the events counted
+     */
+    public void reset() {
+        startNanos = System.nanoTime();
+    }
+
+    /**
+     * describe the metric in one line of the text dump
+     * @return description
+     */
+    public abstract String describe();
+}
@@ -6,21 +6,22 @@ import com6441.team7.risc.api.exception.CountryParsingException;
 import com6441.team7.risc.api.exception.MissingInfoException;
 import com6441.team7.risc.api.exception.NeighborParsingException;
 import com6441.team7.risc.api.model.*;
-import com6441.team7.risc.utils.CommonUtils;
 import com6441.team7.risc.view.GameView;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static com6441.team7.risc.api.RiscConstants.COMMA;
 import static com6441.team7.risc.api.RiscConstants.EOL;
-import static com6441.team7.risc.api.RiscConstants.NON_EXIST;
 import static java.util.Objects.isNull;
 
 /**
@@ -29,6 +30,26 @@ import static java.util.Objects.isNull;
  *
  */
 public class ConquestParser implements IConquestParser {
+    /**
+     * index of the lines before the first section of the file
+     */
+    private static final int NO_SECTION = 0;
+
+    /**
+     * index of the map section
+     */
+    private static final int MAP_SECTION = 1;
+
+    /**
+     * index of the continents section
+     */
+    private static final int CONTINENTS_SECTION = 2;
+
+    /**
+     * index of the territories section, the last one of the file
+     */
+    private static final int TERRITORIES_SECTION = 3;
+
 	/**
 	 * Mapgraph reference
 	 */
@@ -177,13 +198,19 @@ public class ConquestParser implements IConquestParser {
      */
     @Override
     public boolean readConquestMapFile(String filename, GameView view, MapService mapService) {
-        String rawFileContent = CommonUtils.readFile(filename);
+        Path path = Paths.get(filename);
 
-        if(rawFileContent.equalsIgnoreCase(NON_EXIST)){
+        if (!Files.isRegularFile(path)) {
             createFile(filename, view);
             return true;
         }
-        return parseFile(rawFileContent, view, mapService);
+
+        try {
+            return parseFile(path, view, mapService);
+        } catch (IOException e) {
+            view.displayMessage(e.getMessage());
+            return false;
+        }
     }
 
     /**
@@ -201,28 +228,28 @@ public class ConquestParser implements IConquestParser {
         }
     }
 
-   /**
-    * Parse existing map file and create continent, country and its neighbors.
-    * @param rawFileContent string that is to be split and divided up
-    * @param view result to be displayed when parsing
-    * @param mapService provides map details for use in method
-    * @return returns true is map is successfully parsed
-    */
-    boolean parseFile(String rawFileContent, GameView view, MapService mapService) {
-
-        String[] parts = StringUtils.split(rawFileContent.replaceAll("\r",StringUtils.EMPTY), "[");
+    /**
+     * Parse existing map file line by line and create continent, country and its neighbors.
+     * Every line is added to the mapService as soon as it is read, so only the map model is kept in memory,
+     * never the text of the file.
+     * Territories name their neighbors, which may come later in the file,
+     * so the territories section is read a second time to add the neighbors once all countries exist.
+     * @param path the map file
+     * @param view result to be displayed when parsing
+     * @param mapService provides map details for use in method
+     * @return returns true is map is successfully parsed
+     * @throws IOException when the file cannot be read
+     */
+    boolean parseFile(Path path, GameView view, MapService mapService) throws IOException {
 
         try {
-            if (parts.length != 3) {
+            if (!parseMapContinentsAndTerritories(path, mapService)) {
                 return false;
             }
 
-            parseMapGraphInfo(parts[0]);
-            parseRawContinents(parts[1], mapService);
-            parseRawCountries(parts[2], mapService);
-            parseRawNeighboringCountries(parts[2], mapService);
+            parseNeighboringCountries(path, mapService);
 
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             view.displayMessage(e.getMessage());
             return false;
         }
@@ -231,37 +258,99 @@ public class ConquestParser implements IConquestParser {
 
     }
 
-
     /**
-     * add map graph information
-     * @param part intro part of conquest map file
+     * read the map, continents and territories sections and save the continents and countries in the mapService
+     * @param path the map file
+     * @param mapService continents and countries are saved in mapService
+     * @return false if the file does not have exactly the map, continents and territories sections
+     * @throws IOException when the file cannot be read
      */
-    void parseMapGraphInfo(String part) {
+    private boolean parseMapContinentsAndTerritories(Path path, MapService mapService) throws IOException {
+        StringBuilder graph = new StringBuilder();
 
-        mapGraph.setMapGraph(StringUtils.substringAfter(part, "]\n"));
-    }
+        int sectionIndex = 0;
+        String line;
+
+        try (BufferedReader reader = openFile(path)) {
+            while ((line = reader.readLine()) != null) {
+
+                if (line.startsWith("[")) {
+                    sectionIndex++;
+                    if (sectionIndex > TERRITORIES_SECTION) {
+                        return false;
+                    }
+                    continue;
+                }
 
+                if (sectionIndex == NO_SECTION) {
+                    return false;
+                }
+
+                if (sectionIndex == MAP_SECTION) {
+                    graph.append(line).append("\n");
+                    continue;
+                }
+
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                if (sectionIndex == CONTINENTS_SECTION) {
+                    mapService.addContinent(createContinentFromRaw(line));
+                } else {
+                    mapService.addCountry(createCountryFromRaw(line, mapService));
+                }
+            }
+        }
+
+        if (sectionIndex != TERRITORIES_SECTION) {
+            return false;
+        }
+
+        mapGraph.setMapGraph(graph.toString());
+        return true;
+    }
 
     /**
-     * read continent string from existing map and split it with new line,
-     * for each line, call {@link #createCountryFromRaw(String, MapService)} to create new continent.
-     * @param mapService continent's details are saved in mapService
-     * @param part continent names in string format
-     * @return returns set of continents that have been successfully parsed
+     * read the territories section again and save the neighbors of every country in the mapService
+     * @param path the map file
+     * @param mapService neighboring countries' map details are saved.
+     * @throws IOException when the file cannot be read
      */
-    Set<Continent> parseRawContinents(String part, MapService mapService) {
-        String continentInfo = StringUtils.substringAfter(part, "]\n");
+    private void parseNeighboringCountries(Path path, MapService mapService) throws IOException {
+        Map<Integer, Set<Integer>> adjacencyMap = new HashMap<>();
+
+        int sectionIndex = 0;
+        String line;
 
-        Set<Continent> continentSet = Optional.of(StringUtils.split(continentInfo, "\n"))
-                .map(Arrays::stream)
-                .orElseGet(Stream::empty)
-                .map(this::createContinentFromRaw)
-                .collect(Collectors.toSet());
+        try (BufferedReader reader = openFile(path)) {
+            while ((line = reader.readLine()) != null) {
 
-        mapService.addContinent(continentSet);
+                if (line.startsWith("[")) {
+                    sectionIndex++;
+                    continue;
+                }
+
+                if (sectionIndex != TERRITORIES_SECTION || line.isEmpty()) {
+                    continue;
+                }
 
-        return continentSet;
+                List<Integer> list = createAdjacencyCountriesFromRaw(line, mapService);
+                adjacencyMap.put(list.get(0), new HashSet<>(list.subList(1, list.size())));
+            }
+        }
 
+        mapService.addNeighboringCountries(adjacencyMap);
+    }
+
+    /**
+     * open a map file for reading line by line
+     * @param path the map file
+     * @return buffered reader of the file, characters that are not UTF-8 are replaced
+     * @throws IOException when the file cannot be opened
+     */
+    private BufferedReader openFile(Path path) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8));
     }
 
     /**
@@ -292,25 +381,6 @@ public class ConquestParser implements IConquestParser {
 
     }
 
-    /**
-     * read country string from existing map and split it with new line,
-     * for each line, call {@link #createCountryFromRaw(String, MapService)} to create new country.
-     * @param mapService saves countries details to mapService
-     * @param part countries names list in string format
-     * @return set of countries object that are parsed successfully
-     */
-    Set<Country> parseRawCountries(String part, MapService mapService) {
-        String countryInfo = StringUtils.substringAfter(part, "\n");
-        Set<Country> countrySet = Optional.of(StringUtils.split(countryInfo, EOL))
-                .map(Arrays::stream)
-                .orElseGet(Stream::empty)
-                .map(rawCountry -> createCountryFromRaw(rawCountry, mapService))
-                .collect(Collectors.toSet());
-
-        mapService.addCountry(countrySet);
-        return countrySet;
-    }
-
     /**
      * read country string from the existing map file and save each valid country to the mapService
      * if the country is not valid, will throw an exception
@@ -352,32 +422,6 @@ public class ConquestParser implements IConquestParser {
         }
     }
 
-    /**
-     * read strings from the existing file, save neighboring countries info in the mapService
-     * @param mapService neighboring countries' map details are saved.
-     * @param part string for borders(neighboring countries)
-     * @return returns a pair of keys - country and values - its neighbors, where neighbors are a set.
-     */
-    Map<Integer, Set<Integer>> parseRawNeighboringCountries(String part, MapService mapService) {
-
-        part = StringUtils.substringAfter(part, "]\n");
-        String[] adjacencyInfo = StringUtils.split(part, "\n");
-        Map<Integer, Set<Integer>> adjacencyMap = new HashMap<>();
-
-        Arrays.stream(adjacencyInfo)
-                .map(info -> createAdjacencyCountriesFromRaw(info, mapService))
-                .forEach(list -> {
-                    int countryId = list.get(0);
-                    Set<Integer> adjacencyId = new HashSet<>(list.subList(1, list.size()));
-                    adjacencyMap.put(countryId, adjacencyId);
-                });
-
-        mapService.addNeighboringCountries(adjacencyMap);
-
-        return adjacencyMap;
-    }
-
-
     /**
      * read neighboring countries id from file and returns them as List of integers
      * @param mapService provides map details for use in method
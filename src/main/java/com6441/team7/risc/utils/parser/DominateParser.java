@@ -3,22 +3,24 @@ package com6441.team7.risc.utils.parser;
 import com6441.team7.risc.api.RiscConstants;
 import com6441.team7.risc.api.exception.*;
 import com6441.team7.risc.api.model.*;
-import com6441.team7.risc.utils.CommonUtils;
 import com6441.team7.risc.view.GameView;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static com6441.team7.risc.api.RiscConstants.EOL;
-import static com6441.team7.risc.api.RiscConstants.NON_EXIST;
 import static com6441.team7.risc.api.RiscConstants.WHITESPACE;
 import static java.util.Objects.compare;
 import static java.util.Objects.isNull;
@@ -28,6 +30,31 @@ import static java.util.Objects.isNull;
  * conquest and domination map files.
  */
 public class DominateParser implements IDominationParser {
+    /**
+     * index of the introduction, before the first section of the file
+     */
+    private static final int INTRO_SECTION = 0;
+
+    /**
+     * index of the files section
+     */
+    private static final int FILES_SECTION = 1;
+
+    /**
+     * index of the continents section
+     */
+    private static final int CONTINENTS_SECTION = 2;
+
+    /**
+     * index of the countries section
+     */
+    private static final int COUNTRIES_SECTION = 3;
+
+    /**
+     * index of the borders section, the last one of the file
+     */
+    private static final int BORDERS_SECTION = 4;
+
     /**
      * a reference of mapGraph
      */
@@ -171,14 +198,20 @@ public class DominateParser implements IDominationParser {
      */
     @Override
     public boolean readDominateMapFile(String fileName, GameView view, MapService mapService) {
-        String file = CommonUtils.readFile(fileName);
+        Path path = Paths.get(fileName);
 
-        if(file.equalsIgnoreCase(NON_EXIST)){
+        if (!Files.isRegularFile(path)) {
             createFile(fileName, view);
             return true;
         }
 
-        return parseFile(file, view, mapService);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8))) {
+            return parseFile(reader, view, mapService);
+        } catch (IOException e) {
+            view.displayMessage(e.getMessage());
+            return false;
+        }
     }
 
 
@@ -199,72 +232,73 @@ public class DominateParser implements IDominationParser {
     }
 
     /**
-     * Parse existing map file and create continent, country and its neighbors.
-     * @param s string that is to be split and divided up
+     * Parse existing map file line by line and create continent, country and its neighbors.
+     * Every line is added to the mapService as soon as it is read, so only the map model is kept in memory,
+     * never the text of the file.
+     * The file must have an introduction followed by the files, continents, countries and borders sections.
+     * @param reader reads the map file
      * @param view result to be displayed when parsing
      * @param mapService provides map details for use in method
      * @return returns true is map is successfully parsed
+     * @throws IOException when the file cannot be read
      */
-    boolean parseFile(String s, GameView view, MapService mapService) {
-        String[] parts = StringUtils.split(s, "[");
+    boolean parseFile(BufferedReader reader, GameView view, MapService mapService) throws IOException {
+        StringBuilder intro = new StringBuilder();
+        StringBuilder graph = new StringBuilder();
+        Map<Integer, Set<Integer>> adjacencyMap = new HashMap<>();
+
+        int sectionIndex = 0;
+        String line;
 
         try {
-            if (parts.length != 5) {
-                return false;
-            }
+            while ((line = reader.readLine()) != null) {
 
-            parseMapIntro(parts[0]);
-            parseMapGraphInfo(parts[1]);
-            parseRawContinents(parts[2], mapService);
-            parseRawCountries(parts[3], mapService);
-            parseRawNeighboringCountries(parts[4], mapService);
+                if (line.startsWith("[")) {
+                    sectionIndex++;
+                    if (sectionIndex > BORDERS_SECTION) {
+                        return false;
+                    }
+                    continue;
+                }
+
+                if (sectionIndex == INTRO_SECTION) {
+                    intro.append(line).append(EOL);
+                    continue;
+                }
+
+                if (sectionIndex == FILES_SECTION) {
+                    graph.append(line).append(EOL);
+                    continue;
+                }
+
+                if (line.isEmpty()) {
+                    continue;
+                }
+
+                if (sectionIndex == CONTINENTS_SECTION) {
+                    mapService.addContinent(createContinentFromRaw(line));
+                } else if (sectionIndex == COUNTRIES_SECTION) {
+                    mapService.addCountry(createCountryFromRaw(line, mapService));
+                } else {
+                    List<Integer> list = createAdjacencyCountriesFromRaw(line, mapService);
+                    adjacencyMap.put(list.get(0), new HashSet<>(list.subList(1, list.size())));
+                }
+            }
 
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             view.displayMessage(e.getMessage());
             return false;
         }
 
-        return mapService.isStronglyConnected();
-    }
-
-
-
-    /**
-     * store map introduction information in mapIntro
-     * @param part intro part of domination map file in string format
-     */
-    void parseMapIntro(String part){
-        mapIntro.setMapIntro(part);
-    }
-
-    /**
-     * add map graph visual information to mapGraph
-     * @param part Graph information for map file in string format
-     */
-    void parseMapGraphInfo(String part){
-        mapGraph.setMapGraph(StringUtils.substringAfter(part, "]\r\n"));
-    }
-
-    /**
-     * read continent string from existing map and split it with new line,
-     * for each line, call {@link #createCountryFromRaw(String, MapService)} to create new continent.
-     * @param mapService continent's details are saved in mapService
-     * @param part continent names in string format
-     * @return returns set of continents that have been successfully parsed
-     */
-    Set<Continent> parseRawContinents(String part, MapService mapService) {
-        String continentInfo = StringUtils.substringAfter(part, "]\r\n");
-
-        Set<Continent> continentSet = Optional.of(StringUtils.split(continentInfo, EOL))
-                .map(Arrays::stream)
-                .orElseGet(Stream::empty)
-                .map(this::createContinentFromRaw)
-                .collect(Collectors.toSet());
-
-        mapService.addContinent(continentSet);
+        if (sectionIndex != BORDERS_SECTION || intro.length() == 0) {
+            return false;
+        }
 
-        return continentSet;
+        mapIntro.setMapIntro(intro.toString());
+        mapGraph.setMapGraph(graph.toString());
+        mapService.addNeighboringCountries(adjacencyMap);
 
+        return mapService.isStronglyConnected();
     }
 
     /**
@@ -299,25 +333,6 @@ public class DominateParser implements IDominationParser {
 
     }
 
-    /**
-     * read country string from existing map and split it with new line,
-     * for each line, call {@link #createCountryFromRaw(String, MapService)} to create new country.
-     * @param mapService saves countries details to mapService
-     * @param part countries names list in string format
-     * @return set of countries object that are parsed successfully
-     */
-    Set<Country> parseRawCountries(String part, MapService mapService) {
-        String countryInfo = StringUtils.substringAfter(part, "]\r\n");
-        Set<Country> countrySet = Optional.of(StringUtils.split(countryInfo, EOL))
-                .map(Arrays::stream)
-                .orElseGet(Stream::empty)
-                .map(rawCountry -> createCountryFromRaw(rawCountry, mapService))
-                .collect(Collectors.toSet());
-
-        mapService.addCountry(countrySet);
-        return countrySet;
-    }
-
     /**
      * read country string from the existing map file and save each valid country to the mapService
      * if the country is not valid, will throw an exception
@@ -357,33 +372,6 @@ public class DominateParser implements IDominationParser {
         }
     }
 
-    /**
-     * read strings from the existing file, save neighboring countries info in the mapService
-     * @param mapService neighboring countries' map details are saved.
-     * @param part string for borders(neighboring countries)
-     * @return returns a pair of keys - country and values - its neighbors, where neighbors are a set.
-     */
-    Map<Integer, Set<Integer>> parseRawNeighboringCountries(String part, MapService mapService) {
-
-        String borderInfo = StringUtils.substringAfter(part, "]");
-
-        String[] adjacencyInfo = StringUtils.split(borderInfo, EOL);
-        Map<Integer, Set<Integer>> adjacencyMap = new HashMap<>();
-
-        Arrays.stream(adjacencyInfo)
-                .map(raw -> createAdjacencyCountriesFromRaw(raw, mapService))
-                .forEach(list -> {
-                    int countryId = list.get(0);
-                    Set<Integer> adjacencyId = new HashSet<>(list.subList(1, list.size()));
-                    adjacencyMap.put(countryId, adjacencyId);
-                });
-
-        mapService.addNeighboringCountries(adjacencyMap);
-
-        return adjacencyMap;
-    }
-
-
     /**
      * read neighboring countries id from file and returns them as List of integers
      * @param mapService provides map details for use in method
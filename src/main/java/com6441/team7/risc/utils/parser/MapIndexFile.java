@@ -0,0 +1,297 @@
+package com6441.team7.risc.utils.parser;
+
+import com6441.team7.risc.api.model.Continent;
+import com6441.team7.risc.api.model.Country;
+import com6441.team7.risc.api.model.CountryAdjacency;
+import com6441.team7.risc.api.model.MapCategory;
+import com6441.team7.risc.api.model.MapTemplate;
+import com6441.team7.risc.utils.CommonUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class reads and writes the compiled form of a map file, kept next to it as "name.map.idx".
+ * The index stores the fingerprint of the map file it was compiled from, the continents, the countries
+ * and the neighbor table in the same row, offset and neighbor layout as {@link CountryAdjacency}.
+ * It is memory mapped when read, and is ignored as soon as the map file no longer has the same fingerprint,
+ * so the map is then parsed from the text file again.
+ */
+public class MapIndexFile {
+
+    /**
+     * extension added to the map file name
+     */
+    public static final String EXTENSION = ".idx";
+
+    /**
+     * first bytes of every index file, "RMAP"
+     */
+    private static final int MAGIC = 0x524D4150;
+
+    /**
+     * version of the layout, an index of another version is ignored
+     */
+    private static final short VERSION = 1;
+
+    /**
+     * stored instead of the length of a missing string
+     */
+    private static final int NONE = -1;
+
+    /**
+     * stored instead of a missing coordinate
+     */
+    private static final int NO_COORDINATE = Integer.MIN_VALUE;
+
+    /**
+     * no instance, only static methods
+     */
+    private MapIndexFile() {
+    }
+
+    /**
+     * get the path of the index of a map file
+     * @param mapPath the map file path
+     * @return the index file path
+     */
+    public static Path indexPath(String mapPath) {
+        return Paths.get(mapPath + EXTENSION);
+    }
+
+    /**
+     * read the index of a map file
+     * @param mapPath the map file path
+     * @param fingerprint the fingerprint of the current content of the map file
+     * @return the template of the map, empty if there is no index, it is stale or it cannot be read
+     */
+    public static Optional<MapTemplate> read(String mapPath, long fingerprint) {
+        try {
+            Path indexPath = indexPath(mapPath);
+            if (!Files.isRegularFile(indexPath)) {
+                return Optional.empty();
+            }
+
+            try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return parseIndex(buffer, fingerprint);
+            }
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * write the index of a map file, replacing the previous one.
+     * The index is written to a temporary file first, so that a game reading it never sees half of it.
+     * @param mapPath the map file path
+     * @param fingerprint the fingerprint of the content the template was parsed from
+     * @param template the template of the map
+     * @return true if the index is written
+     */
+    public static boolean write(String mapPath, long fingerprint, MapTemplate template) {
+        Path temporaryPath = null;
+        try {
+            Path indexPath = indexPath(mapPath).toAbsolutePath();
+            temporaryPath = Files.createTempFile(indexPath.getParent(), indexPath.getFileName().toString(), ".tmp");
+
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryPath)))) {
+                writeIndex(output, fingerprint, template);
+            }
+
+            Files.move(temporaryPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException | InvalidPathException | UnsupportedOperationException e) {
+            CommonUtils.deleteQuietly(temporaryPath);
+            return false;
+        }
+    }
+
+    /**
+     * write the header, continents, countries and neighbor table of a map
+     * @param output the index file
+     * @param fingerprint the fingerprint of the map file
+     * @param template the template of the map
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeIndex(DataOutputStream output, long fingerprint, MapTemplate template) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeShort(VERSION);
+        output.writeLong(fingerprint);
+        output.writeByte(template.getMapCategory().ordinal());
+
+        List<Continent> continents = template.copyContinents();
+        output.writeInt(continents.size());
+        for (Continent continent : continents) {
+            output.writeInt(continent.getId());
+            output.writeInt(continent.getContinentValue());
+            writeString(output, continent.getName());
+            writeString(output, continent.getColor());
+        }
+
+        List<Country> countries = template.copyCountries();
+        output.writeInt(countries.size());
+        for (Country country : countries) {
+            output.writeInt(country.getId());
+            output.writeInt(country.getContinentIdentifier());
+            output.writeInt(isNull(country.getCoordinateX()) ? NO_COORDINATE : country.getCoordinateX());
+            output.writeInt(isNull(country.getCoordinateY()) ? NO_COORDINATE : country.getCoordinateY());
+            writeString(output, country.getCountryName());
+            writeString(output, country.getContinentName());
+        }
+
+        CountryAdjacency countryAdjacency = template.getCountryAdjacency();
+        int[] rowIds = countryAdjacency.getCountryIds();
+
+        output.writeInt(rowIds.length);
+        for (int rowId : rowIds) {
+            output.writeInt(rowId);
+        }
+
+        int offset = 0;
+        output.writeInt(offset);
+        for (int rowId : rowIds) {
+            offset += countryAdjacency.getNeighborCount(rowId);
+            output.writeInt(offset);
+        }
+
+        for (int rowId : rowIds) {
+            for (int i = 0; i < countryAdjacency.getNeighborCount(rowId); i++) {
+                output.writeInt(countryAdjacency.getNeighbor(rowId, i));
+            }
+        }
+    }
+
+    /**
+     * read the header, continents, countries and neighbor table of a map
+     * @param buffer the mapped index file
+     * @param fingerprint the fingerprint of the current content of the map file
+     * @return the template of the map, empty if the index is not for this content or this version
+     */
+    private static Optional<MapTemplate> parseIndex(MappedByteBuffer buffer, long fingerprint) {
+        if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION || buffer.getLong() != fingerprint) {
+            return Optional.empty();
+        }
+
+        MapCategory mapCategory = MapCategory.values()[buffer.get()];
+
+        int numContinents = readCount(buffer);
+        List<Continent> continents = new ArrayList<>(numContinents);
+        for (int i = 0; i < numContinents; i++) {
+            int id = buffer.getInt();
+            int continentValue = buffer.getInt();
+            String name = readString(buffer);
+            continents.add(new Continent(id, name, continentValue).setColor(readString(buffer)));
+        }
+
+        int numCountries = readCount(buffer);
+        List<Country> countries = new ArrayList<>(numCountries);
+        for (int i = 0; i < numCountries; i++) {
+            int id = buffer.getInt();
+            int continentId = buffer.getInt();
+            int coordinateX = buffer.getInt();
+            int coordinateY = buffer.getInt();
+            String countryName = readString(buffer);
+
+            Country country = new Country(id, countryName, continentId).setContinentName(readString(buffer));
+            if (coordinateX != NO_COORDINATE) {
+                country.setCoordinateX(coordinateX);
+            }
+            if (coordinateY != NO_COORDINATE) {
+                country.setCoordinateY(coordinateY);
+            }
+            countries.add(country);
+        }
+
+        int numRows = readCount(buffer);
+        int[] rowIds = readInts(buffer, numRows);
+        int[] offsets = readInts(buffer, numRows + 1);
+        int[] neighbors = readInts(buffer, offsets[numRows]);
+
+        return Optional.of(MapTemplate.of(mapCategory, continents, countries,
+                CountryAdjacency.of(rowIds, offsets, neighbors)));
+    }
+
+    /**
+     * read an array of ints in one bulk copy
+     * @param buffer the mapped index file
+     * @param length the number of ints
+     * @return the ints
+     */
+    private static int[] readInts(MappedByteBuffer buffer, int length) {
+        if (length < 0 || length > buffer.remaining() / Integer.BYTES) {
+            throw new IllegalArgumentException("invalid count " + length);
+        }
+
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+
+    /**
+     * read a number of elements, which cannot be larger than the bytes left
+     * @param buffer the mapped index file
+     * @return the number of elements
+     */
+    private static int readCount(MappedByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("invalid count " + count);
+        }
+        return count;
+    }
+
+    /**
+     * write a string as its length and utf-8 bytes
+     * @param output the index file
+     * @param value the string, can be null
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (isNull(value)) {
+            output.writeInt(NONE);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * read a string written by writeString
+     * @param buffer the mapped index file
+     * @return the string, null if none was written
+     */
+    private static String readString(MappedByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NONE) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException("invalid string length " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -2,9 +2,14 @@ package com6441.team7.risc.utils.parser;
 
 import com6441.team7.risc.api.model.MapCategory;
 import com6441.team7.risc.api.model.MapService;
+import com6441.team7.risc.api.model.MapTemplate;
+import com6441.team7.risc.utils.jfr.FlightRecord;
+import com6441.team7.risc.utils.jfr.GameFlightRecorder;
+import com6441.team7.risc.utils.metrics.GameMetrics;
 import com6441.team7.risc.view.GameView;
 
 import java.io.IOException;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
 
@@ -64,7 +69,12 @@ public class MapParserAdapter implements IConquestParser, IDominationParser{
      */
     @Override
     public boolean readConquestMapFile(String filename, GameView gameView, MapService mapService) {
-        return conquestParser.readConquestMapFile(filename, gameView, mapService);
+        long startNanos = GameMetrics.startTimer();
+        FlightRecord mapLoadRecord = GameFlightRecorder.beginMapLoad("Conquest", filename);
+        boolean boolRead = conquestParser.readConquestMapFile(filename, gameView, mapService);
+        GameFlightRecorder.endMapLoad(mapLoadRecord, boolRead, mapService);
+        GameMetrics.stopTimer(GameMetrics.MAP_LOAD_CONQUEST, startNanos);
+        return boolRead;
     }
 
     /**
@@ -96,7 +106,36 @@ public class MapParserAdapter implements IConquestParser, IDominationParser{
      */
     @Override
     public boolean readDominateMapFile(String fileName, GameView view, MapService mapService) {
-        return dominationParser.readDominateMapFile(fileName, view, mapService);
+        long startNanos = GameMetrics.startTimer();
+        FlightRecord mapLoadRecord = GameFlightRecorder.beginMapLoad("Domination", fileName);
+        boolean boolRead = dominationParser.readDominateMapFile(fileName, view, mapService);
+        GameFlightRecorder.endMapLoad(mapLoadRecord, boolRead, mapService);
+        GameMetrics.stopTimer(GameMetrics.MAP_LOAD_DOMINATION, startNanos);
+        return boolRead;
+    }
+
+    /**
+     * Method for reading the compiled index kept next to a map file, for both conquest and domination maps
+     * @param fileName name of the map file. Must include its extension.
+     * @param fingerprint fingerprint of the current content of the map file
+     * @return the template of the map, empty if the index is missing or stale
+     */
+    public Optional<MapTemplate> readMapIndex(String fileName, long fingerprint) {
+        long startNanos = GameMetrics.startTimer();
+        Optional<MapTemplate> template = MapIndexFile.read(fileName, fingerprint);
+        GameMetrics.stopTimer(GameMetrics.MAP_LOAD_INDEX, startNanos);
+        return template;
+    }
+
+    /**
+     * Method for writing the compiled index of a map file next to it
+     * @param fileName name of the map file. Must include its extension.
+     * @param fingerprint fingerprint of the content the template was parsed from
+     * @param template template of the parsed map
+     * @return returns true if the index is written
+     */
+    public boolean writeMapIndex(String fileName, long fingerprint, MapTemplate template) {
+        return MapIndexFile.write(fileName, fingerprint, template);
     }
 
     /**
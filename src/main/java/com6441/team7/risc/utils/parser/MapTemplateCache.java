@@ -0,0 +1,139 @@
+package com6441.team7.risc.utils.parser;
+
+import com6441.team7.risc.api.model.MapTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class keeps the templates of the map files already parsed, by path and content fingerprint,
+ * so that loading the same map again, as every tournament game does, copies the template instead of parsing the file.
+ * A template is only used while the file has the same content as when it was parsed.
+ * The cache is shared by the games played at the same time and is safe to use from several threads.
+ */
+public class MapTemplateCache {
+
+    /**
+     * maximum number of maps kept, the cache is cleared when it is full
+     */
+    private static final int MAX_TEMPLATES = 64;
+
+    /**
+     * cached templates by map file path
+     */
+    private final Map<String, Entry> entriesByPath = new ConcurrentHashMap<>();
+
+    /**
+     * number of maps found by find
+     */
+    private final AtomicLong numHits = new AtomicLong();
+
+    /**
+     * get the fingerprint of the content of a map file
+     * @param path the map file path
+     * @return the fingerprint, empty if the file cannot be read
+     */
+    public static OptionalLong fingerprint(String path) {
+        try {
+            byte[] content = Files.readAllBytes(Paths.get(path));
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            return OptionalLong.of(((long) content.length << 32) ^ crc.getValue());
+        } catch (IOException | InvalidPathException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * find the template of a map file
+     * @param path the map file path
+     * @param fingerprint the fingerprint of the current content of the file
+     * @return the template, empty if the file has not been parsed with this content
+     */
+    public Optional<MapTemplate> find(String path, long fingerprint) {
+        Entry entry = entriesByPath.get(path);
+
+        if (isNull(entry) || entry.fingerprint != fingerprint) {
+            return Optional.empty();
+        }
+
+        numHits.incrementAndGet();
+        return Optional.of(entry.template);
+    }
+
+    /**
+     * check if the template of a map file is kept for a content, without counting a hit
+     * @param path the map file path
+     * @param fingerprint the fingerprint of the content
+     * @return true if the file has been parsed with this content
+     */
+    public boolean contains(String path, long fingerprint) {
+        Entry entry = entriesByPath.get(path);
+        return !isNull(entry) && entry.fingerprint == fingerprint;
+    }
+
+    /**
+     * get the number of maps loaded from the cache instead of being parsed
+     * @return number of templates found by find
+     */
+    public long getNumHits() {
+        return numHits.get();
+    }
+
+    /**
+     * keep the template of a map file
+     * @param path the map file path
+     * @param fingerprint the fingerprint of the content the template was parsed from
+     * @param template the template
+     */
+    public void put(String path, long fingerprint, MapTemplate template) {
+        if (entriesByPath.size() >= MAX_TEMPLATES && !entriesByPath.containsKey(path)) {
+            entriesByPath.clear();
+        }
+
+        entriesByPath.put(path, new Entry(fingerprint, template));
+    }
+
+    /**
+     * remove every template
+     */
+    public void clear() {
+        entriesByPath.clear();
+    }
+
+    /**
+     * template of a map file with the fingerprint of the content it was parsed from
+     */
+    private static class Entry {
+
+        /**
+         * fingerprint of the parsed content
+         */
+        private final long fingerprint;
+
+        /**
+         * the template
+         */
+        private final MapTemplate template;
+
+        /**
+         * constructor
+         * @param fingerprint fingerprint of the parsed content
+         * @param template the template
+         */
+        private Entry(long fingerprint, MapTemplate template) {
+            this.fingerprint = fingerprint;
+            this.template = template;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com6441.team7.risc.view;
+
+import com6441.team7.risc.api.wrapperview.EventSubscriber;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.util.Objects.isNull;
+
+/**
+ * This class lets a view observe the models without slowing down the game.
+ * The models call update() on the game thread, which only puts the event in a bounded queue,
+ * and a view thread takes the events from the queue in order and passes them to the view.
+ * Events carry players and countries the game goes on changing, so only what cannot change is queued:
+ * a RenderingView renders the event into text on the game thread and the view thread prints the text,
+ * and other views are passed strings and enums on the view thread, but any other event on the game thread,
+ * once the events queued before it are displayed.
+ * When the queue is full, the DispatchPolicy decides if the game thread waits, the event is dropped,
+ * or the event replaces an older one of the same kind.
+ */
+public class AsyncObserver implements EventSubscriber {
+
+    /**
+     * the view receiving the events
+     */
+    private final Observer view;
+
+    /**
+     * maximum number of events waiting in the queue
+     */
+    private final int capacity;
+
+    /**
+     * what to do when the queue is full
+     */
+    private final DispatchPolicy dispatchPolicy;
+
+    /**
+     * events waiting to be passed to the view
+     */
+    private final Deque<ModelEvent> queue;
+
+    /**
+     * guards the queue
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * signalled when an event is queued or the observer is closed
+     */
+    private final Condition notEmpty = lock.newCondition();
+
+    /**
+     * signalled when the view thread takes an event from the queue
+     */
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * signalled when the view has received every queued event
+     */
+    private final Condition idle = lock.newCondition();
+
+    /**
+     * the view thread
+     */
+    private final Thread viewThread;
+
+    /**
+     * true while the view is receiving an event
+     */
+    private boolean boolDispatching;
+
+    /**
+     * true while the view is receiving an event on the game thread, the view thread waits meanwhile
+     */
+    private boolean boolDispatchingOnGameThread;
+
+    /**
+     * true once the observer is closed
+     */
+    private boolean boolClosed;
+
+    /**
+     * number of events dropped or replaced because the queue was full
+     */
+    private long numDroppedEvents;
+
+    /**
+     * constructor, starts the view thread
+     * @param view the view receiving the events
+     * @param capacity maximum number of events waiting in the queue
+     * @param dispatchPolicy what to do when the queue is full
+     */
+    public AsyncObserver(Observer view, int capacity, DispatchPolicy dispatchPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("the capacity of the queue must be positive");
+        }
+
+        this.view = Objects.requireNonNull(view);
+        this.capacity = capacity;
+        this.dispatchPolicy = Objects.requireNonNull(dispatchPolicy);
+        this.queue = new ArrayDeque<>(capacity);
+
+        viewThread = new Thread(this::dispatchEvents, "risc-view-" + view.getClass().getSimpleName());
+        viewThread.setDaemon(true);
+        viewThread.start();
+    }
+
+    /**
+     * called by the models on the game thread, queues the event for the view
+     * @param observable the model
+     * @param arg the event
+     */
+    @Override
+    public void update(Observable observable, Object arg) {
+        if (!isNull(arg) && !isSubscribed(observable, arg.getClass())) {
+            return;
+        }
+
+        ModelEvent modelEvent;
+        if (view instanceof RenderingView) {
+            String text = ((RenderingView) view).render(observable, arg);
+            if (text.isEmpty()) {
+                return;
+            }
+            modelEvent = new ModelEvent(observable, arg, text);
+        } else if (isImmutable(arg)) {
+            modelEvent = new ModelEvent(observable, arg, null);
+        } else {
+            dispatchOnGameThread(observable, arg);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (boolClosed) {
+                return;
+            }
+
+            if (queue.size() >= capacity && !makeRoom(modelEvent)) {
+                return;
+            }
+
+            queue.addLast(modelEvent);
+            notEmpty.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * check if the view handles a class of events, events it does not handle are not queued
+     * @param observable the model sending the event
+     * @param eventClass class of the event
+     * @return true if the view handles the events of this class, or is not an EventSubscriber
+     */
+    @Override
+    public boolean isSubscribed(Observable observable, Class<?> eventClass) {
+        return !(view instanceof EventSubscriber) || ((EventSubscriber) view).isSubscribed(observable, eventClass);
+    }
+
+    /**
+     * check if an event cannot change once sent, so that the view thread can read it later
+     * @param arg the event
+     * @return true for strings, enums and no event
+     */
+    private static boolean isImmutable(Object arg) {
+        return isNull(arg) || arg instanceof String || arg instanceof Enum;
+    }
+
+    /**
+     * pass an event the game goes on changing to the view on the game thread,
+     * after the view has displayed the events queued before it
+     * @param observable the model
+     * @param arg the event
+     */
+    private void dispatchOnGameThread(Observable observable, Object arg) {
+        lock.lock();
+        try {
+            while ((!queue.isEmpty() || boolDispatching || boolDispatchingOnGameThread) && !boolClosed) {
+                idle.await();
+            }
+            if (boolClosed) {
+                return;
+            }
+            boolDispatchingOnGameThread = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            view.update(observable, arg);
+        } finally {
+            lock.lock();
+            try {
+                boolDispatchingOnGameThread = false;
+                idle.signalAll();
+                notEmpty.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * apply the dispatch policy to a full queue
+     * @param modelEvent the new event
+     * @return true if the new event can be queued
+     * @throws InterruptedException if the game thread is interrupted while waiting
+     */
+    private boolean makeRoom(ModelEvent modelEvent) throws InterruptedException {
+        switch (dispatchPolicy) {
+            case BLOCK:
+                while (queue.size() >= capacity && !boolClosed) {
+                    notFull.await();
+                }
+                return !boolClosed;
+
+            case COALESCE:
+                numDroppedEvents++;
+                Iterator<ModelEvent> iterator = queue.descendingIterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().isSameKind(modelEvent)) {
+                        iterator.remove();
+                        return true;
+                    }
+                }
+                queue.pollFirst();
+                return true;
+
+            default:
+                numDroppedEvents++;
+                return false;
+        }
+    }
+
+    /**
+     * loop of the view thread, passes the queued events to the view in order
+     */
+    private void dispatchEvents() {
+        while (true) {
+            ModelEvent modelEvent;
+
+            lock.lock();
+            try {
+                boolDispatching = false;
+                while (queue.isEmpty() || boolDispatchingOnGameThread) {
+                    idle.signalAll();
+                    if (boolClosed && queue.isEmpty()) {
+                        return;
+                    }
+                    notEmpty.await();
+                }
+                modelEvent = queue.pollFirst();
+                boolDispatching = true;
+                notFull.signal();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (isNull(modelEvent.text)) {
+                    view.update(modelEvent.observable, modelEvent.arg);
+                } else {
+                    ((RenderingView) view).print(modelEvent.text);
+                }
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * wait until the view has received every queued event
+     * @param timeoutMillis maximum time to wait, in milliseconds
+     * @return true if every event is received
+     */
+    public boolean flush(long timeoutMillis) {
+        long nanosLeft = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        lock.lock();
+        try {
+            while (!queue.isEmpty() || boolDispatching || boolDispatchingOnGameThread) {
+                if (nanosLeft <= 0) {
+                    return false;
+                }
+                nanosLeft = idle.awaitNanos(nanosLeft);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * stop accepting events, let the view receive the queued events, then stop the view thread
+     * @param timeoutMillis maximum time to wait, in milliseconds
+     * @return true if every queued event is received
+     */
+    public boolean close(long timeoutMillis) {
+        lock.lock();
+        try {
+            boolClosed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            viewThread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !viewThread.isAlive();
+    }
+
+    /**
+     * get the view receiving the events
+     * @return the view
+     */
+    public Observer getView() {
+        return view;
+    }
+
+    /**
+     * get the number of events dropped or replaced because the queue was full
+     * @return number of events
+     */
+    public long getNumDroppedEvents() {
+        lock.lock();
+        try {
+            return numDroppedEvents;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * an event sent by a model, or the text a RenderingView rendered from it
+     */
+    private static final class ModelEvent {
+
+        /**
+         * the model
+         */
+        private final Observable observable;
+
+        /**
+         * the event, only read to check the kind of a rendered event
+         */
+        private final Object arg;
+
+        /**
+         * the text rendered from the event, null if the event is passed to the view
+         */
+        private final String text;
+
+        /**
+         * constructor
+         * @param observable the model
+         * @param arg the event
+         * @param text the text rendered from the event, null if the event is passed to the view
+         */
+        private ModelEvent(Observable observable, Object arg, String text) {
+            this.observable = observable;
+            this.arg = arg;
+            this.text = text;
+        }
+
+        /**
+         * check if an event is of the same kind and from the same model, so that it supersedes this one
+         * @param other the other event
+         * @return true if the events are of the same kind
+         */
+        private boolean isSameKind(ModelEvent other) {
+            if (observable != other.observable) {
+                return false;
+            }
+            if (isNull(arg) || isNull(other.arg)) {
+                return isNull(arg) && isNull(other.arg);
+            }
+            return arg.getClass() == other.arg.getClass();
+        }
+    }
+}
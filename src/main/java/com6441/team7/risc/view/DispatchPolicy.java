@@ -0,0 +1,23 @@
+package com6441.team7.risc.view;
+
+/**
+ * This enum lists what an AsyncObserver does with a model event when its queue is full
+ */
+public enum DispatchPolicy {
+
+    /**
+     * the game thread waits until the view has taken an event from the queue
+     */
+    BLOCK,
+
+    /**
+     * the new event is not displayed
+     */
+    DROP,
+
+    /**
+     * the new event replaces the latest queued event of the same kind from the same model,
+     * or the oldest queued event if there is none
+     */
+    COALESCE
+}
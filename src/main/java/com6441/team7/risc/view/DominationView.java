@@ -3,6 +3,8 @@ package com6441.team7.risc.view;
 import com6441.team7.risc.api.model.Country;
 import com6441.team7.risc.api.model.Player;
 import com6441.team7.risc.api.model.PlayerService;
+import com6441.team7.risc.api.wrapperview.EventHandlers;
+import com6441.team7.risc.api.wrapperview.EventSubscriber;
 import com6441.team7.risc.api.wrapperview.PlayerDominationWrapper;
 
 import static com6441.team7.risc.api.RiscConstants.DOMINATION_VIEW_STRING;
@@ -13,7 +15,18 @@ import java.util.Observable;
 /**
  * This view displays message when occupations data of the player changes
  */
-public class DominationView implements GameView {
+public class DominationView implements GameView, EventSubscriber, RenderingView {
+
+    /**
+     * handlers of the events sent by PlayerService, by class of events
+     */
+    private final EventHandlers playerServiceHandlers = new EventHandlers()
+            .on(ArrayList.class, this::displayDomination);
+
+    /**
+     * text of the event being rendered by render(), null when messages are printed right away
+     */
+    private StringBuilder renderedText;
 
     /**
      * extends method from GameView to receiveCommand
@@ -30,6 +43,10 @@ public class DominationView implements GameView {
      */
     @Override
     public void displayMessage(String string) {
+        if (renderedText != null) {
+            renderedText.append(DOMINATION_VIEW_STRING).append(string).append(System.lineSeparator());
+            return;
+        }
     	System.out.println(DOMINATION_VIEW_STRING + string);
     }
 
@@ -42,23 +59,56 @@ public class DominationView implements GameView {
      */
     @Override
     public void update(Observable o, Object arg) {
-    	
         if(o instanceof PlayerService){
-        	
-        	if(arg instanceof ArrayList) {
-        		ArrayList<PlayerDominationWrapper> list=((ArrayList<PlayerDominationWrapper>)arg);
-        		
-        		for(PlayerDominationWrapper item:list)
-        		displayMessage(item.getPlayerDominationMessage());
-        		
-        	}
-        	
+            playerServiceHandlers.dispatch(arg);
         }
-        
-        
-        
-        
     } //end of update method
+
+    /**
+     * render an event into the messages update() would display
+     * @param o the model sending the event
+     * @param arg the event
+     * @return the messages, empty if the event displays nothing
+     */
+    @Override
+    public String render(Observable o, Object arg) {
+        renderedText = new StringBuilder();
+        try {
+            update(o, arg);
+            return renderedText.toString();
+        } finally {
+            renderedText = null;
+        }
+    }
+
+    /**
+     * print messages rendered by render()
+     * @param text the messages
+     */
+    @Override
+    public void print(String text) {
+        System.out.print(text);
+    }
+
+    /**
+     * check if the domination view displays a class of events sent by a model
+     * @param o the model sending the event
+     * @param eventClass class of the event
+     * @return true only for the domination lists of PlayerService
+     */
+    @Override
+    public boolean isSubscribed(Observable o, Class<?> eventClass) {
+        return o instanceof PlayerService && playerServiceHandlers.isSubscribed(eventClass);
+    }
+
+    /**
+     * display the domination of every player in the list
+     * @param list list of PlayerDominationWrapper
+     */
+    private void displayDomination(ArrayList<?> list) {
+        for(Object item:list)
+            displayMessage(((PlayerDominationWrapper) item).getPlayerDominationMessage());
+    }
     
 } //end of class
 
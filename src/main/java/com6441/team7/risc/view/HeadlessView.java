@@ -0,0 +1,39 @@
+package com6441.team7.risc.view;
+
+import java.util.Observable;
+
+/**
+ * A view that discards all messages and notifications.
+ * Used for games that are played without a console, such as tournament games run in parallel.
+ */
+public class HeadlessView implements GameView {
+
+    /**
+     * extends method from GameView to receiveCommand
+     * headless games never read commands
+     */
+    @Override
+    public void receiveCommand() {
+
+    }
+
+    /**
+     * extends method from GameView to displayMessage
+     * the message is discarded
+     * @param string String
+     */
+    @Override
+    public void displayMessage(String string) {
+
+    }
+
+    /**
+     * extends method from Observer, notifications are discarded
+     * @param o object o
+     * @param arg argument
+     */
+    @Override
+    public void update(Observable o, Object arg) {
+
+    }
+}
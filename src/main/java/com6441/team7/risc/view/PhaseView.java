@@ -24,7 +24,7 @@ import java.util.Scanner;
 /**
  * The phase view implements GameView, and display all the information during game play
  */
-public class PhaseView implements GameView {
+public class PhaseView implements GameView, EventSubscriber, RenderingView {
 
     /**
      * scanner to receive player input
@@ -71,7 +71,34 @@ public class PhaseView implements GameView {
      */
     private Player currentPlayer=null;
 
-    
+    /**
+     * text of the event being rendered by render(), null when messages are printed right away
+     */
+    private StringBuilder renderedText;
+
+    /**
+     * handlers of the events sent by PlayerService, by class of events
+     */
+    private final EventHandlers playerServiceHandlers = new EventHandlers()
+            .on(PlayerChangeWrapper.class, this::playerSwitchStatus)
+            .on(PlayerEditWrapper.class, this::playerEditStatus)
+            .on(PlayerInitialArmyWrapper.class, this::playerInitialArmyStatus)
+            .on(PlayerInitialCountryAssignmentWrapper.class, this::playerInitialCountryAssignmentStatus)
+            .on(PlayerPlaceArmyWrapper.class, this::playerPlaceArmyStatus)
+            .on(PlayerFortificationWrapper.class, this::playerFortificationStatus)
+            .on(PlayerAttackWrapper.class, this::playerAttackStatus)
+            .on(String.class, this::displayMessage)
+            .on(ReinforcedArmyWrapper.class, this::displayReinforcedArmy)
+            .on(ReinforcedCardWrapper.class, this::displayReinforcedCard)
+            .on(TournamentWrapper.class, this::displayTournamentResults);
+
+    /**
+     * handlers of the events sent by MapService, by class of events
+     */
+    private final EventHandlers mapServiceHandlers = new EventHandlers()
+            .on(GameState.class, this::gamestateAndPlayerStatus)
+            .on(StringBuilder.class, this::displayMapInformation);
+
 
     /**
      * add controller to controller lists
@@ -144,6 +171,10 @@ public class PhaseView implements GameView {
      */
     @Override
     public void displayMessage(String string) {
+        if (renderedText != null) {
+            renderedText.append(PHASE_VIEW_STRING).append(string).append(System.lineSeparator());
+            return;
+        }
         System.out.println(PHASE_VIEW_STRING + string);
         
     }
@@ -156,93 +187,54 @@ public class PhaseView implements GameView {
      */
     @Override
     public void update(Observable observable, Object arg) {
+        getEventHandlers(observable).dispatch(arg);
+    }  //End of Update Method
 
-        if(observable instanceof PlayerService){
-            
-        	//When player is changed
-        	if(arg instanceof PlayerChangeWrapper) {       		
-        		playerSwitchStatus(arg);
-        		return;
-            }
-        	
-        	//When player is added or removed
-        	if(arg instanceof PlayerEditWrapper) {
-        		playerEditStatus(arg);    
-        		return;
-        	}
-        	
-        	//When initial army is assigned to a player
-        	if(arg instanceof PlayerInitialArmyWrapper) {
-        		playerInitialArmyStatus(arg);
-        		return;
-        	}
-        	
-        	//When countries are randomly assigned to players
-        	if(arg instanceof PlayerInitialCountryAssignmentWrapper) {
-        		playerInitialCountryAssignmentStatus(arg);
-        		return;
-        	}
-        	
-        	//When placeArmy of placeAll method called
-        	if(arg instanceof PlayerPlaceArmyWrapper) {
-        		playerPlaceArmyStatus(arg);
-        		return;
-        	}
-        	
-        	//During actual fortification in fortification phase
-        	if(arg instanceof PlayerFortificationWrapper) {
-        		playerFortificationStatus(arg);
-        		return;
-        	}
-          
-        	//During attack phase
-        	if(arg instanceof PlayerAttackWrapper) {
-        		playerAttackStatus(arg);
-        		return;
-        	}
-        	        	
-        	
-        	//Any string message sent is just displayed
-        	if(arg instanceof String) {
-        		String displayMessage=((String) arg);
-        		displayMessage(displayMessage);
-        		return;
-        	}
-        	
-        	//For Reinforcement phase
-        	if(arg instanceof ReinforcedArmyWrapper){
-        	    displayReinforcedArmy(arg);
-                return; 
-            }
-
-        	//For card 
-            if(arg instanceof ReinforcedCardWrapper){
-                displayReinforcedCard(arg);
-                return;
-            }
-            
-            //For displaying tournament results
-            if(arg instanceof TournamentWrapper) {
-            	displayTournamentResults(arg);
-            }
-
-        	return;
-        }  //End of PlayerService.class observable 
-        
-        
-        //When GameState is changed
-        if (arg instanceof GameState) {                    
-            gamestateAndPlayerStatus(arg);
-            return;
+    /**
+     * render an event into the messages update() would display
+     * @param observable the model sending the event
+     * @param arg the event
+     * @return the messages, empty if the event displays nothing
+     */
+    @Override
+    public String render(Observable observable, Object arg) {
+        renderedText = new StringBuilder();
+        try {
+            update(observable, arg);
+            return renderedText.toString();
+        } finally {
+            renderedText = null;
         }
+    }
 
-        if(arg instanceof StringBuilder){
-            displayMapInformation(arg);
-            return;
-        }
+    /**
+     * print messages rendered by render()
+     * @param text the messages
+     */
+    @Override
+    public void print(String text) {
+        System.out.print(text);
+    }
 
-        
-    }  //End of Update Method
+    /**
+     * check if the phase view displays a class of events sent by a model
+     * @param observable the model sending the event
+     * @param eventClass class of the event
+     * @return true if the events of this class are displayed
+     */
+    @Override
+    public boolean isSubscribed(Observable observable, Class<?> eventClass) {
+        return getEventHandlers(observable).isSubscribed(eventClass);
+    }
+
+    /**
+     * get the handlers of the events sent by a model
+     * @param observable the model
+     * @return playerServiceHandlers for PlayerService, mapServiceHandlers otherwise
+     */
+    private EventHandlers getEventHandlers(Observable observable) {
+        return observable instanceof PlayerService ? playerServiceHandlers : mapServiceHandlers;
+    }
 
     /**
      * print map information
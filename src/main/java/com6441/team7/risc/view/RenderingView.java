@@ -0,0 +1,27 @@
+package com6441.team7.risc.view;
+
+import java.util.Observable;
+import java.util.Observer;
+
+/**
+ * This interface lets an AsyncObserver split the display of an event in two:
+ * the view renders the event into text on the game thread, while the players and countries it reads cannot change,
+ * and the text is printed later on the view thread.
+ */
+public interface RenderingView extends Observer {
+
+    /**
+     * render an event into the text update() would display, and update the state the view keeps, such as the
+     * current player, as update() would
+     * @param observable the model sending the event
+     * @param arg the event
+     * @return the text, empty if the event displays nothing
+     */
+    String render(Observable observable, Object arg);
+
+    /**
+     * print text rendered by render()
+     * @param text the text
+     */
+    void print(String text);
+}
@@ -0,0 +1,141 @@
+package com6441.team7.risc.api.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com6441.team7.risc.api.wrapperview.PlayerAttackWrapper;
+import com6441.team7.risc.controller.GameReplay;
+
+/**
+ * Tests for BattleOutcomeTable class.
+ * The tables are compared with exact probabilities of small battles
+ * and with allout attacks played by Player with dice.
+ */
+public class BattleOutcomeTableTest {
+
+	/**
+	 * Tests a battle of one attacker dice against one defender dice
+	 * The test passes if the attacker wins with probability 15/36
+	 */
+	@Test
+	public void test001_singleRound() {
+		BattleOutcomeTable table = BattleOutcomeTable.of(2, 1);
+
+		assertEquals(15.0 / 36, table.getProbability(2, 0), 1e-12);
+		assertEquals(21.0 / 36, table.getProbability(1, 1), 1e-12);
+	}
+
+	/**
+	 * Tests a round of three attacker dice against two defender dice
+	 * The test passes if the results match the 2890, 2611 and 2275 rolls out of 7776
+	 */
+	@Test
+	public void test002_threeAgainstTwo() {
+		BattleOutcomeTable table = BattleOutcomeTable.of(4, 2);
+
+		assertEquals(2890.0 / 7776, table.getProbability(4, 0), 1e-12);
+
+		double total = 0;
+		for (int attackers = 1; attackers <= 4; attackers++) {
+			for (int defenders = 0; defenders <= 2; defenders++) {
+				total += table.getProbability(attackers, defenders);
+			}
+		}
+		assertEquals(1.0, total, 1e-12);
+	}
+
+	/**
+	 * Tests the tables against allout attacks played by Player with dice, on a seeded game
+	 * The test passes if every final result is found as often as the table gives
+	 */
+	@Test
+	public void test003_tableMatchesPlayerAttacks() {
+		GameReplay gameReplay = new GameReplay("ameroki.map", Arrays.asList("benevolent", "benevolent"), 7, 100);
+		gameReplay.start();
+		PlayerService playerService = gameReplay.getPlayerService();
+		MapService mapService = gameReplay.getMapService();
+
+		Country fromCountry = null;
+		Country toCountry = null;
+		for (Country country : mapService.getCountries()) {
+			for (Integer neighborId : mapService.getAdjacencyCountries(country.getId())) {
+				Country neighbor = mapService.getCountryById(neighborId).get();
+				if (toCountry == null && neighbor.getPlayer() != country.getPlayer()) {
+					fromCountry = country;
+					toCountry = neighbor;
+				}
+			}
+		}
+		assertNotNull(toCountry);
+
+		Player attacker = fromCountry.getPlayer();
+		Player defender = toCountry.getPlayer();
+		int attackingSoldiers = 6;
+		int defendingSoldiers = 4;
+		int numBattles = 20000;
+		int[][] counts = new int[attackingSoldiers + 1][defendingSoldiers + 1];
+
+		for (int i = 0; i < numBattles; i++) {
+			fromCountry.setSoldiers(attackingSoldiers);
+			toCountry.setSoldiers(defendingSoldiers);
+
+			PlayerAttackWrapper playerAttackWrapper = new PlayerAttackWrapper(fromCountry, toCountry);
+			playerAttackWrapper.setBooleanAllOut();
+			attacker.attack(playerService, playerAttackWrapper);
+
+			counts[fromCountry.getSoldiers()][toCountry.getSoldiers()]++;
+
+			if (toCountry.getPlayer() != defender) {
+				attacker.removeCountryFromPlayerList(toCountry);
+				defender.addCountryToPlayerList(toCountry);
+				toCountry.setPlayer(defender);
+			}
+		}
+
+		BattleOutcomeTable table = BattleOutcomeTable.of(attackingSoldiers, defendingSoldiers);
+		for (int attackers = 0; attackers <= attackingSoldiers; attackers++) {
+			for (int defenders = 0; defenders <= defendingSoldiers; defenders++) {
+				double probability = table.getProbability(attackers, defenders);
+				double tolerance = 5 * Math.sqrt(probability * (1 - probability) / numBattles) + 1e-9;
+				assertEquals(probability, (double) counts[attackers][defenders] / numBattles, tolerance);
+			}
+		}
+	}
+
+	/**
+	 * Tests a battle too large for a table
+	 * The test passes if the battle ends with the defender pushed out or a single attacker left
+	 */
+	@Test
+	public void test004_largeBattle() {
+		int[] outcome = BattleOutcomeTable.sampleOutcome(5000, 3000, new GameRandom(3));
+
+		assertTrue(outcome[1] == 0 || outcome[0] == 1);
+		assertTrue(outcome[0] >= 1 && outcome[0] <= 5000);
+		assertTrue(outcome[1] >= 0 && outcome[1] <= 3000);
+	}
+
+	/**
+	 * Tests battles of several rounds with a changing number of dice
+	 * The test passes if the results match the products of the probabilities of each round:
+	 * 55/216 for one attacker dice against two, 125/216 for two against one and 855/1296 for three against one
+	 */
+	@Test
+	public void test005_severalRounds() {
+		BattleOutcomeTable twoAgainstTwo = BattleOutcomeTable.of(2, 2);
+
+		assertEquals(55.0 / 216 * 15 / 36, twoAgainstTwo.getProbability(2, 0), 1e-12);
+		assertEquals(55.0 / 216 * 21 / 36, twoAgainstTwo.getProbability(1, 1), 1e-12);
+		assertEquals(161.0 / 216, twoAgainstTwo.getProbability(1, 2), 1e-12);
+
+		BattleOutcomeTable fourAgainstOne = BattleOutcomeTable.of(4, 1);
+
+		assertEquals(855.0 / 1296, fourAgainstOne.getProbability(4, 0), 1e-12);
+		assertEquals(441.0 / 1296 * 125 / 216, fourAgainstOne.getProbability(3, 0), 1e-12);
+		assertEquals(441.0 / 1296 * 91 / 216 * 15 / 36, fourAgainstOne.getProbability(2, 0), 1e-12);
+		assertEquals(441.0 / 1296 * 91 / 216 * 21 / 36, fourAgainstOne.getProbability(1, 1), 1e-12);
+	}
+}
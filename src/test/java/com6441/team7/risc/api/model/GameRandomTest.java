@@ -0,0 +1,54 @@
+package com6441.team7.risc.api.model;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/**
+ * Tests for GameRandom class.
+ * Two generators with the same seed must give the same dice, choices and shuffles,
+ * so that a game can be played again.
+ */
+public class GameRandomTest {
+
+	/**
+	 * Tests two generators with the same seed
+	 * The test passes if they roll the same dice and give the same numbers
+	 */
+	@Test
+	public void test001_sameSeedSameSequence() {
+		GameRandom first = new GameRandom(42);
+		GameRandom second = new GameRandom(42);
+
+		for (int i = 0; i < 1000; i++) {
+			int dice = first.rollDice();
+			assertEquals(dice, second.rollDice());
+			assertTrue(dice >= 1 && dice <= 6);
+			assertEquals(first.nextInt(3, 17), second.nextInt(3, 17));
+			assertEquals(first.nextLong(), second.nextLong());
+		}
+		assertEquals(42, first.getSeed());
+	}
+
+	/**
+	 * Tests shuffles of two generators with the same seed
+	 * The test passes if both lists end in the same order and keep all their elements
+	 */
+	@Test
+	public void test002_sameSeedSameShuffle() {
+		List<Integer> first = IntStream.range(0, 42).boxed().collect(Collectors.toList());
+		List<Integer> second = new ArrayList<>(first);
+
+		new GameRandom(7).shuffle(first);
+		new GameRandom(7).shuffle(second);
+
+		assertEquals(first, second);
+		assertEquals(IntStream.range(0, 42).boxed().collect(Collectors.toList()),
+				first.stream().sorted().collect(Collectors.toList()));
+	}
+}
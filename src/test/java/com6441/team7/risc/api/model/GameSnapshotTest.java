@@ -0,0 +1,189 @@
+package com6441.team7.risc.api.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import com6441.team7.risc.controller.GameReplay;
+
+/**
+ *
+ * This is the test class for the compact snapshot of a game.
+ *
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class GameSnapshotTest {
+
+	/**
+	 * strategies of the players of the games
+	 */
+	private static final List<String> LIST_PLAYER_STRATEGY=Arrays.asList("aggressive", "benevolent", "random");
+
+	/**
+	 * game set up on ameroki.map, paused before the first turn
+	 */
+	GameReplay gameReplay;
+
+	/**
+	 * mapService object stores map Information and game state
+	 */
+	MapService mapService;
+
+	/**
+	 * playerService object keeps track of player information such as current player
+	 * turn and list of players
+	 */
+	PlayerService playerService;
+
+	/**
+	 * Before every test, a game between three players is set up
+	 */
+	@Before
+	public void setUp() {
+		gameReplay=new GameReplay("ameroki.map", LIST_PLAYER_STRATEGY, 5, 40);
+		gameReplay.start();
+		mapService=gameReplay.getMapService();
+		playerService=gameReplay.getPlayerService();
+	}
+
+	/**
+	 * Testing the snapshot of a game. The test passes if the snapshot holds the owner and soldiers
+	 * of every country, the current player and the phase of the game.
+	 */
+	@Test
+	public void test001_of() {
+		GameSnapshot snapshot=GameSnapshot.of(mapService, playerService);
+
+		assertEquals(mapService.getCountries().size(), snapshot.getNumCountries());
+		assertEquals(3, snapshot.getNumPlayers());
+
+		for(Country country:mapService.getCountries()) {
+			int index=snapshot.indexOfCountry(country.getId());
+			assertEquals(country.getPlayer().getName(), snapshot.getPlayerName(snapshot.getOwner(index)));
+			assertEquals((int) country.getSoldiers(), snapshot.getSoldiers(index));
+		}
+
+		assertEquals(playerService.getCurrentPlayerName(), snapshot.getPlayerName(snapshot.getCurrentPlayer()));
+		assertEquals(mapService.getGameState(), snapshot.getPhase());
+	}
+
+	/**
+	 * Testing the copy of a snapshot. The test passes if changing every part of the copy
+	 * leaves the snapshot it was copied from unchanged.
+	 */
+	@Test
+	public void test002_copy() {
+		GameSnapshot snapshot=GameSnapshot.of(mapService, playerService);
+		GameSnapshot copy=snapshot.copy();
+
+		copy.addSoldiers(0, 5);
+		copy.setOwner(0, GameSnapshot.NO_PLAYER);
+		copy.addCards(0, Card.CAVALRY, 2);
+		copy.setTradeInTimes(0, 4);
+		copy.switchNextPlayer();
+		copy.setPhase(GameState.FORTIFY);
+
+		assertEquals(snapshot.getSoldiers(0)+5, copy.getSoldiers(0));
+		assertNotEquals(GameSnapshot.NO_PLAYER, snapshot.getOwner(0));
+		assertEquals(0, snapshot.getNumCards(0));
+		assertEquals(2, copy.getNumCards(0, Card.CAVALRY));
+		assertEquals(0, snapshot.getTradeInTimes(0));
+		assertNotEquals(snapshot.getCurrentPlayer(), copy.getCurrentPlayer());
+		assertNotEquals(GameState.FORTIFY, snapshot.getPhase());
+	}
+
+	/**
+	 * Testing to bring a game back to a snapshot. The test passes if, after a few turns are played
+	 * and the snapshot taken before them is applied, the game is in the state of the snapshot again
+	 * and every player owns exactly the countries the map gives it.
+	 */
+	@Test
+	public void test003_applyToSameGame() {
+		GameSnapshot snapshot=GameSnapshot.of(mapService, playerService);
+
+		gameReplay.fastForward(3);
+		snapshot.applyTo(mapService, playerService);
+
+		assertSameState(snapshot, GameSnapshot.of(mapService, playerService));
+
+		for(Player player:playerService.getPlayerList()) {
+			for(Country country:player.getCountryPlayerList()) {
+				assertSame(player, country.getPlayer());
+			}
+			assertEquals(snapshot.getNumCountries(snapshot.indexOfPlayer(player.getName())),
+					player.getCountryPlayerList().size());
+		}
+	}
+
+	/**
+	 * Testing to apply a changed snapshot to another game on the same map with the same players.
+	 * The test passes if the other game takes the owners, soldiers, cards, trade-ins,
+	 * current player and phase of the snapshot.
+	 */
+	@Test
+	public void test004_applyToOtherGame() {
+		gameReplay.fastForward(2);
+
+		GameSnapshot snapshot=GameSnapshot.of(mapService, playerService);
+		snapshot.addCards(1, Card.ARTILLERY, 2);
+		snapshot.addCards(1, Card.INFANTRY, 1);
+		snapshot.setTradeInTimes(1, 3);
+		snapshot.setCurrentPlayer(1);
+		snapshot.setPhase(GameState.ATTACK);
+
+		GameReplay otherGame=new GameReplay("ameroki.map", LIST_PLAYER_STRATEGY, 6, 40);
+		otherGame.start();
+		snapshot.applyTo(otherGame.getMapService(), otherGame.getPlayerService());
+
+		assertSameState(snapshot, GameSnapshot.of(otherGame.getMapService(), otherGame.getPlayerService()));
+
+		Player player=otherGame.getPlayerService().getPlayerByName(snapshot.getPlayerName(1));
+		assertEquals(3, player.getCardList().size());
+		assertEquals(3, player.getTradeInTimes());
+		assertSame(player, otherGame.getPlayerService().getCurrentPlayer());
+		assertEquals(GameState.ATTACK, otherGame.getMapService().getGameState());
+	}
+
+	/**
+	 * Testing the reinforcement calculated by a snapshot. The test passes if it is the reinforcement
+	 * the game gives a player without cards.
+	 */
+	@Test
+	public void test005_calculateReinforcement() {
+		GameSnapshot snapshot=GameSnapshot.of(mapService, playerService);
+
+		for(Player player:playerService.getPlayerList()) {
+			int expected=(int) Math.max(3, playerService.getConqueredCountriesNumber(player)/3
+					+playerService.getReinforcedArmyByConqueredContinents(player));
+			assertEquals(expected, snapshot.calculateReinforcement(snapshot.indexOfPlayer(player.getName())));
+		}
+	}
+
+	/**
+	 * check that two snapshots hold the same state
+	 * @param expected the expected snapshot
+	 * @param actual the actual snapshot
+	 */
+	private static void assertSameState(GameSnapshot expected, GameSnapshot actual) {
+		assertEquals(expected.getNumCountries(), actual.getNumCountries());
+		for(int country=0;country<expected.getNumCountries();country++) {
+			assertEquals(expected.getCountryId(country), actual.getCountryId(country));
+			assertEquals(expected.getOwner(country), actual.getOwner(country));
+			assertEquals(expected.getSoldiers(country), actual.getSoldiers(country));
+		}
+		for(int player=0;player<expected.getNumPlayers();player++) {
+			for(Card card:Card.values()) {
+				assertEquals(expected.getNumCards(player, card), actual.getNumCards(player, card));
+			}
+			assertEquals(expected.getTradeInTimes(player), actual.getTradeInTimes(player));
+		}
+		assertEquals(expected.getCurrentPlayer(), actual.getCurrentPlayer());
+		assertEquals(expected.getPhase(), actual.getPhase());
+	}
+}
@@ -168,6 +168,194 @@ public class MapServiceTest {
 
     }
 
+    /**
+     * look up countries and continents by id and by name
+     * pass the test if lookups ignore case and white spaces, and unknown keys are empty
+     * @throws Exception on invalid
+     */
+    @Test
+    public void testLookupByIdAndName() throws Exception{
+        mapService = createValidContinentCountryNeighbor();
+
+        assertEquals("india", mapService.getCountryById(3).get().getCountryName());
+        assertEquals("india", mapService.getCountryByName("India").get().getCountryName());
+        assertEquals(Integer.valueOf(2), mapService.findCorrespondingIdByCountryName("U S").get());
+        assertEquals("america", mapService.getContinentById(2).get().getName());
+        assertEquals(Integer.valueOf(1), mapService.findCorrespondingIdByContinentName("ASIA").get());
+
+        assertFalse(mapService.getCountryById(99).isPresent());
+        assertFalse(mapService.getCountryById(-1).isPresent());
+        assertFalse(mapService.getCountryByName("mars").isPresent());
+        assertFalse(mapService.getContinentById(5).isPresent());
+    }
+
+    /**
+     * remove a country by id and a continent by name
+     * pass the test if the removed country and the countries of the removed continent can no longer be found
+     * @throws Exception on invalid
+     */
+    @Test
+    public void testLookupAfterRemoval() throws Exception{
+        mapService = createValidContinentCountryNeighbor();
+        mapService.getCountries().forEach(country -> country.setContinentIdentifier(
+                mapService.findCorrespondingIdByContinentName(country.getContinentName()).get()));
+
+        mapService.removeCountryById(1);
+        assertFalse(mapService.getCountryById(1).isPresent());
+        assertFalse(mapService.countryNameExist("china"));
+        assertEquals(mapService.getCountries().size(), 3);
+
+        mapService.removeContinentByName("america");
+        assertFalse(mapService.getContinentById(2).isPresent());
+        assertFalse(mapService.getCountryByName("siberia").isPresent());
+        assertTrue(mapService.getCountryByName("india").isPresent());
+    }
+
+    /**
+     * replace countries and continents, as done when loading a saved game
+     * pass the test if lookups only find the new countries and continents
+     * @throws Exception on invalid
+     */
+    @Test
+    public void testLookupAfterSetCountries() throws Exception{
+        mapService = createValidContinentCountryNeighbor();
+
+        mapService.setContinents(createValidContinents());
+        mapService.setCountries(createValidCountries());
+
+        assertEquals("kongrolo", mapService.getCountryById(4).get().getCountryName());
+        assertFalse(mapService.getCountryByName("china").isPresent());
+        assertEquals("utropa", mapService.getContinentById(3).get().getName());
+        assertFalse(mapService.continentNameExist("asia"));
+    }
+
+    /**
+     * read neighbors from the neighbor table before and after editing the neighbors
+     * pass the test if the table follows every change of the adjacency
+     * @throws Exception on invalid
+     */
+    @Test
+    public void testNeighborTable() throws Exception{
+        mapService = createValidContinentCountryNeighbor();
+
+        CountryAdjacency adjacency = mapService.getCountryAdjacency();
+        assertEquals(2, adjacency.getNeighborCount(4));
+        assertEquals(2, adjacency.getNeighbor(4, 0));
+        assertEquals(3, adjacency.getNeighbor(4, 1));
+        assertTrue(mapService.isAdjacent(4, 3));
+        assertFalse(mapService.isAdjacent(3, 2));
+        assertFalse(mapService.isAdjacent(99, 1));
+        assertEquals(0, adjacency.getNeighborCount(99));
+        assertEquals(new HashSet<>(Arrays.asList(2, 3)), mapService.getAdjacencyCountries(4));
+
+        mapService.addNeighboringCountries("china", "us");
+        assertTrue(mapService.isAdjacent(1, 2));
+        assertTrue(mapService.isAdjacent(2, 1));
+
+        mapService.removeNeighboringCountriesByName("siberia", "india");
+        assertFalse(mapService.isAdjacent(4, 3));
+        assertEquals(1, mapService.getAdjacencyCountries(4).size());
+    }
+
+    /**
+     * build a neighbor table from the rows of another one, as the map index file does, and from broken rows
+     * pass the test if the rows give the same neighbors and broken rows are rejected
+     * @throws Exception on invalid
+     */
+    @Test
+    public void testNeighborTableFromRows() throws Exception{
+        CountryAdjacency adjacency = createValidContinentCountryNeighbor().getCountryAdjacency();
+
+        int[] rowIds = adjacency.getCountryIds();
+        int[] offsets = new int[rowIds.length + 1];
+        for (int row = 0; row < rowIds.length; row++) {
+            offsets[row + 1] = offsets[row] + adjacency.getNeighborCount(rowIds[row]);
+        }
+        int[] neighbors = new int[offsets[rowIds.length]];
+        for (int row = 0; row < rowIds.length; row++) {
+            for (int i = 0; i < adjacency.getNeighborCount(rowIds[row]); i++) {
+                neighbors[offsets[row] + i] = adjacency.getNeighbor(rowIds[row], i);
+            }
+        }
+
+        CountryAdjacency copy = CountryAdjacency.of(rowIds, offsets, neighbors);
+        assertArrayEquals(rowIds, copy.getCountryIds());
+        for (int countryId : rowIds) {
+            assertEquals(adjacency.getNeighbors(countryId), copy.getNeighbors(countryId));
+        }
+        assertTrue(copy.isConnected(rowIds.length));
+
+        try {
+            CountryAdjacency.of(new int[]{1}, new int[]{0, 2}, new int[]{3, 2});
+            fail("unsorted neighbors are accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        try {
+            CountryAdjacency.of(new int[]{1, 2}, new int[]{0, 1}, new int[]{2});
+            fail("missing offsets are accepted");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * check the map validity before and after splitting it in two parts
+     * pass the test if the map is valid only when all countries are connected
+     * @throws Exception on invalid
+     */
+    @Test
+    public void testMapValidity() throws Exception{
+        mapService = createValidContinentCountryNeighbor();
+        assertTrue(mapService.isMapValid());
+
+        mapService.removeNeighboringCountriesByName("siberia", "india");
+        assertTrue(mapService.isMapNotValid());
+
+        mapService.addNeighboringCountries("china", "us");
+        assertTrue(mapService.isMapValid());
+
+        mapService.emptyMap();
+        assertTrue(mapService.isMapNotValid());
+    }
+
+    /**
+     * give countries to two players, then transfer countries and remove a continent
+     * pass the test if continent owners and continent bonuses follow every change
+     * @throws Exception on invalid
+     */
+    @Test
+    public void testContinentOwnership() throws Exception{
+        mapService = createValidContinentCountryNeighbor();
+        Player alice = new Player("alice");
+        Player bob = new Player("bob");
+
+        mapService.getCountryById(1).get().setPlayer(alice);
+        mapService.getCountryById(2).get().setPlayer(bob);
+        mapService.getCountryById(3).get().setPlayer(alice);
+        mapService.getCountryById(4).get().setPlayer(alice);
+
+        assertEquals("alice", mapService.findContinentOwnerName(1).get());
+        assertFalse(mapService.findContinentOwnerName(2).isPresent());
+        assertEquals(5, mapService.getReinforceArmyByConqueredContinents(alice));
+        assertEquals(0, mapService.getReinforceArmyByConqueredContinents(bob));
+
+        mapService.getCountryById(2).get().setPlayer(alice);
+        assertEquals("alice", mapService.findContinentOwnerName(2).get());
+        assertEquals(11, mapService.getReinforceArmyByConqueredContinents(alice));
+
+        mapService.getCountryById(3).get().setPlayer(bob);
+        assertFalse(mapService.findContinentOwnerName(1).isPresent());
+        assertEquals(6, mapService.getReinforceArmyByConqueredContinents(alice));
+
+        mapService.getCountries().forEach(country -> country.setContinentIdentifier(
+                mapService.findCorrespondingIdByContinentName(country.getContinentName()).get()));
+        mapService.removeCountryByName("india");
+        assertEquals("alice", mapService.findContinentOwnerName(1).get());
+        assertEquals(11, mapService.getReinforceArmyByConqueredContinents(alice));
+    }
+
     /**
      * create valid continent, countries and neighboring countries and add it to the mapService
      * @return returns mapservice where details are added in.
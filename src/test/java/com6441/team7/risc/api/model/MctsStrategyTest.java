@@ -0,0 +1,186 @@
+package com6441.team7.risc.api.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import com6441.team7.risc.controller.GameReplay;
+
+/**
+ *
+ * This is the test class for the Monte Carlo tree search player.
+ *
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class MctsStrategyTest {
+
+	/**
+	 * strategies of a game between a search player and an aggressive player
+	 */
+	private static final List<String> LIST_PLAYER_STRATEGY=Arrays.asList("mcts", "aggressive");
+
+	/**
+	 * small budget so that games are quick, with a time cap no decision reaches
+	 */
+	private static final MctsBudget SMALL_BUDGET=new MctsBudget(32, 10_000, 2);
+
+	/**
+	 * game set up on ameroki.map, paused before the first turn of the search player
+	 */
+	GameReplay gameReplay;
+
+	/**
+	 * playerService object keeps track of player information such as current player
+	 * turn and list of players
+	 */
+	PlayerService playerService;
+
+	/**
+	 * Before every test, a game between a search player and an aggressive player is set up
+	 */
+	@Before
+	public void setUp() {
+		gameReplay=createGame("ameroki.map", LIST_PLAYER_STRATEGY, 7);
+		gameReplay.start();
+		playerService=gameReplay.getPlayerService();
+	}
+
+	/**
+	 * create a game of 40 turns with the small budget
+	 * @param mapName the map file
+	 * @param listPlayerStrategy strategies of the players
+	 * @param gameSeed seed of the game
+	 * @return the game, not started
+	 */
+	private static GameReplay createGame(String mapName, List<String> listPlayerStrategy, long gameSeed) {
+		GameReplay game=new GameReplay(mapName, listPlayerStrategy, gameSeed, 40);
+		game.setMctsBudget(SMALL_BUDGET);
+		return game;
+	}
+
+	/**
+	 * Testing the reinforce method. The test passes if all the reinforcement armies
+	 * are placed on a country bordering the other player and the game moves to the attack phase.
+	 */
+	@Test
+	public void test001_reinforce() {
+		Player player=playerService.getCurrentPlayer();
+		player.generatePlayerCategory("mcts");
+		playerService.getMapService().setState(GameState.REINFORCE);
+
+		GameSnapshot before=GameSnapshot.of(playerService.getMapService(), playerService);
+		int playerIndex=before.indexOfPlayer(player.getName());
+		int numReinforcementArmies=before.calculateReinforcement(playerIndex);
+
+		new MctsStrategy(playerService).reinforce();
+
+		GameSnapshot after=GameSnapshot.of(playerService.getMapService(), playerService);
+		assertEquals(before.getNumSoldiers(playerIndex)+numReinforcementArmies, after.getNumSoldiers(playerIndex));
+
+		for(int country=0;country<after.getNumCountries();country++) {
+			if(after.getSoldiers(country)!=before.getSoldiers(country)) {
+				assertTrue(before.isFrontier(country));
+			}
+		}
+		assertEquals(GameState.ATTACK, playerService.getMapService().getGameState());
+	}
+
+	/**
+	 * Testing a whole turn. The test passes if every country still has at least one soldier
+	 * and the other player plays next.
+	 */
+	@Test
+	public void test002_turn() {
+		assertTrue(gameReplay.step());
+
+		for(Country country:playerService.getMapService().getCountries()) {
+			assertTrue(country.getSoldiers()>=1);
+		}
+		assertEquals("Player aggressive 2", gameReplay.getCurrentPlayerName());
+	}
+
+	/**
+	 * Testing the search player against the aggressive player. The test passes if the search player,
+	 * playing first or second, wins more games than the aggressive player.
+	 */
+	@Test
+	public void test003_beatsAggressive() {
+		int numMctsWins=0;
+		int numAggressiveWins=0;
+
+		for(int game=0;game<4;game++) {
+			List<String> listPlayerStrategy=game%2==0 ? LIST_PLAYER_STRATEGY : Arrays.asList("aggressive", "mcts");
+			String result=createGame("luca.map", listPlayerStrategy, 100+game).runToEnd();
+
+			if(result.contains("mcts")) {
+				numMctsWins++;
+			} else if(result.contains("aggressive")) {
+				numAggressiveWins++;
+			}
+		}
+
+		assertTrue(numMctsWins>numAggressiveWins);
+	}
+
+	/**
+	 * Testing the time cap per decision. The test passes if a decision with far more rollouts than
+	 * can be played in time still ends shortly after its time cap, and is reported as cut short,
+	 * while the budget of other games is not changed.
+	 */
+	@Test
+	public void test004_timeCap() {
+		playerService.setMctsBudget(new MctsBudget(Integer.MAX_VALUE, 20, 2));
+
+		playerService.getMapService().setState(GameState.REINFORCE);
+
+		long startNanos=System.nanoTime();
+		new MctsStrategy(playerService).reinforce();
+		long elapsedMillis=TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-startNanos);
+
+		assertTrue("decision took "+elapsedMillis+" ms", elapsedMillis<500);
+		assertEquals(GameState.ATTACK, playerService.getMapService().getGameState());
+		assertEquals(1, playerService.getNumCutShortDecisions());
+		assertFalse(gameReplay.isReproducible());
+
+		assertSame(MctsBudget.DEFAULT, new GameReplay("luca.map", LIST_PLAYER_STRATEGY, 11, 40).getPlayerService().getMctsBudget());
+	}
+
+	/**
+	 * Testing that a game with search players depends only on its seed when no decision reaches its time cap.
+	 * The test passes if the same game played twice ends with the same result and both games
+	 * report that they can be played again.
+	 */
+	@Test
+	public void test005_sameSeedSameGame() {
+		GameReplay firstGame=createGame("luca.map", LIST_PLAYER_STRATEGY, 11);
+		GameReplay secondGame=createGame("luca.map", LIST_PLAYER_STRATEGY, 11);
+
+		assertEquals(firstGame.runToEnd(), secondGame.runToEnd());
+		assertTrue(firstGame.isReproducible());
+		assertTrue(secondGame.isReproducible());
+	}
+
+	/**
+	 * Testing the snapshot of a game. The test passes if a copy can be changed
+	 * without changing the snapshot it was copied from.
+	 */
+	@Test
+	public void test006_snapshotCopy() {
+		GameSnapshot snapshot=GameSnapshot.of(playerService.getMapService(), playerService);
+		GameSnapshot copy=snapshot.copy();
+
+		copy.addSoldiers(0, 5);
+		copy.setOwner(0, GameSnapshot.NO_PLAYER);
+
+		assertEquals(snapshot.getSoldiers(0)+5, copy.getSoldiers(0));
+		assertNotEquals(GameSnapshot.NO_PLAYER, snapshot.getOwner(0));
+		assertEquals(snapshot.getNumCountries(), playerService.getMapService().getCountries().size());
+	}
+}
@@ -3,14 +3,29 @@ package com6441.team7.risc.api.model;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Observable;
+import java.util.Observer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import com6441.team7.risc.controller.*;
 import org.junit.Before;
 import org.junit.Test;
 
 import com6441.team7.risc.api.wrapperview.PlayerAttackWrapper;
+import com6441.team7.risc.api.wrapperview.EventHandlers;
+import com6441.team7.risc.api.wrapperview.EventSubscriber;
+import com6441.team7.risc.api.wrapperview.PlayerDominationWrapper;
+import com6441.team7.risc.api.wrapperview.ReinforcedArmyWrapper;
+import com6441.team7.risc.view.AsyncObserver;
+import com6441.team7.risc.view.DispatchPolicy;
+import com6441.team7.risc.view.DominationView;
+import com6441.team7.risc.view.PhaseView;
 import com6441.team7.risc.view.PhaseViewTest;
+import com6441.team7.risc.view.RenderingView;
 
 /**
  * Tests for PlayerService class.
@@ -141,6 +156,260 @@ public class PlayerServiceTest {
 
 	}
 
+	/**
+	 * Testing evaluateWorldDomination method Evaluation: only players whose numbers
+	 * changed since the last evaluation should be sent, with the same numbers as a
+	 * full count over their countries.
+	 */
+	@Test
+	public void test004_evaluateWorldDomination() {
+
+		// context
+		List<PlayerDominationWrapper> published = new ArrayList<>();
+		playerService.addObserver((o, arg) -> {
+			if (arg instanceof ArrayList) {
+				for (Object wrapper : (ArrayList<?>) arg) {
+					published.add((PlayerDominationWrapper) wrapper);
+				}
+			}
+		});
+
+		playerService.evaluateWorldDomination();
+		published.clear();
+
+		// Method call without any change
+		playerService.evaluateWorldDomination();
+		assertTrue(published.isEmpty());
+
+		// Method call after reinforcing one country
+		Player keshav = playerService.getPlayerByName("keshav");
+		keshav.getCountryPlayerList().get(0).addSoldiers(3);
+		playerService.evaluateWorldDomination();
+
+		assertEquals(1, published.size());
+		assertTrue(published.get(0).getPlayerDominationMessage().startsWith("keshav controls"));
+
+		// Method call after a country changes owner
+		published.clear();
+		Player binsar = playerService.getPlayerByName("binsar");
+		binsar.getCountryPlayerList().get(0).setPlayer(keshav);
+		playerService.evaluateWorldDomination();
+
+		assertEquals(2, published.size());
+
+		// Evaluation
+		DominationStatistics dominationStatistics = mapService.getDominationStatistics();
+		assertEquals(playerService.calculateTotalPlayerArmies(keshav)
+				+ binsar.getCountryPlayerList().get(0).getSoldiers(), dominationStatistics.getNumArmies("keshav"));
+		assertEquals(keshav.getCountryPlayerList().size() + 1, dominationStatistics.getNumCountries("keshav"));
+		assertEquals(binsar.getCountryPlayerList().size() - 1, dominationStatistics.getNumCountries("binsar"));
+	}
+
+	/**
+	 * Testing headless mode Evaluation: messages should only be built when they
+	 * are read, and domination numbers changed while headless should be sent once
+	 * headless mode is turned off.
+	 */
+	@Test
+	public void test005_headlessMessages() {
+
+		// context
+		List<Object> received = new ArrayList<>();
+		playerService.addObserver((o, arg) -> received.add(arg));
+		playerService.evaluateWorldDomination();
+		received.clear();
+
+		// Method call with observers attached
+		assertTrue(playerService.isMessageObserved());
+		playerService.notifyPlayerServiceObservers(() -> "observed message");
+		assertTrue(received.contains("observed message"));
+
+		// Method call in headless mode
+		received.clear();
+		playerService.setBoolHeadless(true);
+		assertFalse(playerService.isMessageObserved());
+		playerService.notifyPlayerServiceObservers(() -> {
+			fail("message built in headless mode");
+			return "headless message";
+		});
+		Player keshav = playerService.getPlayerByName("keshav");
+		keshav.getCountryPlayerList().get(0).addSoldiers(3);
+		playerService.evaluateWorldDomination();
+		assertTrue(received.isEmpty());
+
+		// Evaluation
+		playerService.setBoolHeadless(false);
+		playerService.evaluateWorldDomination();
+		assertEquals(1, received.size());
+		assertEquals(1, ((ArrayList<?>) received.get(0)).size());
+	}
+
+	/**
+	 * Testing asynchronous observers Evaluation: a slow view should not hold the
+	 * game thread, a full queue should drop or coalesce events, and the events
+	 * kept should reach the view in order.
+	 */
+	@Test
+	public void test006_asyncObserver() throws InterruptedException {
+
+		// context
+		List<Object> received = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch release = new CountDownLatch(1);
+		Observer slowView = (o, arg) -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			received.add(arg);
+		};
+
+		// Method call with a drop policy
+		AsyncObserver dropObserver = new AsyncObserver(slowView, 2, DispatchPolicy.DROP);
+		playerService.addObserver(dropObserver);
+		long start = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			playerService.notifyPlayerServiceObservers("message " + i);
+		}
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+		release.countDown();
+
+		// Evaluation
+		assertTrue(dropObserver.flush(5000));
+		assertEquals("message 0", received.get(0));
+		assertEquals(received.size() + dropObserver.getNumDroppedEvents(), 10);
+		assertTrue(dropObserver.close(5000));
+		playerService.deleteObserver(dropObserver);
+
+		// Method call with a coalesce policy, a message replaces the older queued one
+		received.clear();
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch resume = new CountDownLatch(1);
+		AsyncObserver coalesceObserver = new AsyncObserver((o, arg) -> {
+			started.countDown();
+			try {
+				resume.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			received.add(arg);
+		}, 1, DispatchPolicy.COALESCE);
+		playerService.addObserver(coalesceObserver);
+		playerService.notifyPlayerServiceObservers("first");
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		playerService.notifyPlayerServiceObservers("second");
+		playerService.notifyPlayerServiceObservers("third");
+		resume.countDown();
+
+		// Evaluation
+		assertTrue(coalesceObserver.close(5000));
+		assertEquals(2, received.size());
+		assertEquals("first", received.get(0));
+		assertEquals("third", received.get(1));
+		assertEquals(1, coalesceObserver.getNumDroppedEvents());
+	}
+
+	/**
+	 * Testing typed events Evaluation: events should reach the handler of their
+	 * class, and events no view subscribes to should not be built.
+	 */
+	@Test
+	public void test007_typedEvents() {
+
+		// context, only the typed view observes the players
+		playerService.deleteObservers();
+		List<Object> received = new ArrayList<>();
+		EventHandlers eventHandlers = new EventHandlers()
+				.on(String.class, received::add)
+				.on(List.class, list -> received.add(list.size()));
+		EventSubscriber stringView = new EventSubscriber() {
+			@Override
+			public boolean isSubscribed(Observable observable, Class<?> eventClass) {
+				return eventHandlers.isSubscribed(eventClass);
+			}
+
+			@Override
+			public void update(Observable observable, Object arg) {
+				eventHandlers.dispatch(arg);
+			}
+		};
+		playerService.addObserver(stringView);
+
+		// Method call
+		playerService.notifyPlayerServiceObservers(String.class, () -> "typed message");
+		playerService.notifyPlayerServiceObservers(ReinforcedArmyWrapper.class, () -> {
+			fail("event built without subscriber");
+			return null;
+		});
+		playerService.notifyPlayerServiceObservers(new ArrayList<>(Arrays.asList(1, 2, 3)));
+		playerService.notifyPlayerServiceObservers(Integer.valueOf(7));
+
+		// Evaluation
+		assertEquals(Arrays.asList("typed message", 3), received);
+		assertTrue(new PhaseView().isSubscribed(playerService, PlayerAttackWrapper.class));
+		assertFalse(new PhaseView().isSubscribed(playerService, ArrayList.class));
+		assertTrue(new DominationView().isSubscribed(playerService, ArrayList.class));
+		assertFalse(new DominationView().isSubscribed(mapService, ArrayList.class));
+
+		// Evaluation after the view is removed
+		playerService.deleteObserver(stringView);
+		assertFalse(playerService.isEventObserved(String.class));
+	}
+
+	/**
+	 * Testing asynchronous observers Evaluation: an event the game goes on changing
+	 * should be displayed as it was when sent, and should never be read by the view
+	 * thread.
+	 */
+	@Test
+	public void test008_asyncObserverMutableEvents() throws InterruptedException {
+
+		// context, a rendering view and a plain view observe the players
+		playerService.deleteObservers();
+		Player keshav = playerService.getPlayerByName("keshav");
+		keshav.setArmies(5);
+		Thread gameThread = Thread.currentThread();
+		List<String> printed = Collections.synchronizedList(new ArrayList<>());
+		RenderingView renderingView = new RenderingView() {
+			@Override
+			public String render(Observable observable, Object arg) {
+				assertSame(gameThread, Thread.currentThread());
+				return arg instanceof Player ? "armies " + ((Player) arg).getArmies() : "";
+			}
+
+			@Override
+			public void print(String text) {
+				printed.add(text);
+			}
+
+			@Override
+			public void update(Observable observable, Object arg) {
+				fail("rendered events are printed, not passed to the view");
+			}
+		};
+		List<Thread> playerThreads = Collections.synchronizedList(new ArrayList<>());
+		List<Thread> stringThreads = Collections.synchronizedList(new ArrayList<>());
+		Observer plainView = (o, arg) -> (arg instanceof Player ? playerThreads : stringThreads).add(Thread.currentThread());
+		AsyncObserver renderingObserver = new AsyncObserver(renderingView, 4, DispatchPolicy.BLOCK);
+		AsyncObserver plainObserver = new AsyncObserver(plainView, 4, DispatchPolicy.BLOCK);
+		playerService.addObserver(renderingObserver);
+		playerService.addObserver(plainObserver);
+
+		// Method call, the player changes right after it is sent
+		playerService.notifyPlayerServiceObservers("before");
+		playerService.notifyPlayerServiceObservers(keshav);
+		keshav.setArmies(9);
+		playerService.notifyPlayerServiceObservers("after");
+
+		// Evaluation
+		assertTrue(renderingObserver.close(5000));
+		assertTrue(plainObserver.close(5000));
+		assertEquals(Collections.singletonList("armies 5"), printed);
+		assertEquals(Collections.singletonList(gameThread), playerThreads);
+		assertEquals(2, stringThreads.size());
+		assertNotSame(gameThread, stringThreads.get(0));
+	}
+
 	/**
 	 * Method to load a map. Method first exits from editMapPhase by sending command
 	 * exitMapEdit. Then command to loadMap is sent.
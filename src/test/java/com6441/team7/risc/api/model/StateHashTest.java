@@ -0,0 +1,152 @@
+package com6441.team7.risc.api.model;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import com6441.team7.risc.controller.GameReplay;
+
+/**
+ *
+ * This is the test class for the Zobrist hash of a map and the detection of stalled games.
+ *
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class StateHashTest {
+
+	/**
+	 * game between two benevolent players set up on ameroki.map, paused before the first turn
+	 */
+	GameReplay gameReplay;
+
+	/**
+	 * mapService object stores map Information and game state
+	 */
+	MapService mapService;
+
+	/**
+	 * a country of the map
+	 */
+	Country country;
+
+	/**
+	 * Before every test, a game between two benevolent players is set up
+	 */
+	@Before
+	public void setUp() {
+		gameReplay=new GameReplay("ameroki.map", Arrays.asList("benevolent", "benevolent"), 3, 100);
+		gameReplay.start();
+		mapService=gameReplay.getMapService();
+		country=mapService.getCountries().iterator().next();
+	}
+
+	/**
+	 * Testing the hash kept up to date while a game is played. The test passes if it is the hash
+	 * built again from the whole map.
+	 */
+	@Test
+	public void test001_incrementalHash() {
+		StateHash stateHash=mapService.getStateHash();
+		long initialHash=stateHash.getHash();
+
+		gameReplay.fastForward(4);
+		long hash=stateHash.getHash();
+		long ownerHash=stateHash.getOwnerHash();
+		assertNotEquals(initialHash, hash);
+
+		stateHash.invalidate();
+		assertEquals(hash, stateHash.getHash());
+		assertEquals(ownerHash, stateHash.getOwnerHash());
+	}
+
+	/**
+	 * Testing that the hash depends only on the state. The test passes if changing the soldiers and the owner
+	 * of a country changes the hash, and changing them back gives the hash back.
+	 */
+	@Test
+	public void test002_sameStateSameHash() {
+		StateHash stateHash=mapService.getStateHash();
+		long hash=stateHash.getHash();
+		long ownerHash=stateHash.getOwnerHash();
+
+		int soldiers=country.getSoldiers();
+		country.addSoldiers(5);
+		assertNotEquals(hash, stateHash.getHash());
+		assertEquals(ownerHash, stateHash.getOwnerHash());
+		country.setSoldiers(soldiers);
+		assertEquals(hash, stateHash.getHash());
+
+		Player owner=country.getPlayer();
+		Player otherPlayer=gameReplay.getPlayerService().getPlayerList().stream()
+				.filter(player -> player!=owner).findFirst().get();
+		country.setPlayer(otherPlayer);
+		assertNotEquals(ownerHash, stateHash.getOwnerHash());
+		country.setPlayer(owner);
+		assertEquals(hash, stateHash.getHash());
+		assertEquals(ownerHash, stateHash.getOwnerHash());
+	}
+
+	/**
+	 * Testing the rule on repeated positions. The test passes if the game stalls when a position is seen
+	 * the given number of times with the same player to play, and not before.
+	 */
+	@Test
+	public void test003_repeatedPosition() {
+		StallDetector stallDetector=new StallDetector(3, 0);
+		StateHash stateHash=mapService.getStateHash();
+
+		assertFalse(stallDetector.isStalled(stateHash, 0, 1));
+		assertFalse(stallDetector.isStalled(stateHash, 1, 1));
+		assertFalse(stallDetector.isStalled(stateHash, 0, 2));
+		assertTrue(stallDetector.isStalled(stateHash, 0, 3));
+
+		stallDetector.reset();
+		assertFalse(stallDetector.isStalled(stateHash, 0, 4));
+	}
+
+	/**
+	 * Testing the rule on turns without progress. The test passes if the game stalls when the countries
+	 * have been shared out the same way for the given number of turns, armies moving or not,
+	 * and a new sharing out of the countries starts the count again.
+	 */
+	@Test
+	public void test004_noProgress() {
+		StallDetector stallDetector=new StallDetector(0, 3);
+		StateHash stateHash=mapService.getStateHash();
+
+		assertFalse(stallDetector.isStalled(stateHash, 0, 1));
+		country.addSoldiers(1);
+		assertFalse(stallDetector.isStalled(stateHash, 0, 2));
+		country.addSoldiers(1);
+		assertFalse(stallDetector.isStalled(stateHash, 0, 3));
+
+		Player owner=country.getPlayer();
+		Player otherPlayer=gameReplay.getPlayerService().getPlayerList().stream()
+				.filter(player -> player!=owner).findFirst().get();
+		country.setPlayer(otherPlayer);
+		assertFalse(stallDetector.isStalled(stateHash, 0, 4));
+
+		//taking the country back is no progress
+		country.setPlayer(owner);
+		assertFalse(stallDetector.isStalled(stateHash, 0, 5));
+		assertFalse(stallDetector.isStalled(stateHash, 0, 6));
+		assertTrue(stallDetector.isStalled(stateHash, 0, 7));
+	}
+
+	/**
+	 * Testing a stalled automated game. The test passes if a game between two benevolent players
+	 * ends as a draw long before its turn limit.
+	 */
+	@Test
+	public void test005_stalledGameEndsEarly() {
+		gameReplay.setStallDetector(new StallDetector(3, 10));
+
+		assertEquals("DRAW", gameReplay.runToEnd());
+		assertTrue(gameReplay.getTurn()<100);
+	}
+}
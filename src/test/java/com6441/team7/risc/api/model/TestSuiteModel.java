@@ -18,7 +18,12 @@ import org.junit.runners.Suite.SuiteClasses;
 				AggressiveStrategyTest.class,
 				BenevolentStrategyTest.class,
 				RandomStrategyTest.class,
-				CheaterStrategyTest.class
+				CheaterStrategyTest.class,
+				MctsStrategyTest.class,
+				GameSnapshotTest.class,
+				StateHashTest.class,
+				BattleOutcomeTableTest.class,
+				GameRandomTest.class
 				})
 public class TestSuiteModel {
 
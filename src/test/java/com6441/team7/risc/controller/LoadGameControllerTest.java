@@ -1,15 +1,21 @@
 package com6441.team7.risc.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com6441.team7.risc.api.model.*;
+import com6441.team7.risc.utils.AutoSaver;
+import com6441.team7.risc.utils.SaveGameBinaryFormat;
 import com6441.team7.risc.utils.SaveGameUtils;
+import com6441.team7.risc.utils.journal.GameJournal;
 import com6441.team7.risc.view.GameView;
 import com6441.team7.risc.view.PhaseView;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 import static org.junit.Assert.*;
@@ -135,12 +141,238 @@ public class LoadGameControllerTest {
     }
 
 
+    /**
+     * save the game status in binary files, compressed and not compressed
+     * @throws Exception if throws Exception in saving or loading the files
+     * when loading each file, the number of countries in the mapService expects to be 4
+     * the number of players in the playerService expects to be 2
+     * the command for the game expects to be placeAllplaceArmy
+     * and the countries of a player expect to be owned by the same player object
+     */
+    @Test
+    public void saveBinaryGame() throws Exception {
+        for (String fileName : Arrays.asList("test2.rsav", "test2.rsav.gz")) {
+            setUp();
+            mockStateInStartUpPhase(fileName);
+            try {
+                loadGameController.readCommand("loadgame " + fileName);
+            } finally {
+                new File(fileName).delete();
+            }
+
+            assertEquals(GameState.START_UP, mapService.getMapStatusEntity().getGameState());
+            assertEquals(RiscCommand.PLACE_ALL.getName() + RiscCommand.PLACE_ARMY.getName(), playerService.getCommand());
+            assertEquals(4, mapService.getCountries().size());
+            assertEquals(2, mapService.getContinents().size());
+            assertEquals(2, playerService.getPlayerList().size());
+
+            Player jenny = playerService.getPlayerList().get(0);
+            assertEquals("jenny", jenny.getName());
+            assertEquals(2, jenny.getCountryPlayerList().size());
+            assertSame(jenny, mapService.getCountryByName("b1").get().getPlayer());
+            assertEquals(20, mapService.getCountryByName("b1").get().getSoldiers().intValue());
+        }
+    }
+
+    /**
+     * save a binary game after a player conquered a country and before the player drew a card,
+     * then read a save written in the first binary layout, which has no pending card draw
+     * @throws Exception if throws Exception in saving or loading the files
+     * the pending card draw expects to be loaded for the player who conquered only,
+     * and the old save expects to be loaded without any pending card draw
+     */
+    @Test
+    public void saveBinaryGameWithPendingCardDraw() throws Exception {
+        Path folder = Files.createTempDirectory("risc-binary");
+        try {
+            String fileName = folder.resolve("test2.rsav").toString();
+            mockStateInStartUpPhase(fileName);
+            playerStatusEntity.getListPlayers().get(0).setBoolDrawCard(true);
+            save(fileName);
+
+            loadGameController.readCommand("loadgame " + fileName);
+            assertTrue(playerService.getPlayerList().get(0).isBoolDrawCard());
+            assertFalse(playerService.getPlayerList().get(1).isBoolDrawCard());
+
+            File oldSaveFile = folder.resolve("old.rsav").toFile();
+            try (DataOutputStream output = new DataOutputStream(Files.newOutputStream(oldSaveFile.toPath()))) {
+                output.writeInt(SaveGameBinaryFormat.MAGIC);
+                output.writeShort(1);
+                output.writeInt(1);
+                output.writeBoolean(true);
+                output.writeUTF("jenny");
+                output.writeInt(5);
+                output.writeInt(0);
+                output.writeBoolean(false);
+                output.writeBoolean(true);
+                output.writeBoolean(false);
+                output.writeInt(-1);
+                output.writeByte(2);
+                output.writeInt(1);
+                output.writeInt(0);
+                output.writeInt(0);
+                output.writeInt(0);
+                output.writeBoolean(false);
+                output.writeByte(0);
+            }
+
+            Player oldPlayer = SaveGameUtils.getFromMap(SaveGameUtils.readGame(oldSaveFile), PlayerStatusEntity.class)
+                    .getCurrentPlayer();
+            assertEquals("jenny", oldPlayer.getName());
+            assertEquals(5, oldPlayer.getArmies());
+            assertTrue(oldPlayer.getBoolAttackMoveRequired());
+            assertFalse(oldPlayer.isBoolDrawCard());
+        } finally {
+            FileUtils.deleteQuietly(folder.toFile());
+        }
+    }
+
+    /**
+     * save the game automatically in the background when every player has played a turn
+     * @throws Exception if throws Exception in saving or loading the file
+     * the game expects to keep running after the save
+     * and loading the saved file expects to give 4 countries and 2 players
+     */
+    @Test
+    public void autoSaveGame() throws Exception {
+        mockStateInStartUpPhase();
+        Path folder = Files.createTempDirectory("autosave");
+        Path saveGameFile = folder.resolve("autosave.rsav.gz");
+
+        try {
+            AutoSaver autoSaver = new AutoSaver(saveGameFile, 1);
+            playerService.setAutoSaver(autoSaver);
+
+            playerService.switchNextPlayer();
+            playerService.switchNextPlayer();
+            assertEquals(0, playerService.getCurrentPlayerIndex());
+
+            assertTrue(autoSaver.close(10000));
+            assertEquals(1, autoSaver.getNumSaves());
+
+            setUp();
+            loadGameController.readCommand("loadgame " + saveGameFile);
+            assertEquals(4, mapService.getCountries().size());
+            assertEquals(2, playerService.getPlayerList().size());
+        } finally {
+            Files.deleteIfExists(saveGameFile);
+            Files.deleteIfExists(folder);
+        }
+    }
+
+    /**
+     * recover a game from its last snapshot and the journal written after it
+     * @throws Exception if throws Exception in saving or loading the game
+     * the changes made after the snapshot expect to be replayed:
+     * 5 more soldiers in b1 and a1 conquered by jake with 3 soldiers
+     */
+    @Test
+    public void recoverGameFromJournal() throws Exception {
+        mockStateInStartUpPhase();
+        Path folder = Files.createTempDirectory("journal");
+        Path journalFolder = folder.resolve("journal");
+        Path saveGameFile = folder.resolve("autosave.rsav");
+
+        try {
+            GameJournal gameJournal = new GameJournal(journalFolder, 1 << 20, 0);
+            mapService.setGameJournal(gameJournal);
+            AutoSaver autoSaver = new AutoSaver(saveGameFile, 1);
+            playerService.setAutoSaver(autoSaver);
+
+            playerService.switchNextPlayer();
+            playerService.switchNextPlayer();
+
+            Country b1 = mapService.getCountryByName("b1").get();
+            Country a1 = mapService.getCountryByName("a1").get();
+            b1.addSoldiers(5);
+            a1.setPlayer(playerService.getPlayerList().get(1));
+            a1.setSoldiers(3);
+            mapService.setState(GameState.FORTIFY);
+
+            gameJournal.close();
+            assertTrue(autoSaver.close(10000));
+
+            setUp();
+            loadGameController.recoverGame(saveGameFile.toFile(), journalFolder);
+
+            assertEquals(25, mapService.getCountryByName("b1").get().getSoldiers().intValue());
+            assertEquals("jake", mapService.getCountryByName("a1").get().getPlayer().getName());
+            assertEquals(3, mapService.getCountryByName("a1").get().getSoldiers().intValue());
+            assertEquals(GameState.FORTIFY, mapService.getGameState());
+            assertEquals(3, playerService.getPlayerByName("jake").getCountryPlayerList().size());
+            assertEquals(1, playerService.getPlayerByName("jenny").getCountryPlayerList().size());
+        } finally {
+            FileUtils.deleteQuietly(folder.toFile());
+        }
+    }
+
+    /**
+     * recover a game with the recovergame command, after cards were traded in and a player was eliminated
+     * @throws Exception if throws Exception in saving or loading the game
+     * the changes made after the snapshot expect to be replayed:
+     * jake has traded his three cards in, jenny is eliminated, and jake plays turn 2
+     */
+    @Test
+    public void recoverGameAfterCardExchange() throws Exception {
+        mockStateInStartUpPhase();
+        Path folder = Files.createTempDirectory("journal");
+        Path journalFolder = folder.resolve("journal");
+        Path saveGameFile = folder.resolve("autosave.rsav");
+
+        try {
+            GameJournal gameJournal = new GameJournal(journalFolder, 1 << 20, 0);
+            mapService.setGameJournal(gameJournal);
+            AutoSaver autoSaver = new AutoSaver(saveGameFile, 1);
+            playerService.setAutoSaver(autoSaver);
+
+            Player jake = playerService.getPlayerByName("jake");
+            List<Card> cards = Arrays.asList(Card.INFANTRY, Card.INFANTRY, Card.INFANTRY);
+            cards.forEach(jake::addCard);
+
+            playerService.switchNextPlayer();
+            playerService.switchNextPlayer();
+            playerService.switchNextPlayer();
+
+            playerService.removeCards(jake, new ArrayList<>(cards));
+            mapService.getCountryByName("a1").get().setPlayer(jake);
+            mapService.getCountryByName("b1").get().setPlayer(jake);
+            playerService.removePlayer("jenny");
+
+            gameJournal.close();
+            assertTrue(autoSaver.close(10000));
+
+            setUp();
+            loadGameController.readCommand("recovergame " + saveGameFile + " " + journalFolder);
+
+            assertEquals(1, playerService.getPlayerList().size());
+            assertNull(playerService.getPlayerByName("jenny"));
+            Player recoveredJake = playerService.getPlayerByName("jake");
+            assertTrue(recoveredJake.getCardList().isEmpty());
+            assertEquals(1, recoveredJake.getTradeInTimes());
+            assertEquals(4, recoveredJake.getCountryPlayerList().size());
+            assertSame(recoveredJake, playerService.getCurrentPlayer());
+            assertEquals(2, playerService.getTurnNum());
+        } finally {
+            FileUtils.deleteQuietly(folder.toFile());
+        }
+    }
+
     /**
      * mock the data in mapService, PlayerService and state in StartUpController
      * and save the data in the test2.json
      * @throws IOException if there is failure in saving as a json file
      */
     private void mockStateInStartUpPhase() throws IOException {
+        mockStateInStartUpPhase("test2.json");
+    }
+
+    /**
+     * mock the data in mapService, PlayerService and state in StartUpController
+     * and save the data in a file
+     * @param fileName the file to save to, its extension gives the format
+     * @throws IOException if there is failure in saving the file
+     */
+    private void mockStateInStartUpPhase(String fileName) throws IOException {
         mapLoaderController = new MapLoaderController(mapService);
         mapLoaderController.readFile("conquest_test.map");
 
@@ -184,21 +416,21 @@ public class LoadGameControllerTest {
         startupStateEntity.setBoolAllCountriesPlaced(false);
 
         startupGameController.setStatus(startupStateEntity);
-        save();
+        save(fileName);
     }
 
     /**
-     * save the game state to the test2.json
+     * save the game state to a file
+     * @param fileName the file to save to
      */
-    private void save() {
+    private void save(String fileName) {
         Map<String, Object> entities = new HashMap<>();
         entities.put(MapStatusEntity.class.getSimpleName(), mapStatusEntity);
         entities.put(PlayerStatusEntity.class.getSimpleName(), playerStatusEntity);
         entities.put(StartupStateEntity.class.getSimpleName(), startupStateEntity);
 
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.writeValue(new File("test2.json"), entities);
+            SaveGameUtils.writeGame(new File(fileName), entities);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -3,11 +3,16 @@ package com6441.team7.risc.controller;
 
 import com6441.team7.risc.api.model.Continent;
 import com6441.team7.risc.api.model.Country;
+import com6441.team7.risc.api.model.MapCategory;
 import com6441.team7.risc.api.model.MapService;
+import com6441.team7.risc.api.model.MapTemplate;
+import com6441.team7.risc.utils.parser.MapIndexFile;
+import com6441.team7.risc.utils.parser.MapTemplateCache;
 import com6441.team7.risc.view.GameView;
 import com6441.team7.risc.view.PhaseView;
 
 
+import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.FixMethodOrder;
@@ -19,6 +24,10 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
@@ -555,6 +564,124 @@ public class MapLoaderControllerTest {
 		assertFalse(mapLoaderController.getMapService().isMapValid());
 	}
 	
+	/**
+	 * Loads the same map file in two games, then changes the file and loads it in a third game.
+	 * The second game is copied from the template of the first one, the third one parses the file again.
+	 * Expected: the second load is a hit of the template cache, both games have the same countries and neighbors
+	 * but their own country objects, and the changed file is not served from the old template.
+	 * @throws IOException if the temporary map file cannot be written
+	 */
+	@Test public void test016_readFileTwiceUsesOwnCountries() throws IOException {
+		
+		MapTemplateCache mapTemplateCache = MapLoaderController.getMapTemplateCache();
+		Path folder = Files.createTempDirectory("mapcache");
+		try {
+			//Context: load a copy of the map in two games, and place soldiers in the first one
+			String path = folder.resolve("luca.map").toString();
+			Files.copy(Paths.get("luca.map"), Paths.get(path));
+			long fingerprint = MapTemplateCache.fingerprint(path).getAsLong();
+			assertFalse(mapTemplateCache.contains(path, fingerprint));
+			
+			MapService firstMapService = new MapService();
+			new MapLoaderController(firstMapService).readFile(path);
+			firstMapService.getCountries().forEach(country -> country.setSoldiers(3));
+			assertTrue(mapTemplateCache.contains(path, fingerprint));
+			long numHits = mapTemplateCache.getNumHits();
+			
+			MapService secondMapService = new MapService();
+			new MapLoaderController(secondMapService).readFile(path);
+			
+			//Evaluation: the second game is served from the template
+			assertEquals(numHits + 1, mapTemplateCache.getNumHits());
+			assertTrue(secondMapService.isMapValid());
+			assertEquals(firstMapService.getCountries().size(), secondMapService.getCountries().size());
+			assertEquals(firstMapService.getContinentCountriesMap(), secondMapService.getContinentCountriesMap());
+			assertEquals(firstMapService.getAdjacencyCountriesMap(), secondMapService.getAdjacencyCountriesMap());
+			
+			for (Country country : secondMapService.getCountries()) {
+				assertEquals(0, country.getSoldiers().intValue());
+				assertFalse(country == firstMapService.getCountryById(country.getId()).get());
+			}
+			
+			//Evaluation: once the file changes, it is parsed again and its new content is kept
+			Files.write(Paths.get(path), "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			long changedFingerprint = MapTemplateCache.fingerprint(path).getAsLong();
+			
+			MapService thirdMapService = new MapService();
+			new MapLoaderController(thirdMapService).readFile(path);
+			
+			assertEquals(numHits + 1, mapTemplateCache.getNumHits());
+			assertTrue(thirdMapService.isMapValid());
+			assertEquals(firstMapService.getCountries().size(), thirdMapService.getCountries().size());
+			assertTrue(mapTemplateCache.contains(path, changedFingerprint));
+			assertFalse(mapTemplateCache.contains(path, fingerprint));
+		} finally {
+			FileUtils.deleteQuietly(folder.toFile());
+		}
+	}
+	
+	/**
+	 * Loads a domination map file whose lines end with a line feed only.
+	 * The file is read line by line, whatever the line endings.
+	 * Expected: the map is loaded and valid.
+	 */
+	@Test public void test017_readFileWithLineFeedEndings() {
+		
+		//Context
+		MapService lineFeedMapService = new MapService();
+		new MapLoaderController(lineFeedMapService).readFile("strangereal.map");
+		
+		//Evaluation
+		assertEquals(5, lineFeedMapService.getCountries().size());
+		assertEquals(2, lineFeedMapService.getContinents().size());
+		assertTrue(lineFeedMapService.isMapValid());
+	}
+	
+	/**
+	 * Writes the compiled index of a map file and reads it back, then changes the map file.
+	 * Expected: the index gives the same countries, continents and neighbors as the text file,
+	 * and is ignored once the map file has another content.
+	 * @throws IOException if the temporary map file cannot be written
+	 */
+	@Test public void test018_mapIndexRoundTripAndStaleIndex() throws IOException {
+		
+		//Context: a copy of the map file in a temporary folder, loaded from text
+		Path folder = Files.createTempDirectory("mapindex");
+		try {
+			String path = folder.resolve("luca.map").toString();
+			Files.copy(Paths.get("luca.map"), Paths.get(path));
+			long fingerprint = MapTemplateCache.fingerprint(path).getAsLong();
+			
+			MapService textMapService = new MapService();
+			new MapLoaderController(textMapService).readFile(path);
+			assertTrue(MapIndexFile.write(path, fingerprint, MapTemplate.of(textMapService, MapCategory.DOMINATION)));
+			
+			//Evaluation: the index gives the same map
+			Optional<MapTemplate> template = MapIndexFile.read(path, fingerprint);
+			assertTrue(template.isPresent());
+			assertEquals(MapCategory.DOMINATION, template.get().getMapCategory());
+			
+			MapService indexMapService = new MapService();
+			template.get().copyInto(indexMapService);
+			assertTrue(indexMapService.isMapValid());
+			assertEquals(textMapService.getCountries().size(), indexMapService.getCountries().size());
+			assertEquals(textMapService.getContinentCountriesMap(), indexMapService.getContinentCountriesMap());
+			assertEquals(textMapService.getAdjacencyCountriesMap(), indexMapService.getAdjacencyCountriesMap());
+			for (Country country : textMapService.getCountries()) {
+				Country indexCountry = indexMapService.getCountryById(country.getId()).get();
+				assertEquals(country.getCountryName(), indexCountry.getCountryName());
+				assertEquals(country.getCoordinateX(), indexCountry.getCoordinateX());
+			}
+			
+			//Evaluation: the index is stale once the map file changes
+			Files.write(Paths.get(path), "\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			long changedFingerprint = MapTemplateCache.fingerprint(path).getAsLong();
+			assertFalse(MapIndexFile.read(path, changedFingerprint).isPresent());
+		} finally {
+			FileUtils.deleteQuietly(folder.toFile());
+		}
+	}
+	
 	
 	/**
 	 * This method is executed by {@link #test002_addContinent()}
@@ -2,19 +2,40 @@ package com6441.team7.risc.controller;
 
 import static org.junit.Assert.*;
 
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 import org.junit.Before;
 import org.junit.FixMethodOrder;
 import org.junit.Test;
 import org.junit.runners.MethodSorters;
 
+import com6441.team7.risc.api.model.AggressiveStrategy;
+import com6441.team7.risc.api.model.GameRandom;
 import com6441.team7.risc.api.model.GameState;
 import com6441.team7.risc.api.model.MapService;
 import com6441.team7.risc.api.model.Player;
 import com6441.team7.risc.api.model.PlayerService;
+import com6441.team7.risc.api.model.RandomStrategy;
 import com6441.team7.risc.api.wrapperview.TournamentWrapper;
+import com6441.team7.risc.utils.jfr.GameFlightRecorder;
+import com6441.team7.risc.utils.metrics.GameMetrics;
+import com6441.team7.risc.utils.metrics.LatencyHistogram;
+import com6441.team7.risc.utils.parser.MapParserAdapter;
+import com6441.team7.risc.view.HeadlessView;
 import com6441.team7.risc.view.PhaseViewTest;
 
 /**
@@ -220,6 +241,268 @@ public class TournamentControllerTest {
 	}
 	
 	
+	/**
+	 * Test if a long tournament game runs to its turn limit without growing the stack
+	 * Expected Result: the single all-benevolent game should end in a draw
+	 */
+	@Test public void test006_longTournamentDoesNotOverflowStack() {
+		
+		//Context
+		//Adding 3 benevolent players, 1 game, 1 map, 3000 turns
+		phaseViewTest.receiveCommand("testtournament -M luca.map -P benevolent benevolent benevolent"
+				+" -G 1 -D 3000");
+		
+		TournamentWrapper tournamentWrapper=phaseViewTest.getTournamentWrapperForTest();
+		
+    	String[][] arrResults=tournamentWrapper.getTournamentResult();
+    	
+    	//Evaluation: Game should reach the turn limit
+    	assertEquals("DRAW",arrResults[0][0]);
+		
+	}
+	
+	
+	/**
+	 * Tests tournament games played in parallel on several workers
+	 * Expected Result: Every game of every map has a result, and all-benevolent games end in draw
+	 */
+	@Test public void test007_parallelTournament() {
+		
+		//Context
+		//Adding 3 benevolent players, 4 games, 2 maps, 50 turns, 4 workers
+		phaseViewTest.receiveCommand("testtournament -M ameroki.map luca.map -P benevolent benevolent benevolent"
+				+" -G 4 -D 50 -W 4");
+		
+		TournamentWrapper tournamentWrapper=phaseViewTest.getTournamentWrapperForTest();
+		
+    	String[][] arrResults=tournamentWrapper.getTournamentResult();
+    	
+    	//Evaluation: results are stored in map order, one per game
+    	assertEquals(2,arrResults.length);
+    	assertEquals("ameroki.map",tournamentWrapper.getMapList().get(0));
+    	assertEquals("luca.map",tournamentWrapper.getMapList().get(1));
+    	
+    	for(int i=0;i<arrResults.length;i++) {
+    		
+    		assertEquals(4,arrResults[i].length);
+    		
+    		for(int j=0;j<arrResults[i].length;j++) {
+    			assertEquals("DRAW",arrResults[i][j]);
+    		} 		
+    	}
+		
+	}
+	
+	/**
+	 * Test to check that a quiet tournament plays the same games as a displayed one with the same seed.
+	 * Headless games build no messages but must use the random generator the same way.
+	 */
+	@Test public void test008_quietSeededTournament() {
+		
+		//Context
+		//Adding aggressive and benevolent players, 2 games, 1 map, 30 turns, seed 42
+		phaseViewTest.receiveCommand("testtournament -M luca.map -P aggressive benevolent"
+				+" -G 2 -D 30 -S 42");
+		
+		String[][] arrDisplayedResults=phaseViewTest.getTournamentWrapperForTest().getTournamentResult();
+		
+		//Same tournament played quietly, in a new game
+		beforeEachTest();
+		phaseViewTest.receiveCommand("testtournament -M luca.map -P aggressive benevolent"
+				+" -G 2 -D 30 -S 42 -Q");
+		
+		String[][] arrQuietResults=phaseViewTest.getTournamentWrapperForTest().getTournamentResult();
+		
+		//Evaluation: both tournaments give the same results
+		assertArrayEquals(arrDisplayedResults,arrQuietResults);
+		assertFalse(playerService.getBoolHeadless());
+		
+	}
+	
+	/**
+	 * Test to replay a tournament game from its seed
+	 * Context: a seeded tournament is played, then its games are replayed from the seeds the tournament drew
+	 * Evaluation: the replayed games end with the results of the tournament,
+	 * also when fast forwarded or played one player turn at a time,
+	 * and games with a human player cannot be replayed
+	 */
+	@Test public void test009_replayTournamentGame() {
+		
+		//Context
+		phaseViewTest.receiveCommand("testtournament -M luca.map -P aggressive benevolent"
+				+" -G 2 -D 30 -S 42");
+		
+		String[][] arrResults=phaseViewTest.getTournamentWrapperForTest().getTournamentResult();
+		
+		GameRandom tournamentRandom=new GameRandom(42);
+		long firstGameSeed=tournamentRandom.nextLong();
+		long secondGameSeed=tournamentRandom.nextLong();
+		List<String> listPlayerStrategy=Arrays.asList("aggressive", "benevolent");
+		
+		//Evaluation: played to the end
+		assertTrue(new GameReplay("luca.map", listPlayerStrategy, firstGameSeed, 30).verify(arrResults[0][0]));
+		
+		//Evaluation: fast forwarded, then played one player turn at a time
+		GameReplay gameReplay=new GameReplay("luca.map", listPlayerStrategy, secondGameSeed, 30);
+		
+		if(gameReplay.fastForward(3)) {
+			assertEquals(3, gameReplay.getTurn());
+			assertEquals("Player aggressive 1", gameReplay.getCurrentPlayerName());
+		}
+		
+		while(gameReplay.step()) {
+			assertNull(gameReplay.getResult());
+		}
+		
+		assertEquals(arrResults[0][1], gameReplay.getResult());
+		
+		//Evaluation: a human player would never end a turn
+		try {
+			new GameReplay("luca.map", Arrays.asList("aggressive", "human"), firstGameSeed, 30);
+			fail("a human player is replayed");
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().contains("human"));
+		}
+		
+	}
+	
+	/**
+	 * Test the engine metrics
+	 * Context: a game is replayed while the metrics are enabled and exported over JMX
+	 * Evaluation: turns, battles including the sampled all-out battles of the aggressive player,
+	 * rounds, dice and the phases of both strategies are measured,
+	 * the metrics can be read as MBeans and in the text dump
+	 */
+	@Test public void test010_engineMetrics() throws Exception {
+		
+		//Context
+		GameMetrics.reset();
+		GameMetrics.setBoolEnabled(true);
+		GameMetrics.registerMBeans();
+		try {
+			new GameReplay("luca.map", Arrays.asList("aggressive", "random"), 7L, 20).runToEnd();
+		}
+		finally {
+			GameMetrics.setBoolEnabled(false);
+		}
+		
+		//Evaluation
+		assertTrue(GameMetrics.TURNS.getCount()>0);
+		assertTrue(GameMetrics.BATTLES.getCount()>0);
+		assertTrue(GameMetrics.SAMPLED_BATTLES.getCount()>0);
+		assertTrue(GameMetrics.BATTLES.getCount()>=GameMetrics.SAMPLED_BATTLES.getCount());
+		assertTrue(GameMetrics.DICE_ROLLS.getCount()>=2*GameMetrics.BATTLE_ROUNDS.getCount());
+		
+		LatencyHistogram reinforce=GameMetrics.getPhaseHistogram(AggressiveStrategy.class, GameMetrics.PHASE_REINFORCE);
+		assertTrue(reinforce.getCount()>0);
+		assertTrue(reinforce.getP50Micros()<=reinforce.getP99Micros());
+		assertTrue(reinforce.getP99Micros()<=reinforce.getMaxMicros());
+		assertTrue(GameMetrics.getPhaseHistogram(RandomStrategy.class, GameMetrics.PHASE_FORTIFY).getCount()>0);
+		
+		MBeanServer mBeanServer=ManagementFactory.getPlatformMBeanServer();
+		assertEquals(GameMetrics.TURNS.getCount(),
+				mBeanServer.getAttribute(GameMetrics.getObjectName(GameMetrics.TURNS), "Count"));
+		assertEquals(reinforce.getCount(),
+				mBeanServer.getAttribute(GameMetrics.getObjectName(reinforce), "Count"));
+		
+		String dump=GameMetrics.dump();
+		assertTrue(dump.contains("phase.attack.AggressiveStrategy count="));
+		assertTrue(dump.contains("battlesPerTurn="));
+		
+	}
+	
+	/**
+	 * Test the flight recorder events
+	 * Context: a game is replayed without recording, then while a flight recording is running
+	 * Evaluation: no event is begun without recording, and the recording holds the turns, phases,
+	 * battles and map loads of the game, and the all-out battles of the aggressive player are marked as sampled
+	 */
+	@Test public void test011_flightRecorderEvents() throws Exception {
+		
+		//Context: no recording
+		assertFalse(GameFlightRecorder.isRecording());
+		assertNull(GameFlightRecorder.beginMapLoad("Domination", "luca.map"));
+		
+		//Context: recording
+		Path recordingFile=Files.createTempFile("risc", ".jfr");
+		Set<String> setEventNames=new HashSet<>();
+		int numSampledBattles=0;
+		try(Recording recording=new Recording()) {
+			for(String eventName: Arrays.asList("Turn", "Phase", "Battle", "MapLoad")) {
+				recording.enable("com6441.team7.risc."+eventName);
+			}
+			recording.start();
+			assertTrue(GameFlightRecorder.isRecording());
+			
+			MapService replayMapService=new MapService();
+			new MapParserAdapter(new AtomicInteger(), new AtomicInteger())
+					.readDominateMapFile("luca.map", new HeadlessView(), replayMapService);
+			new GameReplay("luca.map", Arrays.asList("aggressive", "random"), 7L, 10).runToEnd();
+			
+			recording.stop();
+			recording.dump(recordingFile);
+			
+			for(RecordedEvent recordedEvent: RecordingFile.readAllEvents(recordingFile)) {
+				setEventNames.add(recordedEvent.getEventType().getName());
+				
+				if(recordedEvent.getEventType().getName().equals("com6441.team7.risc.MapLoad")) {
+					assertEquals("Domination", recordedEvent.getString("parser"));
+					assertEquals(replayMapService.getCountries().size(), recordedEvent.getInt("countries"));
+					assertTrue(recordedEvent.getInt("borders")>0);
+				}
+				
+				if(recordedEvent.getEventType().getName().equals("com6441.team7.risc.Battle")
+						&& recordedEvent.getBoolean("sampled")) {
+					numSampledBattles++;
+					assertTrue(recordedEvent.getBoolean("allOut"));
+					assertEquals(0, recordedEvent.getInt("rounds"));
+				}
+			}
+		}
+		finally {
+			Files.deleteIfExists(recordingFile);
+		}
+		
+		//Evaluation
+		assertTrue(setEventNames.contains("com6441.team7.risc.Turn"));
+		assertTrue(setEventNames.contains("com6441.team7.risc.Phase"));
+		assertTrue(setEventNames.contains("com6441.team7.risc.Battle"));
+		assertTrue(setEventNames.contains("com6441.team7.risc.MapLoad"));
+		assertTrue(numSampledBattles>0);
+		assertFalse(GameFlightRecorder.isRecording());
+		
+	}
+	
+	
+	/**
+	 * Test of stalled tournament games
+	 * Context: benevolent players shuffle their armies without ever attacking, in a tournament ending stalled games
+	 * Evaluation: the limits are read, the games end as draws long before the turn limit,
+	 * and games played in parallel end the same way
+	 */
+	@Test public void test012_stalledGamesEndEarly() {
+		
+		//Context
+		phaseViewTest.receiveCommand("testtournament -M ameroki.map -P benevolent benevolent"
+				+" -G 2 -D 500 -S 42 -stall 3 10");
+		
+		String[][] arrResults=phaseViewTest.getTournamentWrapperForTest().getTournamentResult();
+		
+		//Evaluation
+		assertEquals(3, startupGameController.getTournamentController().getNumStallRepetitions());
+		assertEquals(10, startupGameController.getTournamentController().getNumStallTurns());
+		assertArrayEquals(new String[] {"DRAW", "DRAW"}, arrResults[0]);
+		assertTrue(playerService.getTurnNum()<500);
+		
+		//Same tournament played in parallel, in a new game
+		beforeEachTest();
+		phaseViewTest.receiveCommand("testtournament -M ameroki.map -P benevolent benevolent"
+				+" -G 2 -D 500 -S 42 -W 2 -stall 3 10");
+		
+		assertArrayEquals(arrResults, phaseViewTest.getTournamentWrapperForTest().getTournamentResult());
+		
+	}
+	
 	/**
 	 * Method that instantiates all required objects before testing
 	 */